@@ -420,12 +420,24 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
         diagramGraph.enforceRestrictions(associatedTask);
     }
 
+    /**
+     * Kept between calls so the critical path is recalculated incrementally
+     * after each change of the diagram.
+     */
+    private CriticalPathCalculator<Task, Dependency> criticalPathCalculator;
+
+    private List<Task> calculateCriticalPath() {
+        if ( criticalPathCalculator == null ) {
+            criticalPathCalculator =
+                    CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
+        }
+
+        return criticalPathCalculator.recalculateCriticalPath(diagramGraph, Collections.<Task> emptyList());
+    }
+
     @Override
     public void showCriticalPath() {
-        CriticalPathCalculator<Task, Dependency> criticalPathCalculator =
-                CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
-
-        List<Task> criticalPath = criticalPathCalculator.calculateCriticalPath(diagramGraph);
+        List<Task> criticalPath = calculateCriticalPath();
 
         for (Task task : diagramGraph.getTasks()) {
             task.setInCriticalPath(isInCriticalPath(criticalPath, task));
@@ -446,10 +458,7 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
     public List<T> getCriticalPath() {
         List<T> result = new ArrayList<>();
 
-        CriticalPathCalculator<Task, Dependency> criticalPathCalculator =
-                CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
-
-        for (Task each : criticalPathCalculator.calculateCriticalPath(diagramGraph)) {
+        for (Task each : calculateCriticalPath()) {
             result.add(mapper.findAssociatedDomainObject(each));
         }
 
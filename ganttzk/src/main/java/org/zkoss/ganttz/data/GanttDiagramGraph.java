@@ -35,6 +35,7 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.Set;
 
@@ -290,6 +291,8 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
     private final boolean dependenciesConstraintsHavePriority;
 
+    private int structureVersion = 0;
+
     private final ReentranceGuard positionsUpdatingGuard = new ReentranceGuard();
 
     private final PreAndPostNotReentrantActionsWrapper preAndPostActions = new PreAndPostNotReentrantActionsWrapper() {
@@ -376,6 +379,31 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         enforcer.enforceRestrictionsOn(withoutVisibleIncomingDependencies(getTopLevelTasks()));
     }
 
+    /**
+     * Starts a batch of modifications. Until the matching
+     * {@link #commitBatch()} the dependencies are not enforced after each
+     * change of a task position; the modified tasks are recorded instead.
+     * Batches can be nested, only the outermost commit enforces the
+     * dependencies. An explicit {@link #enforceRestrictions(Object)} only does
+     * the recalculations leading to that task, so it is at its right position
+     * before being modified again.
+     * <p>
+     * The batch is confined to the calling thread: the position changes done
+     * by other threads meanwhile are enforced immediately, as usual.
+     */
+    public void beginBatch() {
+        enforcer.beginBatch();
+    }
+
+    /**
+     * Enforces the dependencies from all the tasks modified since
+     * {@link #beginBatch()} in a single pass sorted topologically. The
+     * notifications and the graph change listeners are done once.
+     */
+    public void commitBatch() {
+        enforcer.commitBatch();
+    }
+
     private List<V> withoutVisibleIncomingDependencies(Collection<? extends V> tasks) {
         List<V> result = new ArrayList<>();
         for (V each : tasks) {
@@ -401,6 +429,16 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         return true;
     }
 
+    private void structureModified() {
+        structureVersion++;
+        topologicalSorter.recalculationNeeded();
+    }
+
+    @Override
+    public int getStructureVersion() {
+        return structureVersion;
+    }
+
     public void addTopLevel(V task) {
         topLevelTasks.add(task);
         addTask(task);
@@ -560,7 +598,7 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
             V task = stack.remove(0);
             graph.addVertex(task);
-            topologicalSorter.recalculationNeeded();
+            structureModified();
             adapter.registerDependenciesEnforcerHookOn(task, enforcer);
 
             if ( adapter.isContainer(task) ) {
@@ -685,6 +723,15 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
             notificationsPending.clear();
         }
 
+        void addAll(DeferedNotifier other) {
+            for (Entry<V, NotificationPendingForTask> each : other.notificationsPending.entrySet()) {
+                NotificationPendingForTask pending = retrieveOrCreateFor(each.getKey());
+                pending.setStartDateNofitication(each.getValue().startDateNofitication);
+                pending.setLengthNofitication(each.getValue().lengthNofitication);
+            }
+            other.notificationsPending.clear();
+        }
+
     }
 
     private class NotificationPendingForTask {
@@ -693,12 +740,18 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         private LengthNotification lengthNofitication;
 
         void setStartDateNofitication(StartDateNofitication startDateNofitication) {
+            if ( startDateNofitication == null ) {
+                return;
+            }
 
             this.startDateNofitication = (this.startDateNofitication == null) ? startDateNofitication :
                     this.startDateNofitication.coalesce(startDateNofitication);
         }
 
         void setLengthNofitication(LengthNotification lengthNofitication) {
+            if ( lengthNofitication == null ) {
+                return;
+            }
 
             this.lengthNofitication = (this.lengthNofitication == null) ? lengthNofitication :
                     this.lengthNofitication.coalesce(lengthNofitication);
@@ -767,10 +820,29 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         }
     }
 
+    /**
+     * The tasks modified while a batch is in progress, and the notifications
+     * of the changes done to them.
+     */
+    private class Batch {
+
+        private int depth = 0;
+
+        private final Set<V> modified = new LinkedHashSet<>();
+
+        private final DeferedNotifier notifier = new DeferedNotifier();
+    }
+
     private class DependenciesEnforcer implements IDependenciesEnforcerHookFactory<V> {
 
         private ThreadLocal<DeferedNotifier> deferedNotifier = new ThreadLocal<>();
 
+        /**
+         * The batch in progress in each thread. A long operation can run a
+         * batch while the user interface thread keeps modifying tasks.
+         */
+        private ThreadLocal<Batch> batch = new ThreadLocal<>();
+
         /**
          * It creates a {@link IDependenciesEnforcerHook} that starts the
          * algorithm <em>onEntrance</em> and in subsequent tasks position
@@ -925,15 +997,114 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         }
 
         void enforceRestrictionsOn(Collection<? extends V> tasks) {
-            List<Recalculation> allRecalculations = new ArrayList<>();
-            for (V each : tasks) {
-                allRecalculations.addAll(getRecalculationsNeededFrom(each));
+            Batch current = batch.get();
+            if ( current != null ) {
+                current.modified.addAll(tasks);
+                return;
             }
-            enforceRestrictionsOn(allRecalculations, tasks);
+            enforceRestrictionsOn(getRecalculationsNeededFrom(tasks), tasks);
         }
 
         void enforceRestrictionsOn(V task) {
-            enforceRestrictionsOn(getRecalculationsNeededFrom(task), Collections.singleton(task));
+            enforceRestrictionsOn(Collections.singleton(task));
+        }
+
+        /**
+         * Inside a batch only the recalculations leading to the task are done,
+         * so it is placed according to the modifications recorded so far. The
+         * modifications are kept, along with the tasks moved now, so the rest
+         * of their successors are still recalculated once on commit.
+         */
+        void enforceRestrictionsNow(final V task) {
+            final Batch current = batch.get();
+            if ( current == null ) {
+                taskPositionModified(task);
+                return;
+            }
+            final Set<V> pending = new LinkedHashSet<>(current.modified);
+            pending.add(task);
+            executeWithPreAndPostActionsOnlyIfNewEntrance(new IAction() {
+                @Override
+                public void doAction() {
+                    current.modified.addAll(
+                            doRecalculations(leadingTo(task, getRecalculationsNeededFrom(pending)), pending));
+                }
+            });
+        }
+
+        /**
+         * @param recalculations
+         *            sorted topologically
+         * @return the recalculations that can affect the position of the task:
+         *         the ones of the task and its containers, their predecessors
+         *         and the recalculations of the containers of all of them. The
+         *         order is kept.
+         */
+        private List<Recalculation> leadingTo(V task, List<Recalculation> recalculations) {
+            Set<V> targets = new HashSet<>(fromTaskToTop(task));
+            Set<Recalculation> needed = new HashSet<>();
+            Set<V> neededTasks = new HashSet<>();
+            for (int i = recalculations.size() - 1; i >= 0; i--) {
+                Recalculation each = recalculations.get(i);
+                if ( !each.parentRecalculation
+                        && (targets.contains(each.taskPoint.task) || needed.contains(each)) ) {
+                    needed.add(each);
+                    needed.addAll(each.recalculationsCouldAffectThis);
+                    neededTasks.addAll(fromTaskToTop(each.taskPoint.task));
+                }
+            }
+
+            List<Recalculation> result = new ArrayList<>();
+            for (Recalculation each : recalculations) {
+                boolean isNeeded = each.parentRecalculation ? neededTasks.contains(each.taskPoint.task)
+                        : needed.contains(each);
+                if ( isNeeded ) {
+                    result.add(each);
+                }
+            }
+
+            return result;
+        }
+
+        void beginBatch() {
+            Batch current = batch.get();
+            if ( current == null ) {
+                current = new Batch();
+                batch.set(current);
+            }
+            current.depth++;
+        }
+
+        void commitBatch() {
+            final Batch finished = batch.get();
+            if ( finished == null ) {
+                throw new IllegalStateException("there is no batch in progress");
+            }
+
+            if ( --finished.depth > 0 ) {
+                return;
+            }
+
+            batch.remove();
+
+            positionsUpdatingGuard.entranceRequested(new IReentranceCases() {
+
+                @Override
+                public void ifAlreadyInside() {
+                    deferedNotifier.get().addAll(finished.notifier);
+                    doRecalculations(getRecalculationsNeededFrom(finished.modified), finished.modified);
+                }
+
+                @Override
+                public void ifNewEntrance() {
+                    preAndPostActions.doAction(decorateWithNotifications(finished.notifier, new IAction() {
+                        @Override
+                        public void doAction() {
+                            doRecalculations(getRecalculationsNeededFrom(finished.modified), finished.modified);
+                        }
+                    }));
+                }
+            });
         }
 
         void enforceRestrictionsOn(final List<Recalculation> recalculations,
@@ -964,10 +1135,22 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
         /**
          * When entering and exiting the dependencies enforcement algorithm some
-         * listeners must be notified.
+         * listeners must be notified. Inside a batch the notifications are
+         * retained until the batch is committed.
          */
         private void onNewEntrance(final IAction action) {
-            preAndPostActions.doAction(decorateWithNotifications(action));
+            Batch current = batch.get();
+            if ( current == null ) {
+                preAndPostActions.doAction(decorateWithNotifications(new DeferedNotifier(), action));
+                return;
+            }
+
+            deferedNotifier.set(current.notifier);
+            try {
+                action.doAction();
+            } finally {
+                deferedNotifier.set(null);
+            }
         }
 
         /**
@@ -976,16 +1159,15 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
          * execution has finished, telling all listeners the task positions
          * modifications that have happened.
          */
-        private IAction decorateWithNotifications(final IAction action) {
+        private IAction decorateWithNotifications(final DeferedNotifier notifier, final IAction action) {
             return new IAction() {
 
                 @Override
                 public void doAction() {
-                    deferedNotifier.set(new DeferedNotifier());
+                    deferedNotifier.set(notifier);
                     try {
                         action.doAction();
                     } finally {
-                        DeferedNotifier notifier = deferedNotifier.get();
                         notifier.doNotifications();
                         deferedNotifier.set(null);
                     }
@@ -1023,6 +1205,11 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         }
 
         private void taskPositionModified(final V task) {
+            Batch current = batch.get();
+            if ( current != null ) {
+                current.modified.add(task);
+                return;
+            }
             executeWithPreAndPostActionsOnlyIfNewEntrance(new IAction() {
                 @Override
                 public void doAction() {
@@ -1032,8 +1219,11 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
             });
         }
 
-        private void doRecalculations(List<Recalculation> recalculationsNeeded,
-                                      Collection<? extends V> initiallyModified) {
+        /**
+         * @return the tasks modified, including the initially modified ones
+         */
+        private Set<V> doRecalculations(List<Recalculation> recalculationsNeeded,
+                                        Collection<? extends V> initiallyModified) {
 
             Set<V> allModified = new HashSet<>();
             allModified.addAll(initiallyModified);
@@ -1047,9 +1237,11 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
             List<V> shrunkContainers = shrunkContainersOfModified(allModified);
             for (V each : getTaskAffectedByShrinking(shrunkContainers)) {
-                doRecalculations(getRecalculationsNeededFrom(each),
-                        Collections.singletonList(each));
+                allModified.addAll(doRecalculations(getRecalculationsNeededFrom(each),
+                        Collections.singletonList(each)));
             }
+
+            return allModified;
         }
 
         private List<V> getTaskAffectedByShrinking(List<V> shrunkContainers) {
@@ -1163,19 +1355,30 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
     }
 
     List<Recalculation> getRecalculationsNeededFrom(V task) {
+        return getRecalculationsNeededFrom(Collections.singletonList(task));
+    }
+
+    /**
+     * The recalculations reachable from several modified tasks are merged, so
+     * each one is done once and all of them are sorted together.
+     */
+    List<Recalculation> getRecalculationsNeededFrom(Collection<? extends V> tasks) {
         List<Recalculation> result = new ArrayList<>();
         Set<Recalculation> parentRecalculationsAlreadyDone = new HashSet<>();
-        Recalculation first = recalculationFor(allPointsPotentiallyModified(task));
-        first.couldHaveBeenModifiedBeforehand();
-
-        result.addAll(getParentsRecalculations(parentRecalculationsAlreadyDone, first.taskPoint));
-        result.add(first);
-
         Queue<Recalculation> pendingOfVisit = new LinkedList<>();
-        pendingOfVisit.offer(first);
-
         Map<Recalculation, Recalculation> alreadyVisited = new HashMap<>();
-        alreadyVisited.put(first, first);
+
+        for (V each : tasks) {
+            Recalculation first = recalculationFor(allPointsPotentiallyModified(each));
+            first.couldHaveBeenModifiedBeforehand();
+
+            if ( !alreadyVisited.containsKey(first) ) {
+                result.addAll(getParentsRecalculations(parentRecalculationsAlreadyDone, first.taskPoint));
+                result.add(first);
+                pendingOfVisit.offer(first);
+                alreadyVisited.put(first, first);
+            }
+        }
 
         while (!pendingOfVisit.isEmpty()) {
 
@@ -1979,13 +2182,13 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
             }
         }
 
-        topologicalSorter.recalculationNeeded();
+        structureModified();
         enforcer.enforceRestrictionsOn(needingEnforcing);
     }
 
     public void removeDependency(D dependency) {
         graph.removeEdge(dependency);
-        topologicalSorter.recalculationNeeded();
+        structureModified();
         V destination = adapter.getDestination(dependency);
         V source = adapter.getSource(dependency);
         enforcer.enforceRestrictionsOn(destination);
@@ -2030,14 +2233,14 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         V source = adapter.getSource(dependency);
         V destination = adapter.getDestination(dependency);
         graph.addEdge(source, destination, dependency);
-        topologicalSorter.recalculationNeeded();
+        structureModified();
         if ( enforceRestrictions ) {
             enforceRestrictions(destination);
         }
     }
 
     public void enforceRestrictions(final V task) {
-        enforcer.taskPositionModified(task);
+        enforcer.enforceRestrictionsNow(task);
     }
 
     public DeferedNotifier manualNotificationOn(IAction action) {
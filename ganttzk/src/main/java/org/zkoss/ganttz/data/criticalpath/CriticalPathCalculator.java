@@ -27,8 +27,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 import org.joda.time.Days;
@@ -40,6 +42,11 @@ import org.zkoss.ganttz.data.constraint.Constraint;
 
 /**
  * Class that calculates the critical path of a Gantt diagram graph.
+ * <p>
+ * The graph of {@link Node nodes} built is kept between calls, so
+ * {@link #recalculateCriticalPath(ICriticalPathCalculable, Collection)} can
+ * propagate only the changes of the tasks whose dates have been modified.
+ * </p>
  *
  * @author Manuel Rego Casasnovas <mrego@igalia.com>
  */
@@ -59,6 +66,8 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
 
     private ICriticalPathCalculable<T> graph;
 
+    private int structureVersion;
+
     private LocalDate initDate;
 
     private Map<T, Node<T, D>> nodes;
@@ -68,27 +77,42 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
 
     private Map<T, Map<T, DependencyType>> dependencies;
 
-    private class VisitorTracker {
+    /**
+     * The nodes in topological order. The nodes that are part of a cycle, if
+     * any, are placed at the end.
+     */
+    private List<Node<T, D>> sorted;
 
-        private Map<T, Set<T>> visitorsOn = new HashMap<T, Set<T>>();
+    private Map<T, Integer> positions;
 
-        void visit(T visited, T visitor) {
-            if (!visitorsOn.containsKey(visited)) {
-                visitorsOn.put(visited, new HashSet<T>());
-            }
-            visitorsOn.get(visited).add(visitor);
-        }
+    private boolean hasCycles;
 
-        boolean hasBeenVisitedByAll(T current,
-                Collection<? extends T> collection) {
-            return visitorsOn.containsKey(current)
-                    && visitorsOn.get(current).containsAll(collection);
-        }
+    private Map<T, Map<T, DependencyType>> types;
 
-    }
+    /**
+     * The nodes whose earliest values have been propagated to their next
+     * tasks, i.e. the ones reached from the beginning of the project through
+     * all their previous tasks.
+     */
+    private boolean[] forwarded;
+
+    /**
+     * The nodes whose latest values have been propagated to their previous
+     * tasks, i.e. the ones reached from the end of the project through all
+     * their next tasks.
+     */
+    private boolean[] backwarded;
+
+    /**
+     * The nodes that determine the earliest start of the end of the project:
+     * the ones without next tasks or with only start-start dependencies to
+     * them.
+     */
+    private boolean[] endsProject;
 
     public List<T> calculateCriticalPath(ICriticalPathCalculable<T> graph) {
         this.graph = graph;
+        this.structureVersion = graph.getStructureVersion();
 
         dependencies = new HashMap<T, Map<T, DependencyType>>();
 
@@ -98,15 +122,83 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         eop = createEndOfProjectNode();
 
         nodes = createGraphNodes();
+        sortNodes();
 
-        forward(bop, null, new VisitorTracker());
-        eop.updateLatestValues();
+        forward();
+        backward();
+
+        return getTasksOnCriticalPath();
+    }
 
-        backward(eop, null, new VisitorTracker());
+    /**
+     * Calculates the critical path reusing the graph of nodes built by the
+     * previous calculation over the same graph. Only the earliest and latest
+     * values of the tasks whose dates have changed, and of the ones affected
+     * by them, are recalculated.
+     * <p>
+     * If the tasks or the dependencies of the graph have changed since the
+     * previous calculation, or the start of the project has moved, everything
+     * is calculated again.
+     * </p>
+     *
+     * @param modified
+     *            tasks whose constraints could have changed without changing
+     *            their dates. The tasks whose dates have changed are detected
+     *            and don't need to be included
+     */
+    public List<T> recalculateCriticalPath(ICriticalPathCalculable<T> graph, Collection<? extends T> modified) {
+        if (this.graph != graph || nodes == null || structureVersion != graph.getStructureVersion()) {
+            return calculateCriticalPath(graph);
+        }
+
+        LocalDate newInitDate = calculateInitDate();
+        boolean initDateChanged = newInitDate == null ? initDate != null : !newInitDate.equals(initDate);
+        Set<Node<T, D>> changed = updateDates();
+        if (initDateChanged || hasCycles) {
+            initDate = newInitDate;
+            forward();
+            backward();
+            return getTasksOnCriticalPath();
+        }
+
+        for (T each : removeContainers(new ArrayList<T>(modified))) {
+            Node<T, D> node = nodes.get(each);
+            if (node != null) {
+                changed.add(node);
+            }
+        }
+        if (changed.isEmpty()) {
+            return getTasksOnCriticalPath();
+        }
+
+        int previousProjectLatestStart = eop.getLatestStart();
+        if (propagateEarliest(changed)) {
+            updateEndOfProject();
+        }
+        if (eop.getLatestStart() != previousProjectLatestStart) {
+            for (T each : eop.getPreviousTasks()) {
+                changed.add(nodes.get(each));
+            }
+        }
+        propagateLatest(changed);
 
         return getTasksOnCriticalPath();
     }
 
+    /**
+     * @return the nodes whose dates have changed
+     */
+    private Set<Node<T, D>> updateDates() {
+        Set<Node<T, D>> result = new HashSet<Node<T, D>>();
+        for (Node<T, D> each : sorted) {
+            T task = each.getTask();
+            if (each.updateDates(graph.getStartDate(task), graph.getEndDateFor(task))) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
     private LocalDate calculateInitDate() {
         if (graph.getTasks().isEmpty()) {
             return null;
@@ -227,6 +319,71 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         return result;
     }
 
+    private void sortNodes() {
+        sorted = new ArrayList<Node<T, D>>(nodes.size());
+        positions = new HashMap<T, Integer>();
+        types = new HashMap<T, Map<T, DependencyType>>();
+
+        Map<T, Integer> pending = new HashMap<T, Integer>();
+        LinkedList<Node<T, D>> ready = new LinkedList<Node<T, D>>();
+        for (Node<T, D> each : nodes.values()) {
+            pending.put(each.getTask(), each.getPreviousTasks().size());
+            if (each.getPreviousTasks().isEmpty()) {
+                ready.add(each);
+            }
+        }
+        while (!ready.isEmpty()) {
+            Node<T, D> node = ready.removeFirst();
+            add(node);
+            for (T each : node.getNextTasks()) {
+                int remaining = pending.get(each) - 1;
+                pending.put(each, remaining);
+                if (remaining == 0) {
+                    ready.add(nodes.get(each));
+                }
+            }
+        }
+        hasCycles = sorted.size() < nodes.size();
+        for (Node<T, D> each : nodes.values()) {
+            if (!positions.containsKey(each.getTask())) {
+                add(each);
+            }
+        }
+
+        endsProject = new boolean[sorted.size()];
+        for (Node<T, D> each : sorted) {
+            int countStartStart = 0;
+            for (T next : each.getNextTasks()) {
+                Map<T, DependencyType> typesFrom = types.get(each.getTask());
+                if (typesFrom == null) {
+                    typesFrom = new HashMap<T, DependencyType>();
+                    types.put(each.getTask(), typesFrom);
+                }
+                DependencyType type = getDependencyTypeEndStartByDefault(each.getTask(), next);
+                typesFrom.put(next, type);
+                if (type == DependencyType.START_START) {
+                    countStartStart++;
+                }
+            }
+            endsProject[positionOf(each)] = each.getNextTasks().size() == countStartStart;
+        }
+    }
+
+    private void add(Node<T, D> node) {
+        positions.put(node.getTask(), sorted.size());
+        sorted.add(node);
+    }
+
+    private int positionOf(Node<T, D> node) {
+        return positions.get(node.getTask());
+    }
+
+    private DependencyType typeOf(T from, T to) {
+        Map<T, DependencyType> typesFrom = types.get(from);
+        DependencyType result = typesFrom != null ? typesFrom.get(to) : null;
+        return result != null ? result : DependencyType.END_START;
+    }
+
     private void addDepedenciesAndRelatedTasks(Map<T, Node<T, D>> graph,
             Collection<T> origins,
             Collection<T> destinations, DependencyType type) {
@@ -291,58 +448,104 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         return DependencyType.END_START;
     }
 
-    private void forward(Node<T, D> currentNode, T previousTask,
-            VisitorTracker visitorTracker) {
-        T currentTask = currentNode.getTask();
-        int earliestStart = currentNode.getEarliestStart();
-        int earliestFinish = currentNode.getEarliestFinish();
-
-        Set<T> nextTasks = currentNode.getNextTasks();
-        if (nextTasks.isEmpty()) {
-            eop.setEarliestStart(earliestFinish);
-        } else {
-            int countStartStart = 0;
-
-            for (T task : nextTasks) {
-                visitorTracker.visit(task, currentTask);
-                if (graph.isContainer(currentTask)) {
-                    if (graph.contains(currentTask, previousTask)) {
-                        if (graph.contains(currentTask, task)) {
-                            continue;
-                        }
-                    }
-                }
+    private void forward() {
+        forwarded = new boolean[sorted.size()];
+        for (Node<T, D> each : sorted) {
+            calculateEarliest(each);
+        }
+        updateEndOfProject();
+    }
 
-                Node<T, D> node = nodes.get(task);
-                DependencyType dependencyType = getDependencyTypeEndStartByDefault(
-                        currentTask, task);
-                Constraint<GanttDate> constraint = getDateConstraints(task);
+    /**
+     * The earliest start of a node is the biggest of the values received from
+     * its previous tasks that have been forwarded, or from the beginning of the
+     * project if it is an initial task.
+     *
+     * @return if the earliest values of the node, or whether it is forwarded,
+     *         have changed
+     */
+    private boolean calculateEarliest(Node<T, D> node) {
+        int position = positionOf(node);
+        int previousStart = node.getEarliestStart();
+        int previousFinish = node.getEarliestFinish();
+        boolean wasForwarded = forwarded[position];
+
+        T task = node.getTask();
+        Constraint<GanttDate> constraint = getDateConstraints(task);
+        node.resetEarliestValues();
+
+        boolean visited = false;
+        if (bop.getNextTasks().contains(task)) {
+            visited = true;
+            setEarliestStart(node, bop.getEarliestFinish(), constraint);
+        }
+        boolean visitedByAll = true;
+        for (T each : node.getPreviousTasks()) {
+            Node<T, D> previous = nodes.get(each);
+            if (!forwarded[positionOf(previous)]) {
+                visitedByAll = false;
+                continue;
+            }
+            visited = true;
+            switch (typeOf(each, task)) {
+            case START_START:
+                setEarliestStart(node, previous.getEarliestStart(), constraint);
+                break;
+            case END_END:
+                setEarliestStart(node, previous.getEarliestFinish() - node.getDuration(), constraint);
+                break;
+            case END_START:
+            default:
+                setEarliestStart(node, previous.getEarliestFinish(), constraint);
+                break;
+            }
+        }
+        forwarded[position] = visited && visitedByAll;
 
-                switch (dependencyType) {
-                case START_START:
-                    setEarliestStart(node, earliestStart, constraint);
-                    countStartStart++;
-                    break;
-                case END_END:
-                    setEarliestStart(node, earliestFinish - node.getDuration(),
-                            constraint);
-                    break;
-                case END_START:
-                default:
-                    setEarliestStart(node, earliestFinish, constraint);
-                    break;
-                }
+        return previousStart != node.getEarliestStart() || previousFinish != node.getEarliestFinish()
+                || wasForwarded != forwarded[position];
+    }
 
-                if (visitorTracker.hasBeenVisitedByAll(task,
-                        node.getPreviousTasks())) {
-                    forward(node, currentTask, visitorTracker);
+    /**
+     * @return if the earliest values of some node that ends the project have
+     *         changed
+     */
+    private boolean propagateEarliest(Collection<Node<T, D>> changed) {
+        boolean endOfProjectAffected = false;
+        PriorityQueue<Integer> pending = new PriorityQueue<Integer>();
+        boolean[] queued = new boolean[sorted.size()];
+        for (Node<T, D> each : changed) {
+            enqueue(pending, queued, positionOf(each));
+        }
+        while (!pending.isEmpty()) {
+            Node<T, D> node = sorted.get(pending.poll());
+            if (calculateEarliest(node)) {
+                endOfProjectAffected |= endsProject[positionOf(node)];
+                for (T each : node.getNextTasks()) {
+                    enqueue(pending, queued, positions.get(each));
                 }
             }
+        }
+        return endOfProjectAffected;
+    }
+
+    private static void enqueue(PriorityQueue<Integer> pending, boolean[] queued, int position) {
+        if (!queued[position]) {
+            queued[position] = true;
+            pending.add(position);
+        }
+    }
 
-            if (nextTasks.size() == countStartStart) {
-                eop.setEarliestStart(earliestFinish);
+    private void updateEndOfProject() {
+        eop.resetEarliestValues();
+        eop.resetLatestValues();
+        for (Node<T, D> each : sorted) {
+            int position = positionOf(each);
+            if (forwarded[position] && endsProject[position]) {
+                eop.setEarliestStart(each.getEarliestFinish());
             }
         }
+        eop.updateLatestValues();
     }
 
     private void setEarliestStart(Node<T, D> node, int earliestStart,
@@ -377,60 +580,86 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         if (endConstraints == null || endConstraints.isEmpty()) {
             return Constraint.coalesce(startConstraints);
         }
-        startConstraints.addAll(endConstraints);
-        return Constraint.coalesce(startConstraints);
-    }
-
-    private void backward(Node<T, D> currentNode, T nextTask,
-            VisitorTracker visitorTracker) {
-        T currentTask = currentNode.getTask();
-        int latestStart = currentNode.getLatestStart();
-        int latestFinish = currentNode.getLatestFinish();
-
-        Set<T> previousTasks = currentNode.getPreviousTasks();
-        if (previousTasks.isEmpty()) {
-            bop.setLatestFinish(latestStart);
-        } else {
-            int countEndEnd = 0;
-
-            for (T task : previousTasks) {
-                visitorTracker.visit(task, currentTask);
-                if (graph.isContainer(currentTask)) {
-                    if (graph.contains(currentTask, nextTask)) {
-                        if (graph.contains(currentTask, task)) {
-                            continue;
-                        }
-                    }
-                }
+        List<Constraint<GanttDate>> all = new ArrayList<Constraint<GanttDate>>(startConstraints);
+        all.addAll(endConstraints);
+        return Constraint.coalesce(all);
+    }
 
-                Node<T, D> node = nodes.get(task);
-                DependencyType dependencyType = getDependencyTypeEndStartByDefault(
-                        task, currentTask);
-                Constraint<GanttDate> constraint = getDateConstraints(task);
-
-                switch (dependencyType) {
-                case START_START:
-                    setLatestFinish(node, latestStart + node.getDuration(),
-                            constraint);
-                    break;
-                case END_END:
-                    setLatestFinish(node, latestFinish, constraint);
-                    countEndEnd++;
-                    break;
-                case END_START:
-                default:
-                    setLatestFinish(node, latestStart, constraint);
-                    break;
-                }
+    private void backward() {
+        backwarded = new boolean[sorted.size()];
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+            calculateLatest(sorted.get(i));
+        }
+    }
 
-                if (visitorTracker.hasBeenVisitedByAll(task,
-                        node.getNextTasks())) {
-                    backward(node, currentTask, visitorTracker);
-                }
+    /**
+     * The latest finish of a node is the smallest of the values received from
+     * its next tasks that have been backwarded, or from the end of the project
+     * if it is one of the latest tasks.
+     *
+     * @return if the latest values of the node, or whether it is backwarded,
+     *         have changed
+     */
+    private boolean calculateLatest(Node<T, D> node) {
+        int position = positionOf(node);
+        Integer previousStart = node.getLatestStartOrNull();
+        Integer previousFinish = node.getLatestFinishOrNull();
+        boolean wasBackwarded = backwarded[position];
+
+        T task = node.getTask();
+        Constraint<GanttDate> constraint = getDateConstraints(task);
+        node.resetLatestValues();
+
+        boolean visited = false;
+        if (eop.getPreviousTasks().contains(task)) {
+            visited = true;
+            setLatestFinish(node, eop.getLatestStart(), constraint);
+        }
+        boolean visitedByAll = true;
+        for (T each : node.getNextTasks()) {
+            Node<T, D> next = nodes.get(each);
+            if (!backwarded[positionOf(next)]) {
+                visitedByAll = false;
+                continue;
+            }
+            visited = true;
+            switch (typeOf(task, each)) {
+            case START_START:
+                setLatestFinish(node, next.getLatestStart() + node.getDuration(), constraint);
+                break;
+            case END_END:
+                setLatestFinish(node, next.getLatestFinish(), constraint);
+                break;
+            case END_START:
+            default:
+                setLatestFinish(node, next.getLatestStart(), constraint);
+                break;
             }
+        }
+        backwarded[position] = visited && visitedByAll;
+
+        return !equal(previousStart, node.getLatestStartOrNull())
+                || !equal(previousFinish, node.getLatestFinishOrNull())
+                || wasBackwarded != backwarded[position];
+    }
+
+    private static boolean equal(Integer a, Integer b) {
+        return a == null ? b == null : a.equals(b);
+    }
 
-            if (previousTasks.size() == countEndEnd) {
-                bop.setLatestFinish(latestStart);
+    private void propagateLatest(Collection<Node<T, D>> changed) {
+        PriorityQueue<Integer> pending = new PriorityQueue<Integer>(Math.max(1, changed.size()),
+                Collections.reverseOrder());
+        boolean[] queued = new boolean[sorted.size()];
+        for (Node<T, D> each : changed) {
+            enqueue(pending, queued, positionOf(each));
+        }
+        while (!pending.isEmpty()) {
+            Node<T, D> node = sorted.get(pending.poll());
+            if (calculateLatest(node)) {
+                for (T each : node.getPreviousTasks()) {
+                    enqueue(pending, queued, positions.get(each));
+                }
             }
         }
     }
@@ -68,4 +68,10 @@ public interface ICriticalPathCalculable<T> {
 
     List<T> getChildren(T task);
 
+    /**
+     * @return a value that changes each time tasks or dependencies are added
+     *         to or removed from the graph
+     */
+    int getStructureVersion();
+
 }
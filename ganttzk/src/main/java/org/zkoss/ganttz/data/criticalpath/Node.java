@@ -55,12 +55,8 @@ public class Node<T, D extends IDependency<T>> {
             Set<? extends T> nextTasks, GanttDate startDate, GanttDate endDate) {
         this.task = task;
 
-        if (startDate != null) {
-            this.beginDate = new LocalDate(startDate.toDayRoundedDate());
-        }
-        if (endDate != null) {
-            this.endDate = new LocalDate(endDate.toDayRoundedDate());
-        }
+        this.beginDate = toLocalDate(startDate);
+        this.endDate = toLocalDate(endDate);
 
         this.earliestStart = 0;
         this.earliestFinish = getDuration();
@@ -73,6 +69,39 @@ public class Node<T, D extends IDependency<T>> {
         }
     }
 
+    private static LocalDate toLocalDate(GanttDate date) {
+        return date != null ? new LocalDate(date.toDayRoundedDate()) : null;
+    }
+
+    /**
+     * @return if the dates have changed. The earliest and latest values are
+     *         not updated
+     */
+    boolean updateDates(GanttDate newStart, GanttDate newEnd) {
+        LocalDate newBeginDate = toLocalDate(newStart);
+        LocalDate newEndDate = toLocalDate(newEnd);
+        if (equal(beginDate, newBeginDate) && equal(endDate, newEndDate)) {
+            return false;
+        }
+        this.beginDate = newBeginDate;
+        this.endDate = newEndDate;
+        return true;
+    }
+
+    private static boolean equal(LocalDate a, LocalDate b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    void resetEarliestValues() {
+        this.earliestStart = 0;
+        this.earliestFinish = getDuration();
+    }
+
+    void resetLatestValues() {
+        this.latestStart = null;
+        this.latestFinish = null;
+    }
+
     public T getTask() {
         return task;
     }
@@ -123,6 +152,14 @@ public class Node<T, D extends IDependency<T>> {
         return latestFinish;
     }
 
+    Integer getLatestStartOrNull() {
+        return latestStart;
+    }
+
+    Integer getLatestFinishOrNull() {
+        return latestFinish;
+    }
+
     public int getDuration() {
         if (task == null) {
             return 0;
@@ -0,0 +1,250 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.zkoss.ganttz.data;
+
+import static org.junit.Assert.assertEquals;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.zkoss.ganttz.data.GanttDiagramGraph.GanttZKDiagramGraph;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IGraphChangeListener;
+import org.zkoss.ganttz.data.constraint.Constraint;
+
+/**
+ * Tests the batches of modifications of {@link GanttDiagramGraph}.
+ */
+public class GanttDiagramGraphBatchTest {
+
+    private static final LocalDate START = new LocalDate(2026, 3, 3);
+
+    private static TaskLeaf task(LocalDate start, int days) {
+        Date begin = start.toDateTimeAtStartOfDay().toDate();
+        long length = start.plusDays(days).toDateTimeAtStartOfDay().getMillis() - begin.getTime();
+
+        return new TaskLeaf(new DefaultFundamentalProperties("task", begin, length, "", begin, begin, begin,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    /**
+     * @return a graph with the tasks one after another
+     */
+    private static GanttZKDiagramGraph chain(TaskLeaf... tasks) {
+        GanttZKDiagramGraph result = GanttDiagramGraph.create(false,
+                Collections.<Constraint<GanttDate>> emptyList(), Collections.<Constraint<GanttDate>> emptyList(),
+                false);
+        result.addTopLevel(Arrays.<Task> asList(tasks));
+        for (int i = 1; i < tasks.length; i++) {
+            result.add(new Dependency(tasks[i - 1], tasks[i], DependencyType.END_START));
+        }
+
+        return result;
+    }
+
+    private static void moveTo(Task task, LocalDate date) {
+        task.doPositionModifications(position -> position.moveTo(GanttDate.createFrom(date)));
+    }
+
+    /**
+     * Changes the length of the task depending on the day it starts, as a
+     * reassignment does with the calendar of the resources.
+     */
+    private static void reassign(Task task) {
+        LocalDate start = task.getBeginDate().toLocalDate();
+        int days = start.getDayOfMonth() % 2 == 0 ? 2 : 3;
+        task.doPositionModifications(position -> position.resizeTo(GanttDate.createFrom(start.plusDays(days))));
+    }
+
+    /**
+     * Does the same as the reassignment command.
+     */
+    private static void reassignAll(final GanttZKDiagramGraph graph, final List<? extends Task> tasks,
+            final boolean inBatch) {
+
+        graph.manualNotificationOn(() -> {
+            if ( inBatch ) {
+                graph.beginBatch();
+            }
+            try {
+                for (Task each : tasks) {
+                    graph.enforceRestrictions(each);
+                    GanttDate previousStart = each.getBeginDate();
+                    GanttDate previousEnd = each.getEndDate();
+                    reassign(each);
+                    each.enforceDependenciesDueToPositionPotentiallyModified();
+                    each.updateSizeDueToDateChanges(previousStart, previousEnd);
+                }
+            } finally {
+                if ( inBatch ) {
+                    graph.commitBatch();
+                }
+            }
+        }).doNotifications();
+    }
+
+    private static class BeginDateChanges implements PropertyChangeListener {
+
+        private int count = 0;
+
+        @Override
+        public void propertyChange(PropertyChangeEvent event) {
+            if ( "beginDate".equals(event.getPropertyName()) ) {
+                count++;
+            }
+        }
+    }
+
+    private static class Executions implements IGraphChangeListener {
+
+        private int count = 0;
+
+        @Override
+        public void execute() {
+            count++;
+        }
+    }
+
+    @Test
+    public void theDependenciesAreEnforcedOnCommit() {
+        TaskLeaf first = task(START, 2);
+        TaskLeaf second = task(START.plusDays(2), 1);
+        GanttZKDiagramGraph graph = chain(first, second);
+
+        graph.beginBatch();
+        moveTo(first, START.plusDays(5));
+        assertEquals(START.plusDays(2), second.getBeginDate().toLocalDate());
+
+        graph.commitBatch();
+        assertEquals(START.plusDays(7), second.getBeginDate().toLocalDate());
+    }
+
+    @Test
+    public void onlyTheOutermostCommitEnforcesTheDependencies() {
+        TaskLeaf first = task(START, 2);
+        TaskLeaf second = task(START.plusDays(2), 1);
+        GanttZKDiagramGraph graph = chain(first, second);
+
+        graph.beginBatch();
+        graph.beginBatch();
+        moveTo(first, START.plusDays(5));
+        graph.commitBatch();
+        assertEquals(START.plusDays(2), second.getBeginDate().toLocalDate());
+
+        graph.commitBatch();
+        assertEquals(START.plusDays(7), second.getBeginDate().toLocalDate());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void aBatchMustBeBegunBeforeCommittingIt() {
+        chain(task(START, 1)).commitBatch();
+    }
+
+    @Test
+    public void theNotificationsAreDoneOncePerCommit() {
+        TaskLeaf first = task(START, 2);
+        TaskLeaf second = task(START.plusDays(2), 1);
+        GanttZKDiagramGraph graph = chain(first, second);
+        BeginDateChanges changes = new BeginDateChanges();
+        second.addFundamentalPropertiesChangeListener(changes);
+        Executions executions = new Executions();
+        graph.addPostGraphChangeListener(executions);
+
+        graph.beginBatch();
+        moveTo(first, START.plusDays(3));
+        moveTo(first, START.plusDays(5));
+        graph.commitBatch();
+
+        assertEquals(1, changes.count);
+        assertEquals(1, executions.count);
+    }
+
+    @Test
+    public void withoutBatchEachModificationIsNotified() {
+        TaskLeaf first = task(START, 2);
+        TaskLeaf second = task(START.plusDays(2), 1);
+        GanttZKDiagramGraph graph = chain(first, second);
+        BeginDateChanges changes = new BeginDateChanges();
+        second.addFundamentalPropertiesChangeListener(changes);
+        Executions executions = new Executions();
+        graph.addPostGraphChangeListener(executions);
+
+        moveTo(first, START.plusDays(3));
+        moveTo(first, START.plusDays(5));
+
+        assertEquals(2, changes.count);
+        assertEquals(2, executions.count);
+    }
+
+    @Test
+    public void enforcingTheRestrictionsOfATaskOnlyPlacesThatTask() {
+        TaskLeaf first = task(START, 2);
+        TaskLeaf second = task(START.plusDays(2), 1);
+        TaskLeaf third = task(START.plusDays(3), 1);
+        GanttZKDiagramGraph graph = chain(first, second, third);
+
+        graph.beginBatch();
+        moveTo(first, START.plusDays(5));
+        graph.enforceRestrictions(second);
+        assertEquals(START.plusDays(7), second.getBeginDate().toLocalDate());
+        assertEquals(START.plusDays(3), third.getBeginDate().toLocalDate());
+
+        graph.commitBatch();
+        assertEquals(START.plusDays(8), third.getBeginDate().toLocalDate());
+    }
+
+    @Test
+    public void theBatchIsConfinedToItsThread() throws InterruptedException {
+        TaskLeaf first = task(START, 2);
+        TaskLeaf second = task(START.plusDays(2), 1);
+        GanttZKDiagramGraph graph = chain(first, second);
+
+        graph.beginBatch();
+        Thread other = new Thread(() -> moveTo(first, START.plusDays(5)));
+        other.start();
+        other.join();
+        assertEquals(START.plusDays(7), second.getBeginDate().toLocalDate());
+        graph.commitBatch();
+    }
+
+    @Test
+    public void reassigningInABatchLeavesTheTasksAtTheSamePositions() {
+        List<TaskLeaf> oneByOne = Arrays.asList(task(START, 1), task(START.plusDays(1), 1),
+                task(START.plusDays(2), 1), task(START.plusDays(3), 1));
+        reassignAll(chain(oneByOne.toArray(new TaskLeaf[0])), oneByOne, false);
+
+        List<TaskLeaf> batched = Arrays.asList(task(START, 1), task(START.plusDays(1), 1),
+                task(START.plusDays(2), 1), task(START.plusDays(3), 1));
+        reassignAll(chain(batched.toArray(new TaskLeaf[0])), batched, true);
+
+        for (int i = 0; i < oneByOne.size(); i++) {
+            assertEquals(oneByOne.get(i).getBeginDate(), batched.get(i).getBeginDate());
+            assertEquals(oneByOne.get(i).getEndDate(), batched.get(i).getEndDate());
+        }
+        // the reassignments have moved the last task
+        assertEquals(START.plusDays(7), batched.get(3).getBeginDate().toLocalDate());
+    }
+
+}
@@ -32,8 +32,10 @@ import static org.zkoss.ganttz.data.constraint.ConstraintOnComparableValues.bigg
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.Days;
 import org.joda.time.LocalDate;
@@ -345,6 +347,60 @@ public class CriticalPathCalculatorTest {
         replay(diagramGraphExample);
     }
 
+    private final Map<ITaskFundamentalProperties, Integer> durations = new HashMap<>();
+
+    /**
+     * Like {@link #givenTwoTaskConnectedAndOneIndependentTask(int, int, int)}
+     * but the end dates are retrieved from {@link #durations}, so they can be
+     * modified after calculating the critical path.
+     *
+     * @return the tasks: T1, T2 and IT
+     */
+    private List<ITaskFundamentalProperties> givenTwoTaskConnectedAndOneIndependentTaskWithModifiableDurations(
+            int daysTask1, int daysTask2, int daysIndependentTask) {
+
+        diagramGraphExample = createNiceMock(ICriticalPathCalculable.class);
+
+        ITaskFundamentalProperties task1 = createTask(START, daysTask1);
+        ITaskFundamentalProperties task2 = createTask(START, daysTask2);
+        ITaskFundamentalProperties independentTask = createTask(START, daysIndependentTask);
+
+        List<ITaskFundamentalProperties> listOfTasks = Arrays.asList(task1, task2, independentTask);
+
+        expect(diagramGraphExample.getTasks()).andReturn(listOfTasks).anyTimes();
+        expect(diagramGraphExample.getInitialTasks()).andReturn(Arrays.asList(task1, independentTask)).anyTimes();
+        expect(diagramGraphExample.getLatestTasks()).andReturn(Arrays.asList(task2, independentTask)).anyTimes();
+
+        expect(diagramGraphExample.getIncomingTasksFor(task1)).andReturn(new HashSet<>()).anyTimes();
+
+        expect(diagramGraphExample.getIncomingTasksFor(task2))
+                .andReturn(new HashSet<>(Collections.singletonList(task1)))
+                .anyTimes();
+
+        expect(diagramGraphExample.getIncomingTasksFor(independentTask)).andReturn(new HashSet<>()).anyTimes();
+
+        expect(diagramGraphExample.getOutgoingTasksFor(task1))
+                .andReturn(new HashSet<>(Collections.singletonList(task2)))
+                .anyTimes();
+
+        expect(diagramGraphExample.getOutgoingTasksFor(task2)).andReturn(new HashSet<>()).anyTimes();
+        expect(diagramGraphExample.getOutgoingTasksFor(independentTask)).andReturn(new HashSet<>()).anyTimes();
+
+        durations.put(task1, daysTask1);
+        durations.put(task2, daysTask2);
+        durations.put(independentTask, daysIndependentTask);
+        for (final ITaskFundamentalProperties each : listOfTasks) {
+            expect(diagramGraphExample.getStartDate(each)).andReturn(toDate(START)).anyTimes();
+            expect(diagramGraphExample.getEndDateFor(each))
+                    .andAnswer(() -> toDate(START.plusDays(durations.get(each))))
+                    .anyTimes();
+        }
+
+        replay(diagramGraphExample);
+
+        return listOfTasks;
+    }
+
     /**
      * <pre>
      * #### T1 ####
@@ -2332,6 +2388,44 @@ public class CriticalPathCalculatorTest {
         assertThat(criticalPath.size(), equalTo(3));
     }
 
+    @Test
+    public void theCriticalPathIsRecalculatedAfterModifyingTheDurations() {
+        List<ITaskFundamentalProperties> tasks =
+                givenTwoTaskConnectedAndOneIndependentTaskWithModifiableDurations(5, 10, 20);
+        CriticalPathCalculator<ITaskFundamentalProperties, IDependency<ITaskFundamentalProperties>> calculator =
+                buildCalculator();
+
+        assertThat(calculator.calculateCriticalPath(diagramGraphExample),
+                equalTo(Collections.singletonList(tasks.get(2))));
+
+        durations.put(tasks.get(0), 15);
+        List<ITaskFundamentalProperties> recalculated = calculator.recalculateCriticalPath(
+                diagramGraphExample, Collections.<ITaskFundamentalProperties> emptyList());
+        assertThat(new HashSet<>(recalculated), equalTo(new HashSet<>(Arrays.asList(tasks.get(0), tasks.get(1)))));
+
+        durations.put(tasks.get(2), 30);
+        recalculated = calculator.recalculateCriticalPath(
+                diagramGraphExample, Collections.<ITaskFundamentalProperties> emptyList());
+        assertThat(recalculated, equalTo(Collections.singletonList(tasks.get(2))));
+    }
+
+    @Test
+    public void recalculatingGivesTheSameResultThanCalculatingFromScratch() {
+        List<ITaskFundamentalProperties> tasks =
+                givenTwoTaskConnectedAndOneIndependentTaskWithModifiableDurations(5, 10, 20);
+        CriticalPathCalculator<ITaskFundamentalProperties, IDependency<ITaskFundamentalProperties>> calculator =
+                buildCalculator();
+        calculator.calculateCriticalPath(diagramGraphExample);
+
+        durations.put(tasks.get(1), 15);
+        List<ITaskFundamentalProperties> recalculated = calculator.recalculateCriticalPath(
+                diagramGraphExample, Collections.<ITaskFundamentalProperties> emptyList());
+
+        assertThat(new HashSet<>(recalculated),
+                equalTo(new HashSet<>(buildCalculator().calculateCriticalPath(diagramGraphExample))));
+        assertThat(recalculated.size(), equalTo(3));
+    }
+
     @Test
     public void oneTaskWithTwoDependantTasks() {
         givenOneTaskWithTwoDependantTasks(4, 5, 10);
@@ -23,8 +23,10 @@ package org.libreplan.business.calendars.entities;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Objects;
 
@@ -74,6 +76,12 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
     private Integer lastSequenceCode = 0;
 
+    /**
+     * Index by date of {@link #exceptions}. It's not persisted, it's built
+     * lazily and discarded when the exceptions are modified.
+     */
+    private ExceptionsIndex ownExceptionsIndex;
+
     /**
      * Constructor for hibernate. Do not use!
      */
@@ -148,7 +156,6 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         if (parent != null) {
             setParent(parent);
         }
-
     }
 
     public void setName(String name) {
@@ -219,13 +226,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     }
 
     private boolean isExceptionDayAlreadyInExceptions(CalendarException exceptionDay) {
-        for (CalendarException day : exceptions) {
-            if (day.getDate().equals(exceptionDay.getDate())) {
-                return true;
-            }
-        }
-
-        return false;
+        return getOwnExceptionDay(exceptionDay.getDate()) != null;
     }
 
     public void addExceptionDay(CalendarException day) {
@@ -239,6 +240,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         exceptions.add(day);
+        invalidateExceptionsIndex();
     }
 
     public void removeExceptionDay(LocalDate date) {
@@ -249,6 +251,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         exceptions.remove(day);
+        invalidateExceptionsIndex();
     }
 
     public void updateExceptionDay(LocalDate date, Capacity capacity, CalendarExceptionType type) {
@@ -257,24 +260,96 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         addExceptionDay(day);
     }
 
+    /**
+     * Updates one of the own exceptions of the calendar. The date of an
+     * exception is only changed through here, so the index by date is
+     * discarded.
+     */
+    public void updateExceptionDayUnvalidated(CalendarException exception, LocalDate date, Integer hours,
+                                              CalendarExceptionType type) {
+        exception.updateUnvalidated(date, hours, type);
+        invalidateExceptionsIndex();
+    }
+
     public CalendarException getOwnExceptionDay(LocalDate date) {
-        for (CalendarException exceptionDay : exceptions) {
-            if (exceptionDay.getDate().equals(date)) {
-                return exceptionDay;
-            }
+        return getOwnExceptionsIndex().get(date);
+    }
+
+    /**
+     * Equivalent to look for the exception in {@link #getExceptions(LocalDate)}
+     * but without merging the exceptions of all the parents.
+     */
+    public CalendarException getExceptionDay(LocalDate date) {
+        CalendarException own = getOwnExceptionDay(date);
+        if (own != null) {
+            return own;
         }
 
-        return null;
+        BaseCalendar parent = getParent(date);
+
+        return parent != null ? parent.getExceptionDayIncludingParents(date) : null;
     }
 
-    public CalendarException getExceptionDay(LocalDate date) {
-        for (CalendarException exceptionDay : getExceptions(date)) {
-            if (exceptionDay.getDate().equals(date)) {
-                return exceptionDay;
+    /**
+     * Like {@link #getExceptionDay(LocalDate)} but the parents are the ones of
+     * the last version, as it's done in {@link #getExceptions()}.
+     */
+    private CalendarException getExceptionDayIncludingParents(LocalDate date) {
+        CalendarException own = getOwnExceptionDay(date);
+        if (own != null) {
+            return own;
+        }
+
+        BaseCalendar parent = getParent();
+
+        return parent != null ? parent.getExceptionDayIncludingParents(date) : null;
+    }
+
+    private Map<LocalDate, CalendarException> getOwnExceptionsIndex() {
+        ExceptionsIndex index = ownExceptionsIndex;
+        if (index == null || !index.isIndexing(exceptions)) {
+            index = new ExceptionsIndex(exceptions);
+            ownExceptionsIndex = index;
+        }
+
+        return index.byDate;
+    }
+
+    private void invalidateExceptionsIndex() {
+        ownExceptionsIndex = null;
+    }
+
+    /**
+     * Immutable once created, so it can be safely shared by several threads
+     * reading the same calendar.
+     */
+    private static class ExceptionsIndex {
+
+        private final Set<CalendarException> source;
+
+        private final Map<LocalDate, CalendarException> byDate;
+
+        ExceptionsIndex(Set<CalendarException> exceptions) {
+            this.source = exceptions;
+
+            Map<LocalDate, CalendarException> result = new HashMap<>(exceptions.size() * 2);
+            for (CalendarException each : exceptions) {
+                if (each.getDate() != null && !result.containsKey(each.getDate())) {
+                    result.put(each.getDate(), each);
+                }
             }
+            this.byDate = result;
+        }
+
+        /**
+         * Hibernate can replace the collection when the calendar is loaded, in
+         * that case the index must be rebuilt. Any other change of the
+         * exceptions goes through the calendar, which discards the index.
+         */
+        boolean isIndexing(Set<CalendarException> exceptions) {
+            return source == exceptions;
         }
 
-        return null;
     }
 
     @Override
@@ -289,6 +364,24 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         return multiplyByCalendarUnits(findCapacityAt(day));
     }
 
+    /**
+     * Calculates the capacities of all the days from <code>startInclusive</code> to <code>endExclusive</code>.
+     * It's intended for the algorithms that consult the same days for the same calendar many times.
+     * The result is not updated if this calendar is modified later.
+     */
+    public CapacityVector getCapacities(LocalDate startInclusive, LocalDate endExclusive) {
+        CapacityVector result = new CapacityVector(startInclusive, endExclusive);
+
+        LocalDate current = startInclusive;
+        for (int i = 0; i < result.size(); i++) {
+            Capacity capacity = getCapacityWithOvertime(current);
+            result.set(i, capacity.getStandardEffort(), capacity);
+            current = current.plusDays(1);
+        }
+
+        return result;
+    }
+
     private Capacity findCapacityAt(LocalDate date) {
         if (!isActive(date)) {
             return Capacity.zero();
@@ -609,6 +702,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         copy.exceptions = new HashSet<>(this.exceptions);
+        copy.invalidateExceptionsIndex();
     }
 
     public BaseCalendar newCopyResourceCalendar() {
@@ -622,18 +716,36 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         return Collections.unmodifiableList(calendarDataVersions);
     }
 
+    /**
+     * The versions are sorted by expiring date, so a binary search is done to
+     * find the first one not expired at the given date. The versions loaded
+     * from the database are a Hibernate list, which doesn't implement
+     * {@link java.util.RandomAccess} but is backed by an array list once
+     * initialized, so accessing them by index is cheap too.
+     */
     public CalendarData getCalendarData(LocalDate date) {
-        for (CalendarData calendarData : calendarDataVersions) {
-            if (calendarData.getExpiringDate() == null) {
-                return calendarData;
+        int low = 0;
+        int high = calendarDataVersions.size() - 1;
+        CalendarData result = null;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            CalendarData calendarData = calendarDataVersions.get(middle);
+            LocalDate expiringDate = calendarData.getExpiringDate();
+
+            if (expiringDate == null || date.compareTo(expiringDate) < 0) {
+                result = calendarData;
+                high = middle - 1;
             } else {
-                if (date.compareTo(calendarData.getExpiringDate()) < 0) {
-                    return calendarData;
-                }
+                low = middle + 1;
             }
         }
 
-        throw new RuntimeException("Some work week should not be expired");
+        if (result == null) {
+            throw new RuntimeException("Some work week should not be expired");
+        }
+
+        return result;
     }
 
     public CalendarData getLastCalendarData() {
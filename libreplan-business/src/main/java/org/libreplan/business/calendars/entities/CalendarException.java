@@ -69,7 +69,11 @@ public class CalendarException extends IntegrationEntity {
         return hours == null ? null : EffortDuration.hours(hours);
     }
 
-    public void updateUnvalidated(LocalDate date, Integer hours,
+    /**
+     * Use {@link BaseCalendar#updateExceptionDayUnvalidated} instead, so the
+     * calendar knows that the date could have changed.
+     */
+    void updateUnvalidated(LocalDate date, Integer hours,
             CalendarExceptionType type) {
         if (date != null) {
             this.date = date;
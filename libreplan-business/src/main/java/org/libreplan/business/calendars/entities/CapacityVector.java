@@ -0,0 +1,143 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.calendars.entities;
+
+import static org.libreplan.business.workingday.EffortDuration.seconds;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+
+/**
+ * The capacities of a calendar for each day of an interval, stored as seconds
+ * per day. It allows to consult the capacity of the same days several times
+ * without walking again the calendar, its parents, exceptions and
+ * availabilities.
+ *
+ * @see BaseCalendar#getCapacities(LocalDate, LocalDate)
+ */
+public class CapacityVector {
+
+    private static final int WITHOUT_LIMIT = -1;
+
+    /**
+     * @param calendar
+     *            if it's a {@link BaseCalendar} its own calculation is used
+     */
+    public static CapacityVector calculate(ICalendar calendar, LocalDate startInclusive, LocalDate endExclusive) {
+        if ( calendar instanceof BaseCalendar ) {
+            return ((BaseCalendar) calendar).getCapacities(startInclusive, endExclusive);
+        }
+
+        CapacityVector result = new CapacityVector(startInclusive, endExclusive);
+        LocalDate current = startInclusive;
+        for (int i = 0; i < result.size(); i++) {
+            result.set(i, calendar.getCapacityOn(PartialDay.wholeDay(current)),
+                    calendar.getCapacityWithOvertime(current));
+            current = current.plusDays(1);
+        }
+
+        return result;
+    }
+
+    private final LocalDate startInclusive;
+
+    private final int[] standardSeconds;
+
+    private final int[] extraSeconds;
+
+    CapacityVector(LocalDate startInclusive, LocalDate endExclusive) {
+        Validate.notNull(startInclusive);
+        Validate.notNull(endExclusive);
+        Validate.isTrue(!endExclusive.isBefore(startInclusive), "the end must not be before the start");
+
+        int size = Days.daysBetween(startInclusive, endExclusive).getDays();
+        this.startInclusive = startInclusive;
+        this.standardSeconds = new int[size];
+        this.extraSeconds = new int[size];
+    }
+
+    void set(int index, EffortDuration standard, Capacity capacityWithOvertime) {
+        standardSeconds[index] = standard.getSeconds();
+        extraSeconds[index] = capacityWithOvertime.isOverAssignableWithoutLimit()
+                ? WITHOUT_LIMIT
+                : capacityWithOvertime.getAllowedExtraEffort().getSeconds();
+    }
+
+    public LocalDate getStartInclusive() {
+        return startInclusive;
+    }
+
+    public LocalDate getEndExclusive() {
+        return startInclusive.plusDays(size());
+    }
+
+    public int size() {
+        return standardSeconds.length;
+    }
+
+    public boolean includes(LocalDate day) {
+        return !day.isBefore(startInclusive) && day.isBefore(getEndExclusive());
+    }
+
+    private int indexOf(LocalDate day) {
+        int result = Days.daysBetween(startInclusive, day).getDays();
+        if ( result < 0 || result >= size() ) {
+            throw new IndexOutOfBoundsException(day + " is not in [" + startInclusive + ", " + getEndExclusive() + ")");
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the seconds that can be worked on the whole day without overtime
+     * @throws IndexOutOfBoundsException
+     *             if the day is not included
+     */
+    public int getStandardSeconds(LocalDate day) {
+        return standardSeconds[indexOf(day)];
+    }
+
+    /**
+     * @return the same as {@link ICalendar#getCapacityOn(PartialDay)}
+     * @throws IndexOutOfBoundsException
+     *             if the day is not included
+     */
+    public EffortDuration getCapacityOn(PartialDay day) {
+        return day.limitWorkingDay(seconds(getStandardSeconds(day.getDate())));
+    }
+
+    /**
+     * @return the same as {@link ICalendar#getCapacityWithOvertime(LocalDate)}
+     * @throws IndexOutOfBoundsException
+     *             if the day is not included
+     */
+    public Capacity getCapacityWithOvertime(LocalDate day) {
+        int index = indexOf(day);
+        Capacity result = Capacity.create(seconds(standardSeconds[index]));
+
+        return extraSeconds[index] == WITHOUT_LIMIT
+                ? result.overAssignableWithoutLimit()
+                : result.withAllowedExtraEffort(seconds(extraSeconds[index]));
+    }
+
+}
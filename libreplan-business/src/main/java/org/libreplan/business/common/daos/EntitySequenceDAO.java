@@ -23,17 +23,20 @@ package org.libreplan.business.common.daos;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.Validate;
 import org.hibernate.NonUniqueResultException;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.common.entities.EntitySequence;
+import org.libreplan.business.common.entities.EntitySequenceRange;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.i18n.I18nHelper;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
-import org.springframework.orm.hibernate5.HibernateOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -47,6 +50,20 @@ import org.springframework.transaction.annotation.Transactional;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class EntitySequenceDAO extends GenericDAOHibernate<EntitySequence, Long> implements IEntitySequenceDAO {
 
+    /**
+     * Number of values of a sequence reserved at once by
+     * {@link #getNextEntityCode(EntityNameEnum)}.
+     */
+    public static final int CODE_BLOCK_SIZE = 10;
+
+    private final ConcurrentMap<EntityNameEnum, EntitySequenceRange> reservedRanges = new ConcurrentHashMap<>();
+
+    private final AtomicLong reservedCodeBlocks = new AtomicLong();
+
+    private final AtomicLong codeCollisions = new AtomicLong();
+
+    private final AtomicLong codeReservationRetries = new AtomicLong();
+
     @Override
     public List<EntitySequence> getAll() {
         return list(EntitySequence.class);
@@ -95,32 +112,96 @@ public class EntitySequenceDAO extends GenericDAOHibernate<EntitySequence, Long>
         return entitySequence;
     }
 
+    /**
+     * The codes are handed out from a range of {@link #CODE_BLOCK_SIZE} values
+     * reserved by this node. When it is exhausted, a new one is reserved with
+     * a single update, and the codes of the range already in use are looked
+     * for with a single query.
+     *
+     * As the range is reserved in a transaction of its own, the codes not
+     * handed out before the range is discarded (e.g. on restart or when the
+     * active sequence changes) are skipped.
+     */
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public String getNextEntityCode(EntityNameEnum entityName) {
-        return getNextEntityCodeWithoutTransaction(entityName);
+        EntitySequence entitySequence;
+        try {
+            entitySequence = getActiveEntitySequence(entityName);
+        } catch (InstanceNotFoundException | NonUniqueResultException e) {
+            return null;
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            EntitySequenceRange range = reservedRanges.get(entityName);
+            if ( range != null && range.isFor(entitySequence) ) {
+                String code = range.nextCode(codeCollisions);
+                if ( code != null ) {
+                    return code;
+                }
+            }
+            if ( attempt > 0 ) {
+                codeReservationRetries.incrementAndGet();
+            }
+            reservedRanges.put(entityName, reserve(entitySequence, CODE_BLOCK_SIZE));
+        }
     }
 
+    /**
+     * The values are reserved one by one in the current transaction, so they
+     * are released if it is rolled back.
+     */
+    @Override
     public String getNextEntityCodeWithoutTransaction(EntityNameEnum entityName) {
-        for (int i = 0; i < 5; i++) {
-            try {
-                String code;
-                EntitySequence entitySequence = getActiveEntitySequence(entityName);
+        EntitySequence entitySequence;
+        try {
+            entitySequence = getActiveEntitySequence(entityName);
+        } catch (InstanceNotFoundException | NonUniqueResultException e) {
+            return null;
+        }
 
-                do {
-                    entitySequence.incrementLastValue();
-                    code = entitySequence.getCode();
-                } while (entityName.getIntegrationEntityDAO().existsByCode(code));
+        String code;
+        while ( (code = reserve(entitySequence, 1).nextCode(codeCollisions)) == null ) {
+            codeReservationRetries.incrementAndGet();
+        }
 
-                save(entitySequence);
-                return code;
+        return code;
+    }
 
-            } catch (HibernateOptimisticLockingFailureException | InstanceNotFoundException | NonUniqueResultException e) {
-                // Do nothing (optimistic approach 5 attempts)
-            }
-        }
+    /**
+     * It increments the last value of the sequence in the database with a
+     * single update, so concurrent reservations wait for each other instead
+     * of failing.
+     */
+    private EntitySequenceRange reserve(EntitySequence entitySequence, int size) {
+        getSession()
+                .createQuery("UPDATE VERSIONED EntitySequence SET lastValue = lastValue + :size WHERE id = :id")
+                .setParameter("size", size)
+                .setParameter("id", entitySequence.getId())
+                .executeUpdate();
+        getSession().refresh(entitySequence);
+        reservedCodeBlocks.incrementAndGet();
+
+        int lastValue = entitySequence.getLastValue();
+        EntitySequenceRange result = EntitySequenceRange.create(entitySequence, lastValue - size + 1, lastValue);
+        IIntegrationEntityDAO<?> entityDAO = entitySequence.getEntityName().getIntegrationEntityDAO();
+
+        return result.withCodesInUse(entityDAO.findByCodes(result.getCodes()).keySet());
+    }
 
-        return null;
+    @Override
+    public long getReservedCodeBlocks() {
+        return reservedCodeBlocks.get();
+    }
+
+    @Override
+    public long getCodeCollisions() {
+        return codeCollisions.get();
+    }
+
+    @Override
+    public long getCodeReservationRetries() {
+        return codeReservationRetries.get();
     }
 
     @Override
@@ -24,6 +24,8 @@ package org.libreplan.business.common.daos;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.commons.lang3.Validate;
@@ -60,6 +62,12 @@ import org.springframework.transaction.annotation.Transactional;
  */
 public class GenericDAOHibernate<E extends BaseEntity, PK extends Serializable> implements IGenericDAO<E, PK> {
 
+    /**
+     * Maximum number of values sent in the <code>IN</code> list of a single query, so the statement does not grow
+     * without bound.
+     */
+    protected static final int MAX_VALUES_PER_IN_QUERY = 500;
+
     private Class<E> entityClass;
 
     @Autowired
@@ -85,6 +93,20 @@ public class GenericDAOHibernate<E extends BaseEntity, PK extends Serializable>
         return entityClass;
     }
 
+    /**
+     * It splits the values in chunks of at most {@link #MAX_VALUES_PER_IN_QUERY} elements, each one small enough to
+     * be sent in the <code>IN</code> list of a query.
+     */
+    protected static <T> List<List<T>> inChunks(Collection<? extends T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> result = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += MAX_VALUES_PER_IN_QUERY) {
+            result.add(all.subList(i, Math.min(i + MAX_VALUES_PER_IN_QUERY, all.size())));
+        }
+
+        return result;
+    }
+
     /**
      * It's necessary to save and validate later.
      *
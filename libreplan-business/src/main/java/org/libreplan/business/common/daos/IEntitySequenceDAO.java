@@ -57,4 +57,22 @@ public interface IEntitySequenceDAO extends IGenericDAO<EntitySequence, Long> {
 
     Integer getNumberOfDigitsCode(EntityNameEnum entityName);
 
+    /**
+     * @return how many times values of a sequence have been reserved in the
+     *         database by this node
+     */
+    long getReservedCodeBlocks();
+
+    /**
+     * @return how many generated codes have been skipped because they were
+     *         already in use
+     */
+    long getCodeCollisions();
+
+    /**
+     * @return how many times a code request has needed to reserve more than
+     *         once because the reserved values were already in use
+     */
+    long getCodeReservationRetries();
+
 }
\ No newline at end of file
@@ -21,7 +21,10 @@
 
 package org.libreplan.business.common.daos;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
@@ -63,9 +66,43 @@ public interface IIntegrationEntityDAO<E extends IntegrationEntity>
 
     public E findExistingEntityByCode(String code);
 
+    /**
+     * It retrieves the entities with the given codes using as few queries as
+     * possible. The codes are matched ignoring case and surrounding
+     * whitespace, the same way as {@link #findByCode(String)}. Blank codes are
+     * ignored.
+     *
+     * @return the entities found, keyed by their code trimmed and in lower
+     *         case (see {@link #normalizeCode(String)})
+     */
+    public Map<String, E> findByCodes(Collection<String> codes);
+
+    /**
+     * It returns the key used by {@link #findByCodes(Collection)} for the
+     * given code, or <code>null</code> if it is blank.
+     */
+    public String normalizeCode(String code);
+
     /**
      * It returns all entities ordered by ascending code.
      */
     public List<E> findAll();
 
+    /**
+     * It returns at most <code>limit</code> entities ordered by ascending
+     * code, starting just after <code>afterCode</code>. If it is blank, it
+     * starts from the first one. Passing the code of the last entity of a
+     * page returns the next page.
+     */
+    public List<E> findAfterCode(String afterCode, int limit);
+
+    /**
+     * It iterates over all entities ordered by ascending code without
+     * loading all of them at once. They are handed to <code>onPage</code> in
+     * lists of at most <code>pageSize</code> elements, and the session is
+     * cleared after each page. So, entities loaded by the caller in the
+     * current session are detached.
+     */
+    public void scrollAll(int pageSize, Consumer<List<E>> onPage);
+
 }
@@ -21,13 +21,25 @@
 
 package org.libreplan.business.common.daos;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.util.Pair;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -94,6 +106,148 @@ public class IntegrationEntityDAO<E extends IntegrationEntity>
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, E> findByCodes(Collection<String> codes) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String each : codes) {
+            String code = normalizeCode(each);
+            if ( code != null ) {
+                normalized.add(code);
+            }
+        }
+
+        Map<String, E> result = new HashMap<>();
+        for (List<String> chunk : inChunks(normalized)) {
+            for (E each : findByNormalizedCodes(chunk)) {
+                result.put(normalizeCode(each.getCode()), each);
+            }
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<E> findByNormalizedCodes(List<String> codes) {
+        String hql = "FROM " + getEntityClass().getName() + " e WHERE lower(e." + getCodeProperty() + ") IN (:codes)";
+
+        return getSession().createQuery(hql).setParameterList("codes", codes).list();
+    }
+
+    /**
+     * It returns the entities whose code is exactly one of the given ones. Unlike {@link #findByCodes(Collection)}
+     * the codes are compared as they are, so the index over the code column can be used.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<E> findByExactCodes(Collection<String> codes) {
+        List<E> result = new ArrayList<>();
+        for (List<String> chunk : inChunks(codes)) {
+            result.addAll(getSession().createCriteria(getEntityClass())
+                    .add(Restrictions.in(getCodeProperty(), chunk)).list());
+        }
+
+        return result;
+    }
+
+    /**
+     * Like {@link #findByExactCodes(Collection)}, but it only returns the code and id of the entities, so they are
+     * not loaded.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<Pair<String, Long>> findCodesAndIdsByExactCodes(Collection<String> codes) {
+        String hql = "SELECT e." + getCodeProperty() + ", e.id FROM " + getEntityClass().getName() + " e " +
+                "WHERE e." + getCodeProperty() + " IN (:codes)";
+
+        List<Pair<String, Long>> result = new ArrayList<>();
+        for (List<String> chunk : inChunks(codes)) {
+            List<Object[]> rows = getSession().createQuery(hql).setParameterList("codes", chunk).list();
+            for (Object[] row : rows) {
+                result.add(Pair.create((String) row[0], (Long) row[1]));
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public String normalizeCode(String code) {
+        return StringUtils.isBlank(code) ? null : code.trim().toLowerCase();
+    }
+
+    /**
+     * It returns the property holding the code in the mapping of the entity.
+     * DAOs of entities storing it elsewhere must override it.
+     */
+    protected String getCodeProperty() {
+        return "code";
+    }
+
+    /**
+     * It returns an HQL condition over the alias <code>e</code> that the
+     * entities returned by {@link #findAfterCode(String, int)} and
+     * {@link #scrollAll(int, Consumer)} must satisfy, or <code>null</code> if
+     * all of them are returned.
+     */
+    protected String getListingRestriction() {
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    @Transactional(readOnly = true)
+    public List<E> findAfterCode(String afterCode, int limit) {
+        boolean fromFirst = StringUtils.isBlank(afterCode);
+        Query query = createListingQuery(fromFirst ? null : "e." + getCodeProperty() + " > :afterCode");
+        if ( !fromFirst ) {
+            query.setParameter("afterCode", afterCode.trim());
+        }
+
+        return query.setMaxResults(limit).list();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    @Transactional(readOnly = true)
+    public void scrollAll(int pageSize, Consumer<List<E>> onPage) {
+        ScrollableResults results = createListingQuery(null)
+                .setFetchSize(pageSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            List<E> page = new ArrayList<>(pageSize);
+            while ( results.next() ) {
+                page.add((E) results.get(0));
+                if ( page.size() == pageSize ) {
+                    onPage.accept(page);
+                    page = new ArrayList<>(pageSize);
+                    getSession().clear();
+                }
+            }
+            if ( !page.isEmpty() ) {
+                onPage.accept(page);
+                getSession().clear();
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    private Query createListingQuery(String condition) {
+        List<String> conditions = new ArrayList<>();
+        if ( condition != null ) {
+            conditions.add(condition);
+        }
+        if ( getListingRestriction() != null ) {
+            conditions.add(getListingRestriction());
+        }
+
+        String hql = "FROM " + getEntityClass().getName() + " e" +
+                (conditions.isEmpty() ? "" : " WHERE " + StringUtils.join(conditions, " AND ")) +
+                " ORDER BY e." + getCodeProperty();
+
+        return getSession().createQuery(hql);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<E> findAll() {
@@ -0,0 +1,125 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common.entities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Values of an {@link EntitySequence} reserved at once, so their codes can be
+ * handed out without accessing the database. It is safe to use it from
+ * several threads.
+ *
+ * The codes that were already in use when the range was reserved are
+ * skipped.
+ */
+public class EntitySequenceRange {
+
+    public static EntitySequenceRange create(EntitySequence sequence, int firstValue, int lastValue) {
+        Validate.isTrue(firstValue <= lastValue);
+
+        return new EntitySequenceRange(
+                sequence.getId(), sequence.getPrefix(), sequence.getNumberOfDigits(), firstValue, lastValue);
+    }
+
+    private final Long sequenceId;
+
+    private final String prefix;
+
+    private final int numberOfDigits;
+
+    private final AtomicInteger next;
+
+    private final int lastValue;
+
+    private final Set<String> codesInUse = new HashSet<>();
+
+    private EntitySequenceRange(Long sequenceId, String prefix, int numberOfDigits, int firstValue, int lastValue) {
+        this.sequenceId = sequenceId;
+        this.prefix = prefix;
+        this.numberOfDigits = numberOfDigits;
+        this.next = new AtomicInteger(firstValue);
+        this.lastValue = lastValue;
+    }
+
+    /**
+     * @return all the codes of the range, so the ones already in use can be
+     *         looked for at once
+     */
+    public List<String> getCodes() {
+        List<String> result = new ArrayList<>();
+        for (int value = next.get(); value <= lastValue; value++) {
+            result.add(codeFor(value));
+        }
+
+        return result;
+    }
+
+    /**
+     * It marks some codes as already in use. It must be called before handing
+     * out any code. The codes are compared ignoring case.
+     */
+    public EntitySequenceRange withCodesInUse(Collection<String> codes) {
+        for (String each : codes) {
+            codesInUse.add(each.trim().toLowerCase());
+        }
+
+        return this;
+    }
+
+    public boolean isFor(EntitySequence sequence) {
+        return sequenceId != null && sequenceId.equals(sequence.getId())
+                && prefix.equals(sequence.getPrefix())
+                && numberOfDigits == sequence.getNumberOfDigits();
+    }
+
+    /**
+     * @param collisions
+     *            it is incremented for each code skipped because it was in
+     *            use
+     * @return the next code not in use, or <code>null</code> if the range is
+     *         exhausted
+     */
+    public String nextCode(AtomicLong collisions) {
+        int value;
+        while ( (value = next.getAndIncrement()) <= lastValue ) {
+            String code = codeFor(value);
+            if ( !codesInUse.contains(code.toLowerCase()) ) {
+                return code;
+            }
+            collisions.incrementAndGet();
+        }
+        next.set(lastValue + 1);
+
+        return null;
+    }
+
+    private String codeFor(int value) {
+        return prefix + EntitySequence.formatValue(numberOfDigits, value);
+    }
+
+}
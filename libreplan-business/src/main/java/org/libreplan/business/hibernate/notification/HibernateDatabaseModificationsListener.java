@@ -20,11 +20,13 @@
  */
 package org.libreplan.business.hibernate.notification;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -53,6 +55,8 @@ import org.hibernate.event.spi.PostUpdateEventListener;
 import org.hibernate.internal.SessionFactoryImpl;
 import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.proxy.HibernateProxy;
+import org.libreplan.business.hibernate.notification.ModificationsDelta.Modification;
+import org.libreplan.business.hibernate.notification.ModificationsDelta.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -74,20 +78,34 @@ public class HibernateDatabaseModificationsListener implements
 
     private ConcurrentMap<Transaction, Dispatcher> pending = new ConcurrentHashMap<>();
 
-    private Set<NotBlockingAutoUpdatedSnapshot<?>> snapshotsInterestedOn(Class<?> entityClass) {
-        List<Class<?>> list = new ArrayList<>(1);
-        list.add(entityClass);
+    private Map<NotBlockingAutoUpdatedSnapshot<?>, List<Modification>> snapshotsInterestedOn(
+            Modification modification) {
+
+        List<Modification> list = new ArrayList<>(1);
+        list.add(modification);
 
         return snapshotsInterestedOn(list);
     }
 
-    private Set<NotBlockingAutoUpdatedSnapshot<?>> snapshotsInterestedOn(Collection<? extends Class<?>> classesList) {
-        Set<NotBlockingAutoUpdatedSnapshot<?>> result = new HashSet<>();
+    /**
+     * @return the snapshots interested on some of the modifications, each one
+     *         with the modifications it's interested on
+     */
+    private Map<NotBlockingAutoUpdatedSnapshot<?>, List<Modification>> snapshotsInterestedOn(
+            Collection<? extends Modification> modifications) {
 
-        for (Class<?> each : new HashSet<>(classesList)) {
-            BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>> queue = interested.get(each);
-            if ( queue != null ) {
-                result.addAll(queue);
+        Map<NotBlockingAutoUpdatedSnapshot<?>, List<Modification>> result = new LinkedHashMap<>();
+
+        for (Modification each : modifications) {
+            BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>> queue = interested.get(each.getEntityClass());
+            if ( queue == null ) {
+                continue;
+            }
+            for (NotBlockingAutoUpdatedSnapshot<?> snapshot : queue) {
+                if ( !result.containsKey(snapshot) ) {
+                    result.put(snapshot, new ArrayList<>());
+                }
+                result.get(snapshot).add(each);
             }
         }
 
@@ -96,16 +114,16 @@ public class HibernateDatabaseModificationsListener implements
 
     private final class Dispatcher implements Synchronization {
 
-        private BlockingQueue<Class<?>> classes = new LinkedBlockingQueue<>();
+        private BlockingQueue<Modification> modifications = new LinkedBlockingQueue<>();
         private final Transaction transaction;
 
-        public Dispatcher(Transaction transaction, Class<?> entityClass) {
-            classes.offer(entityClass);
+        public Dispatcher(Transaction transaction, Modification modification) {
+            modifications.offer(modification);
             this.transaction = transaction;
         }
 
-        public void add(Class<?> entityClass) {
-            classes.offer(entityClass);
+        public void add(Modification modification) {
+            modifications.offer(modification);
         }
 
         @Override
@@ -118,13 +136,14 @@ public class HibernateDatabaseModificationsListener implements
             pending.remove(transaction);
 
             if ( isProbablySucessful(status) ) {
-                List<Class<?>> list = new ArrayList<>();
-                classes.drainTo(list);
+                List<Modification> list = new ArrayList<>();
+                modifications.drainTo(list);
                 LOG.debug(list.size() + " modification events recorded");
-                Set<NotBlockingAutoUpdatedSnapshot<?>> toDispatch = snapshotsInterestedOn(list);
+                Map<NotBlockingAutoUpdatedSnapshot<?>, List<Modification>> toDispatch = snapshotsInterestedOn(list);
 
                 LOG.debug(
-                        "dispatching " + toDispatch + " snapshots to reload due to transaction successful completion");
+                        "dispatching " + toDispatch.keySet() +
+                        " snapshots to reload due to transaction successful completion");
 
                 dispatch(toDispatch);
             }
@@ -164,17 +183,24 @@ public class HibernateDatabaseModificationsListener implements
 
     @Override
     public void onPostDelete(PostDeleteEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        modificationOn(
+                inferTransaction(event), modification(Operation.DELETION, event.getId(), getEntityObject(event)));
     }
 
     @Override
     public void onPostUpdate(PostUpdateEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        modificationOn(
+                inferTransaction(event), modification(Operation.UPDATE, event.getId(), getEntityObject(event)));
     }
 
     @Override
     public void onPostInsert(PostInsertEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        modificationOn(
+                inferTransaction(event), modification(Operation.INSERTION, event.getId(), getEntityObject(event)));
+    }
+
+    private static Modification modification(Operation operation, Serializable id, Object entity) {
+        return new Modification(operation, inferEntityClass(entity), id, entity);
     }
 
 
@@ -204,41 +230,47 @@ public class HibernateDatabaseModificationsListener implements
         return entity.getClass();
     }
 
-    void modificationOn(Transaction transaction, Class<?> entityClass) {
+    void modificationOn(Transaction transaction, Modification modification) {
         if ( transaction == null ) {
-            dispatch(snapshotsInterestedOn(entityClass));
+            dispatch(snapshotsInterestedOn(modification));
 
             return;
         }
-        Dispatcher newDispatcher = new Dispatcher(transaction, entityClass);
+        Dispatcher newDispatcher = new Dispatcher(transaction, modification);
         Dispatcher previous;
         previous = pending.putIfAbsent(transaction, newDispatcher);
 
         boolean dispatcherAlreadyExisted = previous != null;
         if ( dispatcherAlreadyExisted ) {
-            previous.add(entityClass);
+            previous.add(modification);
         } else {
             transaction.registerSynchronization(newDispatcher);
         }
     }
 
-    private void dispatch(Set<NotBlockingAutoUpdatedSnapshot<?>> toBeDispatched) {
-        toBeDispatched.forEach(this::dispatch);
+    private void dispatch(Map<NotBlockingAutoUpdatedSnapshot<?>, List<Modification>> toBeDispatched) {
+        for (Entry<NotBlockingAutoUpdatedSnapshot<?>, List<Modification>> each : toBeDispatched.entrySet()) {
+            each.getKey().reloadNeeded(executor, each.getValue());
+        }
     }
 
-    private void dispatch(NotBlockingAutoUpdatedSnapshot<?> each) {
-        each.reloadNeeded(executor);
+    @Override
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn) {
+        return takeSnapshot(name, callable, null, reloadOn);
     }
 
     @Override
-    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn) {
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name,
+                                                    Callable<T> callable,
+                                                    IIncrementalUpdate<T> incrementalUpdate,
+                                                    ReloadOn reloadOn) {
         if ( !hibernateListenersRegistered ) {
             throw new IllegalStateException(
                     "The hibernate listeners has not been registered. There is some configuration problem.");
         }
 
         final NotBlockingAutoUpdatedSnapshot<T> result;
-        result = new NotBlockingAutoUpdatedSnapshot<>(name, callable);
+        result = new NotBlockingAutoUpdatedSnapshot<>(name, callable, incrementalUpdate);
 
         for (Class<?> each : reloadOn.getClassesOnWhichToReload()) {
             interested.putIfAbsent(each, emptyQueue());
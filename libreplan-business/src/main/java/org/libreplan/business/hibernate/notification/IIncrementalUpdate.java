@@ -0,0 +1,41 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+/**
+ * Calculates the new value of a snapshot from its previous value and the
+ * modifications done since that value was calculated, so the cost depends on
+ * the number of modifications instead of the size of the database.
+ *
+ * @see ISnapshotRefresherService#takeSnapshot(String, java.util.concurrent.Callable, IIncrementalUpdate, ReloadOn)
+ */
+public interface IIncrementalUpdate<T> {
+
+    /**
+     * @param previousValue
+     *            the last value successfully calculated, never <code>null</code>
+     * @param delta
+     *            the insertions, updates and deletions of entities whose class
+     *            is one of the classes the snapshot reloads on
+     * @return the new value of the snapshot. The previous value must not be
+     *         modified, since it could be being read by other threads
+     */
+    T apply(T previousValue, ModificationsDelta delta) throws Exception;
+
+}
@@ -30,4 +30,15 @@ public interface ISnapshotRefresherService {
 
     public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn);
 
+    /**
+     * Like {@link #takeSnapshot(String, Callable, ReloadOn)} but, once the
+     * first value has been calculated, the modifications are applied through
+     * <code>incrementalUpdate</code> instead of calling <code>callable</code>
+     * again.
+     */
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name,
+                                                    Callable<T> callable,
+                                                    IIncrementalUpdate<T> incrementalUpdate,
+                                                    ReloadOn reloadOn);
+
 }
@@ -0,0 +1,175 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * The entities inserted, updated or deleted by one or more transactions, in
+ * the same order they were notified. It allows the snapshots to patch their
+ * previous value instead of recalculating everything.
+ *
+ * @see IIncrementalUpdate
+ */
+public class ModificationsDelta {
+
+    public enum Operation {
+        INSERTION, UPDATE, DELETION;
+    }
+
+    public static class Modification {
+
+        private final Operation operation;
+
+        private final Class<?> entityClass;
+
+        private final Serializable id;
+
+        private final Object entity;
+
+        public Modification(Operation operation, Class<?> entityClass,
+                Serializable id, Object entity) {
+            Validate.notNull(operation);
+            Validate.notNull(entityClass);
+            Validate.notNull(entity);
+            this.operation = operation;
+            this.entityClass = entityClass;
+            this.id = id;
+            this.entity = entity;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public Class<?> getEntityClass() {
+            return entityClass;
+        }
+
+        public Serializable getId() {
+            return id;
+        }
+
+        /**
+         * The entity belongs to the session that modified it, which probably
+         * has been closed. So only its own fields can be safely accessed, not
+         * the lazy loaded associations.
+         */
+        public Object getEntity() {
+            return entity;
+        }
+
+        public boolean isOf(Class<?> klass) {
+            return klass.isAssignableFrom(entityClass);
+        }
+
+        @Override
+        public String toString() {
+            return operation + " of " + entityClass.getSimpleName() + "#" + id;
+        }
+    }
+
+    private final List<Modification> modifications;
+
+    public ModificationsDelta(Collection<? extends Modification> modifications) {
+        this.modifications = Collections.unmodifiableList(new ArrayList<>(modifications));
+    }
+
+    public List<Modification> getModifications() {
+        return modifications;
+    }
+
+    public boolean isEmpty() {
+        return modifications.isEmpty();
+    }
+
+    public int size() {
+        return modifications.size();
+    }
+
+    public boolean containsAny(Class<?>... klasses) {
+        for (Modification each : modifications) {
+            for (Class<?> klass : klasses) {
+                if (each.isOf(klass)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public List<Modification> getModificationsOf(Class<?> klass) {
+        List<Modification> result = new ArrayList<>();
+        for (Modification each : modifications) {
+            if (each.isOf(klass)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    public <T> List<T> getEntities(Class<T> klass, Operation... operations) {
+        List<T> result = new ArrayList<>();
+        for (Modification each : filter(klass, operations)) {
+            result.add(klass.cast(each.getEntity()));
+        }
+        return result;
+    }
+
+    /**
+     * @param operations
+     *            if none is specified all operations are considered
+     */
+    public Set<Serializable> getIds(Class<?> klass, Operation... operations) {
+        Set<Serializable> result = new LinkedHashSet<>();
+        for (Modification each : filter(klass, operations)) {
+            if (each.getId() != null) {
+                result.add(each.getId());
+            }
+        }
+        return result;
+    }
+
+    private List<Modification> filter(Class<?> klass, Operation... operations) {
+        List<Operation> accepted = operations.length == 0 ? Arrays
+                .asList(Operation.values()) : Arrays.asList(operations);
+        List<Modification> result = new ArrayList<>();
+        for (Modification each : getModificationsOf(klass)) {
+            if (accepted.contains(each.getOperation())) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return modifications.toString();
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.libreplan.business.hibernate.notification.ModificationsDelta.Modification;
+import org.libreplan.business.planner.daos.IDayAssignmentDAO;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.GenericDayAssignment;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.planner.entities.Task;
+
+/**
+ * The tasks affected by some modifications: the modified tasks themselves and the tasks of the modified day
+ * assignments.
+ * <p>
+ * The modified day assignments are detached, so only the id of their container is read from them. The tasks of the
+ * containers are looked up in the database.
+ */
+public class ModifiedTasks {
+
+    private ModifiedTasks() {
+    }
+
+    /**
+     * @return the ids of the affected tasks, or <code>null</code> if the task of some modified day assignment can't
+     *         be known, so everything must be recalculated
+     */
+    public static Set<Serializable> of(ModificationsDelta delta, IDayAssignmentDAO dayAssignmentDAO) {
+        Set<Serializable> result = new LinkedHashSet<>(delta.getIds(Task.class));
+        Set<Long> specificContainers = new LinkedHashSet<>();
+        Set<Long> genericContainers = new LinkedHashSet<>();
+        for (Modification each : delta.getModificationsOf(DayAssignment.class)) {
+            Object dayAssignment = each.getEntity();
+            Long containerId;
+            if ( dayAssignment instanceof SpecificDayAssignment ) {
+                containerId = ((SpecificDayAssignment) dayAssignment).getContainerId();
+                specificContainers.add(containerId);
+            } else if ( dayAssignment instanceof GenericDayAssignment ) {
+                containerId = ((GenericDayAssignment) dayAssignment).getContainerId();
+                genericContainers.add(containerId);
+            } else {
+                containerId = null;
+            }
+            if ( containerId == null ) {
+                return null;
+            }
+        }
+
+        if ( !addTasks(result, specificContainers, dayAssignmentDAO.findTaskIdsBySpecificContainers(specificContainers))
+                || !addTasks(result, genericContainers,
+                        dayAssignmentDAO.findTaskIdsByGenericContainers(genericContainers)) ) {
+            return null;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return <code>false</code> if the task of some container is not found, e.g. because the container has been
+     *         removed
+     */
+    private static boolean addTasks(Set<Serializable> result, Collection<Long> containers, Map<Long, Long> taskIds) {
+        for (Long each : containers) {
+            Long taskId = taskIds.get(each);
+            if ( taskId == null ) {
+                return false;
+            }
+            result.add(taskId);
+        }
+
+        return true;
+    }
+
+}
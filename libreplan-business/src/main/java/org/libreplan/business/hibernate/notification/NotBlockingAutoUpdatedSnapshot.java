@@ -20,14 +20,20 @@
  */
 package org.libreplan.business.hibernate.notification;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.libreplan.business.hibernate.notification.ModificationsDelta.Modification;
 
 /**
  * @author Óscar González Fernández
@@ -40,6 +46,18 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
 
     private final Callable<T> callable;
 
+    private final IIncrementalUpdate<T> incrementalUpdate;
+
+    private final BlockingQueue<Modification> pendingModifications = new LinkedBlockingQueue<>();
+
+    private final Object calculationLock = new Object();
+
+    /**
+     * Last value calculated, used as base for the incremental updates. It's
+     * only accessed holding {@link #calculationLock}.
+     */
+    private T lastCalculated;
+
     private final AtomicReference<State> currentState; // &line[AtomicReference]
 
     private final String name;
@@ -168,10 +186,16 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
     }
 
     public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable) {
+        this(name, callable, null);
+    }
+
+    public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable,
+            IIncrementalUpdate<T> incrementalUpdate) {
         Validate.notNull(callable);
         Validate.notNull(name);
         this.name = "*" + name + "*";
         this.callable = callable;
+        this.incrementalUpdate = incrementalUpdate;
         this.currentState = new AtomicReference<State>(new NotLaunchState()); // &line[AtomicReference]
         this.executionsReport = new ExecutionsReport();
     }
@@ -181,19 +205,35 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         return currentState.get().getValue();
     }
 
+    public void reloadNeeded(ExecutorService executorService,
+            Collection<? extends Modification> modifications) {
+        if (isIncremental()) {
+            pendingModifications.addAll(modifications);
+        }
+        reloadNeeded(executorService);
+    }
+
     public void reloadNeeded(ExecutorService executorService) {
         Future<T> future = executorService
                 .submit(callableDecoratedWithStatistics());
         State previousState;
         State newState = null;
         do {
-            if (newState != null) {
+            if (newState != null && !isIncremental()) {
                 newState.cancel();
             }
             previousState = currentState.get();
             newState = previousState.nextState(future);
         } while (!currentState.compareAndSet(previousState, newState));
-        previousState.cancel();
+        // an ongoing incremental calculation could have already taken some
+        // pending modifications, so it must be allowed to finish
+        if (!isIncremental()) {
+            previousState.cancel();
+        }
+    }
+
+    private boolean isIncremental() {
+        return incrementalUpdate != null;
     }
 
     public void ensureFirstLoad(ExecutorService executorService) {
@@ -229,7 +269,7 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
                 long timeWaiting = start - requestTime;
                 Exception error = null;
                 try {
-                    return callable.call();
+                    return calculate();
                 } catch (Exception e) {
                     error = e;
                     LOG.error("error executing snapshot " + name);
@@ -242,6 +282,41 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         };
     }
 
+    private T calculate() throws Exception {
+        if (!isIncremental()) {
+            return callable.call();
+        }
+        synchronized (calculationLock) {
+            List<Modification> modifications = new ArrayList<>();
+            pendingModifications.drainTo(modifications);
+            try {
+                lastCalculated = lastCalculated == null ? callable.call()
+                        : applyModifications(lastCalculated,
+                                new ModificationsDelta(modifications));
+                return lastCalculated;
+            } catch (Exception e) {
+                // the modifications taken are lost, so next time everything
+                // must be recalculated
+                lastCalculated = null;
+                throw e;
+            }
+        }
+    }
+
+    private T applyModifications(T previous, ModificationsDelta delta)
+            throws Exception {
+        if (delta.isEmpty()) {
+            return previous;
+        }
+        try {
+            return incrementalUpdate.apply(previous, delta);
+        } catch (Exception e) {
+            LOG.error(name + " error applying " + delta.size()
+                    + " modifications, recalculating it fully", e);
+            return callable.call();
+        }
+    }
+
     private static class Data {
         final int executionTimes;
         final int errors;
@@ -20,15 +20,23 @@
  */
 package org.libreplan.business.hibernate.notification;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.SortedSet;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,10 +47,12 @@ import org.libreplan.business.calendars.entities.CalendarData;
 import org.libreplan.business.calendars.entities.CalendarException;
 import org.libreplan.business.common.AdHocTransactionService;
 import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.costcategories.daos.ICostCategoryDAO;
 import org.libreplan.business.costcategories.entities.CostCategory;
 import org.libreplan.business.externalcompanies.daos.IExternalCompanyDAO;
 import org.libreplan.business.externalcompanies.entities.ExternalCompany;
+import org.libreplan.business.hibernate.notification.ModificationsDelta.Operation;
 import org.libreplan.business.labels.daos.ILabelDAO;
 import org.libreplan.business.labels.daos.ILabelTypeDAO;
 import org.libreplan.business.labels.entities.Label;
@@ -53,9 +63,12 @@ import org.libreplan.business.planner.chart.ResourceLoadChartData;
 import org.libreplan.business.planner.daos.IDayAssignmentDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DerivedDayAssignment;
+import org.libreplan.business.planner.entities.GenericDayAssignment;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
 import org.libreplan.business.planner.entities.ICostCalculator;
 import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
 import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.planner.entities.TaskElement;
@@ -66,6 +79,7 @@ import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.resources.daos.IWorkerDAO;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.CriterionType;
+import org.libreplan.business.resources.entities.Interval;
 import org.libreplan.business.resources.entities.Machine;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.VirtualWorker;
@@ -88,6 +102,12 @@ public class PredefinedDatabaseSnapshots {
 
     private static final Log LOG = LogFactory.getLog(PredefinedDatabaseSnapshots.class);
 
+    /**
+     * Modified days closer than this are recalculated together, so a long allocation doesn't end up in a query
+     * per week due to the days without assignments.
+     */
+    private static final int MAX_DAYS_BETWEEN_MODIFIED_DAYS_RECALCULATED_TOGETHER = 7;
+
     @Autowired
     private IAdHocTransactionService transactionService;
 
@@ -224,7 +244,7 @@ public class PredefinedDatabaseSnapshots {
 
         snapshotsRegistered = true;
         criterionsMap = snapshot("criterions map", calculateCriterionsMap(), CriterionType.class, Criterion.class);
-        labelsMap = snapshot("labels map", calculateLabelsMap(), LabelType.class, Label.class);
+        labelsMap = snapshot("labels map", calculateLabelsMap(), updateLabelsMap(), LabelType.class, Label.class);
         listWorkers = snapshot("workers", calculateWorkers(), Worker.class);
         listCostCategories = snapshot("list cost categories", calculateListCostCategories(), CostCategory.class);
         listCriterion = snapshot("list criterions", calculateListCriterion(), Criterion.class);
@@ -244,27 +264,38 @@ public class PredefinedDatabaseSnapshots {
         resourceLoadChartData = snapshot(
                 "resource load grouped by date",
                 calculateResourceLoadChartData(),
+                updateResourceLoadChartData(),
                 CalendarAvailability.class,
                 CalendarException.class,
                 CalendarData.class,
                 TaskElement.class,
                 SpecificResourceAllocation.class,
                 GenericResourceAllocation.class,
-                ResourceAllocation.class);
+                ResourceAllocation.class,
+                SpecificDayAssignment.class,
+                GenericDayAssignment.class,
+                DerivedDayAssignment.class);
 
-        workReportLines = snapshot("work report lines", calculateWorkReportLines(), WorkReportLine.class);
+        workReportLines = snapshot(
+                "work report lines",
+                calculateWorkReportLines(),
+                updateWorkReportLines(),
+                WorkReportLine.class);
 
         estimatedCostPerTask = snapshot(
                 "estimated cost per task",
                 calculateEstimatedCostPerTask(),
+                updateCostPerTask(calculateEstimatedCostPerTask(), hoursCostCalculator::getEstimatedCost),
                 TaskElement.class,
                 Task.class,
                 TaskGroup.class,
-                DayAssignment.class);
+                SpecificDayAssignment.class,
+                GenericDayAssignment.class);
 
         advanceCostPerTask = snapshot(
                 "advance cost per task",
                 calculateAdvanceCostPerTask(),
+                updateCostPerTask(calculateAdvanceCostPerTask(), hoursCostCalculator::getAdvanceCost),
                 TaskElement.class,
                 Task.class,
                 TaskGroup.class,
@@ -276,11 +307,27 @@ public class PredefinedDatabaseSnapshots {
                 .takeSnapshot(name, callableOnReadOnlyTransaction(callable), ReloadOn.onChangeOf(reloadOnChangesOf));
     }
 
+    private <T> IAutoUpdatedSnapshot<T> snapshot(String name,
+                                                 Callable<T> callable,
+                                                 IIncrementalUpdate<T> incrementalUpdate,
+                                                 Class<?>... reloadOnChangesOf) {
+        return snapshotRefresherService.takeSnapshot(
+                name,
+                callableOnReadOnlyTransaction(callable),
+                incrementalUpdateOnReadOnlyTransaction(incrementalUpdate),
+                ReloadOn.onChangeOf(reloadOnChangesOf));
+    }
+
     @SuppressWarnings("unchecked")
     private <T> Callable<T> callableOnReadOnlyTransaction(Callable<T> callable) {
         return AdHocTransactionService.readOnlyProxy(transactionService, Callable.class, callable);
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> IIncrementalUpdate<T> incrementalUpdateOnReadOnlyTransaction(IIncrementalUpdate<T> incrementalUpdate) {
+        return AdHocTransactionService.readOnlyProxy(transactionService, IIncrementalUpdate.class, incrementalUpdate);
+    }
+
     private Callable<SortedMap<CriterionType, List<Criterion>>> calculateCriterionsMap() {
         return () -> {
             SortedMap<CriterionType, List<Criterion>> result = new TreeMap<>(getComparatorByName());
@@ -311,6 +358,49 @@ public class PredefinedDatabaseSnapshots {
 
 
 
+    /**
+     * Only the label types modified, or whose labels have been modified, are loaded again.
+     */
+    private IIncrementalUpdate<Map<LabelType, List<Label>>> updateLabelsMap() {
+        return (previous, delta) -> {
+            Set<Serializable> modifiedLabels = delta.getIds(Label.class);
+            Set<Serializable> affectedTypes = new HashSet<>(delta.getIds(LabelType.class));
+
+            for (Label each : delta.getEntities(Label.class)) {
+                if ( each.getType() != null ) {
+                    affectedTypes.add(each.getType().getId());
+                }
+            }
+
+            // the type could have been changed, so the previous one is affected too
+            for (Entry<LabelType, List<Label>> each : previous.entrySet()) {
+                for (Label label : each.getValue()) {
+                    if ( modifiedLabels.contains(label.getId()) ) {
+                        affectedTypes.add(each.getKey().getId());
+                    }
+                }
+            }
+
+            Map<LabelType, List<Label>> result = new HashMap<>();
+            for (Entry<LabelType, List<Label>> each : previous.entrySet()) {
+                if ( !affectedTypes.contains(each.getKey().getId()) ) {
+                    result.put(each.getKey(), each.getValue());
+                }
+            }
+
+            for (Serializable each : affectedTypes) {
+                try {
+                    LabelType labelType = labelTypeDAO.find((Long) each);
+                    result.put(labelType, new ArrayList<>(labelDAO.findByType(labelType)));
+                } catch (InstanceNotFoundException e) {
+                    // it has been removed
+                }
+            }
+
+            return result;
+        };
+    }
+
     private Callable<List<Worker>> calculateWorkers() {
         return () -> workerDAO.getAll();
     }
@@ -369,21 +459,169 @@ public class PredefinedDatabaseSnapshots {
         };
     }
 
+    /**
+     * Only the days with modified {@link DayAssignment day assignments} or
+     * {@link CalendarException calendar exceptions} are recalculated. The modifications of task elements and
+     * allocations don't need to be considered, since they only affect the load through their day assignments. The
+     * rest of modifications on calendars, or updates of exceptions whose previous date is unknown, modify the
+     * availability of an unknown set of days, so in that case everything is recalculated.
+     */
+    private IIncrementalUpdate<ResourceLoadChartData> updateResourceLoadChartData() {
+        return (previous, delta) -> {
+            if ( delta.containsAny(CalendarData.class, CalendarAvailability.class) ||
+                    !delta.getIds(CalendarException.class, Operation.UPDATE).isEmpty() ) {
+
+                return calculateResourceLoadChartData().call();
+            }
+
+            SortedSet<LocalDate> modifiedDays = new TreeSet<>();
+            for (DayAssignment each : delta.getEntities(DayAssignment.class)) {
+                modifiedDays.add(each.getDay());
+            }
+            for (CalendarException each : delta.getEntities(CalendarException.class)) {
+                modifiedDays.add(each.getDate());
+            }
+
+            List<Interval> intervals =
+                    groupInIntervals(modifiedDays, MAX_DAYS_BETWEEN_MODIFIED_DAYS_RECALCULATED_TOGETHER);
+
+            for (Interval each : intervals) {
+                if ( !previous.isStrictlyInside(each.getStart(), each.getEnd()) ) {
+                    // the days shown could change
+                    return calculateResourceLoadChartData().call();
+                }
+            }
+
+            if ( intervals.isEmpty() ) {
+                return previous;
+            }
+
+            ResourceLoadChartData result = previous;
+            List<Resource> resources = resourceDAO.list(Resource.class);
+            for (Interval each : intervals) {
+                List<DayAssignment> dayAssignments = dayAssignmentDAO.getAllFor(
+                        scenarioManager.getCurrent(), each.getStart(), each.getEnd().minusDays(1));
+
+                result = result.withRecalculatedInterval(dayAssignments, resources, each.getStart(), each.getEnd());
+            }
+            LOG.debug("resource load chart data recalculated for " + intervals);
+
+            return result;
+        };
+    }
+
+    /**
+     * @return intervals with their end exclusive covering all the days. The days whose distance is not bigger than
+     *         <code>maxDaysBetween</code> share the same interval
+     */
+    private static List<Interval> groupInIntervals(SortedSet<LocalDate> days, int maxDaysBetween) {
+        List<Interval> result = new ArrayList<>();
+        LocalDate start = null;
+        LocalDate last = null;
+        for (LocalDate each : days) {
+            if ( start == null ) {
+                start = each;
+            } else if ( last.plusDays(maxDaysBetween).isBefore(each) ) {
+                result.add(Interval.range(start, last.plusDays(1)));
+                start = each;
+            }
+            last = each;
+        }
+        if ( start != null ) {
+            result.add(Interval.range(start, last.plusDays(1)));
+        }
+
+        return result;
+    }
+
     private Callable<List<WorkReportLine>> calculateWorkReportLines() {
         return () -> workReportLineDAO.list(WorkReportLine.class);
     }
 
 
 
+    /**
+     * The work report lines modified are removed and, if they still exist, loaded again.
+     */
+    private IIncrementalUpdate<List<WorkReportLine>> updateWorkReportLines() {
+        return (previous, delta) -> {
+            Set<Serializable> modified = delta.getIds(WorkReportLine.class);
+            List<WorkReportLine> result = new ArrayList<>(previous.size());
+            for (WorkReportLine each : previous) {
+                if ( !modified.contains(each.getId()) ) {
+                    result.add(each);
+                }
+            }
+
+            for (Serializable each : delta.getIds(WorkReportLine.class, Operation.INSERTION, Operation.UPDATE)) {
+                try {
+                    result.add(workReportLineDAO.find((Long) each));
+                } catch (InstanceNotFoundException e) {
+                    // it has been removed later on
+                }
+            }
+
+            return result;
+        };
+    }
+
+    /**
+     * Only the cost of the modified tasks, and of the tasks of the modified day assignments, is calculated again. The
+     * modifications of advance assignments can't be related to their tasks without loading the order elements, so
+     * they imply a full recalculation, as well as the day assignments whose task is not found. If looking up the tasks
+     * fails, the snapshot is fully recalculated too.
+     */
+    private IIncrementalUpdate<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> updateCostPerTask(
+            Callable<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> fullCalculation,
+            Function<Task, SortedMap<LocalDate, BigDecimal>> costCalculation) {
+
+        return (previous, delta) -> {
+            if ( delta.containsAny(DirectAdvanceAssignment.class) ) {
+                return fullCalculation.call();
+            }
+
+            Set<Serializable> modifiedTasks = ModifiedTasks.of(delta, dayAssignmentDAO);
+            if ( modifiedTasks == null ) {
+                return fullCalculation.call();
+            }
+            if ( modifiedTasks.isEmpty() ) {
+                return previous;
+            }
+
+            Map<TaskElement, SortedMap<LocalDate, BigDecimal>> result = new HashMap<>();
+            for (Entry<TaskElement, SortedMap<LocalDate, BigDecimal>> each : previous.entrySet()) {
+                if ( !modifiedTasks.contains(each.getKey().getId()) ) {
+                    result.put(each.getKey(), each.getValue());
+                }
+            }
+
+            for (Serializable each : modifiedTasks) {
+                try {
+                    TaskElement task = taskElementDAO.find((Long) each);
+                    if ( task instanceof Task ) {
+                        result.put(task, costCalculation.apply((Task) task));
+                    }
+                } catch (InstanceNotFoundException e) {
+                    // it has been removed
+                }
+            }
+
+            return result;
+        };
+    }
+
     private Callable<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> calculateEstimatedCostPerTask() {
         return () -> {
             Map<TaskElement, SortedMap<LocalDate, BigDecimal>> map = new HashMap<>();
 
-            taskElementDAO.
+            List<Task> tasks = taskElementDAO.
                     list(TaskElement.class)
                     .stream()
                     .filter(task -> task instanceof Task)
-                    .forEach(task -> map.put(task, hoursCostCalculator.getEstimatedCost((Task) task)));
+                    .map(task -> (Task) task)
+                    .collect(Collectors.toList());
+
+            map.putAll(hoursCostCalculator.getEstimatedCost(tasks));
 
             return map;
         };
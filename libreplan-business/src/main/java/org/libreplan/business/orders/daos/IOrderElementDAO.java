@@ -22,6 +22,7 @@
 package org.libreplan.business.orders.daos;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -93,29 +94,18 @@ public interface IOrderElementDAO extends IIntegrationEntityDAO<OrderElement> {
 
     List<OrderElement> findByTemplate(OrderElementTemplate template);
 
-    BigDecimal calculateAverageEstimatedHours(final List<OrderElement> list);
-
-    EffortDuration calculateAverageWorkedHours(final List<OrderElement> list);
-
-    BigDecimal calculateMaxEstimatedHours(final List<OrderElement> list);
-
-    BigDecimal calculateMinEstimatedHours(final List<OrderElement> list);
-
-    EffortDuration calculateMaxWorkedHours(final List<OrderElement> list);
-
-    EffortDuration calculateMinWorkedHours(final List<OrderElement> list);
-
     boolean isAlreadyInUse(OrderElement orderElement);
 
     boolean isAlreadyInUseThisOrAnyOfItsChildren(OrderElement orderElement);
 
     /**
-     * Returns codes in DB searching in all order elements but excluding orderElements
+     * Returns which of the codes are already used in DB by some order element not in orderElements
      *
+     * @param codes
      * @param orderElements
      * @return
      */
-    Set<String> getAllCodesExcluding(List<OrderElement> orderElements);
+    Set<String> getCodesInUseExcluding(Collection<String> codes, List<OrderElement> orderElements);
 
     /**
      * Checks if there's another {@link OrderElement} in DB which code is the same as
@@ -50,9 +50,7 @@ import org.libreplan.business.reports.dtos.CostExpenseSheetDTO;
 import org.libreplan.business.reports.dtos.OrderCostsPerResourceDTO;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.scenarios.entities.Scenario;
-import org.libreplan.business.users.daos.IOrderAuthorizationDAO;
 import org.libreplan.business.users.daos.IUserDAO;
-import org.libreplan.business.users.entities.OrderAuthorization;
 import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
@@ -80,9 +78,6 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
     @Autowired
     private ITypeOfWorkHoursDAO typeOfWorkHoursDAO;
 
-    @Autowired
-    private IOrderAuthorizationDAO orderAuthorizationDAO;
-
     @Autowired
     private IUserDAO userDAO;
 
@@ -91,6 +86,8 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
 
     private String STATE_PARAMETER = "state";
 
+    private static final String AUTHORIZED_USER_PARAMETER = "authorizedUser";
+
     @Override
     public List<Order> getOrders() {
         return list(Order.class);
@@ -198,32 +195,49 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
 
     @Override
     public List<Order> getOrdersByReadAuthorization(User user) {
-        if (user.isInRole(UserRole.ROLE_SUPERUSER) ||
-                user.isInRole(UserRole.ROLE_READ_ALL_PROJECTS) ||
-                user.isInRole(UserRole.ROLE_EDIT_ALL_PROJECTS)) {
-
+        if (canReadAllOrders(user)) {
             return getOrders();
         }
-        else {
-            List<Order> orders = new ArrayList<>();
-            List<OrderAuthorization> authorizations = orderAuthorizationDAO.listByUserAndItsProfiles(user);
-            for(OrderAuthorization authorization : authorizations) {
 
-                if (authorization.getAuthorizationType() == OrderAuthorizationType.READ_AUTHORIZATION ||
-                        authorization.getAuthorizationType() == OrderAuthorizationType.WRITE_AUTHORIZATION) {
+        return getSession()
+                .createQuery("SELECT o FROM Order o WHERE " + authorizedOrdersCondition(false))
+                .setParameter(AUTHORIZED_USER_PARAMETER, user)
+                .list();
+    }
 
-                    Order order = authorization.getOrder();
-                    if (!orders.contains(order)) {
-                        // These lines forces the load of the basic attributes of the order
-                        order.getName();
-                        orders.add(order);
-                    }
-                }
-            }
-            return orders;
-        }
+    private static boolean canReadAllOrders(User user) {
+        return user.isInRole(UserRole.ROLE_SUPERUSER) ||
+                user.isInRole(UserRole.ROLE_READ_ALL_PROJECTS) ||
+                user.isInRole(UserRole.ROLE_EDIT_ALL_PROJECTS);
+    }
+
+    /**
+     * HQL condition over the alias <code>o</code> that only holds for the
+     * orders the user parameter ({@link #AUTHORIZED_USER_PARAMETER}) is
+     * authorized to, directly or through any of its profiles. So, the
+     * authorizations are checked by the database in the same query that
+     * retrieves the orders.
+     *
+     * @param onlyWrite
+     *            if <code>true</code> read authorizations are not enough and
+     *            the <code>authorizationType</code> parameter must be set to
+     *            {@link OrderAuthorizationType#WRITE_AUTHORIZATION}
+     */
+    private static String authorizedOrdersCondition(boolean onlyWrite) {
+        return "o.id IN (" +
+                "SELECT oa.order.id FROM OrderAuthorization oa " +
+                "WHERE (oa.user = :" + AUTHORIZED_USER_PARAMETER + " OR oa.profile IN (" +
+                "SELECT p FROM User u JOIN u.profiles p WHERE u = :" + AUTHORIZED_USER_PARAMETER + "))" +
+                (onlyWrite ? " AND oa.authorizationType = :authorizationType" : "") +
+                ")";
     }
 
+    /**
+     * All the filters are combined in a single query. The dates filter
+     * includes the unscheduled orders created between the dates only if no
+     * other filter applies. As before, there are no results at all if no
+     * scheduled order is between the dates.
+     */
     private List<Order> getOrdersByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
             User user,
             Date startDate,
@@ -234,260 +248,99 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
             OrderStatusEnum state,
             Boolean excludeFinishedProject) {
 
-        List<Long> ordersIdsFiltered = getOrdersIdsFiltered(user, labels, criteria, customer, state, excludeFinishedProject);
-        if (ordersIdsFiltered != null && ordersIdsFiltered.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<Long> ordersIdsByDates = getOrdersIdsByDates(startDate, endDate);
-        if (ordersIdsByDates != null && ordersIdsByDates.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<Long> ordersIdsUnscheduled = getOrdersIdsUnscheduled(startDate, endDate);
-
-        Criteria c = getSession().createCriteria(Order.class);
-
-        if (ordersIdsFiltered != null && ordersIdsByDates != null) {
+        boolean restrictedByAuthorizations = !canReadAllOrders(user);
+        boolean filteredByLabels = labels != null && !labels.isEmpty();
+        boolean filteredByCriteria = criteria != null && !criteria.isEmpty();
+        boolean excludingFinished = excludeFinishedProject != null && excludeFinishedProject;
 
-            org.hibernate.criterion.Criterion and = Restrictions.and(
-                    Restrictions.in("id", ordersIdsFiltered),
-                    Restrictions.in("id", ordersIdsByDates));
-
-            c.add(and);
-        } else {
-            if (ordersIdsFiltered != null) {
-                c.add(Restrictions.in("id", ordersIdsFiltered));
-            }
-
-            if (ordersIdsByDates != null) {
-                if (ordersIdsUnscheduled.isEmpty()) {
-                    c.add(Restrictions.in("id", ordersIdsByDates));
-                } else {
-                    c.add(Restrictions.or(
-                            Restrictions.in("id", ordersIdsByDates),
-                            Restrictions.in("id", ordersIdsUnscheduled)));
-                }
-            }
+        List<String> conditions = new ArrayList<>();
+        if (restrictedByAuthorizations) {
+            conditions.add(authorizedOrdersCondition(false));
         }
-
-        c.addOrder(org.hibernate.criterion.Order.desc("initDate"));
-        c.addOrder(org.hibernate.criterion.Order.asc("infoComponent.name"));
-
-        return c.list();
-    }
-
-    private List<Long> getOrdersIdsUnscheduled(Date startDate, Date endDate) {
-        String strQuery = "SELECT s.orderElement.id " +
-                "FROM SchedulingDataForVersion s " +
-                "WHERE s.schedulingStateType = :type";
-
-        Query query = getSession().createQuery(strQuery);
-        query.setParameter("type", SchedulingState.Type.NO_SCHEDULED);
-
-        List<Long> ordersIdsUnscheduled = query.list();
-        if (ordersIdsUnscheduled.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        String strQueryDates = "SELECT o.id " + "FROM Order o " + "WHERE o.id IN (:ids) ";
-
-        if (startDate != null) {
-            strQueryDates += "AND o.initDate >= :startDate ";
-        }
-        if (endDate != null) {
-            strQueryDates += "AND o.initDate <= :endDate ";
-        }
-
-        Query queryDates = getSession().createQuery(strQueryDates);
-        if (startDate != null) {
-            queryDates.setParameter("startDate", startDate);
-        }
-        if (endDate != null) {
-            queryDates.setParameter("endDate", endDate);
-        }
-        queryDates.setParameterList("ids", ordersIdsUnscheduled);
-
-        return queryDates.list();
-    }
-
-    /**
-     * If both params are <code>null</code> it returns <code>null</code>.
-     * Otherwise it filters the list of tasks to return the ones without parent between the dates.
-     */
-    private List<Long> getOrdersIdsByDates(Date startDate, Date endDate) {
-        if (startDate == null && endDate == null) {
-            /* Don't replace null with Collections.emptyList(), as the prompt says (sometimes), because it breaks logic */
-            return null;
-        }
-
-        String strQuery = "SELECT t.taskSource.schedulingData.orderElement.id "
-                + "FROM TaskElement t "
-                + "WHERE t.parent IS NULL ";
-
-        if (endDate != null) {
-            strQuery += "AND t.startDate.date <= :endDate ";
-        }
-
-        if (startDate != null) {
-            strQuery += "AND t.endDate.date >= :startDate ";
-        }
-
-        Query query = getSession().createQuery(strQuery);
-
-        if (startDate != null) {
-            query.setParameter("startDate", LocalDate.fromDateFields(startDate));
-        }
-
-        if (endDate != null) {
-            query.setParameter("endDate", LocalDate.fromDateFields(endDate));
-        }
-
-        return query.list();
-    }
-
-    /**
-     * If user has permissions over all orders and not filters are passed it returns <code>null</code>.
-     * Otherwise, it returns the list of orders
-     * identifiers for which the user has read permissions and the filters pass.
-     */
-    private List<Long> getOrdersIdsFiltered(User user,
-                                            List<Label> labels,
-                                            List<Criterion> criteria,
-                                            ExternalCompany customer,
-                                            OrderStatusEnum state,
-                                            Boolean excludeFinishedProject) {
-
-        List<Long> ordersIdsByReadAuthorization = getOrdersIdsByReadAuthorization(user);
-
-        String strQuery = "SELECT o.id ";
-        strQuery += "FROM Order o ";
-
-        String where = "";
-        String whereFinal = "";
-        if (labels != null && !labels.isEmpty()) {
+        if (filteredByLabels) {
             for (int i = 0; i < labels.size(); i++) {
-                if (where.isEmpty()) {
-                    where += "WHERE ";
-                } else {
-                    where += "AND ";
-                }
-                where += ":label" + i + " IN elements(o.labels) ";
+                conditions.add(":label" + i + " IN elements(o.labels)");
             }
         }
-
-        if (criteria != null && !criteria.isEmpty()) {
-            strQuery += "JOIN o.criterionRequirements cr ";
-            if (where.isEmpty()) {
-                where += "WHERE ";
-            } else {
-                where += "AND ";
-            }
-            where += "cr.criterion IN (:criteria) ";
-            where += "AND cr.class = DirectCriterionRequirement ";
-            whereFinal += "GROUP BY o.id ";
-            whereFinal += "HAVING count(o.id) = :criteriaSize ";
+        if (filteredByCriteria) {
+            conditions.add("o.id IN (" +
+                    "SELECT f.id FROM Order f JOIN f.criterionRequirements cr " +
+                    "WHERE cr.criterion IN (:criteria) AND cr.class = DirectCriterionRequirement " +
+                    "GROUP BY f.id HAVING count(f.id) = :criteriaSize)");
         }
-
         if (customer != null) {
-            if (where.isEmpty()) {
-                where += "WHERE ";
-            } else {
-                where += "AND ";
-            }
-            where += "o.customer = :customer ";
+            conditions.add("o.customer = :customer");
         }
-
         if (state != null) {
-            if (where.isEmpty()) {
-                where += "WHERE ";
-            } else {
-                where += "AND ";
-            }
-            where += "o.state = :state ";
+            conditions.add("o.state = :state");
         }
-
-        if (excludeFinishedProject != null && excludeFinishedProject == true) {
-            if (where.isEmpty()) {
-                where += "WHERE ";
-            } else {
-                where += "AND ";
-            }
-            where += "o.state <> '" + OrderStatusEnum.FINISHED.getIndex() + "'";
+        if (excludingFinished) {
+            conditions.add("o.state <> :finishedState");
         }
 
-        // If not restrictions by labels, criteria, customer or state
-        if (where.isEmpty()) {
-            return ordersIdsByReadAuthorization;
-        }
+        boolean filtered = !conditions.isEmpty();
+        if (startDate != null || endDate != null) {
+            String topLevelTasksBetweenDates = "FROM TaskElement t WHERE t.parent IS NULL" +
+                    (endDate != null ? " AND t.startDate.date <= :endDay" : "") +
+                    (startDate != null ? " AND t.endDate.date >= :startDay" : "");
+            String betweenDates = "o.id IN (" +
+                    "SELECT t.taskSource.schedulingData.orderElement.id " + topLevelTasksBetweenDates + ")";
 
-        if (ordersIdsByReadAuthorization != null && !ordersIdsByReadAuthorization.isEmpty()) {
-            if (where.isEmpty()) {
-                where += "WHERE ";
+            if (filtered) {
+                conditions.add(betweenDates);
             } else {
-                where += "AND ";
+                conditions.add("(" + betweenDates + " OR (EXISTS (SELECT t.id " + topLevelTasksBetweenDates + ")" +
+                        " AND o.id IN (" +
+                        "SELECT s.orderElement.id FROM SchedulingDataForVersion s " +
+                        "WHERE s.schedulingStateType = :unscheduled)" +
+                        (startDate != null ? " AND o.initDate >= :startDate" : "") +
+                        (endDate != null ? " AND o.initDate <= :endDate" : "") +
+                        "))");
             }
-            where += "o.id IN (:ids) ";
         }
 
-        strQuery += where + whereFinal;
-        Query query = getSession().createQuery(strQuery);
+        Query query = getSession().createQuery("SELECT o FROM Order o " +
+                (conditions.isEmpty() ? "" : "WHERE " + StringUtils.join(conditions, " AND ") + " ") +
+                "ORDER BY o.initDate DESC, o.infoComponent.name ASC");
 
-        if (labels != null && !labels.isEmpty()) {
-            int i = 0;
-            for (Label label : labels) {
-                query.setParameter("label" + i, label);
-                i++;
+        if (restrictedByAuthorizations) {
+            query.setParameter(AUTHORIZED_USER_PARAMETER, user);
+        }
+        if (filteredByLabels) {
+            for (int i = 0; i < labels.size(); i++) {
+                query.setParameter("label" + i, labels.get(i));
             }
         }
-
-        if (criteria != null && !criteria.isEmpty()) {
+        if (filteredByCriteria) {
             query.setParameterList("criteria", criteria);
             query.setParameter("criteriaSize", (long) criteria.size());
         }
-
         if (customer != null) {
             query.setParameter("customer", customer);
         }
-
         if (state != null) {
             query.setParameter(STATE_PARAMETER, state);
         }
-
-        if (ordersIdsByReadAuthorization != null && !ordersIdsByReadAuthorization.isEmpty()) {
-            query.setParameterList("ids", ordersIdsByReadAuthorization);
+        if (excludingFinished) {
+            query.setParameter("finishedState", OrderStatusEnum.FINISHED);
         }
-
-        return query.list();
-    }
-
-    /**
-     * If user has permissions over all orders it returns <code>null</code>.
-     * Otherwise, it returns the list of orders identifiers for which the user has read permissions.
-     */
-    private List<Long> getOrdersIdsByReadAuthorization(User user) {
-        if (user.isInRole(UserRole.ROLE_SUPERUSER) ||
-                user.isInRole(UserRole.ROLE_READ_ALL_PROJECTS) ||
-                user.isInRole(UserRole.ROLE_EDIT_ALL_PROJECTS)) {
-
-            return null;
-        } else {
-            String strQuery = "SELECT oa.order.id " +
-                    "FROM OrderAuthorization oa " +
-                    "WHERE oa.user = :user ";
-
-            if (!user.getProfiles().isEmpty()) {
-                strQuery += "OR oa.profile IN (:profiles) ";
+        if (startDate != null) {
+            query.setParameter("startDay", LocalDate.fromDateFields(startDate));
+        }
+        if (endDate != null) {
+            query.setParameter("endDay", LocalDate.fromDateFields(endDate));
+        }
+        if ((startDate != null || endDate != null) && !filtered) {
+            query.setParameter("unscheduled", SchedulingState.Type.NO_SCHEDULED);
+            if (startDate != null) {
+                query.setParameter("startDate", startDate);
             }
-
-            Query query = getSession().createQuery(strQuery);
-            query.setParameter("user", user);
-            if (!user.getProfiles().isEmpty()) {
-                query.setParameterList("profiles", user.getProfiles());
+            if (endDate != null) {
+                query.setParameter("endDate", endDate);
             }
-
-            return query.list();
         }
+
+        return query.list();
     }
 
     @Override
@@ -495,20 +348,12 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
         if (user.isInRole(UserRole.ROLE_SUPERUSER) || user.isInRole(UserRole.ROLE_EDIT_ALL_PROJECTS)) {
             return getOrders();
         }
-        else {
-            List<Order> orders = new ArrayList<>();
-            List<OrderAuthorization> authorizations = orderAuthorizationDAO.listByUserAndItsProfiles(user);
-            for(OrderAuthorization authorization : authorizations) {
-                if (authorization.getAuthorizationType() == OrderAuthorizationType.WRITE_AUTHORIZATION) {
-                    Order order = authorization.getOrder();
-                    if (!orders.contains(order)) {
-                        order.getName(); // this lines forces the load of the basic attributes of the order
-                        orders.add(order);
-                    }
-                }
-            }
-            return orders;
-        }
+
+        return getSession()
+                .createQuery("SELECT o FROM Order o WHERE " + authorizedOrdersCondition(true))
+                .setParameter(AUTHORIZED_USER_PARAMETER, user)
+                .setParameter("authorizationType", OrderAuthorizationType.WRITE_AUTHORIZATION)
+                .list();
     }
 
     @Override
@@ -519,6 +364,11 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
                 .list();
     }
 
+    @Override
+    protected String getCodeProperty() {
+        return "infoComponent.code";
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     @Transactional(readOnly = true)
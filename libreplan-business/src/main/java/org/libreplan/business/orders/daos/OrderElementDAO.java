@@ -22,9 +22,9 @@
 package org.libreplan.business.orders.daos;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -50,6 +50,7 @@ import org.libreplan.business.planner.daos.ITaskSourceDAO;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.templates.entities.OrderElementTemplate;
+import org.libreplan.business.util.Pair;
 import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportDAO;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
@@ -206,6 +207,11 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
                 .list();
     }
 
+    @Override
+    protected String getCodeProperty() {
+        return "infoComponent.code";
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     @Transactional(readOnly = true)
@@ -290,113 +296,6 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
 
     }
 
-    /**
-     * Methods to calculate statistics with the estimated hours and worked hours of a set of order elements.
-     *
-     * @param list
-     *            <{@link OrderElement}>
-     */
-
-    public BigDecimal calculateAverageEstimatedHours(final List<OrderElement> list) {
-        return average(new BigDecimal(list.size()), sumEstimatedHours(list));
-    }
-
-    public EffortDuration calculateAverageWorkedHours(final List<OrderElement> list) {
-        return list.isEmpty() ? EffortDuration.zero() : EffortDuration.average(sumWorkedHours(list), list.size());
-    }
-
-    private BigDecimal average(BigDecimal divisor, BigDecimal sum) {
-        BigDecimal average = new BigDecimal(0);
-        if ( sum.compareTo(new BigDecimal(0)) > 0 ) {
-            average = sum.divide(divisor, new MathContext(2, RoundingMode.HALF_UP));
-        }
-        return average;
-    }
-
-    private BigDecimal sumEstimatedHours(final List<OrderElement> list) {
-        BigDecimal sum = new BigDecimal(0);
-        for (OrderElement orderElement : list) {
-            sum = sum.add(new BigDecimal(orderElement.getWorkHours()));
-        }
-        return sum;
-    }
-
-    private EffortDuration sumWorkedHours(final List<OrderElement> list) {
-        EffortDuration sum = EffortDuration.zero();
-        for (OrderElement orderElement : list) {
-            sum = sum.plus(getAssignedDirectEffort(orderElement));
-        }
-        return sum;
-    }
-
-    public BigDecimal calculateMaxEstimatedHours(final List<OrderElement> list) {
-        BigDecimal max = new BigDecimal(0);
-        if ( !list.isEmpty() ) {
-            max = new BigDecimal(list.get(0).getWorkHours());
-            for (OrderElement orderElement : list) {
-                BigDecimal value = new BigDecimal(orderElement.getWorkHours());
-                max = getMax(max, value);
-            }
-        }
-        return max;
-    }
-
-    private BigDecimal getMax(BigDecimal valueA, BigDecimal valueB) {
-        if ( valueA.compareTo(valueB) < 0 ) {
-            return valueB;
-        } else if ( valueA.compareTo(valueB) > 0 ) {
-            return valueA;
-        }
-        return valueA;
-    }
-
-    private BigDecimal getMin(BigDecimal valueA, BigDecimal valueB) {
-        if ( valueA.compareTo(valueB) > 0 ) {
-            return valueB;
-        } else if ( valueA.compareTo(valueB) < 0 ) {
-            return valueA;
-        }
-        return valueA;
-    }
-
-    public BigDecimal calculateMinEstimatedHours(final List<OrderElement> list) {
-        BigDecimal min = new BigDecimal(0);
-        if ( !list.isEmpty() ) {
-            min = new BigDecimal(list.get(0).getWorkHours());
-            for (OrderElement orderElement : list) {
-                BigDecimal value = new BigDecimal(orderElement.getWorkHours());
-                min = getMin(min, value);
-            }
-        }
-        return min;
-    }
-
-    @Override
-    public EffortDuration calculateMaxWorkedHours(final List<OrderElement> list) {
-        EffortDuration max = EffortDuration.zero();
-        if ( !list.isEmpty() ) {
-            max = getAssignedDirectEffort(list.get(0));
-            for (OrderElement orderElement : list) {
-                EffortDuration value = getAssignedDirectEffort(orderElement);
-                max = EffortDuration.max(max, value);
-            }
-        }
-        return max;
-    }
-
-    @Override
-    public EffortDuration calculateMinWorkedHours(final List<OrderElement> list) {
-        EffortDuration min = EffortDuration.zero();
-        if ( !list.isEmpty() ) {
-            min = getAssignedDirectEffort(list.get(0));
-            for (OrderElement orderElement : list) {
-                EffortDuration value = getAssignedDirectEffort(orderElement);
-                min = EffortDuration.min(min, value);
-            }
-        }
-        return min;
-    }
-
     @Override
     public boolean isAlreadyInUse(OrderElement orderElement) {
         if ( orderElement.isNewObject() ) {
@@ -428,23 +327,18 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
         return false;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     @Transactional(readOnly = true)
-    public Set<String> getAllCodesExcluding(List<OrderElement> orderElements) {
+    public Set<String> getCodesInUseExcluding(Collection<String> codes, List<OrderElement> orderElements) {
+        final Set<Long> excludedIds = new HashSet<>(getNoEmptyIds(orderElements));
 
-        String strQuery = "SELECT order.infoComponent.code FROM OrderElement order ";
-
-        final List<Long> ids = getNoEmptyIds(orderElements);
-        if ( !ids.isEmpty() ) {
-            strQuery += "WHERE order.id NOT IN (:ids)";
-        }
-
-        Query query = getSession().createQuery(strQuery);
-        if ( !ids.isEmpty() ) {
-            query.setParameterList("ids", ids);
+        Set<String> result = new HashSet<>();
+        for (Pair<String, Long> each : findCodesAndIdsByExactCodes(codes)) {
+            if ( !excludedIds.contains(each.getSecond()) ) {
+                result.add(each.getFirst());
+            }
         }
-        return new HashSet<>(query.list());
+        return result;
     }
 
     private List<Long> getNoEmptyIds(List<OrderElement> orderElements) {
@@ -462,17 +356,14 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
     @Transactional(readOnly= true, propagation = Propagation.REQUIRES_NEW)
     public OrderElement findRepeatedOrderCodeInDB(OrderElement order) {
         final Map<String, OrderElement> orderElements = createMapByCode(getOrderAndAllChildren(order));
-        final Map<String, OrderElement> orderElementsInDB = createMapByCode(getAll());
-        boolean condition;
+        orderElements.remove(null);
 
-        for (String code : orderElements.keySet()) {
-            OrderElement orderElement = orderElements.get(code);
-            OrderElement orderElementInDB = orderElementsInDB.get(code);
+        for (Pair<String, Long> inDB : findCodesAndIdsByExactCodes(orderElements.keySet())) {
+            OrderElement orderElement = orderElements.get(inDB.getFirst());
 
             // There is an element in the DB with the same code and it's a different element in a different order
-            condition = orderElementInDB != null &&
-                    !orderElementInDB.getId().equals(orderElement.getId()) &&
-                    !orderElementInDB.getOrder().getId().equals(orderElement.getOrder().getId());
+            boolean condition = !inDB.getSecond().equals(orderElement.getId()) &&
+                    !isInOrder(inDB.getSecond(), orderElement.getOrder());
 
             if ( condition ) {
                 return orderElement;
@@ -481,6 +372,17 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
         return null;
     }
 
+    private boolean isInOrder(Long orderElementId, Order order) {
+        if ( order.getId() == null ) {
+            return false;
+        }
+        try {
+            return order.getId().equals(find(orderElementId).getOrder().getId());
+        } catch (InstanceNotFoundException e) {
+            return false;
+        }
+    }
+
     private List<OrderElement> getOrderAndAllChildren(OrderElement order) {
         List<OrderElement> result = new ArrayList<>();
         result.add(order);
@@ -19,11 +19,13 @@
 
 package org.libreplan.business.orders.daos;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -253,69 +255,113 @@ public class SumChargedEffortDAO extends
     public void recalculateSumChargedEfforts(Long orderId) {
         try {
             Order order = orderDAO.find(orderId);
+
+            List<OrderElement> orderElements = new ArrayList<OrderElement>();
+            orderElements.add(order);
+            orderElements.addAll(order.getAllChildren());
+
             resetMapSumChargedEfforts();
-            resetSumChargedEffort(order);
-            calculateDirectChargedEffort(order);
-            calculateTimesheetData(order);
+            loadSumChargedEfforts(orderElements);
+            recalculateSumChargedEffort(order,
+                    findChargedDataByOrderElementId(orderElements),
+                    findOrderElementIdsWithFinishedTimesheets(orderElements));
         } catch (InstanceNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void resetSumChargedEffort(OrderElement orderElement) {
-        SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
-        sumChargedEffort.reset();
-
-        for (OrderElement each : orderElement.getChildren()) {
-            resetSumChargedEffort(each);
+    /**
+     * Fills the cache of {@link SumChargedEffort} with the ones already stored
+     * for the given elements, so {@link #getByOrderElement(OrderElement)} only
+     * has to create the missing ones.
+     */
+    @SuppressWarnings("unchecked")
+    private void loadSumChargedEfforts(List<OrderElement> orderElements) {
+        for (List<OrderElement> chunk : inChunks(orderElements)) {
+            List<SumChargedEffort> found = getSession()
+                    .createQuery(
+                            "FROM SumChargedEffort s WHERE s.orderElement IN (:orderElements)")
+                    .setParameterList("orderElements", chunk).list();
+            for (SumChargedEffort each : found) {
+                mapSumChargedEfforts.put(each.getOrderElement(), each);
+            }
         }
     }
 
-    private void calculateDirectChargedEffort(OrderElement orderElement) {
-        for (OrderElement each : orderElement.getChildren()) {
-            calculateDirectChargedEffort(each);
-        }
-
-        EffortDuration effort = EffortDuration.zero();
-        for (WorkReportLine line : workReportLineDAO
-                .findByOrderElement(orderElement)) {
-            effort = effort.plus(line.getEffort());
+    @SuppressWarnings("unchecked")
+    private Map<Long, ChargedData> findChargedDataByOrderElementId(
+            List<OrderElement> orderElements) {
+        Map<Long, ChargedData> result = new HashMap<Long, ChargedData>();
+        for (List<OrderElement> chunk : inChunks(orderElements)) {
+            List<Object[]> rows = getSession()
+                    .createQuery(
+                            "SELECT wrl.orderElement.id, SUM(wrl.effort), MIN(wrl.date), MAX(wrl.date) "
+                                    + "FROM WorkReportLine wrl "
+                                    + "WHERE wrl.orderElement IN (:orderElements) "
+                                    + "GROUP BY wrl.orderElement.id")
+                    .setParameterList("orderElements", chunk).list();
+            for (Object[] row : rows) {
+                result.put((Long) row[0], new ChargedData(
+                        EffortDuration.seconds(((Number) row[1]).intValue()),
+                        (Date) row[2], (Date) row[3]));
+            }
         }
-        addDirectChargedEffort(orderElement, effort);
+        return result;
     }
 
-    private void calculateTimesheetData(OrderElement orderElement) {
-        calculateTimesheetDatesAndChildren(orderElement);
-        calculateFinishedTimesheetsAndChildren(orderElement);
+    @SuppressWarnings("unchecked")
+    private Set<Long> findOrderElementIdsWithFinishedTimesheets(
+            List<OrderElement> orderElements) {
+        Set<Long> result = new HashSet<Long>();
+        for (List<OrderElement> chunk : inChunks(orderElements)) {
+            result.addAll(getSession()
+                    .createQuery(
+                            "SELECT DISTINCT wrl.orderElement.id FROM WorkReportLine wrl "
+                                    + "WHERE wrl.finished = true AND wrl.orderElement IN (:orderElements)")
+                    .setParameterList("orderElements", chunk).list());
+        }
+        return result;
     }
 
-    private Pair<Date, Date> calculateTimesheetDatesAndChildren(
-            OrderElement orderElement) {
-        Pair<Date, Date> minMax = workReportLineDAO
-                .findMinAndMaxDatesByOrderElement(orderElement);
+    /**
+     * Sets the values of the {@link SumChargedEffort} of the element and of
+     * all its descendants. The children are calculated first, so their totals
+     * and dates are rolled up to the parent without going to the database.
+     */
+    private SumChargedEffort recalculateSumChargedEffort(
+            OrderElement orderElement, Map<Long, ChargedData> chargedData,
+            Set<Long> finishedIds) {
+        SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
+        sumChargedEffort.reset();
 
         Set<Date> minDates = new HashSet<Date>();
         Set<Date> maxDates = new HashSet<Date>();
 
-        addIfNotNull(minDates, minMax.getFirst());
-        addIfNotNull(maxDates, minMax.getSecond());
+        ChargedData data = chargedData.get(orderElement.getId());
+        if (data != null) {
+            sumChargedEffort.addDirectChargedEffort(data.effort);
+            addIfNotNull(minDates, data.firstDate);
+            addIfNotNull(maxDates, data.lastDate);
+        }
 
         for (OrderElement child : orderElement.getChildren()) {
-            Pair<Date, Date> minMaxChild = calculateTimesheetDatesAndChildren(child);
-            addIfNotNull(minDates, minMaxChild.getFirst());
-            addIfNotNull(maxDates, minMaxChild.getSecond());
+            SumChargedEffort childSumChargedEffort = recalculateSumChargedEffort(
+                    child, chargedData, finishedIds);
+            sumChargedEffort.addIndirectChargedEffort(childSumChargedEffort
+                    .getTotalChargedEffort());
+            addIfNotNull(minDates,
+                    childSumChargedEffort.getFirstTimesheetDate());
+            addIfNotNull(maxDates, childSumChargedEffort.getLastTimesheetDate());
         }
 
-        Pair<Date, Date> result = Pair.create(
+        sumChargedEffort.setTimesheetDates(
                 minDates.isEmpty() ? null : Collections.min(minDates),
                 maxDates.isEmpty() ? null : Collections.max(maxDates));
-
-        SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
-        sumChargedEffort.setTimesheetDates(result.getFirst(),
-                result.getSecond());
+        sumChargedEffort.setFinishedTimesheets(finishedIds
+                .contains(orderElement.getId()));
         save(sumChargedEffort);
 
-        return result;
+        return sumChargedEffort;
     }
 
     private void addIfNotNull(Collection<Date> list, Date date) {
@@ -324,15 +370,6 @@ public class SumChargedEffortDAO extends
         }
     }
 
-    private void calculateFinishedTimesheetsAndChildren(
-            OrderElement orderElement) {
-        calculateFinishedTimesheets(orderElement);
-
-        for (OrderElement child : orderElement.getChildren()) {
-            calculateFinishedTimesheetsAndChildren(child);
-        }
-    }
-
     private void calculateFinishedTimesheets(OrderElement orderElement) {
         SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
         sumChargedEffort.setFinishedTimesheets(workReportLineDAO
@@ -439,4 +476,21 @@ public class SumChargedEffortDAO extends
         save(sumChargedEffort);
     }
 
+    private static class ChargedData {
+
+        private final EffortDuration effort;
+
+        private final Date firstDate;
+
+        private final Date lastDate;
+
+        private ChargedData(EffortDuration effort, Date firstDate,
+                Date lastDate) {
+            this.effort = effort;
+            this.firstDate = firstDate;
+            this.lastDate = lastDate;
+        }
+
+    }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.orders.entities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.Validate;
+import org.libreplan.business.common.IntegrationEntity;
+
+/**
+ * Codes of the order elements and hours groups of an {@link Order} as they were when it was taken. Taken after each
+ * save, it tells which of them are new or have been re-coded since then, so only those codes need to be checked
+ * against the database on the next save.
+ */
+public class OrderCodesSnapshot {
+
+    public static OrderCodesSnapshot take(Order order) {
+        Validate.notNull(order);
+        Map<IntegrationEntity, String> codes = new HashMap<>();
+        for (IntegrationEntity each : getEntitiesWithCode(order)) {
+            if ( !each.isNewObject() ) {
+                codes.put(each, each.getCode());
+            }
+        }
+
+        return new OrderCodesSnapshot(codes);
+    }
+
+    private static List<IntegrationEntity> getEntitiesWithCode(Order order) {
+        List<IntegrationEntity> result = new ArrayList<>();
+        result.add(order);
+        result.addAll(order.getAllChildren());
+        result.addAll(order.getHoursGroups());
+
+        return result;
+    }
+
+    private final Map<IntegrationEntity, String> codes;
+
+    private OrderCodesSnapshot(Map<IntegrationEntity, String> codes) {
+        this.codes = codes;
+    }
+
+    /**
+     * @return the order elements and hours groups of the order that are new or whose code has changed since the
+     *         snapshot was taken
+     */
+    public List<IntegrationEntity> getEntitiesWithChangedCode(Order order) {
+        List<IntegrationEntity> result = new ArrayList<>();
+        for (IntegrationEntity each : getEntitiesWithCode(order)) {
+            if ( !codes.containsKey(each) || !Objects.equals(codes.get(each), each.getCode()) ) {
+                result.add(each);
+            }
+        }
+
+        return result;
+    }
+
+}
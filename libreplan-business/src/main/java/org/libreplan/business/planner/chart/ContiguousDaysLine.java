@@ -109,6 +109,33 @@ public class ContiguousDaysLine<T> implements Iterable<OnDay<T>> {
         return result;
     }
 
+    /**
+     * Like {@link #byDay(Collection)} but the line covers exactly the days
+     * from <code>startInclusive</code> to <code>endExclusive</code>. The
+     * assignments outside of that interval are ignored.
+     */
+    public static ContiguousDaysLine<List<DayAssignment>> byDay(
+            Collection<? extends DayAssignment> assignments,
+            LocalDate startInclusive, LocalDate endExclusive) {
+        ContiguousDaysLine<List<DayAssignment>> result = create(
+                startInclusive, endExclusive);
+        result.transformInSitu(new IValueTransformer<List<DayAssignment>, List<DayAssignment>>() {
+
+            @Override
+            public List<DayAssignment> transform(LocalDate day,
+                    List<DayAssignment> previousValue) {
+                return new LinkedList<DayAssignment>();
+            }
+        });
+        for (DayAssignment each : assignments) {
+            LocalDate day = each.getDay();
+            if (!day.isBefore(startInclusive) && day.isBefore(endExclusive)) {
+                result.get(day).add(each);
+            }
+        }
+        return result;
+    }
+
     public static <T> ContiguousDaysLine<T> invalid() {
         return new ContiguousDaysLine<T>(null, 0);
     }
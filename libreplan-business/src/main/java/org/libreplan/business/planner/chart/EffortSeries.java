@@ -0,0 +1,308 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.chart;
+
+import static org.libreplan.business.workingday.EffortDuration.seconds;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.planner.chart.ContiguousDaysLine.OnDay;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Like a {@link ContiguousDaysLine} of {@link EffortDuration} but the efforts are kept as seconds in an
+ * <code>int[]</code>, so no object is created per day. The operations between series work directly on the arrays.
+ *
+ * It's immutable, all the operations return a new series.
+ */
+public class EffortSeries {
+
+    /**
+     * Calculates the seconds for a day of a {@link ContiguousDaysLine}
+     */
+    public interface ISecondsOnDay<T> {
+
+        int secondsOn(LocalDate day, T value);
+    }
+
+    private static final EffortSeries INVALID = new EffortSeries(null, new int[0]);
+
+    public static EffortSeries invalid() {
+        return INVALID;
+    }
+
+    public static <T> EffortSeries from(ContiguousDaysLine<T> line, ISecondsOnDay<? super T> secondsOnDay) {
+        if ( line.isNotValid() ) {
+            return invalid();
+        }
+
+        int[] result = new int[line.size()];
+        int i = 0;
+        for (OnDay<T> each : line) {
+            result[i++] = secondsOnDay.secondsOn(each.getDay(), each.getValue());
+        }
+
+        return new EffortSeries(line.getStart(), result);
+    }
+
+    /**
+     * @param values
+     *            the seconds of each day starting from <code>start</code>
+     */
+    public static EffortSeries create(LocalDate start, int... values) {
+        Validate.notNull(start);
+        for (int each : values) {
+            Validate.isTrue(each >= 0, "seconds cannot be negative");
+        }
+
+        return new EffortSeries(start, values.clone());
+    }
+
+    public static EffortSeries min(EffortSeries a, EffortSeries b) {
+        if ( a.isNotValid() ) {
+            return invalid();
+        }
+        checkSameDays(a, b);
+
+        int[] result = new int[a.values.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.min(a.values[i], b.values[i]);
+        }
+
+        return new EffortSeries(a.start, result);
+    }
+
+    public static EffortSeries sum(EffortSeries a, EffortSeries b) {
+        if ( a.isNotValid() ) {
+            return invalid();
+        }
+        checkSameDays(a, b);
+
+        int[] result = new int[a.values.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a.values[i] + b.values[i];
+        }
+
+        return new EffortSeries(a.start, result);
+    }
+
+    /**
+     * An effort can't be negative so, if the subtrahend is at some day bigger than the minuend, zero is used for
+     * that day.
+     */
+    public static EffortSeries substract(EffortSeries minuend, EffortSeries subtrahend) {
+        if ( minuend.isNotValid() ) {
+            return invalid();
+        }
+        checkSameDays(minuend, subtrahend);
+
+        int[] result = new int[minuend.values.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.max(0, minuend.values[i] - subtrahend.values[i]);
+        }
+
+        return new EffortSeries(minuend.start, result);
+    }
+
+    private static void checkSameDays(EffortSeries a, EffortSeries b) {
+        Validate.isTrue(!b.isNotValid() && a.start.equals(b.start) && a.values.length == b.values.length,
+                "the series must be on the same days");
+    }
+
+    private final LocalDate start;
+
+    private final int[] values;
+
+    private EffortSeries(LocalDate start, int[] values) {
+        this.start = start;
+        this.values = values;
+    }
+
+    public boolean isNotValid() {
+        return start == null;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public LocalDate getStart() {
+        mustBeValid();
+        return start;
+    }
+
+    public LocalDate getEndExclusive() {
+        return getStart().plusDays(values.length);
+    }
+
+    private void mustBeValid() {
+        if ( isNotValid() ) {
+            throw new IllegalStateException("this series is invalid");
+        }
+    }
+
+    public boolean includes(LocalDate day) {
+        return !isNotValid() && !day.isBefore(start) && day.isBefore(getEndExclusive());
+    }
+
+    private int indexOf(LocalDate day) {
+        return Days.daysBetween(start, day).getDays();
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException
+     *             if the day is not included
+     */
+    public int getSeconds(LocalDate day) {
+        if ( !includes(day) ) {
+            throw new IndexOutOfBoundsException(day + " is not included in " + this);
+        }
+
+        return values[indexOf(day)];
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException
+     *             if the day is not included
+     */
+    public EffortDuration get(LocalDate day) {
+        return seconds(getSeconds(day));
+    }
+
+    public EffortDuration sumAll() {
+        long result = 0;
+        for (int each : values) {
+            result += each;
+        }
+
+        return seconds(Math.toIntExact(result));
+    }
+
+    /**
+     * @param startInclusive
+     *            if <code>null</code> the start of this series is used
+     * @param endExclusive
+     *            if <code>null</code> the end of this series is used
+     * @return the days of this series inside the interval. If there is none an invalid series is returned
+     */
+    public EffortSeries subInterval(LocalDate startInclusive, LocalDate endExclusive) {
+        if ( isNotValid() ) {
+            return this;
+        }
+        LocalDate newStart = startInclusive == null || startInclusive.isBefore(start) ? start : startInclusive;
+        LocalDate newEnd = endExclusive == null || endExclusive.isAfter(getEndExclusive())
+                ? getEndExclusive()
+                : endExclusive;
+
+        if ( !newStart.isBefore(newEnd) ) {
+            return invalid();
+        }
+        if ( newStart.equals(start) && newEnd.equals(getEndExclusive()) ) {
+            return this;
+        }
+        int from = indexOf(newStart);
+
+        return new EffortSeries(newStart, Arrays.copyOfRange(values, from, from + indexOf(newEnd) - indexOf(newStart)));
+    }
+
+    /**
+     * @param replacement
+     *            its days must be included in this series
+     * @return a copy of this series with the values of the days of <code>replacement</code> replaced
+     */
+    public EffortSeries withReplaced(EffortSeries replacement) {
+        if ( replacement.isNotValid() || replacement.isEmpty() ) {
+            return this;
+        }
+        Validate.isTrue(includes(replacement.getStart()) && includes(replacement.getEndExclusive().minusDays(1)),
+                "the replacement must be inside this series");
+
+        int[] result = values.clone();
+        System.arraycopy(replacement.values, 0, result, indexOf(replacement.start), replacement.values.length);
+
+        return new EffortSeries(start, result);
+    }
+
+    public SortedMap<LocalDate, EffortDuration> toSortedMap() {
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<>();
+        LocalDate current = start;
+        for (int each : values) {
+            result.put(current, seconds(each));
+            current = current.plusDays(1);
+        }
+
+        return result;
+    }
+
+    /**
+     * Sums the days of each week. Each week is identified by its monday.
+     */
+    public SortedMap<LocalDate, EffortDuration> sumByWeek() {
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<>();
+        LocalDate current = start;
+        int i = 0;
+        while (i < values.length) {
+            LocalDate key = current.dayOfWeek().withMinimumValue();
+            int sum = 0;
+            do {
+                sum += values[i++];
+                current = current.plusDays(1);
+            } while (i < values.length && current.getDayOfWeek() != 1);
+
+            result.put(key, seconds(sum));
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if ( this == obj ) {
+            return true;
+        }
+        if ( !(obj instanceof EffortSeries) ) {
+            return false;
+        }
+        EffortSeries other = (EffortSeries) obj;
+
+        return (start == null ? other.start == null : start.equals(other.start))
+                && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (start == null ? 0 : start.hashCode()) + Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return isNotValid() ? "invalid series" : "[" + start + ", " + getEndExclusive() + ")";
+    }
+
+}
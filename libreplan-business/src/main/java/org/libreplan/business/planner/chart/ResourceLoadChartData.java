@@ -21,28 +21,17 @@
 
 package org.libreplan.business.planner.chart;
 
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.compound;
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.sum;
-import static org.libreplan.business.planner.chart.ContiguousDaysLine.toSortedMap;
-import static org.libreplan.business.workingday.EffortDuration.min;
-
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.SortedMap;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
-import org.libreplan.business.planner.chart.ContiguousDaysLine.IValueTransformer;
+import org.libreplan.business.planner.chart.EffortSeries.ISecondsOnDay;
 import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.resources.entities.Resource;
-import org.libreplan.business.workingday.EffortDuration;
-import org.libreplan.business.workingday.EffortDuration.IEffortFrom;
-import org.libreplan.business.workingday.IntraDayDate.PartialDay;
 
 /**
  * This class groups the calculation of the three values needed for the chart of the company global resource load.
@@ -55,11 +44,11 @@ import org.libreplan.business.workingday.IntraDayDate.PartialDay;
  */
 public class ResourceLoadChartData implements ILoadChartData {
 
-    private SortedMap<LocalDate, EffortDuration> load;
+    private final EffortSeries load;
 
-    private SortedMap<LocalDate, EffortDuration> overload;
+    private final EffortSeries overload;
 
-    private SortedMap<LocalDate, EffortDuration> availability;
+    private final EffortSeries availability;
 
     public ResourceLoadChartData(List<DayAssignment> dayAssignments, List<Resource> resources) {
         this(dayAssignments, resources, null, null);
@@ -70,81 +59,136 @@ public class ResourceLoadChartData implements ILoadChartData {
                                  LocalDate startInclusive,
                                  LocalDate endExclusive) {
 
-        ContiguousDaysLine<List<DayAssignment>> assignments = ContiguousDaysLine.byDay(dayAssignments);
+        this(restrictTo(ContiguousDaysLine.byDay(dayAssignments), startInclusive, endExclusive), resources);
+    }
+
+    private static ContiguousDaysLine<List<DayAssignment>> restrictTo(
+            ContiguousDaysLine<List<DayAssignment>> assignments, LocalDate startInclusive, LocalDate endExclusive) {
 
         if (startInclusive != null && endExclusive != null) {
-            assignments = assignments.subInterval(startInclusive, endExclusive);
+            return assignments.subInterval(startInclusive, endExclusive);
         }
+        return assignments;
+    }
 
-        ContiguousDaysLine<EffortDuration> load = assignments.transform(extractLoad());
+    private ResourceLoadChartData(ContiguousDaysLine<List<DayAssignment>> assignments, List<Resource> resources) {
+        ResourcesCapacities capacities = ResourcesCapacities.on(assignments);
 
-        ContiguousDaysLine<EffortDuration> overload = assignments.transform(extractOverload());
+        EffortSeries load = EffortSeries.from(assignments, extractLoad());
 
-        ContiguousDaysLine<EffortDuration> availabilityOnAllResources =
-                assignments.transform(extractAvailabilityOnAllResources(resources));
+        EffortSeries overload = EffortSeries.from(assignments, extractOverload(capacities));
+
+        EffortSeries availabilityOnAllResources =
+                EffortSeries.from(assignments, extractAvailabilityOnAllResources(resources, capacities));
+
+        this.load = EffortSeries.min(load, availabilityOnAllResources);
+        this.overload = EffortSeries.sum(overload, availabilityOnAllResources);
+        this.availability = availabilityOnAllResources;
+    }
+
+    private ResourceLoadChartData(EffortSeries load, EffortSeries overload, EffortSeries availability) {
+        this.load = load;
+        this.overload = overload;
+        this.availability = availability;
+    }
+
+    /**
+     * Returns a copy of this data with the days from <code>startInclusive</code> to <code>endExclusive</code>
+     * calculated again. The rest of the days keep their values, so this one is not modified.
+     *
+     * @param dayAssignments
+     *            it must contain all the day assignments of the interval, the ones outside it are ignored
+     * @see #isStrictlyInside(LocalDate, LocalDate)
+     */
+    public ResourceLoadChartData withRecalculatedInterval(List<DayAssignment> dayAssignments,
+                                                          List<Resource> resources,
+                                                          LocalDate startInclusive,
+                                                          LocalDate endExclusive) {
+
+        ResourceLoadChartData recalculated = new ResourceLoadChartData(
+                ContiguousDaysLine.byDay(dayAssignments, startInclusive, endExclusive), resources);
+
+        return new ResourceLoadChartData(
+                load.withReplaced(recalculated.load),
+                overload.withReplaced(recalculated.overload),
+                availability.withReplaced(recalculated.availability));
+    }
+
+    /**
+     * The days shown go from the first to the last day with some assignment. So only the intervals not including
+     * the first or the last day can be recalculated without changing the days shown.
+     *
+     * @return if the interval is inside the days covered without including the first or the last one
+     * @see #withRecalculatedInterval(List, List, LocalDate, LocalDate)
+     */
+    public boolean isStrictlyInside(LocalDate startInclusive, LocalDate endExclusive) {
+        if (availability.isNotValid() || availability.isEmpty()) {
+            return false;
+        }
 
-        this.load = toSortedMap(ContiguousDaysLine.min(load, availabilityOnAllResources));
-        this.overload = toSortedMap(sum(overload, availabilityOnAllResources));
-        this.availability = toSortedMap(availabilityOnAllResources);
+        return availability.getStart().isBefore(startInclusive) &&
+                endExclusive.isBefore(availability.getEndExclusive());
     }
 
-    public static IValueTransformer<List<DayAssignment>, EffortDuration> extractOverload() {
-        return compound(effortByResource(), calculateOverload());
+    public static ISecondsOnDay<List<DayAssignment>> extractOverload() {
+        return extractOverload(ResourcesCapacities.withoutInterval());
     }
 
-    private static IValueTransformer<List<DayAssignment>, Map<Resource, EffortDuration>> effortByResource() {
-        return new IValueTransformer<List<DayAssignment>, Map<Resource, EffortDuration>>() {
+    public static ISecondsOnDay<List<DayAssignment>> extractOverload(final ResourcesCapacities capacities) {
+        return new ISecondsOnDay<List<DayAssignment>>() {
 
             @Override
-            public Map<Resource, EffortDuration> transform(LocalDate day, List<DayAssignment> previousValue) {
-                Map<Resource, List<DayAssignment>> byResource = DayAssignment.byResource(previousValue);
-                Map<Resource, EffortDuration> result = new HashMap<>();
-                for (Entry<Resource, List<DayAssignment>> each : byResource.entrySet()) {
-                    result.put(each.getKey(), DayAssignment.sum(each.getValue()));
+            public int secondsOn(LocalDate day, List<DayAssignment> assignments) {
+                int result = 0;
+                for (Map.Entry<Resource, int[]> each : secondsByResource(assignments).entrySet()) {
+                    int assigned = each.getValue()[0];
+                    int capacity = capacities.getSecondsOn(each.getKey(), day);
+                    result += assigned - Math.min(capacity, assigned);
                 }
                 return result;
             }
         };
     }
 
-    public static IValueTransformer<Map<Resource, EffortDuration>, EffortDuration> calculateOverload() {
-        return new IValueTransformer<Map<Resource, EffortDuration>, EffortDuration>() {
-            @Override
-            public EffortDuration transform(LocalDate day, Map<Resource, EffortDuration> previousValue) {
-
-                final PartialDay wholeDay = PartialDay.wholeDay(day);
-
-                return EffortDuration.sum(previousValue.entrySet(), new IEffortFrom<Entry<Resource, EffortDuration>>() {
-                    @Override
-                    public EffortDuration from(Entry<Resource, EffortDuration> each) {
-                        EffortDuration capacity = calendarCapacityFor(each.getKey(), wholeDay);
-                        EffortDuration assigned = each.getValue();
-
-                        return assigned.minus(min(capacity, assigned));
-                    }
-                });
+    private static Map<Resource, int[]> secondsByResource(List<DayAssignment> assignments) {
+        Map<Resource, int[]> result = new HashMap<>();
+        for (DayAssignment each : assignments) {
+            int[] accumulated = result.get(each.getResource());
+            if (accumulated == null) {
+                accumulated = new int[1];
+                result.put(each.getResource(), accumulated);
             }
-        };
+            accumulated[0] += each.getDuration().getSeconds();
+        }
+        return result;
     }
 
-    public static IValueTransformer<List<DayAssignment>, EffortDuration> extractLoad() {
-        return new IValueTransformer<List<DayAssignment>, EffortDuration>() {
+    public static ISecondsOnDay<List<DayAssignment>> extractLoad() {
+        return new ISecondsOnDay<List<DayAssignment>>() {
 
             @Override
-            public EffortDuration transform(LocalDate day, List<DayAssignment> previousValue) {
-                return DayAssignment.sum(previousValue);
+            public int secondsOn(LocalDate day, List<DayAssignment> assignments) {
+                int result = 0;
+                for (DayAssignment each : assignments) {
+                    result += each.getDuration().getSeconds();
+                }
+                return result;
             }
         };
     }
 
-    public static IValueTransformer<List<DayAssignment>, EffortDuration> extractAvailabilityOnAssignedResources() {
-        return new IValueTransformer<List<DayAssignment>, EffortDuration>() {
+    public static ISecondsOnDay<List<DayAssignment>> extractAvailabilityOnAssignedResources() {
+        return extractAvailabilityOnAssignedResources(ResourcesCapacities.withoutInterval());
+    }
 
-            @Override
-            public EffortDuration transform(LocalDate day, List<DayAssignment> previousValue) {
-                Set<Resource> resources = getResources(previousValue);
+    public static ISecondsOnDay<List<DayAssignment>> extractAvailabilityOnAssignedResources(
+            final ResourcesCapacities capacities) {
 
-                return sumCalendarCapacitiesForDay(resources, day);
+        return new ISecondsOnDay<List<DayAssignment>>() {
+
+            @Override
+            public int secondsOn(LocalDate day, List<DayAssignment> assignments) {
+                return capacities.sumSecondsOn(getResources(assignments), day);
             }
 
             private Set<Resource> getResources(List<DayAssignment> assignments) {
@@ -157,83 +201,42 @@ public class ResourceLoadChartData implements ILoadChartData {
         };
     }
 
-    private IValueTransformer<List<DayAssignment>, EffortDuration> extractAvailabilityOnAllResources(
-            final List<Resource> resources) {
+    private ISecondsOnDay<List<DayAssignment>> extractAvailabilityOnAllResources(
+            final List<Resource> resources, final ResourcesCapacities capacities) {
 
-        return new IValueTransformer<List<DayAssignment>, EffortDuration>() {
+        return new ISecondsOnDay<List<DayAssignment>>() {
 
             @Override
-            public EffortDuration transform(LocalDate day, List<DayAssignment> previousValue) {
-                return sumCalendarCapacitiesForDay(resources, day);
+            public int secondsOn(LocalDate day, List<DayAssignment> assignments) {
+                return capacities.sumSecondsOn(resources, day);
             }
         };
     }
 
-    public SortedMap<LocalDate, EffortDuration> getLoad() {
+    @Override
+    public EffortSeries getLoad() {
         return load;
     }
 
-    public SortedMap<LocalDate, EffortDuration> getOverload() {
+    @Override
+    public EffortSeries getOverload() {
         return overload;
     }
 
-    public SortedMap<LocalDate, EffortDuration> getAvailability() {
+    @Override
+    public EffortSeries getAvailability() {
         return availability;
     }
 
     public ILoadChartData on(final LocalDate startInclusive, final LocalDate endExclusive) {
-
-        final ResourceLoadChartData original = ResourceLoadChartData.this;
-
         if (startInclusive == null && endExclusive == null) {
-            return original;
+            return this;
         }
 
-        return new ILoadChartData() {
-
-            @Override
-            public SortedMap<LocalDate, EffortDuration> getOverload() {
-                return filter(original.getOverload());
-            }
-
-            @Override
-            public SortedMap<LocalDate, EffortDuration> getLoad() {
-                return filter(original.getLoad());
-            }
-
-            @Override
-            public SortedMap<LocalDate, EffortDuration> getAvailability() {
-                return filter(original.getAvailability());
-            }
-
-            private SortedMap<LocalDate, EffortDuration> filter(SortedMap<LocalDate, EffortDuration> map) {
-                if (startInclusive != null) {
-                    return map.tailMap(startInclusive);
-                }
-
-                if (endExclusive != null) {
-                    return map.headMap(endExclusive);
-                }
-
-                return map.subMap(startInclusive, endExclusive);
-            }
-        };
-    }
-
-    private static EffortDuration sumCalendarCapacitiesForDay(Collection<? extends Resource> resources, LocalDate day) {
-
-        final PartialDay wholeDay = PartialDay.wholeDay(day);
-
-        return EffortDuration.sum(resources, new IEffortFrom<Resource>() {
-            @Override
-            public EffortDuration from(Resource each) {
-                return calendarCapacityFor(each, wholeDay);
-            }
-        });
-    }
-
-    protected static EffortDuration calendarCapacityFor(Resource resource, PartialDay day) {
-        return resource.getCalendarOrDefault().getCapacityOn(day);
+        return new ResourceLoadChartData(
+                load.subInterval(startInclusive, endExclusive),
+                overload.subInterval(startInclusive, endExclusive),
+                availability.subInterval(startInclusive, endExclusive));
     }
 
 }
@@ -0,0 +1,97 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.chart;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.CapacityVector;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+
+/**
+ * Capacities of the resources over the interval of a {@link ContiguousDaysLine}. The {@link CapacityVector} of each
+ * resource is calculated the first time it's needed, so the calendars aren't consulted again for each chart that
+ * is calculated for the same days.
+ *
+ * It's not thread safe, it's meant to be used along one calculation.
+ */
+public class ResourcesCapacities {
+
+    public static ResourcesCapacities on(ContiguousDaysLine<?> line) {
+        if ( line.isNotValid() ) {
+            return withoutInterval();
+        }
+
+        return new ResourcesCapacities(line.getStart(), line.getEndExclusive());
+    }
+
+    /**
+     * @return an instance that asks directly to the calendars
+     */
+    public static ResourcesCapacities withoutInterval() {
+        return new ResourcesCapacities(null, null);
+    }
+
+    private final LocalDate startInclusive;
+
+    private final LocalDate endExclusive;
+
+    private final Map<Resource, CapacityVector> capacitiesByResource = new HashMap<>();
+
+    private ResourcesCapacities(LocalDate startInclusive, LocalDate endExclusive) {
+        this.startInclusive = startInclusive;
+        this.endExclusive = endExclusive;
+    }
+
+    private boolean isInsideInterval(LocalDate day) {
+        return startInclusive != null && !day.isBefore(startInclusive) && day.isBefore(endExclusive);
+    }
+
+    private CapacityVector getCapacities(Resource resource) {
+        CapacityVector result = capacitiesByResource.get(resource);
+        if ( result == null ) {
+            result = CapacityVector.calculate(resource.getCalendarOrDefault(), startInclusive, endExclusive);
+            capacitiesByResource.put(resource, result);
+        }
+
+        return result;
+    }
+
+    public int getSecondsOn(Resource resource, LocalDate day) {
+        if ( isInsideInterval(day) ) {
+            return getCapacities(resource).getStandardSeconds(day);
+        }
+
+        return resource.getCalendarOrDefault().getCapacityOn(PartialDay.wholeDay(day)).getSeconds();
+    }
+
+    public int sumSecondsOn(Collection<? extends Resource> resources, LocalDate day) {
+        int result = 0;
+        for (Resource each : resources) {
+            result += getSecondsOn(each, day);
+        }
+
+        return result;
+    }
+
+}
@@ -24,7 +24,9 @@ package org.libreplan.business.planner.daos;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.Criteria;
 import org.hibernate.Query;
@@ -194,4 +196,30 @@ public class DayAssignmentDAO extends GenericDAOHibernate<DayAssignment, Long> i
                     .list();
     }
 
+    @Override
+    public Map<Long, Long> findTaskIdsBySpecificContainers(Collection<Long> containerIds) {
+        return findTaskIdsByContainers("SpecificDayAssignmentsContainer", containerIds);
+    }
+
+    @Override
+    public Map<Long, Long> findTaskIdsByGenericContainers(Collection<Long> containerIds) {
+        return findTaskIdsByContainers("GenericDayAssignmentsContainer", containerIds);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> findTaskIdsByContainers(String containerEntity, Collection<Long> containerIds) {
+        Map<Long, Long> result = new HashMap<>();
+        String queryString = "select c.id, c.resourceAllocation.task.id from " + containerEntity + " c " +
+                "where c.id in (:containerIds)";
+
+        for (List<Long> chunk : inChunks(containerIds)) {
+            List<Object[]> rows = getSession().createQuery(queryString).setParameterList("containerIds", chunk).list();
+            for (Object[] each : rows) {
+                result.put((Long) each[0], (Long) each[1]);
+            }
+        }
+
+        return result;
+    }
+
 }
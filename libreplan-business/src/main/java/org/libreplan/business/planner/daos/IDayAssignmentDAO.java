@@ -23,6 +23,7 @@ package org.libreplan.business.planner.daos;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IGenericDAO;
@@ -58,4 +59,16 @@ public interface IDayAssignmentDAO extends IGenericDAO<DayAssignment, Long> {
 
     public List<DayAssignment> findByResources(List<Resource> resources);
 
+    /**
+     * @return the task id of each one of the specific day assignments
+     *         containers found, keyed by the container id
+     */
+    Map<Long, Long> findTaskIdsBySpecificContainers(Collection<Long> containerIds);
+
+    /**
+     * @return the task id of each one of the generic day assignments
+     *         containers found, keyed by the container id
+     */
+    Map<Long, Long> findTaskIdsByGenericContainers(Collection<Long> containerIds);
+
 }
@@ -21,6 +21,7 @@
 
 package org.libreplan.business.planner.daos;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -36,6 +37,12 @@ public interface ITaskElementDAO extends IGenericDAO<TaskElement, Long> {
 
     List<TaskElement> findChildrenOf(TaskGroup each);
 
+    /**
+     * Finds the children of all the <code>groups</code> at once, so a whole level of a task tree is loaded with a
+     * few queries instead of one per group
+     */
+    List<TaskElement> findChildrenOf(Collection<? extends TaskGroup> groups);
+
     List<TaskElement> listFilteredByDate(Date start, Date end);
 
     List<TaskElement> getTaskElementsNoMilestonesWithoutTaskSource();
@@ -21,6 +21,8 @@
 
 package org.libreplan.business.planner.daos;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -55,6 +57,19 @@ public class TaskElementDAO extends GenericDAOHibernate<TaskElement, Long> imple
                 Restrictions.eq("parent", each)).list();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<TaskElement> findChildrenOf(Collection<? extends TaskGroup> groups) {
+        List<TaskElement> result = new ArrayList<>();
+
+        for (List<TaskGroup> chunk : inChunks(groups)) {
+            result.addAll(getSession().createCriteria(TaskElement.class).add(
+                    Restrictions.in("parent", chunk)).list());
+        }
+
+        return result;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<TaskElement> listFilteredByDate(Date start, Date end) {
@@ -73,7 +73,11 @@ public class AvailabilityCalculator {
         return result;
     }
 
-    private static AvailabilityTimeLine buildTimeline(
+    /**
+     * @param satisfactions
+     *            ordered by start date
+     */
+    public static AvailabilityTimeLine buildTimeline(
             List<CriterionSatisfaction> satisfactions) {
         if (satisfactions.isEmpty()) {
             return AvailabilityTimeLine.createAllInvalid();
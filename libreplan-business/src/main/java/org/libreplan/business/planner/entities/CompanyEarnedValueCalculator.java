@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
@@ -48,94 +49,112 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
     @Autowired
     private PredefinedDatabaseSnapshots databaseSnapshots;
 
-    @Override
-    @Transactional(readOnly = true)
-    public SortedMap<LocalDate, BigDecimal> calculateBudgetedCostWorkScheduled(AvailabilityTimeLine.Interval interval) {
+    private final SeriesPerTask estimatedCostSeries = new SeriesPerTask();
 
-        Map<TaskElement, SortedMap<LocalDate, BigDecimal>> estimatedCostPerTask =
-                databaseSnapshots.snapshotEstimatedCostPerTask();
+    private final SeriesPerTask advanceCostSeries = new SeriesPerTask();
 
-        Collection<TaskElement> list = filterTasksByDate(estimatedCostPerTask.keySet(), interval);
-        SortedMap<LocalDate, BigDecimal> estimatedCost = new TreeMap<LocalDate, BigDecimal>();
+    private volatile WorkReportLinesSeries workReportLinesSeries = null;
 
-        for (TaskElement each : list) {
-            addCost(estimatedCost, estimatedCostPerTask.get(each));
-        }
-        return accumulateResult(estimatedCost);
-    }
+    /**
+     * Keeps the {@link EarnedValueSeries} built from the cost of each task
+     * stored in a snapshot. The snapshots only replace the costs of the
+     * modified tasks, so the series of a task is reused while the snapshot
+     * keeps the same cost for it.
+     */
+    private static class SeriesPerTask {
 
-    private List<TaskElement> filterTasksByDate(Collection<TaskElement> tasks, AvailabilityTimeLine.Interval interval) {
-        List<TaskElement> result = new ArrayList<TaskElement>();
-        for(TaskElement task : tasks) {
-            if ( interval.includes(task.getStartAsLocalDate()) || interval.includes(task.getEndAsLocalDate()) ) {
-                result.add(task);
+        private final Map<TaskElement, SeriesFromCost> cached = new ConcurrentHashMap<>();
+
+        List<EarnedValueSeries> getSeries(Map<TaskElement, SortedMap<LocalDate, BigDecimal>> costPerTask,
+                                          Collection<TaskElement> tasks) {
+
+            cached.keySet().retainAll(costPerTask.keySet());
+
+            List<EarnedValueSeries> result = new ArrayList<>(tasks.size());
+            for (TaskElement each : tasks) {
+                SortedMap<LocalDate, BigDecimal> cost = costPerTask.get(each);
+                SeriesFromCost seriesFromCost = cached.get(each);
+                if ( seriesFromCost == null || seriesFromCost.cost != cost ) {
+                    seriesFromCost = new SeriesFromCost(cost);
+                    cached.put(each, seriesFromCost);
+                }
+                result.add(seriesFromCost.series);
             }
+            return result;
         }
-        return result;
     }
 
-    private List<WorkReportLine> filterWorkReportLinesByDate(Collection<WorkReportLine> lines,
-                                                             AvailabilityTimeLine.Interval interval) {
-        List<WorkReportLine> result = new ArrayList<WorkReportLine>();
-        for(WorkReportLine line: lines) {
-            if ( interval.includes(line.getLocalDate()) ) {
-                result.add(line);
-            }
+    private static class SeriesFromCost {
+
+        private final SortedMap<LocalDate, BigDecimal> cost;
+
+        private final EarnedValueSeries series;
+
+        SeriesFromCost(SortedMap<LocalDate, BigDecimal> cost) {
+            this.cost = cost;
+            this.series = EarnedValueSeries.of(cost);
         }
-        return result;
     }
 
-    private void addCost(SortedMap<LocalDate, BigDecimal> currentCost,
-                         SortedMap<LocalDate, BigDecimal> additionalCost) {
+    private static class WorkReportLinesSeries {
 
-        for (LocalDate day : additionalCost.keySet()) {
-            if ( !currentCost.containsKey(day) ) {
-                currentCost.put(day, BigDecimal.ZERO);
-            }
-            currentCost.put(day, currentCost.get(day).add(additionalCost.get(day)));
+        private final List<WorkReportLine> lines;
+
+        private final EarnedValueSeries series;
+
+        WorkReportLinesSeries(List<WorkReportLine> lines) {
+            this.lines = lines;
+            this.series = EarnedValueSeries.of(costPerDay(lines));
         }
-    }
 
-    private SortedMap<LocalDate, BigDecimal> accumulateResult(
-            SortedMap<LocalDate, BigDecimal> map) {
-        SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
-        if (map.isEmpty()) {
+        private static SortedMap<LocalDate, BigDecimal> costPerDay(List<WorkReportLine> lines) {
+            SortedMap<LocalDate, BigDecimal> result = new TreeMap<>();
+            for (WorkReportLine each : lines) {
+                LocalDate day = new LocalDate(each.getDate());
+                BigDecimal cost = each.getEffort().toHoursAsDecimalWithScale(2);
+                BigDecimal previous = result.get(day);
+                result.put(day, previous == null ? cost : previous.add(cost));
+            }
             return result;
         }
+    }
 
-        BigDecimal accumulatedResult = BigDecimal.ZERO;
-        for (LocalDate day : map.keySet()) {
-            BigDecimal value = map.get(day);
-            accumulatedResult = accumulatedResult.add(value);
-            result.put(day, accumulatedResult);
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public SortedMap<LocalDate, BigDecimal> calculateBudgetedCostWorkScheduled(AvailabilityTimeLine.Interval interval) {
 
+        Map<TaskElement, SortedMap<LocalDate, BigDecimal>> estimatedCostPerTask =
+                databaseSnapshots.snapshotEstimatedCostPerTask();
+
+        Collection<TaskElement> tasks = filterTasksByDate(estimatedCostPerTask.keySet(), interval);
+
+        return EarnedValueSeries.sum(estimatedCostSeries.getSeries(estimatedCostPerTask, tasks))
+                .accumulate()
+                .toSortedMap();
+    }
+
+    private List<TaskElement> filterTasksByDate(Collection<TaskElement> tasks, AvailabilityTimeLine.Interval interval) {
+        List<TaskElement> result = new ArrayList<TaskElement>();
+        for(TaskElement task : tasks) {
+            if ( interval.includes(task.getStartAsLocalDate()) || interval.includes(task.getEndAsLocalDate()) ) {
+                result.add(task);
+            }
+        }
         return result;
     }
 
     @Override
     public SortedMap<LocalDate, BigDecimal> calculateActualCostWorkPerformed(
             Interval interval) {
-        SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
-        Collection<WorkReportLine> workReportLines = filterWorkReportLinesByDate(
-                databaseSnapshots.snapshotWorkReportLines(),
-                interval);
+        List<WorkReportLine> lines = databaseSnapshots.snapshotWorkReportLines();
 
-        if (workReportLines.isEmpty()) {
-            return result;
+        WorkReportLinesSeries current = workReportLinesSeries;
+        if ( current == null || current.lines != lines ) {
+            current = new WorkReportLinesSeries(lines);
+            workReportLinesSeries = current;
         }
 
-        for (WorkReportLine workReportLine : workReportLines) {
-            LocalDate day = new LocalDate(workReportLine.getDate());
-            BigDecimal cost = workReportLine.getEffort()
-                    .toHoursAsDecimalWithScale(2);
-
-            if (!result.containsKey(day)) {
-                result.put(day, BigDecimal.ZERO);
-            }
-            result.put(day, result.get(day).add(cost));
-        }
-        return accumulateResult(result);
+        return current.series.restrictedTo(interval).accumulate().toSortedMap();
     }
 
     @Override
@@ -146,11 +165,7 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
         Collection<TaskElement> tasks = filterTasksByDate(
                 advanceCostPerTask.keySet(), interval);
 
-        SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
-        for (TaskElement each : tasks) {
-            addCost(result, advanceCostPerTask.get(each));
-        }
-        return result;
+        return EarnedValueSeries.sum(advanceCostSeries.getSeries(advanceCostPerTask, tasks)).toSortedMap();
     }
 
 }
@@ -0,0 +1,240 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.planner.entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Immutable index of {@link DayAssignment day assignments} sorted by day. It
+ * keeps the accumulated effort for each day, so the effort assigned in an
+ * interval and the assignments of a day are retrieved in logarithmic time.
+ * <p>
+ * When the assignments change, a new index is derived with
+ * {@link #plus(Collection)} or {@link #minus(Collection)} merging the
+ * modifications into the already sorted assignments, so no full sort is needed.
+ */
+public class DayAssignmentIndex {
+
+    private static final DayAssignmentIndex EMPTY = new DayAssignmentIndex(new DayAssignment[0]);
+
+    public static DayAssignmentIndex empty() {
+        return EMPTY;
+    }
+
+    public static DayAssignmentIndex create(Collection<? extends DayAssignment> assignments) {
+        Validate.noNullElements(assignments);
+        return new DayAssignmentIndex(sortedByDay(assignments));
+    }
+
+    private static DayAssignment[] sortedByDay(Collection<? extends DayAssignment> assignments) {
+        DayAssignment[] result = assignments.toArray(new DayAssignment[assignments.size()]);
+        Arrays.sort(result, DayAssignment.byDayComparator());
+        return result;
+    }
+
+    /**
+     * The assignments ordered by day
+     */
+    private final DayAssignment[] assignments;
+
+    /**
+     * The different days with assignments in ascending order
+     */
+    private final LocalDate[] days;
+
+    /**
+     * Position in {@link #assignments} of the first assignment of each day.
+     * It has an extra element pointing after the last assignment.
+     */
+    private final int[] firstAssignmentOfDay;
+
+    /**
+     * Seconds assigned before each day. It has an extra element with the
+     * total.
+     */
+    private final long[] secondsBeforeDay;
+
+    private DayAssignmentIndex(DayAssignment[] assignmentsSortedByDay) {
+        this.assignments = assignmentsSortedByDay;
+
+        int daysCount = countDays(assignmentsSortedByDay);
+        this.days = new LocalDate[daysCount];
+        this.firstAssignmentOfDay = new int[daysCount + 1];
+        this.secondsBeforeDay = new long[daysCount + 1];
+
+        int dayPosition = -1;
+        long accumulated = 0;
+        for (int i = 0; i < assignmentsSortedByDay.length; i++) {
+            LocalDate day = assignmentsSortedByDay[i].getDay();
+            if ( dayPosition < 0 || !day.equals(days[dayPosition]) ) {
+                dayPosition++;
+                days[dayPosition] = day;
+                firstAssignmentOfDay[dayPosition] = i;
+                secondsBeforeDay[dayPosition] = accumulated;
+            }
+            accumulated += assignmentsSortedByDay[i].getDuration().getSeconds();
+        }
+        firstAssignmentOfDay[daysCount] = assignmentsSortedByDay.length;
+        secondsBeforeDay[daysCount] = accumulated;
+    }
+
+    private static int countDays(DayAssignment[] assignmentsSortedByDay) {
+        int result = 0;
+        LocalDate previous = null;
+        for (DayAssignment each : assignmentsSortedByDay) {
+            if ( !each.getDay().equals(previous) ) {
+                result++;
+                previous = each.getDay();
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return assignments.length;
+    }
+
+    public boolean isEmpty() {
+        return assignments.length == 0;
+    }
+
+    public List<DayAssignment> getAssignments() {
+        return Collections.unmodifiableList(Arrays.asList(assignments));
+    }
+
+    public List<DayAssignment> getAssignmentsOn(LocalDate day) {
+        int position = Arrays.binarySearch(days, day);
+        if ( position < 0 ) {
+            return Collections.emptyList();
+        }
+        return asList(firstAssignmentOfDay[position], firstAssignmentOfDay[position + 1]);
+    }
+
+    public List<DayAssignment> getAssignmentsBetween(LocalDate startInclusive, LocalDate endExclusive) {
+        int start = firstDayAfterOrEqual(startInclusive);
+        int end = firstDayAfterOrEqual(endExclusive);
+        if ( start >= end ) {
+            return Collections.emptyList();
+        }
+        return asList(firstAssignmentOfDay[start], firstAssignmentOfDay[end]);
+    }
+
+    private List<DayAssignment> asList(int startInclusive, int endExclusive) {
+        return Collections.unmodifiableList(Arrays.asList(assignments).subList(startInclusive, endExclusive));
+    }
+
+    public EffortDuration getEffortOn(LocalDate day) {
+        int position = Arrays.binarySearch(days, day);
+        if ( position < 0 ) {
+            return EffortDuration.zero();
+        }
+        return toEffort(secondsBeforeDay[position + 1] - secondsBeforeDay[position]);
+    }
+
+    public EffortDuration getEffortBetween(LocalDate startInclusive, LocalDate endExclusive) {
+        int start = firstDayAfterOrEqual(startInclusive);
+        int end = firstDayAfterOrEqual(endExclusive);
+        if ( start >= end ) {
+            return EffortDuration.zero();
+        }
+        return toEffort(secondsBeforeDay[end] - secondsBeforeDay[start]);
+    }
+
+    public EffortDuration getTotalEffort() {
+        return toEffort(secondsBeforeDay[days.length]);
+    }
+
+    private static EffortDuration toEffort(long seconds) {
+        return EffortDuration.seconds((int) seconds);
+    }
+
+    private int firstDayAfterOrEqual(LocalDate day) {
+        int position = Arrays.binarySearch(days, day);
+        return position >= 0 ? position : -(position + 1);
+    }
+
+    /**
+     * @return a new index with the assignments of this one and the provided
+     *         ones. This index is not modified.
+     */
+    public DayAssignmentIndex plus(Collection<? extends DayAssignment> added) {
+        Validate.noNullElements(added);
+        if ( added.isEmpty() ) {
+            return this;
+        }
+
+        DayAssignment[] toAdd = sortedByDay(added);
+        DayAssignment[] result = new DayAssignment[assignments.length + toAdd.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < assignments.length && j < toAdd.length) {
+            if ( toAdd[j].getDay().compareTo(assignments[i].getDay()) < 0 ) {
+                result[k++] = toAdd[j++];
+            } else {
+                result[k++] = assignments[i++];
+            }
+        }
+        while (i < assignments.length) {
+            result[k++] = assignments[i++];
+        }
+        while (j < toAdd.length) {
+            result[k++] = toAdd[j++];
+        }
+        return new DayAssignmentIndex(result);
+    }
+
+    /**
+     * @return a new index without the provided assignments. The ones not
+     *         contained in this index are ignored. This index is not
+     *         modified.
+     */
+    public DayAssignmentIndex minus(Collection<? extends DayAssignment> removed) {
+        if ( removed.isEmpty() ) {
+            return this;
+        }
+
+        Map<DayAssignment, Boolean> toRemove = new IdentityHashMap<>();
+        for (DayAssignment each : removed) {
+            toRemove.put(each, true);
+        }
+
+        List<DayAssignment> result = new ArrayList<>(assignments.length);
+        for (DayAssignment each : assignments) {
+            if ( !toRemove.containsKey(each) ) {
+                result.add(each);
+            }
+        }
+        if ( result.size() == assignments.length ) {
+            return this;
+        }
+        return new DayAssignmentIndex(result.toArray(new DayAssignment[result.size()]));
+    }
+
+}
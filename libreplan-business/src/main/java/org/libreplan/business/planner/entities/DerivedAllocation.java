@@ -201,7 +201,7 @@ public class DerivedAllocation extends BaseEntity {
             List<DerivedDayAssignment> toBeRemoved = DayAssignment
                     .getAtInterval(getAssignments(), startInclusive,
                             endExclusive);
-            assignments.removeAll(toBeRemoved);
+            assignments.removeAll(new HashSet<DerivedDayAssignment>(toBeRemoved));
             detachAssignments(toBeRemoved);
             assignments.addAll(DayAssignment.getAtInterval(newAssignments,
                     startInclusive, endExclusive));
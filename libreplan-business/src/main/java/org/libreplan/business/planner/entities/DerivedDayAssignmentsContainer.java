@@ -91,7 +91,7 @@ public class DerivedDayAssignmentsContainer extends BaseEntity {
         List<DerivedDayAssignment> toBeRemoved = DayAssignment.getAtInterval(
                 DayAssignment.orderedByDay(getDayAssignments()),
                 startInclusive, endExclusive);
-        dayAssignments.removeAll(toBeRemoved);
+        dayAssignments.removeAll(new HashSet<DerivedDayAssignment>(toBeRemoved));
         dayAssignments.addAll(copyToThisAllocation(DayAssignment.getAtInterval(
                 newAssignments, startInclusive, endExclusive)));
     }
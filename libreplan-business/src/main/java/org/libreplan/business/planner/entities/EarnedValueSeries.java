@@ -0,0 +1,225 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.planner.entities;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.AvailabilityTimeLine.Interval;
+
+/**
+ * Immutable series of earned value amounts by day, kept in arrays of fixed
+ * point values. It's used to combine the costs of many tasks without
+ * creating intermediate {@link SortedMap sorted maps}.
+ */
+public class EarnedValueSeries {
+
+    /**
+     * Decimal digits kept for each value. The costs are calculated with at
+     * most four decimal digits, so no precision is lost.
+     */
+    private static final int MAX_SCALE = 4;
+
+    private static final EarnedValueSeries EMPTY = new EarnedValueSeries(new LocalDate[0], new long[0], 0);
+
+    public static EarnedValueSeries empty() {
+        return EMPTY;
+    }
+
+    public static EarnedValueSeries of(SortedMap<LocalDate, BigDecimal> valuesPerDay) {
+        LocalDate[] days = new LocalDate[valuesPerDay.size()];
+        long[] values = new long[valuesPerDay.size()];
+        int scale = 0;
+
+        int i = 0;
+        for (Entry<LocalDate, BigDecimal> each : valuesPerDay.entrySet()) {
+            days[i] = each.getKey();
+            values[i] = toFixedPoint(each.getValue());
+            scale = Math.max(scale, Math.min(Math.max(each.getValue().scale(), 0), MAX_SCALE));
+            i++;
+        }
+
+        return new EarnedValueSeries(days, values, scale);
+    }
+
+    private static long toFixedPoint(BigDecimal value) {
+        return value.setScale(MAX_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * Adds up the values of the same day of all the series. The days of the
+     * result are the days present in any of them. The series are merged
+     * keeping a cursor over each one in a priority queue, so the cost is
+     * proportional to the number of values and the logarithm of the number of
+     * series.
+     */
+    public static EarnedValueSeries sum(Collection<? extends EarnedValueSeries> series) {
+        PriorityQueue<Cursor> pending = new PriorityQueue<>(Math.max(series.size(), 1));
+        int maxSize = 0;
+        int scale = 0;
+
+        for (EarnedValueSeries each : series) {
+            if ( !each.isEmpty() ) {
+                pending.offer(new Cursor(each));
+                maxSize += each.size();
+                scale = Math.max(scale, each.scale);
+            }
+        }
+
+        LocalDate[] days = new LocalDate[maxSize];
+        long[] values = new long[maxSize];
+        int size = 0;
+
+        while (!pending.isEmpty()) {
+            Cursor current = pending.poll();
+            LocalDate day = current.getDay();
+
+            if ( size == 0 || !days[size - 1].equals(day) ) {
+                days[size] = day;
+                size++;
+            }
+            values[size - 1] += current.getValue();
+
+            if ( current.advance() ) {
+                pending.offer(current);
+            }
+        }
+
+        return new EarnedValueSeries(copyOf(days, size), copyOf(values, size), scale);
+    }
+
+    private static class Cursor implements Comparable<Cursor> {
+
+        private final EarnedValueSeries series;
+
+        private int position = 0;
+
+        private Cursor(EarnedValueSeries series) {
+            this.series = series;
+        }
+
+        LocalDate getDay() {
+            return series.days[position];
+        }
+
+        long getValue() {
+            return series.values[position];
+        }
+
+        boolean advance() {
+            position++;
+            return position < series.days.length;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return getDay().compareTo(other.getDay());
+        }
+    }
+
+    private static LocalDate[] copyOf(LocalDate[] days, int size) {
+        LocalDate[] result = new LocalDate[size];
+        System.arraycopy(days, 0, result, 0, size);
+        return result;
+    }
+
+    private static long[] copyOf(long[] values, int size) {
+        long[] result = new long[size];
+        System.arraycopy(values, 0, result, 0, size);
+        return result;
+    }
+
+    private final LocalDate[] days;
+
+    private final long[] values;
+
+    /**
+     * Decimal digits used when the values are converted back to
+     * {@link BigDecimal}
+     */
+    private final int scale;
+
+    private EarnedValueSeries(LocalDate[] days, long[] values, int scale) {
+        this.days = days;
+        this.values = values;
+        this.scale = scale;
+    }
+
+    public int size() {
+        return days.length;
+    }
+
+    public boolean isEmpty() {
+        return days.length == 0;
+    }
+
+    /**
+     * @return a new series where the value of each day is the addition of the
+     *         values of that day and all the previous ones
+     */
+    public EarnedValueSeries accumulate() {
+        long[] result = new long[values.length];
+        long accumulated = 0;
+        for (int i = 0; i < values.length; i++) {
+            accumulated += values[i];
+            result[i] = accumulated;
+        }
+        return new EarnedValueSeries(days, result, scale);
+    }
+
+    /**
+     * @return a new series with only the days included in the interval
+     */
+    public EarnedValueSeries restrictedTo(Interval interval) {
+        int[] included = new int[days.length];
+        int size = 0;
+        for (int i = 0; i < days.length; i++) {
+            if ( interval.includes(days[i]) ) {
+                included[size++] = i;
+            }
+        }
+
+        if ( size == days.length ) {
+            return this;
+        }
+
+        LocalDate[] resultDays = new LocalDate[size];
+        long[] resultValues = new long[size];
+        for (int i = 0; i < size; i++) {
+            resultDays[i] = days[included[i]];
+            resultValues[i] = values[included[i]];
+        }
+        return new EarnedValueSeries(resultDays, resultValues, scale);
+    }
+
+    public SortedMap<LocalDate, BigDecimal> toSortedMap() {
+        SortedMap<LocalDate, BigDecimal> result = new TreeMap<>();
+        for (int i = 0; i < days.length; i++) {
+            result.put(days[i], BigDecimal.valueOf(values[i], MAX_SCALE).setScale(scale, RoundingMode.HALF_UP));
+        }
+        return result;
+    }
+
+}
@@ -186,6 +186,16 @@ public class GenericDayAssignment extends DayAssignment {
         return parentState.getResourceAllocation();
     }
 
+    /**
+     * The id of the container, which is read from this day assignment's own
+     * field without initializing the container, so it can be used on detached
+     * day assignments. It is <code>null</code> if the container has not been
+     * saved.
+     */
+    public Long getContainerId() {
+        return container != null ? container.getId() : null;
+    }
+
     protected void setGenericResourceAllocation(
             GenericResourceAllocation genericResourceAllocation) {
         parentState = parentState.setParent(genericResourceAllocation);
@@ -24,17 +24,18 @@ package org.libreplan.business.planner.entities;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
-import java.sql.Time;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.SortedMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
-import java.util.Date;
+import java.util.stream.IntStream;
 
+import org.joda.time.Days;
 import org.joda.time.LocalDate;
-import org.joda.time.LocalTime;
 import org.libreplan.business.advance.entities.AdvanceMeasurement;
 import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
 import org.libreplan.business.planner.entities.DayAssignment.FilterType;
@@ -119,88 +120,141 @@ public class HoursCostCalculator implements ICostCalculator {
             return getAdvanceCost(task);
         }
 
-        SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
+        return EstimatedHours.of(task.getDayAssignments(FilterType.WITHOUT_DERIVED))
+                .toHoursPerDay(filterStartDate, filterEndDate);
+    }
 
-        List<DayAssignment> dayAssignments = task.getDayAssignments(FilterType.WITHOUT_DERIVED);
-        if ( dayAssignments.isEmpty() ) {
-            return result;
+    /**
+     * The day assignments of the tasks are retrieved in the calling thread,
+     * since they could need to be loaded from the database. The hours per day
+     * are then calculated in parallel.
+     */
+    @Override
+    public Map<Task, SortedMap<LocalDate, BigDecimal>> getEstimatedCost(Collection<? extends Task> tasks) {
+        final List<Task> tasksList = new ArrayList<>(tasks);
+        final EstimatedHours[] estimatedHours = new EstimatedHours[tasksList.size()];
+        final List<SortedMap<LocalDate, BigDecimal>> costs = new ArrayList<>(tasksList.size());
+
+        for (int i = 0; i < tasksList.size(); i++) {
+            Task each = tasksList.get(i);
+            if ( each.isSubcontracted() ) {
+                costs.add(getAdvanceCost(each));
+            } else {
+                estimatedHours[i] = EstimatedHours.of(each.getDayAssignments(FilterType.WITHOUT_DERIVED));
+                costs.add(null);
+            }
         }
 
-        int additionOfAllAssignmentsMinutes = 0;
+        IntStream.range(0, estimatedHours.length).parallel().forEach(i -> {
+            if ( estimatedHours[i] != null ) {
+                costs.set(i, estimatedHours[i].toHoursPerDay(null, null));
+            }
+        });
 
-        for (DayAssignment dayAssignment : dayAssignments) {
-            LocalDate day = dayAssignment.getDay();
-            if( ((filterStartDate == null) || day.compareTo(filterStartDate) >= 0) &&
-                    ((filterEndDate == null) || day.compareTo(filterEndDate) <= 0) ) {
+        Map<Task, SortedMap<LocalDate, BigDecimal>> result = new HashMap<>();
+        for (int i = 0; i < tasksList.size(); i++) {
+            result.put(tasksList.get(i), costs.get(i));
+        }
+
+        return result;
+    }
+
+    /**
+     * The whole hours and the remaining minutes of some day assignments. Each
+     * day gets the whole hours of its assignments. The minutes of all of them
+     * are added up and moved to the day of the last assignment: one hour if
+     * they are between 30 and 60, their whole hours if they are more than 60.
+     */
+    private static class EstimatedHours {
+
+        private static EstimatedHours of(List<? extends DayAssignment> dayAssignments) {
+            int size = dayAssignments.size();
+            LocalDate[] days = new LocalDate[size];
+            int[] hours = new int[size];
+            int[] minutes = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                DayAssignment each = dayAssignments.get(i);
+                int seconds = each.getDuration().getSeconds();
+                int remainingSeconds = seconds % 60;
+                int totalMinutes = (remainingSeconds >= 30 ? seconds + 60 - remainingSeconds : seconds) / 60;
+
+                days[i] = each.getDay();
+                hours[i] = totalMinutes / 60;
+                minutes[i] = totalMinutes % 60;
+            }
 
-                String currentTime = dayAssignment.getDuration().toFormattedString();
+            return new EstimatedHours(days, hours, minutes);
+        }
 
-                SimpleDateFormat format1 = new SimpleDateFormat("hh:mm");
-                SimpleDateFormat format2 = new SimpleDateFormat("hh");
+        private final LocalDate[] days;
 
-                Date date = null;
+        private final int[] hours;
 
-                try {
-                    if ( isParsableWithFormat1(currentTime) ) {
-                        date = format1.parse(currentTime);
-                    } else if ( isParsableWithFormat2(currentTime) ) {
-                        date = format2.parse(currentTime);
-                    }
-                } catch (ParseException e) {
-                    e.printStackTrace();
-                }
+        private final int[] minutes;
+
+        private EstimatedHours(LocalDate[] days, int[] hours, int[] minutes) {
+            this.days = days;
+            this.hours = hours;
+            this.minutes = minutes;
+        }
 
-                assert date != null;
+        SortedMap<LocalDate, BigDecimal> toHoursPerDay(LocalDate filterStartDate, LocalDate filterEndDate) {
+            SortedMap<LocalDate, BigDecimal> result = new TreeMap<>();
 
-                LocalTime time = new LocalTime(date.getTime());
-                // Time time = new Time(date.getTime());
+            LocalDate first = null;
+            LocalDate last = null;
+            for (LocalDate each : days) {
+                if ( isIncluded(each, filterStartDate, filterEndDate) ) {
+                    first = (first == null || each.isBefore(first)) ? each : first;
+                    last = (last == null || each.isAfter(last)) ? each : last;
+                }
+            }
 
-                BigDecimal hours = new BigDecimal(time.getHourOfDay());
-                additionOfAllAssignmentsMinutes += time.getMinuteOfHour();
+            if ( first == null ) {
+                return result;
+            }
 
-                if ( !result.containsKey(day) ) {
-                    result.put(day, BigDecimal.ZERO);
+            int[] hoursPerDay = new int[Days.daysBetween(first, last).getDays() + 1];
+            boolean[] withAssignments = new boolean[hoursPerDay.length];
+            int additionOfAllAssignmentsMinutes = 0;
+
+            for (int i = 0; i < days.length; i++) {
+                if ( !isIncluded(days[i], filterStartDate, filterEndDate) ) {
+                    continue;
                 }
 
-                /**
-                 * On last day assignment app will check addition of minutes of all assignments.
-                 * If it is between 30 and 60 - add 1 hour to the last value of result.
-                 * If it is more than 60 then divide on 60 and calculate hours.
-                 * E.G. 120 minutes / 60 = 2 hours.
-                 */
-                if ( dayAssignment.equals(dayAssignments.get(dayAssignments.size() - 1)) ){
+                int position = Days.daysBetween(first, days[i]).getDays();
+                hoursPerDay[position] += hours[i];
+                withAssignments[position] = true;
+                additionOfAllAssignmentsMinutes += minutes[i];
 
-                    if ( additionOfAllAssignmentsMinutes >= 30 && additionOfAllAssignmentsMinutes <= 60 )
-                        hours = BigDecimal.valueOf(hours.intValue() + 1);
+                if ( i == days.length - 1 ) {
+                    hoursPerDay[position] += hoursFromMinutes(additionOfAllAssignmentsMinutes);
+                }
+            }
 
-                    if ( additionOfAllAssignmentsMinutes > 60 )
-                        hours = BigDecimal.valueOf(hours.intValue() + (additionOfAllAssignmentsMinutes / 60));
+            for (int i = 0; i < hoursPerDay.length; i++) {
+                if ( withAssignments[i] ) {
+                    result.put(first.plusDays(i), BigDecimal.valueOf(hoursPerDay[i]));
                 }
-                result.put(day, result.get(day).add(hours));
             }
+
+            return result;
         }
-        return result;
-    }
 
-    private boolean isParsableWithFormat1(String input){
-        boolean parsable = true;
-        try {
-            SimpleDateFormat format = new SimpleDateFormat("hh:mm");
-            format.parse(input);
-        } catch (ParseException e) {
-            parsable = false;
+        private static boolean isIncluded(LocalDate day, LocalDate filterStartDate, LocalDate filterEndDate) {
+            return (filterStartDate == null || day.compareTo(filterStartDate) >= 0) &&
+                    (filterEndDate == null || day.compareTo(filterEndDate) <= 0);
         }
-        return parsable;
-    }
-    private boolean isParsableWithFormat2(String input){
-        boolean parsable = true;
-        try {
-            SimpleDateFormat format = new SimpleDateFormat("hh");
-            format.parse(input);
-        } catch (ParseException e) {
-            parsable = false;
+
+        private static int hoursFromMinutes(int minutes) {
+            if ( minutes >= 30 && minutes <= 60 ) {
+                return 1;
+            }
+
+            return minutes > 60 ? minutes / 60 : 0;
         }
-        return parsable;
     }
 
     @Override
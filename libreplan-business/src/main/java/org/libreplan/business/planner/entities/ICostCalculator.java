@@ -22,6 +22,8 @@
 package org.libreplan.business.planner.entities;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
 import java.util.SortedMap;
 
 import org.joda.time.LocalDate;
@@ -45,4 +47,10 @@ public interface ICostCalculator {
     SortedMap<LocalDate, BigDecimal> getAdvanceCost(Task task,
             LocalDate filterStartDate, LocalDate filterEndDate);
 
+    /**
+     * Calculates the estimated cost of several tasks at once, the same as
+     * {@link #getEstimatedCost(Task)} for each one of them.
+     */
+    Map<Task, SortedMap<LocalDate, BigDecimal>> getEstimatedCost(Collection<? extends Task> tasks);
+
 }
@@ -30,11 +30,12 @@ import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.planner.chart.ContiguousDaysLine;
 import org.libreplan.business.planner.chart.ContiguousDaysLine.OnDay;
+import org.libreplan.business.planner.chart.EffortSeries;
 import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.chart.ResourcesCapacities;
 import org.libreplan.business.planner.entities.DayAssignment.FilterType;
 import org.libreplan.business.resources.entities.IAssignmentsOnResourceCalculator;
 import org.libreplan.business.resources.entities.Resource;
-import org.libreplan.business.workingday.EffortDuration;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -55,15 +56,17 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
 
     private ContiguousDaysLine<List<DayAssignment>> filteredAssignments;
 
-    private ContiguousDaysLine<EffortDuration> maxCapacityOnResources;
+    private EffortSeries maxCapacityOnResources;
 
-    private ContiguousDaysLine<EffortDuration> orderLoad;
+    private EffortSeries orderLoad;
 
-    private ContiguousDaysLine<EffortDuration> allLoad;
+    private EffortSeries allLoad;
 
-    private ContiguousDaysLine<EffortDuration> orderOverload;
+    private EffortSeries orderOverload;
 
-    private ContiguousDaysLine<EffortDuration> allOverload;
+    private EffortSeries allOverload;
+
+    private ResourcesCapacities capacities;
 
     @Override
     public void setOrder(Order order,
@@ -81,14 +84,22 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
         allLoad = null;
         orderOverload = null;
         allOverload = null;
+        capacities = null;
+    }
+
+    private ResourcesCapacities getCapacities() {
+        if (capacities == null) {
+            capacities = ResourcesCapacities.on(getOrderAssignments());
+        }
+        return capacities;
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getMaxCapacityOnResources() {
+    public EffortSeries getMaxCapacityOnResources() {
         if (maxCapacityOnResources == null) {
-            maxCapacityOnResources = getOrderAssignments()
-                     .transform(ResourceLoadChartData
-                             .extractAvailabilityOnAssignedResources());
+            maxCapacityOnResources = EffortSeries.from(getOrderAssignments(),
+                    ResourceLoadChartData
+                            .extractAvailabilityOnAssignedResources(getCapacities()));
         }
         return maxCapacityOnResources;
     }
@@ -103,19 +114,19 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getOrderLoad() {
+    public EffortSeries getOrderLoad() {
         if (orderLoad == null) {
-            orderLoad = getOrderAssignments()
-                     .transform(ResourceLoadChartData.extractLoad());
+            orderLoad = EffortSeries.from(getOrderAssignments(),
+                    ResourceLoadChartData.extractLoad());
         }
         return orderLoad;
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getAllLoad() {
+    public EffortSeries getAllLoad() {
         if (allLoad == null) {
-            allLoad = getFilteredAssignments()
-                     .transform(ResourceLoadChartData.extractLoad());
+            allLoad = EffortSeries.from(getFilteredAssignments(),
+                    ResourceLoadChartData.extractLoad());
         }
         return allLoad;
     }
@@ -198,19 +209,19 @@ public class OrderResourceLoadCalculator implements IOrderResourceLoadCalculator
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getOrderOverload() {
+    public EffortSeries getOrderOverload() {
         if (orderOverload == null) {
-            orderOverload = getOrderAssignments()
-                     .transform(ResourceLoadChartData.extractOverload());
+            orderOverload = EffortSeries.from(getOrderAssignments(),
+                    ResourceLoadChartData.extractOverload(getCapacities()));
         }
         return orderOverload;
     }
 
     @Override
-    public ContiguousDaysLine<EffortDuration> getAllOverload() {
+    public EffortSeries getAllOverload() {
         if (allOverload == null) {
-            allOverload = getFilteredAssignments()
-                     .transform(ResourceLoadChartData.extractOverload());
+            allOverload = EffortSeries.from(getFilteredAssignments(),
+                    ResourceLoadChartData.extractOverload(getCapacities()));
         }
         return allOverload;
     }
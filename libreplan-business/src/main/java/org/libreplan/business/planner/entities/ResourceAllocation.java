@@ -1434,14 +1434,15 @@ public abstract class ResourceAllocation<T extends DayAssignment>
         }
 
         protected void removingAssignments(List<? extends DayAssignment> assignments){
-            removeAssignments(assignments);
+            // Removing a list from a set of the same size or smaller calls contains() on the list for every element
+            removeAssignments(new HashSet<>(assignments));
             clearCachedData();
             for (DayAssignment each : assignments) {
                 dayAssignmenteRemoval.onRemoval(ResourceAllocation.this, each);
             }
         }
 
-        protected abstract void removeAssignments(List<? extends DayAssignment> assignments);
+        protected abstract void removeAssignments(Set<? extends DayAssignment> assignments);
 
         protected abstract void addAssignments(Collection<? extends T> assignments);
 
@@ -1492,7 +1493,7 @@ public abstract class ResourceAllocation<T extends DayAssignment>
         }
 
         @Override
-        final protected void removeAssignments(List<? extends DayAssignment> assignments) {
+        final protected void removeAssignments(Set<? extends DayAssignment> assignments) {
             this.assignments.removeAll(assignments);
         }
 
@@ -1555,7 +1556,7 @@ public abstract class ResourceAllocation<T extends DayAssignment>
     private class NoExplicitlySpecifiedScenario extends DayAssignmentsState {
 
         @Override
-        protected final void removeAssignments(List<? extends DayAssignment> assignments) {
+        protected final void removeAssignments(Set<? extends DayAssignment> assignments) {
             modificationsNotAllowed();
         }
 
@@ -1630,7 +1631,7 @@ public abstract class ResourceAllocation<T extends DayAssignment>
         }
 
         @Override
-        protected void removeAssignments(List<? extends DayAssignment> assignments) {
+        protected void removeAssignments(Set<? extends DayAssignment> assignments) {
             container.removeAll(assignments);
         }
 
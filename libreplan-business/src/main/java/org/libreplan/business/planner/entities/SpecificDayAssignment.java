@@ -178,6 +178,16 @@ public class SpecificDayAssignment extends DayAssignment {
         return parentState.getResourceAllocation();
     }
 
+    /**
+     * The id of the container, which is read from this day assignment's own
+     * field without initializing the container, so it can be used on detached
+     * day assignments. It is <code>null</code> if the container has not been
+     * saved.
+     */
+    public Long getContainerId() {
+        return container != null ? container.getId() : null;
+    }
+
     public void setSpecificResourceAllocation(
             SpecificResourceAllocation specificResourceAllocation) {
         this.parentState = this.parentState
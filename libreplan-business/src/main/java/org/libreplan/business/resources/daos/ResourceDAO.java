@@ -57,6 +57,14 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class ResourceDAO extends IntegrationEntityDAO<Resource> implements IResourceDAO {
 
+    /**
+     * Virtual workers are not listed, as they are not exported either.
+     */
+    @Override
+    protected String getListingRestriction() {
+        return "e NOT IN (FROM VirtualWorker)";
+    }
+
     @Override
     public List<Worker> getWorkers() {
         return list(Worker.class);
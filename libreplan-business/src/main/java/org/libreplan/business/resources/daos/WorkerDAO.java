@@ -50,6 +50,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class WorkerDAO extends IntegrationEntityDAO<Worker>
     implements IWorkerDAO {
 
+    /**
+     * Virtual workers are not listed, as {@link #getWorkers()} does.
+     */
+    @Override
+    protected String getListingRestriction() {
+        return "e NOT IN (FROM VirtualWorker)";
+    }
+
     @Override
     public Worker findUniqueByNif(String nif) throws InstanceNotFoundException {
         Criteria criteria = getSession().createCriteria(Worker.class);
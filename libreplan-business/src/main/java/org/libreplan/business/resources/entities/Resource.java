@@ -61,6 +61,7 @@ import org.libreplan.business.costcategories.entities.CostCategory;
 import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
 import org.libreplan.business.planner.entities.AvailabilityCalculator;
 import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DayAssignmentIndex;
 import org.libreplan.business.planner.entities.ResourceAllocation;
 import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.scenarios.entities.Scenario;
@@ -133,7 +134,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     private Set<DayAssignment> dayAssignments = new HashSet<DayAssignment>();
 
-    private Map<LocalDate, List<DayAssignment>> assignmentsByDayCached = null;
+    private DayAssignmentIndex assignmentsIndexCached = null;
 
     private Set<ResourcesCostCategoryAssignment> resourcesCostCategoryAssignments =
             new HashSet<ResourcesCostCategoryAssignment>();
@@ -142,27 +143,33 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     private LimitingResourceQueue limitingResourceQueue;
 
-    private void clearCachedData() {
-        assignmentsByDayCached = null;
-        dayAssignmentsState.clearCachedData();
+    /**
+     * The index of the assignments of the current scenario. Once built it's
+     * updated with the added and removed assignments instead of discarded.
+     */
+    private DayAssignmentIndex getAssignmentsIndex() {
+        if ( assignmentsIndexCached == null ) {
+            assignmentsIndexCached = DayAssignmentIndex.create(getAssignments());
+        }
+        return assignmentsIndexCached;
     }
 
     private List<DayAssignment> getAssignmentsForDay(LocalDate date) {
-        if ( assignmentsByDayCached == null ) {
-            assignmentsByDayCached = DayAssignment.byDay(getAssignments());
-        }
-        List<DayAssignment> list = assignmentsByDayCached.get(date);
-        if ( list == null ){
-            return Collections.emptyList();
-        }
-        return list;
+        return getAssignmentsIndex().getAssignmentsOn(date);
     }
 
     private abstract class DayAssignmentsState {
 
         private List<DayAssignment> cachedAssignments;
 
-        abstract List<DayAssignment> calculateAssignments();
+        List<DayAssignment> calculateAssignments() {
+            return filter(dayAssignments);
+        }
+
+        /**
+         * @return the assignments that belong to the scenario of this state
+         */
+        abstract List<DayAssignment> filter(Collection<? extends DayAssignment> assignments);
 
         List<DayAssignment> getAssignments() {
             if ( cachedAssignments != null ) {
@@ -179,10 +186,10 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     private class UsingScenarioManager extends DayAssignmentsState {
 
         @Override
-        List<DayAssignment> calculateAssignments() {
+        List<DayAssignment> filter(Collection<? extends DayAssignment> assignments) {
             List<DayAssignment> result = new ArrayList<DayAssignment>();
             Scenario current = Registry.getScenarioManager().getCurrent();
-            for (DayAssignment each : dayAssignments) {
+            for (DayAssignment each : assignments) {
                 if ( each.getScenario() != null && each.getScenario().equals(current) ) {
                     result.add(each);
                 }
@@ -200,9 +207,9 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
         }
 
         @Override
-        List<DayAssignment> calculateAssignments() {
+        List<DayAssignment> filter(Collection<? extends DayAssignment> assignments) {
             List<DayAssignment> result = new ArrayList<DayAssignment>();
-            for (DayAssignment each : dayAssignments) {
+            for (DayAssignment each : assignments) {
                 if ( isTransient(each) || each.getScenario().equals(currentScenario) ) {
                     result.add(each);
                 }
@@ -844,7 +851,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     }
 
     public EffortDuration getAssignedEffort(LocalDate localDate) {
-        return DayAssignment.sum(getAssignmentsForDay(localDate));
+        return getAssignmentsIndex().getEffortOn(localDate);
     }
 
     public EffortDuration getAssignedDurationDiscounting(
@@ -864,14 +871,30 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     public void addNewAssignments(Collection<? extends DayAssignment> assignments) {
         Validate.notNull(assignments);
         Validate.noNullElements(assignments);
-        clearCachedData();
-        this.dayAssignments.addAll(assignments);
+        List<DayAssignment> added = new ArrayList<DayAssignment>();
+        for (DayAssignment each : assignments) {
+            if ( this.dayAssignments.add(each) ) {
+                added.add(each);
+            }
+        }
+        dayAssignmentsState.clearCachedData();
+        if ( assignmentsIndexCached != null ) {
+            assignmentsIndexCached = assignmentsIndexCached.plus(dayAssignmentsState.filter(added));
+        }
     }
 
     public void removeAssignments(Collection<? extends DayAssignment> assignments) {
         Validate.noNullElements(assignments);
-        clearCachedData();
-        this.dayAssignments.removeAll(assignments);
+        List<DayAssignment> removed = new ArrayList<DayAssignment>();
+        for (DayAssignment each : assignments) {
+            if ( this.dayAssignments.remove(each) ) {
+                removed.add(each);
+            }
+        }
+        dayAssignmentsState.clearCachedData();
+        if ( assignmentsIndexCached != null ) {
+            assignmentsIndexCached = assignmentsIndexCached.minus(removed);
+        }
     }
 
     public List<DayAssignment> getAssignments() {
@@ -880,6 +903,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     public void useScenario(Scenario scenario) {
         dayAssignmentsState = new OnSpecifiedScenario(scenario);
+        assignmentsIndexCached = null;
     }
 
     public int getTotalWorkHours(LocalDate start, LocalDate end) {
@@ -0,0 +1,257 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.resources.entities;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
+import org.libreplan.business.planner.entities.AvailabilityCalculator;
+
+/**
+ * In-memory index of the criteria satisfied by a group of resources.
+ * <br />
+ * Each criterion is mapped to a {@link BitSet} with the positions of the resources having some satisfaction of it,
+ * so the resources that could satisfy several criteria are found intersecting bitsets. Only the satisfaction
+ * intervals of those candidates are checked afterwards, with the same rules as
+ * {@link Resource#satisfiesCriterionsAtSomePoint(Collection)}.
+ * <br />
+ * The index is not thread safe. It must be told about the resources whose satisfactions change while it is alive
+ * using {@link #update(Resource)} or {@link #remove(Resource)}.
+ */
+public class ResourcesCriterionIndex<T extends Resource> {
+
+    public static <T extends Resource> ResourcesCriterionIndex<T> create(Collection<? extends T> resources) {
+        ResourcesCriterionIndex<T> result = new ResourcesCriterionIndex<>();
+        for (T each : resources) {
+            result.update(each);
+        }
+
+        return result;
+    }
+
+    private final List<T> resources = new ArrayList<>();
+
+    private final Map<T, Integer> positions = new HashMap<>();
+
+    private final BitSet indexed = new BitSet();
+
+    private final Map<CriterionKey, BitSet> resourcesByCriterion = new HashMap<>();
+
+    private final List<Map<CriterionKey, List<CriterionSatisfaction>>> satisfactionsByPosition = new ArrayList<>();
+
+    private ResourcesCriterionIndex() {
+    }
+
+    /**
+     * Indexes the current satisfactions of <code>resource</code>, replacing the ones indexed before for it. The
+     * deleted satisfactions are not indexed, as {@link Resource#getCriterionSatisfactions()} doesn't return them
+     */
+    public void update(T resource) {
+        Validate.notNull(resource);
+        Integer position = positions.get(resource);
+
+        if ( position == null ) {
+            position = resources.size();
+            resources.add(resource);
+            satisfactionsByPosition.add(new HashMap<>());
+            positions.put(resource, position);
+        } else {
+            clear(position);
+        }
+        indexed.set(position);
+
+        Map<CriterionKey, List<CriterionSatisfaction>> satisfactions = satisfactionsByPosition.get(position);
+        for (CriterionSatisfaction each : resource.getCriterionSatisfactions()) {
+            CriterionKey key = CriterionKey.of(each.getCriterion());
+
+            if ( !satisfactions.containsKey(key) ) {
+                satisfactions.put(key, new ArrayList<>());
+            }
+            satisfactions.get(key).add(each);
+            bitsetFor(key).set(position);
+        }
+    }
+
+    public void remove(T resource) {
+        Integer position = positions.remove(resource);
+        if ( position == null ) {
+            return;
+        }
+        clear(position);
+        resources.set(position, null);
+        indexed.clear(position);
+    }
+
+    private void clear(int position) {
+        Map<CriterionKey, List<CriterionSatisfaction>> satisfactions = satisfactionsByPosition.get(position);
+        for (CriterionKey each : satisfactions.keySet()) {
+            resourcesByCriterion.get(each).clear(position);
+        }
+        satisfactions.clear();
+    }
+
+    private BitSet bitsetFor(CriterionKey key) {
+        BitSet result = resourcesByCriterion.get(key);
+        if ( result == null ) {
+            result = new BitSet();
+            resourcesByCriterion.put(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the indexed resources that satisfy all <code>criteria</code> at the same time at some point, in the
+     *         order they were first indexed
+     */
+    public List<T> findSatisfyingAllAtSomePoint(Collection<? extends Criterion> criteria) {
+        return findSatisfyingAll(criteria, AvailabilityTimeLine.allValid());
+    }
+
+    /**
+     * @return the indexed resources that satisfy all <code>criteria</code> at the same time at some point between
+     *         <code>start</code>, inclusive, and <code>end</code>, exclusive
+     */
+    public List<T> findSatisfyingAllBetween(Collection<? extends Criterion> criteria, LocalDate start, LocalDate end) {
+        Validate.isTrue(!start.isAfter(end), "end must be equal or after start");
+        AvailabilityTimeLine between = AvailabilityTimeLine.allValid();
+        between.invalidUntil(start);
+        between.invalidFrom(end);
+
+        return findSatisfyingAll(criteria, between);
+    }
+
+    private List<T> findSatisfyingAll(Collection<? extends Criterion> criteria, AvailabilityTimeLine restriction) {
+        Validate.noNullElements(criteria);
+        BitSet candidates = (BitSet) indexed.clone();
+        List<Set<CriterionKey>> required = new ArrayList<>();
+
+        for (Criterion each : criteria) {
+            Set<CriterionKey> keys = keysIncludedBy(each);
+            required.add(keys);
+            candidates.and(resourcesWithSomeOf(keys));
+        }
+
+        List<T> result = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if ( isSatisfiedAtSomePoint(i, required, restriction) ) {
+                result.add(resources.get(i));
+            }
+        }
+
+        return result;
+    }
+
+    private static Set<CriterionKey> keysIncludedBy(Criterion criterion) {
+        Set<CriterionKey> result = new HashSet<>();
+        for (Criterion each : Criterion.withAllDescendants(Collections.singletonList(criterion))) {
+            result.add(CriterionKey.of(each));
+        }
+
+        return result;
+    }
+
+    private BitSet resourcesWithSomeOf(Set<CriterionKey> keys) {
+        BitSet result = new BitSet();
+        for (CriterionKey each : keys) {
+            BitSet resourcesWithCriterion = resourcesByCriterion.get(each);
+            if ( resourcesWithCriterion != null ) {
+                result.or(resourcesWithCriterion);
+            }
+        }
+
+        return result;
+    }
+
+    private boolean isSatisfiedAtSomePoint(int position, List<Set<CriterionKey>> required,
+                                           AvailabilityTimeLine restriction) {
+
+        Map<CriterionKey, List<CriterionSatisfaction>> satisfactions = satisfactionsByPosition.get(position);
+        AvailabilityTimeLine result = restriction;
+
+        for (Set<CriterionKey> each : required) {
+            result = result.and(AvailabilityCalculator.buildTimeline(satisfactionsOf(satisfactions, each)));
+        }
+
+        return !result.getValidPeriods().isEmpty();
+    }
+
+    private static List<CriterionSatisfaction> satisfactionsOf(
+            Map<CriterionKey, List<CriterionSatisfaction>> satisfactions, Set<CriterionKey> keys) {
+
+        List<CriterionSatisfaction> result = new ArrayList<>();
+        for (Entry<CriterionKey, List<CriterionSatisfaction>> each : satisfactions.entrySet()) {
+            if ( keys.contains(each.getKey()) ) {
+                result.addAll(each.getValue());
+            }
+        }
+        Collections.sort(result, CriterionSatisfaction.BY_START_COMPARATOR);
+
+        return result;
+    }
+
+    /**
+     * Identifies the criteria the same way {@link Criterion#isEquivalent(Criterion)} does
+     */
+    private static final class CriterionKey {
+
+        private final String name;
+
+        private final CriterionType type;
+
+        static CriterionKey of(Criterion criterion) {
+            return new CriterionKey(criterion.getName(), criterion.getType());
+        }
+
+        private CriterionKey(String name, CriterionType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if ( !(obj instanceof CriterionKey) ) {
+                return false;
+            }
+            CriterionKey other = (CriterionKey) obj;
+
+            return new EqualsBuilder().append(name, other.name).append(type, other.type).isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder().append(name).append(type).toHashCode();
+        }
+    }
+
+}
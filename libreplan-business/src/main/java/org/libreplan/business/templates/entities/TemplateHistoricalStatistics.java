@@ -0,0 +1,139 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.templates.entities;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Collection;
+
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.SumChargedEffort;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Historical statistics of the {@link OrderElement OrderElements} created from
+ * an {@link OrderElementTemplate}.<br />
+ *
+ * They are calculated in one pass. The worked effort of each element is read
+ * from its {@link SumChargedEffort}, which is kept up to date as timesheets are
+ * saved, instead of adding up its timesheet lines. Estimated hours consider all
+ * the applications, while worked effort only the finished ones.
+ */
+public class TemplateHistoricalStatistics {
+
+    public static TemplateHistoricalStatistics calculate(
+            Collection<? extends OrderElement> applications) {
+        TemplateHistoricalStatistics result = new TemplateHistoricalStatistics();
+        for (OrderElement each : applications) {
+            result.add(each.getWorkHours(), each.isFinishedAdvance(),
+                    getDirectChargedEffort(each));
+        }
+        return result;
+    }
+
+    private static EffortDuration getDirectChargedEffort(
+            OrderElement orderElement) {
+        SumChargedEffort sumChargedEffort = orderElement.getSumChargedEffort();
+        return sumChargedEffort != null ? sumChargedEffort
+                .getDirectChargedEffort() : EffortDuration.zero();
+    }
+
+    private int applications = 0;
+
+    private int finishedApplications = 0;
+
+    private BigDecimal sumEstimatedHours = BigDecimal.ZERO;
+
+    private BigDecimal maxEstimatedHours = BigDecimal.ZERO;
+
+    private BigDecimal minEstimatedHours = BigDecimal.ZERO;
+
+    private EffortDuration sumWorkedEffort = EffortDuration.zero();
+
+    private EffortDuration maxWorkedEffort = EffortDuration.zero();
+
+    private EffortDuration minWorkedEffort = EffortDuration.zero();
+
+    public void add(int estimatedHours, boolean finished,
+            EffortDuration workedEffort) {
+        BigDecimal estimated = new BigDecimal(estimatedHours);
+        if (applications == 0) {
+            maxEstimatedHours = estimated;
+            minEstimatedHours = estimated;
+        } else {
+            maxEstimatedHours = maxEstimatedHours.max(estimated);
+            minEstimatedHours = minEstimatedHours.min(estimated);
+        }
+        sumEstimatedHours = sumEstimatedHours.add(estimated);
+        applications++;
+
+        if (finished) {
+            if (finishedApplications == 0) {
+                maxWorkedEffort = workedEffort;
+                minWorkedEffort = workedEffort;
+            } else {
+                maxWorkedEffort = EffortDuration.max(maxWorkedEffort,
+                        workedEffort);
+                minWorkedEffort = EffortDuration.min(minWorkedEffort,
+                        workedEffort);
+            }
+            sumWorkedEffort = sumWorkedEffort.plus(workedEffort);
+            finishedApplications++;
+        }
+    }
+
+    public int getApplications() {
+        return applications;
+    }
+
+    public int getFinishedApplications() {
+        return finishedApplications;
+    }
+
+    public BigDecimal getAverageEstimatedHours() {
+        if (sumEstimatedHours.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return sumEstimatedHours.divide(new BigDecimal(applications),
+                new MathContext(2, RoundingMode.HALF_UP));
+    }
+
+    public BigDecimal getMaxEstimatedHours() {
+        return maxEstimatedHours;
+    }
+
+    public BigDecimal getMinEstimatedHours() {
+        return minEstimatedHours;
+    }
+
+    public EffortDuration getAverageWorkedEffort() {
+        return finishedApplications == 0 ? EffortDuration.zero()
+                : EffortDuration.average(sumWorkedEffort, finishedApplications);
+    }
+
+    public EffortDuration getMaxWorkedEffort() {
+        return maxWorkedEffort;
+    }
+
+    public EffortDuration getMinWorkedEffort() {
+        return minWorkedEffort;
+    }
+
+}
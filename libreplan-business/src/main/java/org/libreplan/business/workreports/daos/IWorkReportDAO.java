@@ -21,7 +21,9 @@
 
 package org.libreplan.business.workreports.daos;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -57,6 +59,20 @@ public interface IWorkReportDAO extends IIntegrationEntityDAO<WorkReport> {
     WorkReport getPersonalTimesheetWorkReport(Resource resource, LocalDate date,
             PersonalTimesheetsPeriodicityEnum periodicity);
 
+    /**
+     * Same as {@link #getPersonalTimesheetWorkReport(Resource, LocalDate,
+     * PersonalTimesheetsPeriodicityEnum)} for several resources at once. The
+     * {@link WorkReport WorkReports} are looked up through the dates of their
+     * lines, so only the personal timesheets of the period are loaded. Their
+     * lines and the tasks of the lines are fetched with them.<br />
+     *
+     * The result is indexed by the id of the resource. Resources without a
+     * personal timesheet in the period are not in it.
+     */
+    Map<Long, WorkReport> getPersonalTimesheetWorkReports(
+            Collection<? extends Resource> resources, LocalDate date,
+            PersonalTimesheetsPeriodicityEnum periodicity);
+
     boolean isAnyPersonalTimesheetAlreadySaved();
 
     List<WorkReport> findPersonalTimesheetsByResourceAndOrderElement(
@@ -23,9 +23,12 @@ package org.libreplan.business.workreports.daos;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.Criteria;
@@ -167,6 +170,41 @@ public class WorkReportDAO extends IntegrationEntityDAO<WorkReport> implements I
         return null;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, WorkReport> getPersonalTimesheetWorkReports(
+            Collection<? extends Resource> resources, LocalDate date, PersonalTimesheetsPeriodicityEnum periodicity) {
+
+        Date start = periodicity.getStart(date).toDateTimeAtStartOfDay().toDate();
+        Date dayAfterEnd = periodicity.getEnd(date).plusDays(1).toDateTimeAtStartOfDay().toDate();
+        WorkReportType workReportType = getPersonalTimesheetsWorkReportType();
+
+        Map<Long, WorkReport> result = new HashMap<>();
+
+        for (List<Resource> chunk : inChunks(resources)) {
+            List<WorkReport> personalTimesheets = getSession()
+                    .createQuery("SELECT DISTINCT workReport FROM WorkReport workReport " +
+                            "JOIN FETCH workReport.workReportLines line " +
+                            "JOIN FETCH line.orderElement " +
+                            "WHERE workReport.workReportType = :workReportType " +
+                            "AND workReport.resource IN (:resources) " +
+                            "AND EXISTS (SELECT lineInPeriod.id FROM WorkReportLine lineInPeriod " +
+                            "WHERE lineInPeriod.workReport = workReport " +
+                            "AND lineInPeriod.date >= :start AND lineInPeriod.date < :dayAfterEnd)")
+                    .setParameter("workReportType", workReportType)
+                    .setParameterList("resources", chunk)
+                    .setParameter("start", start)
+                    .setParameter("dayAfterEnd", dayAfterEnd)
+                    .list();
+
+            for (WorkReport each : personalTimesheets) {
+                result.put(each.getResource().getId(), each);
+            }
+        }
+
+        return result;
+    }
+
     private WorkReportType getPersonalTimesheetsWorkReportType() {
         WorkReportType workReportType;
         try {
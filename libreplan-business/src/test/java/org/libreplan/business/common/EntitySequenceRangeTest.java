@@ -0,0 +1,86 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.libreplan.business.common.entities.EntitySequence;
+import org.libreplan.business.common.entities.EntitySequenceRange;
+
+/**
+ * Tests for {@link EntitySequenceRange}.
+ */
+public class EntitySequenceRangeTest {
+
+    private final AtomicLong collisions = new AtomicLong();
+
+    private static EntitySequence sequence(long id, String prefix, int numberOfDigits) {
+        EntitySequence result = createNiceMock(EntitySequence.class);
+        expect(result.getId()).andReturn(id).anyTimes();
+        expect(result.getPrefix()).andReturn(prefix).anyTimes();
+        expect(result.getNumberOfDigits()).andReturn(numberOfDigits).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    @Test
+    public void theCodesAreHandedOutInOrderUntilTheRangeIsExhausted() {
+        EntitySequenceRange range = EntitySequenceRange.create(sequence(1, "ORD", 4), 11, 12);
+
+        assertThat(range.getCodes(), equalTo(Arrays.asList("ORD0011", "ORD0012")));
+        assertThat(range.nextCode(collisions), equalTo("ORD0011"));
+        assertThat(range.nextCode(collisions), equalTo("ORD0012"));
+        assertThat(range.nextCode(collisions), nullValue());
+        assertThat(range.nextCode(collisions), nullValue());
+    }
+
+    @Test
+    public void theCodesInUseAreSkippedIgnoringCase() {
+        EntitySequenceRange range = EntitySequenceRange.create(sequence(1, "ORD", 4), 1, 3)
+                .withCodesInUse(Arrays.asList("ord0001", "ORD0002"));
+
+        assertThat(range.nextCode(collisions), equalTo("ORD0003"));
+        assertThat(collisions.get(), equalTo(2L));
+        assertThat(range.nextCode(collisions), nullValue());
+    }
+
+    @Test
+    public void aRangeIsOnlyForTheSequenceItWasReservedFrom() {
+        EntitySequenceRange range = EntitySequenceRange.create(sequence(1, "ORD", 4), 1, 3);
+
+        assertTrue(range.isFor(sequence(1, "ORD", 4)));
+        assertFalse(range.isFor(sequence(2, "ORD", 4)));
+        assertFalse(range.isFor(sequence(1, "PRJ", 4)));
+        assertFalse(range.isFor(sequence(1, "ORD", 5)));
+    }
+
+}
@@ -21,6 +21,8 @@
 
 package org.libreplan.business.common;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
@@ -76,6 +78,21 @@ public class EntitySequenceTest {
         assertTrue(entitySequenceDAO.getAll().size() == 1);
     }
 
+    @Test
+    @Transactional
+    public void testGetNextEntityCodeWithoutTransactionReservesTheValuesOneByOne() {
+        String prefix = "prefix-" + UUID.randomUUID();
+        EntitySequence entitySequence = givenEntitySequence(prefix, EntityNameEnum.CALENDAR, true);
+        entitySequenceDAO.save(entitySequence);
+        entitySequenceDAO.flush();
+
+        assertThat(entitySequenceDAO.getNextEntityCodeWithoutTransaction(EntityNameEnum.CALENDAR),
+                equalTo(prefix + "0001"));
+        assertThat(entitySequenceDAO.getNextEntityCodeWithoutTransaction(EntityNameEnum.CALENDAR),
+                equalTo(prefix + "0002"));
+        assertThat(entitySequence.getLastValue(), equalTo(2));
+    }
+
     @Test
     @Transactional
     public void testCreateEntitySequenceWithEmptyPrefix() {
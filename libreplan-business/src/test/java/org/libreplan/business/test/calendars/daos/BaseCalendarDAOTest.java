@@ -29,12 +29,14 @@ import static org.junit.Assert.fail;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import javax.annotation.Resource;
 
 import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
@@ -54,6 +56,7 @@ import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
 import org.libreplan.business.test.resources.daos.ResourceDAOTest;
 import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ContextConfiguration;
@@ -371,4 +374,44 @@ public class BaseCalendarDAOTest {
         assertTrue(!baseCalendarDAO.exists(resourceCalendar.getId()));
     }
 
+    @Test
+    @Transactional
+    public void theCalendarsOfSeveralResourcesAreLoadedInBatches() {
+        int workersNumber = 30;
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < workersNumber; i++) {
+            Worker worker = ResourceDAOTest.givenValidWorker();
+            ResourceCalendar resourceCalendar = ResourceCalendar.create();
+            addChristmasAsExceptionDay(resourceCalendar);
+            resourceCalendar.setName("testResourceCalendar");
+            BaseCalendarTest.setHoursForAllDays(resourceCalendar, 8);
+            worker.setCalendar(resourceCalendar);
+            resourceDAO.save(worker);
+            workers.add(worker);
+        }
+        resourceDAO.flush();
+
+        List<String> codes = new ArrayList<>();
+        for (Worker each : workers) {
+            codes.add(each.getCode());
+            session.getCurrentSession().evict(each);
+        }
+
+        Statistics statistics = session.getStatistics();
+        boolean wasEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            for (org.libreplan.business.resources.entities.Resource each : resourceDAO.findByCodes(codes).values()) {
+                assertThat(each.getCalendar().getCapacityOn(PartialDay.wholeDay(BaseCalendarTest.CHRISTMAS_DAY_LOCAL_DATE.plusDays(1))),
+                        equalTo(EffortDuration.hours(8)));
+            }
+
+            assertTrue(statistics.getEntityStatistics(ResourceCalendar.class.getName()).getFetchCount() < workersNumber);
+            assertTrue(statistics.getCollectionFetchCount() < workersNumber);
+        } finally {
+            statistics.setStatisticsEnabled(wasEnabled);
+        }
+    }
+
 }
@@ -31,13 +31,18 @@ import static org.libreplan.business.workingday.EffortDuration.hours;
 import static org.libreplan.business.workingday.EffortDuration.zero;
 import static org.libreplan.business.workingday.IntraDayDate.PartialDay.wholeDay;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.collection.internal.PersistentList;
 import org.joda.time.LocalDate;
 import org.junit.Test;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
 import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.CalendarData;
 import org.libreplan.business.calendars.entities.CalendarData.Days;
 import org.libreplan.business.calendars.entities.CalendarException;
 import org.libreplan.business.calendars.entities.CalendarExceptionType;
@@ -838,4 +843,91 @@ public class BaseCalendarTest {
         AvailabilityTimeLine availability = calendar.getAvailability();
         assertFalse(availability.isValid(MONDAY_LOCAL_DATE));
     }
+
+    @Test
+    public void theExceptionDayIsFoundAfterUpdatingIt() {
+        BaseCalendar calendar = createChristmasCalendar();
+        assertThat(calendar.getOwnExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), notNullValue());
+
+        calendar.updateExceptionDay(
+                CHRISTMAS_DAY_LOCAL_DATE, withNormalDuration(hours(3)), createCalendarExceptionType());
+
+        assertThat(calendar.getCapacityOn(wholeDay(CHRISTMAS_DAY_LOCAL_DATE)), equalTo(hours(3)));
+    }
+
+    @Test
+    public void theExceptionDayIsFoundAfterChangingItsDate() {
+        BaseCalendar calendar = createChristmasCalendar();
+        CalendarException christmas = calendar.getOwnExceptionDay(CHRISTMAS_DAY_LOCAL_DATE);
+        assertThat(calendar.getOwnExceptionDay(MONDAY_LOCAL_DATE), nullValue());
+
+        calendar.updateExceptionDayUnvalidated(christmas, MONDAY_LOCAL_DATE, null, null);
+
+        assertThat(calendar.getOwnExceptionDay(MONDAY_LOCAL_DATE), equalTo(christmas));
+        assertThat(calendar.getOwnExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), nullValue());
+    }
+
+    @Test
+    public void anExceptionReplacedByAnotherOneIsNotFound() {
+        BaseCalendar calendar = createChristmasCalendar();
+        assertThat(calendar.getOwnExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), notNullValue());
+
+        calendar.removeExceptionDay(CHRISTMAS_DAY_LOCAL_DATE);
+        calendar.addExceptionDay(CalendarException.create(MONDAY_LOCAL_DATE, hours(4), createCalendarExceptionType()));
+
+        assertThat(calendar.getOwnExceptions().size(), equalTo(1));
+        assertThat(calendar.getOwnExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), nullValue());
+        assertThat(calendar.getOwnExceptionDay(MONDAY_LOCAL_DATE).getDuration(), equalTo(hours(4)));
+    }
+
+    @Test
+    public void theExceptionsOfTheParentOfEachVersionAreUsed() {
+        BaseCalendar calendar = createBasicCalendar();
+        calendar.setParent(createChristmasCalendar());
+        calendar.newVersion(CHRISTMAS_DAY_LOCAL_DATE.minusDays(1));
+        calendar.setParent(createBasicCalendar());
+
+        assertThat(calendar.getExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), nullValue());
+        assertThat(calendar.getExceptionDay(MONDAY_LOCAL_DATE), nullValue());
+
+        calendar.setParent(createChristmasCalendar().newDerivedCalendar());
+        assertThat(calendar.getExceptionDay(CHRISTMAS_DAY_LOCAL_DATE), notNullValue());
+    }
+
+    @Test
+    public void theCalendarDataIsTheFirstVersionNotExpired() {
+        BaseCalendar calendar = createBasicCalendar();
+        calendar.newVersion(MONDAY_LOCAL_DATE);
+        calendar.newVersion(WEDNESDAY_LOCAL_DATE);
+        calendar.newVersion(FRIDAY_LOCAL_DATE);
+
+        assertThat(calendar.getCalendarData(MONDAY_LOCAL_DATE.minusDays(1)),
+                equalTo(calendar.getCalendarDataVersions().get(0)));
+        assertThat(calendar.getCalendarData(MONDAY_LOCAL_DATE), equalTo(calendar.getCalendarDataVersions().get(1)));
+        assertThat(calendar.getCalendarData(TUESDAY_LOCAL_DATE), equalTo(calendar.getCalendarDataVersions().get(1)));
+        assertThat(calendar.getCalendarData(THURSDAY_LOCAL_DATE), equalTo(calendar.getCalendarDataVersions().get(2)));
+        assertThat(calendar.getCalendarData(FRIDAY_LOCAL_DATE), equalTo(calendar.getCalendarDataVersions().get(3)));
+        assertThat(calendar.getCalendarData(FRIDAY_LOCAL_DATE.plusYears(10)),
+                equalTo(calendar.getCalendarDataVersions().get(3)));
+    }
+
+    @Test
+    public void theCalendarDataIsFoundInTheVersionsLoadedFromTheDatabase() {
+        BaseCalendar calendar = createBasicCalendar();
+        calendar.newVersion(MONDAY_LOCAL_DATE);
+        calendar.newVersion(WEDNESDAY_LOCAL_DATE);
+        calendar.newVersion(FRIDAY_LOCAL_DATE);
+        List<CalendarData> versions = new PersistentList(null, new ArrayList<>(calendar.getCalendarDataVersions()));
+        assertFalse(versions instanceof RandomAccess);
+
+        BaseCalendar loaded = BaseCalendar.createUnvalidated(UUID.randomUUID().toString(), "loaded", null, null,
+                versions);
+
+        assertThat(loaded.getCalendarData(MONDAY_LOCAL_DATE.minusDays(1)), equalTo(versions.get(0)));
+        assertThat(loaded.getCalendarData(MONDAY_LOCAL_DATE), equalTo(versions.get(1)));
+        assertThat(loaded.getCalendarData(THURSDAY_LOCAL_DATE), equalTo(versions.get(2)));
+        assertThat(loaded.getCalendarData(FRIDAY_LOCAL_DATE), equalTo(versions.get(3)));
+        assertThat(loaded.getCalendarData(FRIDAY_LOCAL_DATE.plusYears(10)), equalTo(versions.get(3)));
+    }
+
 }
@@ -0,0 +1,109 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.calendars.entities;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.CalendarException;
+import org.libreplan.business.calendars.entities.CapacityVector;
+import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.calendars.entities.ICalendar;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.calendars.entities.SameWorkHoursEveryDay;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+
+public class CapacityVectorTest {
+
+    private static final LocalDate START = BaseCalendarTest.CHRISTMAS_DAY_LOCAL_DATE.minusDays(10);
+
+    private static final LocalDate END = BaseCalendarTest.CHRISTMAS_DAY_LOCAL_DATE.plusDays(10);
+
+    private static BaseCalendar calendarWithExceptions() {
+        BaseCalendar calendar = BaseCalendarTest.createBasicCalendar();
+        BaseCalendarTest.addChristmasAsExceptionDay(calendar);
+        calendar.addExceptionDay(CalendarException.create(
+                START.plusDays(2),
+                Capacity.create(hours(3)).withAllowedExtraEffort(hours(1)),
+                BaseCalendarTest.createCalendarExceptionType()));
+
+        return calendar;
+    }
+
+    private static void assertSameCapacities(ICalendar calendar, CapacityVector capacities) {
+        for (LocalDate day = START; day.isBefore(END); day = day.plusDays(1)) {
+            assertThat(capacities.getCapacityOn(PartialDay.wholeDay(day)),
+                    equalTo(calendar.getCapacityOn(PartialDay.wholeDay(day))));
+            assertThat(capacities.getCapacityWithOvertime(day), equalTo(calendar.getCapacityWithOvertime(day)));
+        }
+    }
+
+    @Test
+    public void theCapacitiesAreTheSameThanTheOnesOfTheCalendar() {
+        BaseCalendar calendar = calendarWithExceptions();
+
+        assertSameCapacities(calendar, calendar.getCapacities(START, END));
+    }
+
+    @Test
+    public void theParentsAreTakenIntoAccount() {
+        BaseCalendar calendar = calendarWithExceptions().newDerivedCalendar();
+
+        assertSameCapacities(calendar, CapacityVector.calculate(calendar, START, END));
+    }
+
+    @Test
+    public void theUnitsOfAResourceCalendarAreTakenIntoAccount() {
+        ResourceCalendar calendar = calendarWithExceptions().newDerivedResourceCalendar();
+        calendar.setCapacity(3);
+
+        assertSameCapacities(calendar, CapacityVector.calculate(calendar, START, END));
+    }
+
+    @Test
+    public void anyCalendarCanBeUsed() {
+        ICalendar calendar = SameWorkHoursEveryDay.getDefaultWorkingDay();
+
+        assertSameCapacities(calendar, CapacityVector.calculate(calendar, START, END));
+    }
+
+    @Test
+    public void onlyTheDaysOfTheIntervalAreIncluded() {
+        CapacityVector capacities = calendarWithExceptions().getCapacities(START, END);
+
+        assertThat(capacities.size(), equalTo(20));
+        assertTrue(capacities.includes(START));
+        assertTrue(capacities.includes(END.minusDays(1)));
+        assertFalse(capacities.includes(START.minusDays(1)));
+        assertFalse(capacities.includes(END));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void theDaysOutsideTheIntervalCannotBeConsulted() {
+        calendarWithExceptions().getCapacities(START, END).getStandardSeconds(END);
+    }
+
+}
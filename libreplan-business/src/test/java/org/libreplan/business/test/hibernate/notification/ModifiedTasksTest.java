@@ -0,0 +1,132 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.hibernate.notification;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Test;
+import org.libreplan.business.hibernate.notification.ModificationsDelta;
+import org.libreplan.business.hibernate.notification.ModificationsDelta.Modification;
+import org.libreplan.business.hibernate.notification.ModificationsDelta.Operation;
+import org.libreplan.business.hibernate.notification.ModifiedTasks;
+import org.libreplan.business.planner.daos.IDayAssignmentDAO;
+import org.libreplan.business.planner.entities.GenericDayAssignment;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.planner.entities.Task;
+
+public class ModifiedTasksTest {
+
+    private static SpecificDayAssignment specificDayAssignmentOn(Long containerId) {
+        SpecificDayAssignment result = createNiceMock(SpecificDayAssignment.class);
+        expect(result.getContainerId()).andReturn(containerId).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    private static GenericDayAssignment genericDayAssignmentOn(Long containerId) {
+        GenericDayAssignment result = createNiceMock(GenericDayAssignment.class);
+        expect(result.getContainerId()).andReturn(containerId).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    private static Map<Long, Long> tasksByContainer(Long... containerAndTaskIds) {
+        Map<Long, Long> result = new HashMap<>();
+        for (int i = 0; i < containerAndTaskIds.length; i += 2) {
+            result.put(containerAndTaskIds[i], containerAndTaskIds[i + 1]);
+        }
+
+        return result;
+    }
+
+    private static IDayAssignmentDAO dayAssignmentDAO(Map<Long, Long> specific, Map<Long, Long> generic) {
+        IDayAssignmentDAO result = createNiceMock(IDayAssignmentDAO.class);
+        expect(result.findTaskIdsBySpecificContainers(anyObject())).andReturn(specific).anyTimes();
+        expect(result.findTaskIdsByGenericContainers(anyObject())).andReturn(generic).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    private static Modification modification(Class<?> entityClass, Serializable id, Object entity) {
+        return new Modification(Operation.UPDATE, entityClass, id, entity);
+    }
+
+    @Test
+    public void theTasksOfTheModifiedDayAssignmentsAreModified() {
+        ModificationsDelta delta = new ModificationsDelta(Arrays.asList(
+                modification(SpecificDayAssignment.class, 10L, specificDayAssignmentOn(100L)),
+                modification(GenericDayAssignment.class, 11L, genericDayAssignmentOn(200L)),
+                modification(GenericDayAssignment.class, 12L, genericDayAssignmentOn(200L))));
+        IDayAssignmentDAO dao = dayAssignmentDAO(tasksByContainer(100L, 1L), tasksByContainer(200L, 2L));
+
+        assertEquals(new HashSet<Serializable>(Arrays.asList(1L, 2L)), ModifiedTasks.of(delta, dao));
+    }
+
+    @Test
+    public void theModifiedTasksAreIncluded() {
+        ModificationsDelta delta = new ModificationsDelta(Arrays.asList(
+                modification(Task.class, 3L, createNiceMock(Task.class)),
+                modification(SpecificDayAssignment.class, 10L, specificDayAssignmentOn(100L))));
+        IDayAssignmentDAO dao = dayAssignmentDAO(tasksByContainer(100L, 1L), tasksByContainer());
+
+        assertEquals(new HashSet<Serializable>(Arrays.asList(1L, 3L)), ModifiedTasks.of(delta, dao));
+    }
+
+    @Test
+    public void aDayAssignmentWithoutSavedContainerRequiresAFullRecalculation() {
+        ModificationsDelta delta = new ModificationsDelta(Arrays.asList(
+                modification(Task.class, 3L, createNiceMock(Task.class)),
+                modification(SpecificDayAssignment.class, 10L, specificDayAssignmentOn(null))));
+        IDayAssignmentDAO dao = dayAssignmentDAO(tasksByContainer(), tasksByContainer());
+
+        assertNull(ModifiedTasks.of(delta, dao));
+    }
+
+    @Test
+    public void aDayAssignmentWhoseContainerIsNotFoundRequiresAFullRecalculation() {
+        ModificationsDelta delta = new ModificationsDelta(Arrays.asList(
+                modification(GenericDayAssignment.class, 11L, genericDayAssignmentOn(200L))));
+        IDayAssignmentDAO dao = dayAssignmentDAO(tasksByContainer(), tasksByContainer());
+
+        assertNull(ModifiedTasks.of(delta, dao));
+    }
+
+    @Test
+    public void noModifiedTasks() {
+        ModificationsDelta delta = new ModificationsDelta(Arrays.<Modification> asList());
+        IDayAssignmentDAO dao = dayAssignmentDAO(tasksByContainer(), tasksByContainer());
+
+        assertEquals(new HashSet<Serializable>(), ModifiedTasks.of(delta, dao));
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.orders.daos;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import javax.annotation.Resource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.orders.daos.IHoursGroupDAO;
+import org.libreplan.business.orders.daos.IOrderElementDAO;
+import org.libreplan.business.orders.entities.HoursGroup;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
+import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class HoursGroupDAOTest {
+
+    @Resource
+    private IDataBootstrap defaultAdvanceTypesBootstrapListener;
+
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    @Autowired
+    private IBaseCalendarDAO calendarDAO;
+
+    @Autowired
+    private IOrderElementDAO orderElementDAO;
+
+    @Autowired
+    private IHoursGroupDAO hoursGroupDAO;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    @Before
+    public void loadRequiredData() {
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                scenariosBootstrap.loadRequiredData();
+                defaultAdvanceTypesBootstrapListener.loadRequiredData();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * The hours group is committed, as the repeated codes are looked for in another transaction
+     */
+    private HoursGroup givenSavedHoursGroup() {
+        return transactionService.runOnAnotherTransaction(new IOnTransaction<HoursGroup>() {
+            @Override
+            public HoursGroup execute() {
+                return saveHoursGroup();
+            }
+        });
+    }
+
+    private HoursGroup saveHoursGroup() {
+        Order order = Order.create();
+        order.setName(UUID.randomUUID().toString());
+        order.setCode(UUID.randomUUID().toString());
+        order.setInitDate(new Date());
+        BaseCalendar calendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(calendar);
+        order.setCalendar(calendar);
+        OrderVersion orderVersion = ResourceAllocationDAOTest.setupVersionUsing(scenarioManager, order);
+        orderElementDAO.save(order);
+        orderElementDAO.flush();
+        order.useSchedulingDataFor(orderVersion);
+
+        OrderLine line = OrderLine.createOrderLineWithUnfixedPercentage(10);
+        line.setName(UUID.randomUUID().toString());
+        line.setCode(UUID.randomUUID().toString());
+        order.add(line);
+        HoursGroup result = line.getHoursGroups().get(0);
+        result.setCode(UUID.randomUUID().toString());
+        orderElementDAO.save(order);
+        orderElementDAO.flush();
+
+        return result;
+    }
+
+    private HoursGroup givenNewHoursGroup(String code) {
+        HoursGroup result = HoursGroup.create(OrderLine.create());
+        result.setCode(code);
+
+        return result;
+    }
+
+    @Test
+    @Transactional
+    public void aNewHoursGroupWithTheCodeOfAnotherIsRepeated() {
+        HoursGroup saved = givenSavedHoursGroup();
+        HoursGroup repeated = givenNewHoursGroup(saved.getCode());
+
+        assertSame(repeated, hoursGroupDAO.findRepeatedHoursGroupCodeInDB(
+                Arrays.asList(givenNewHoursGroup(UUID.randomUUID().toString()), repeated)));
+    }
+
+    @Test
+    @Transactional
+    public void aSavedHoursGroupDoesNotRepeatItsOwnCode() {
+        HoursGroup saved = givenSavedHoursGroup();
+
+        assertNull(hoursGroupDAO.findRepeatedHoursGroupCodeInDB(Collections.singletonList(saved)));
+    }
+
+    @Test
+    @Transactional
+    public void aNewHoursGroupWithAnUnusedCodeIsNotRepeated() {
+        givenSavedHoursGroup();
+
+        assertNull(hoursGroupDAO.findRepeatedHoursGroupCodeInDB(
+                Collections.singletonList(givenNewHoursGroup(UUID.randomUUID().toString()))));
+    }
+
+    @Test
+    @Transactional
+    public void noHoursGroupIsRepeatedWhenNoCodeChanged() {
+        assertNull(hoursGroupDAO.findRepeatedHoursGroupCodeInDB(Collections.<HoursGroup> emptyList()));
+    }
+
+}
@@ -25,6 +25,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -32,17 +34,20 @@ import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.UUID;
 
 import javax.annotation.Resource;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -55,6 +60,8 @@ import org.libreplan.business.advance.exceptions.DuplicateAdvanceAssignmentForOr
 import org.libreplan.business.advance.exceptions.DuplicateValueTrueReportGlobalAdvanceException;
 import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
 import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.labels.daos.ILabelDAO;
@@ -77,7 +84,10 @@ import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.CriterionType;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.daos.IOrderVersionDAO;
+import org.libreplan.business.scenarios.daos.IScenarioDAO;
 import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
 import org.libreplan.business.test.orders.entities.OrderElementTest;
 import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
@@ -124,10 +134,52 @@ public class OrderElementDAOTest {
     @Autowired
     private ICriterionTypeDAO criterionTypeDAO;
 
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    @Autowired
+    private IScenarioDAO scenarioDAO;
+
+    @Autowired
+    private IOrderVersionDAO orderVersionDAO;
+
+    private final List<Long> committedOrders = new ArrayList<>();
+
     @Before
     public void loadRequiredData() {
-        scenariosBootstrap.loadRequiredData();
-        defaultAdvanceTypesBootstrapListener.loadRequiredData();
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                scenariosBootstrap.loadRequiredData();
+                defaultAdvanceTypesBootstrapListener.loadRequiredData();
+                return null;
+            }
+        });
+    }
+
+    @After
+    public void removeCommittedOrders() {
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                Scenario current = scenarioDAO.findExistingEntity(scenarioManager.getCurrent().getId());
+                for (Long each : committedOrders) {
+                    Order order = (Order) orderElementDAO.findExistingEntity(each);
+                    OrderVersion version = order.disassociateFrom(current);
+                    current.removeOrderVersionForOrder(order);
+                    BaseCalendar calendar = order.getCalendar();
+                    try {
+                        orderElementDAO.remove(each);
+                        orderVersionDAO.remove(version.getId());
+                        calendarDAO.remove(calendar.getId());
+                    } catch (InstanceNotFoundException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return null;
+            }
+        });
+        committedOrders.clear();
     }
 
     @Test
@@ -246,6 +298,72 @@ public class OrderElementDAOTest {
         assertFalse(list.isEmpty());
     }
 
+    @Test
+    @Transactional
+    public void testFindByCodesIgnoresCaseAndBlankOrMissingCodes() {
+        OrderLine orderLine = createValidOrderLine();
+        orderElementDAO.save(orderLine);
+        Order order = orderLine.getOrder();
+        orderElementDAO.flush();
+
+        Map<String, OrderElement> found = orderElementDAO.findByCodes(Arrays.asList(
+                " " + orderLine.getCode().toUpperCase() + " ", order.getCode(), "  ", null,
+                UUID.randomUUID().toString()));
+
+        assertThat(found.size(), equalTo(2));
+        assertThat(found.get(orderElementDAO.normalizeCode(orderLine.getCode())), equalTo((OrderElement) orderLine));
+        assertThat(found.get(orderElementDAO.normalizeCode(order.getCode())), equalTo((OrderElement) order));
+    }
+
+    @Test
+    @Transactional
+    public void testFindAfterCodeReturnsTheNextElementsOrderedByCode() {
+        String prefix = UUID.randomUUID().toString();
+        Order order = createValidOrder();
+        for (String each : Arrays.asList("-c", "-a", "-b")) {
+            OrderLine line = OrderLine.createOrderLineWithUnfixedPercentage(10);
+            line.setName(prefix + each);
+            line.setCode(prefix + each);
+            line.getHoursGroups().get(0).setCode(UUID.randomUUID().toString());
+            order.add(line);
+        }
+        orderElementDAO.save(order);
+        orderElementDAO.flush();
+
+        List<OrderElement> page = orderElementDAO.findAfterCode(prefix + "-a", 2);
+
+        assertThat(page.size(), equalTo(2));
+        assertThat(page.get(0).getCode(), equalTo(prefix + "-b"));
+        assertThat(page.get(1).getCode(), equalTo(prefix + "-c"));
+    }
+
+    @Test
+    @Transactional
+    public void testScrollAllVisitsEveryElementOrderedByCodeInPages() {
+        OrderLineGroup group = createValidOrderLineGroup();
+        orderElementDAO.save(group.getOrder());
+        orderElementDAO.flush();
+        int total = orderElementDAO.findAll().size();
+
+        final List<String> codes = new ArrayList<>();
+        final List<Integer> pageSizes = new ArrayList<>();
+        orderElementDAO.scrollAll(2, page -> {
+            pageSizes.add(page.size());
+            for (OrderElement each : page) {
+                codes.add(each.getCode());
+            }
+        });
+
+        assertThat(codes.size(), equalTo(total));
+        assertTrue(codes.contains(group.getCode()));
+        for (int i = 1; i < codes.size(); i++) {
+            assertTrue(codes.get(i - 1).compareTo(codes.get(i)) < 0);
+        }
+        for (int i = 0; i < pageSizes.size() - 1; i++) {
+            assertThat(pageSizes.get(i), equalTo(2));
+        }
+    }
+
     @Test
     @Transactional
     public void testSaveOrderLineWithAdvanceAssignments()
@@ -704,4 +822,108 @@ public class OrderElementDAOTest {
         assertEquals(orderLine3.getId(), orderElements.get(0).getId());
     }
 
+
+    @Test
+    @Transactional
+    public void onlyTheCodesUsedByOtherElementsAreInUse() {
+        OrderLine orderLine1 = createValidOrderLine();
+        orderElementDAO.save(orderLine1);
+        OrderLine orderLine2 = createValidOrderLine();
+        orderElementDAO.save(orderLine2);
+        String unusedCode = UUID.randomUUID().toString();
+
+        Set<String> inUse = orderElementDAO.getCodesInUseExcluding(
+                Arrays.asList(orderLine1.getCode(), orderLine2.getCode(), unusedCode),
+                Collections.<OrderElement> singletonList(orderLine1));
+
+        assertEquals(Collections.singleton(orderLine2.getCode()), inUse);
+    }
+
+    /**
+     * The order is committed, as the repeated codes are looked for in another transaction. It is removed after the
+     * test
+     */
+    private Order givenSavedOrderWithLines(final String... codes) {
+        return transactionService.runOnAnotherTransaction(new IOnTransaction<Order>() {
+            @Override
+            public Order execute() {
+                Order order = createValidOrder();
+                for (String each : codes) {
+                    order.add(createLineWithHours(each));
+                }
+                orderElementDAO.save(order);
+                orderElementDAO.flush();
+                committedOrders.add(order.getId());
+
+                return order;
+            }
+        });
+    }
+
+    private Order givenNewOrderWithLine(String code) {
+        Order order = Order.create();
+        order.setName(UUID.randomUUID().toString());
+        order.setCode(UUID.randomUUID().toString());
+        order.setInitDate(new Date());
+        order.useSchedulingDataFor(ResourceAllocationDAOTest.setupVersionUsing(scenarioManager, order));
+        order.add(createLineWithHours(code));
+
+        return order;
+    }
+
+    private OrderLine createLineWithHours(String code) {
+        OrderLine result = OrderLine.createOrderLineWithUnfixedPercentage(10);
+        result.setName(UUID.randomUUID().toString());
+        result.setCode(code);
+        result.getHoursGroups().get(0).setCode(UUID.randomUUID().toString());
+
+        return result;
+    }
+
+    @Test
+    @Transactional
+    public void aCodeUsedInAnotherOrderIsRepeated() {
+        Order other = givenSavedOrderWithLines(UUID.randomUUID().toString());
+        Order order = givenSavedOrderWithLines(UUID.randomUUID().toString());
+        OrderElement line = order.getChildren().get(0);
+        line.setCode(other.getChildren().get(0).getCode());
+
+        assertSame(line, orderElementDAO.findRepeatedOrderCodeInDB(order));
+    }
+
+    @Test
+    @Transactional
+    public void aCodeUsedElsewhereInTheSameOrderIsNotRepeatedInDB() {
+        Order order = givenSavedOrderWithLines(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        order.getChildren().get(1).setCode(order.getChildren().get(0).getCode());
+
+        assertNull(orderElementDAO.findRepeatedOrderCodeInDB(order));
+    }
+
+    @Test
+    @Transactional
+    public void aSavedOrderDoesNotRepeatItsOwnCodes() {
+        Order order = givenSavedOrderWithLines(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+
+        assertNull(orderElementDAO.findRepeatedOrderCodeInDB(order));
+    }
+
+    @Test
+    @Transactional
+    public void aNewOrderWithTheCodeOfASavedElementIsRepeated() {
+        Order other = givenSavedOrderWithLines(UUID.randomUUID().toString());
+        Order order = givenNewOrderWithLine(other.getChildren().get(0).getCode());
+
+        assertNull(order.getId());
+        assertSame(order.getChildren().get(0), orderElementDAO.findRepeatedOrderCodeInDB(order));
+    }
+
+    @Test
+    @Transactional
+    public void aNewOrderWithUnusedCodesIsNotRepeated() {
+        givenSavedOrderWithLines(UUID.randomUUID().toString());
+
+        assertNull(orderElementDAO.findRepeatedOrderCodeInDB(givenNewOrderWithLine(UUID.randomUUID().toString())));
+    }
+
 }
@@ -0,0 +1,203 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.orders.daos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+
+import java.util.Date;
+import java.util.UUID;
+
+import javax.annotation.Resource;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.ISumChargedEffortDAO;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
+import org.libreplan.business.orders.entities.SumChargedEffort;
+import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
+import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
+import org.libreplan.business.test.workreports.daos.AbstractWorkReportTest;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.daos.IWorkReportDAO;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class SumChargedEffortDAOTest extends AbstractWorkReportTest {
+
+    @Resource
+    private IDataBootstrap configurationBootstrap;
+
+    @Resource
+    private IDataBootstrap defaultAdvanceTypesBootstrapListener;
+
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    @Autowired
+    private IScenarioManager scenarioManager;
+
+    @Autowired
+    private IBaseCalendarDAO calendarDAO;
+
+    @Autowired
+    private IOrderDAO orderDAO;
+
+    @Autowired
+    private IWorkReportDAO reportDAO;
+
+    @Autowired
+    private ISumChargedEffortDAO sumChargedEffortDAO;
+
+    private Order order;
+
+    private OrderLineGroup group;
+
+    private OrderLine firstLine;
+
+    private OrderLine secondLine;
+
+    @Before
+    public void loadRequiredData() {
+        configurationBootstrap.loadRequiredData();
+        scenariosBootstrap.loadRequiredData();
+        defaultAdvanceTypesBootstrapListener.loadRequiredData();
+    }
+
+    private void givenOrderWithAGroupOfTwoLines() {
+        order = Order.create();
+        order.setName(UUID.randomUUID().toString());
+        order.setCode(UUID.randomUUID().toString());
+        order.setInitDate(new Date());
+        BaseCalendar calendar = BaseCalendarTest.createBasicCalendar();
+        calendarDAO.save(calendar);
+        order.setCalendar(calendar);
+        OrderVersion orderVersion = ResourceAllocationDAOTest.setupVersionUsing(scenarioManager, order);
+        orderDAO.save(order);
+        orderDAO.flush();
+        order.useSchedulingDataFor(orderVersion);
+
+        group = OrderLineGroup.create();
+        group.setName(UUID.randomUUID().toString());
+        group.setCode(UUID.randomUUID().toString());
+        order.add(group);
+
+        firstLine = createLine();
+        group.add(firstLine);
+        secondLine = createLine();
+        group.add(secondLine);
+
+        orderDAO.save(order);
+        orderDAO.flush();
+    }
+
+    private OrderLine createLine() {
+        OrderLine line = OrderLine.createOrderLineWithUnfixedPercentage(10);
+        line.setName(UUID.randomUUID().toString());
+        line.setCode(UUID.randomUUID().toString());
+        line.getHoursGroups().get(0).setCode(UUID.randomUUID().toString());
+        return line;
+    }
+
+    private void givenTimesheetLine(OrderElement orderElement, LocalDate date, int hours, boolean finished) {
+        WorkReportLine line = createValidWorkReportLine();
+        line.setOrderElement(orderElement);
+        line.setDate(date.toDateTimeAtStartOfDay().toDate());
+        line.setEffort(EffortDuration.hours(hours));
+        reportDAO.save(line.getWorkReport());
+
+        // Validating a finished line looks for other finished lines in a new transaction, where the order is not saved
+        line.setFinished(finished);
+        reportDAO.flush();
+    }
+
+    @Test
+    @Transactional
+    public void theWholeOrderIsRecalculatedFromItsTimesheets() {
+        givenOrderWithAGroupOfTwoLines();
+        LocalDate today = new LocalDate();
+        givenTimesheetLine(firstLine, today, 3, false);
+        givenTimesheetLine(firstLine, today.plusDays(2), 5, true);
+        givenTimesheetLine(secondLine, today.minusDays(1), 4, false);
+
+        sumChargedEffortDAO.recalculateSumChargedEfforts(order.getId());
+
+        SumChargedEffort first = sumChargedEffortDAO.findByOrderElement(firstLine);
+        assertEquals(EffortDuration.hours(8), first.getDirectChargedEffort());
+        assertEquals(EffortDuration.zero(), first.getIndirectChargedEffort());
+        assertEquals(today.toDateTimeAtStartOfDay().toDate(), first.getFirstTimesheetDate());
+        assertEquals(today.plusDays(2).toDateTimeAtStartOfDay().toDate(), first.getLastTimesheetDate());
+        assertTrue(first.isFinishedTimesheets());
+
+        SumChargedEffort second = sumChargedEffortDAO.findByOrderElement(secondLine);
+        assertEquals(EffortDuration.hours(4), second.getDirectChargedEffort());
+        assertFalse(second.isFinishedTimesheets());
+
+        SumChargedEffort groupEffort = sumChargedEffortDAO.findByOrderElement(group);
+        assertEquals(EffortDuration.zero(), groupEffort.getDirectChargedEffort());
+        assertEquals(EffortDuration.hours(12), groupEffort.getIndirectChargedEffort());
+        assertEquals(today.minusDays(1).toDateTimeAtStartOfDay().toDate(), groupEffort.getFirstTimesheetDate());
+        assertEquals(today.plusDays(2).toDateTimeAtStartOfDay().toDate(), groupEffort.getLastTimesheetDate());
+        assertFalse(groupEffort.isFinishedTimesheets());
+
+        SumChargedEffort orderEffort = sumChargedEffortDAO.findByOrderElement(order);
+        assertEquals(EffortDuration.hours(12), orderEffort.getTotalChargedEffort());
+    }
+
+    @Test
+    @Transactional
+    public void previousValuesAreReplaced() {
+        givenOrderWithAGroupOfTwoLines();
+        givenTimesheetLine(secondLine, new LocalDate(), 4, false);
+
+        SumChargedEffort stale = SumChargedEffort.create(firstLine);
+        stale.addDirectChargedEffort(EffortDuration.hours(100));
+        stale.setFinishedTimesheets(true);
+        sumChargedEffortDAO.save(stale);
+
+        sumChargedEffortDAO.recalculateSumChargedEfforts(order.getId());
+
+        SumChargedEffort first = sumChargedEffortDAO.findByOrderElement(firstLine);
+        assertEquals(stale.getId(), first.getId());
+        assertTrue(first.isZero());
+        assertFalse(first.isFinishedTimesheets());
+        assertEquals(EffortDuration.hours(4), sumChargedEffortDAO.findByOrderElement(order).getTotalChargedEffort());
+    }
+
+}
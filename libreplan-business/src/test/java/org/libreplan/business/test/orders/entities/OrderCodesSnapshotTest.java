@@ -0,0 +1,140 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.orders.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import javax.annotation.Resource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.common.IntegrationEntity;
+import org.libreplan.business.orders.entities.HoursGroup;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderCodesSnapshot;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.test.planner.entities.TaskTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class OrderCodesSnapshotTest {
+
+    private static OrderVersion mockedOrderVersion = TaskTest.mockOrderVersion();
+
+    @Resource
+    private IDataBootstrap defaultAdvanceTypesBootstrapListener;
+
+    private Order order;
+
+    private OrderLine line;
+
+    @Before
+    public void loadRequiredData() {
+        defaultAdvanceTypesBootstrapListener.loadRequiredData();
+    }
+
+    @Before
+    public void givenASavedOrder() {
+        order = Order.create();
+        order.setCode(UUID.randomUUID().toString());
+        order.useSchedulingDataFor(mockedOrderVersion);
+        line = givenLine();
+        order.add(line);
+        markAsSaved(order);
+    }
+
+    private OrderLine givenLine() {
+        OrderLine result = OrderLine.createOrderLineWithUnfixedPercentage(10);
+        result.setCode(UUID.randomUUID().toString());
+        result.getHoursGroups().get(0).setCode(UUID.randomUUID().toString());
+
+        return result;
+    }
+
+    private void markAsSaved(Order order) {
+        List<IntegrationEntity> all = new ArrayList<>();
+        all.add(order);
+        all.addAll(order.getAllChildren());
+        all.addAll(order.getHoursGroups());
+        for (IntegrationEntity each : all) {
+            each.dontPoseAsTransientObjectAnymore();
+        }
+    }
+
+    @Test
+    @Transactional
+    public void unchangedCodesAreNotReported() {
+        OrderCodesSnapshot snapshot = OrderCodesSnapshot.take(order);
+
+        assertTrue(snapshot.getEntitiesWithChangedCode(order).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void newElementsAreReportedWithTheirHoursGroups() {
+        OrderCodesSnapshot snapshot = OrderCodesSnapshot.take(order);
+
+        OrderLine newLine = givenLine();
+        order.add(newLine);
+        HoursGroup newHoursGroup = newLine.getHoursGroups().get(0);
+
+        assertEquals(new HashSet<IntegrationEntity>(Arrays.asList(newLine, newHoursGroup)),
+                new HashSet<>(snapshot.getEntitiesWithChangedCode(order)));
+    }
+
+    @Test
+    @Transactional
+    public void reCodedElementsAreReported() {
+        OrderCodesSnapshot snapshot = OrderCodesSnapshot.take(order);
+
+        line.setCode(UUID.randomUUID().toString());
+
+        assertEquals(Arrays.<IntegrationEntity> asList(line), snapshot.getEntitiesWithChangedCode(order));
+    }
+
+    @Test
+    @Transactional
+    public void theChangedCodesAreReportedUntilANewSnapshotIsTaken() {
+        OrderCodesSnapshot snapshot = OrderCodesSnapshot.take(order);
+        HoursGroup hoursGroup = line.getHoursGroups().get(0);
+        hoursGroup.setCode(UUID.randomUUID().toString());
+
+        // a failed save does not take a new snapshot, so the codes are checked again
+        assertEquals(Arrays.<IntegrationEntity> asList(hoursGroup), snapshot.getEntitiesWithChangedCode(order));
+        assertEquals(Arrays.<IntegrationEntity> asList(hoursGroup), snapshot.getEntitiesWithChangedCode(order));
+
+        assertTrue(OrderCodesSnapshot.take(order).getEntitiesWithChangedCode(order).isEmpty());
+    }
+
+}
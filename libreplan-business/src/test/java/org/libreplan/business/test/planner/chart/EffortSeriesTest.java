@@ -0,0 +1,152 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.chart;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.seconds;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.chart.ContiguousDaysLine;
+import org.libreplan.business.planner.chart.EffortSeries;
+import org.libreplan.business.planner.chart.EffortSeries.ISecondsOnDay;
+import org.libreplan.business.workingday.EffortDuration;
+
+public class EffortSeriesTest {
+
+    /** It's a monday */
+    private static final LocalDate start = new LocalDate(2010, 3, 1);
+
+    private static EffortSeries series(int... values) {
+        return EffortSeries.create(start, values);
+    }
+
+    @Test
+    public void itCanBeCreatedFromALine() {
+        ContiguousDaysLine<List<Integer>> line = ContiguousDaysLine.create(start, start.plusDays(2));
+        line.set(start, Arrays.asList(1, 2));
+        line.set(start.plusDays(1), Arrays.asList(3));
+
+        EffortSeries result = EffortSeries.from(line, new ISecondsOnDay<List<Integer>>() {
+            @Override
+            public int secondsOn(LocalDate day, List<Integer> value) {
+                int sum = 0;
+                for (Integer each : value) {
+                    sum += each;
+                }
+                return sum;
+            }
+        });
+
+        assertThat(result, equalTo(series(3, 3)));
+        assertThat(result.get(start.plusDays(1)), equalTo(seconds(3)));
+    }
+
+    @Test
+    public void anInvalidLineGivesAnInvalidSeries() {
+        EffortSeries result = EffortSeries.from(ContiguousDaysLine.<Integer> invalid(), new ISecondsOnDay<Integer>() {
+            @Override
+            public int secondsOn(LocalDate day, Integer value) {
+                return value;
+            }
+        });
+
+        assertTrue(result.isNotValid());
+        assertTrue(result.toSortedMap().isEmpty());
+        assertThat(result.sumAll(), equalTo(EffortDuration.zero()));
+    }
+
+    @Test
+    public void theOperationsAreDoneDayByDay() {
+        EffortSeries a = series(1, 5, 3);
+        EffortSeries b = series(2, 4, 3);
+
+        assertThat(EffortSeries.min(a, b), equalTo(series(1, 4, 3)));
+        assertThat(EffortSeries.sum(a, b), equalTo(series(3, 9, 6)));
+        assertThat(EffortSeries.substract(a, b), equalTo(series(0, 1, 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theOperationsNeedTheSameDays() {
+        EffortSeries.sum(series(1, 2), series(1, 2, 3));
+    }
+
+    @Test
+    public void aSubIntervalCanBeExtracted() {
+        EffortSeries series = series(1, 2, 3, 4);
+
+        assertThat(series.subInterval(start.plusDays(1), start.plusDays(3)),
+                equalTo(EffortSeries.create(start.plusDays(1), 2, 3)));
+        assertThat(series.subInterval(start.plusDays(2), null), equalTo(EffortSeries.create(start.plusDays(2), 3, 4)));
+        assertThat(series.subInterval(null, start.plusDays(10)), equalTo(series));
+        assertTrue(series.subInterval(start.plusDays(5), start.plusDays(7)).isNotValid());
+    }
+
+    @Test
+    public void theReplacedDaysAreOnlyChangedInTheCopy() {
+        EffortSeries series = series(1, 2, 3, 4);
+
+        EffortSeries result = series.withReplaced(EffortSeries.create(start.plusDays(1), 7, 8));
+
+        assertThat(result, equalTo(series(1, 7, 8, 4)));
+        assertThat(series, equalTo(series(1, 2, 3, 4)));
+    }
+
+    @Test
+    public void itCanBeConvertedToAMap() {
+        SortedMap<LocalDate, EffortDuration> map = series(3600, 7200).toSortedMap();
+
+        assertThat(map.size(), equalTo(2));
+        assertThat(map.get(start), equalTo(hours(1)));
+        assertThat(map.get(start.plusDays(1)), equalTo(hours(2)));
+    }
+
+    @Test
+    public void theDaysAreSummedByWeek() {
+        EffortSeries series = EffortSeries.create(start.minusDays(1), 1, 1, 1, 1, 1, 1, 1, 1, 1);
+
+        SortedMap<LocalDate, EffortDuration> byWeek = series.sumByWeek();
+
+        assertThat(byWeek.size(), equalTo(3));
+        assertThat(byWeek.get(start.minusWeeks(1)), equalTo(seconds(1)));
+        assertThat(byWeek.get(start), equalTo(seconds(7)));
+        assertThat(byWeek.get(start.plusWeeks(1)), equalTo(seconds(1)));
+    }
+
+    @Test
+    public void theDaysIncludedAreTheOnesFromTheStartToTheEnd() {
+        EffortSeries series = series(1, 2);
+
+        assertTrue(series.includes(start));
+        assertTrue(series.includes(start.plusDays(1)));
+        assertFalse(series.includes(start.plusDays(2)));
+        assertFalse(series.includes(start.minusDays(1)));
+        assertThat(series.sumAll(), equalTo(seconds(3)));
+    }
+
+}
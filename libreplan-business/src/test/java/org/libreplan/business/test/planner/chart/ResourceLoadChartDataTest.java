@@ -0,0 +1,123 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.planner.chart;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.SameWorkHoursEveryDay;
+import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.resources.entities.Resource;
+
+public class ResourceLoadChartDataTest {
+
+    private static final LocalDate start = new LocalDate(2010, 3, 1);
+
+    private final Resource resource = createResource();
+
+    private final List<Resource> resources = Arrays.asList(resource);
+
+    private static Resource createResource() {
+        Resource result = createNiceMock(Resource.class);
+        expect(result.getCalendarOrDefault()).andReturn(SameWorkHoursEveryDay.getDefaultWorkingDay()).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    private DayAssignment assignment(LocalDate day, int hours) {
+        DayAssignment result = createNiceMock(DayAssignment.class);
+        expect(result.getDay()).andReturn(day).anyTimes();
+        expect(result.getDuration()).andReturn(hours(hours)).anyTimes();
+        expect(result.getResource()).andReturn(resource).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    private List<DayAssignment> assignmentsFromStart(int... hoursPerDay) {
+        List<DayAssignment> result = new ArrayList<>();
+        for (int i = 0; i < hoursPerDay.length; i++) {
+            result.add(assignment(start.plusDays(i), hoursPerDay[i]));
+        }
+
+        return result;
+    }
+
+    @Test
+    public void recalculatingAnIntervalGivesTheSameResultThanRecalculatingEverything() {
+        ResourceLoadChartData previous = new ResourceLoadChartData(assignmentsFromStart(4, 8, 8, 2, 6), resources);
+        List<DayAssignment> modified = assignmentsFromStart(4, 10, 3, 2, 6);
+
+        ResourceLoadChartData patched = previous.withRecalculatedInterval(
+                modified, resources, start.plusDays(1), start.plusDays(3));
+        ResourceLoadChartData expected = new ResourceLoadChartData(modified, resources);
+
+        assertThat(patched.getLoad(), equalTo(expected.getLoad()));
+        assertThat(patched.getOverload(), equalTo(expected.getOverload()));
+        assertThat(patched.getAvailability(), equalTo(expected.getAvailability()));
+    }
+
+    @Test
+    public void theDaysWithoutAssignmentsInsideTheIntervalAreKept() {
+        ResourceLoadChartData previous = new ResourceLoadChartData(assignmentsFromStart(4, 8, 8, 2, 6), resources);
+        List<DayAssignment> modified = Arrays.asList(assignment(start, 4), assignment(start.plusDays(4), 6));
+
+        ResourceLoadChartData patched = previous.withRecalculatedInterval(
+                modified, resources, start.plusDays(1), start.plusDays(4));
+
+        assertThat(patched.getLoad().size(), equalTo(5));
+        assertThat(patched.getLoad().get(start.plusDays(2)), equalTo(hours(0)));
+        assertThat(patched.getAvailability().get(start.plusDays(2)), equalTo(hours(8)));
+    }
+
+    @Test
+    public void thePreviousDataIsNotModified() {
+        ResourceLoadChartData previous = new ResourceLoadChartData(assignmentsFromStart(4, 8, 8), resources);
+
+        previous.withRecalculatedInterval(assignmentsFromStart(4, 12, 8), resources, start.plusDays(1), start.plusDays(2));
+
+        assertThat(previous.getLoad().get(start.plusDays(1)), equalTo(hours(8)));
+        assertThat(previous.getOverload().get(start.plusDays(1)), equalTo(hours(8)));
+    }
+
+    @Test
+    public void onlyTheIntervalsNotIncludingTheFirstOrLastDayAreStrictlyInside() {
+        ResourceLoadChartData data = new ResourceLoadChartData(assignmentsFromStart(4, 8, 8, 2, 6), resources);
+
+        assertTrue(data.isStrictlyInside(start.plusDays(1), start.plusDays(4)));
+        assertFalse(data.isStrictlyInside(start, start.plusDays(2)));
+        assertFalse(data.isStrictlyInside(start.plusDays(3), start.plusDays(5)));
+        assertFalse(new ResourceLoadChartData(new ArrayList<>(), resources).isStrictlyInside(start, start.plusDays(1)));
+    }
+
+}
@@ -31,6 +31,7 @@ import static org.junit.Assert.fail;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -339,6 +340,29 @@ public class TaskElementDAOTest {
         }
     }
 
+    @Test
+    @Transactional
+    public void theChildrenOfSeveralGroupsAreFoundAtOnce() {
+        TaskGroup taskGroup = createValidTaskGroup();
+        Task child1 = createValidTask();
+        taskGroup.addTaskElement(child1);
+        taskElementDAO.save(taskGroup);
+
+        TaskGroup taskGroup2 = createValidTaskGroup();
+        Task child2 = createValidTask();
+        taskGroup2.addTaskElement(child2);
+        taskElementDAO.save(taskGroup2);
+
+        TaskGroup empty = createValidTaskGroup();
+        taskElementDAO.save(empty);
+
+        List<TaskElement> children = taskElementDAO.findChildrenOf(Arrays.asList(taskGroup, taskGroup2, empty));
+
+        assertThat(children.size(), equalTo(2));
+        assertTrue(children.contains(child1));
+        assertTrue(children.contains(child2));
+    }
+
     @Test
     @Transactional
     public void savingGroupSavesAssociatedTaskElements() {
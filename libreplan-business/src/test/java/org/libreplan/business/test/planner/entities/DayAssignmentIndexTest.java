@@ -0,0 +1,130 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.planner.entities;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.zero;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DayAssignmentIndex;
+
+public class DayAssignmentIndexTest {
+
+    private static final LocalDate start = new LocalDate(2010, 3, 1);
+
+    private static DayAssignment assignment(LocalDate day, int hours) {
+        DayAssignment result = createNiceMock(DayAssignment.class);
+        expect(result.getDay()).andReturn(day).anyTimes();
+        expect(result.getDuration()).andReturn(hours(hours)).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    private final DayAssignment first = assignment(start, 4);
+
+    private final DayAssignment second = assignment(start.plusDays(2), 3);
+
+    private final DayAssignment sameDayAsSecond = assignment(start.plusDays(2), 2);
+
+    private final DayAssignment last = assignment(start.plusDays(5), 8);
+
+    private final DayAssignmentIndex index =
+            DayAssignmentIndex.create(Arrays.asList(last, second, first, sameDayAsSecond));
+
+    @Test
+    public void theAssignmentsAreSortedByDay() {
+        assertThat(index.getAssignments(), equalTo(Arrays.asList(first, second, sameDayAsSecond, last)));
+    }
+
+    @Test
+    public void retrievesTheAssignmentsOfADay() {
+        assertThat(index.getAssignmentsOn(start.plusDays(2)), equalTo(Arrays.asList(second, sameDayAsSecond)));
+        assertThat(index.getAssignmentsOn(start), equalTo(Collections.singletonList(first)));
+        assertTrue(index.getAssignmentsOn(start.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void calculatesTheEffortOfADay() {
+        assertThat(index.getEffortOn(start.plusDays(2)), equalTo(hours(5)));
+        assertThat(index.getEffortOn(start.plusDays(3)), equalTo(zero()));
+    }
+
+    @Test
+    public void calculatesTheEffortOfAnIntervalExcludingTheEnd() {
+        assertThat(index.getEffortBetween(start, start.plusDays(5)), equalTo(hours(9)));
+        assertThat(index.getEffortBetween(start.plusDays(1), start.plusDays(6)), equalTo(hours(13)));
+        assertThat(index.getEffortBetween(start.minusDays(10), start.plusDays(10)), equalTo(hours(17)));
+        assertThat(index.getEffortBetween(start.plusDays(3), start.plusDays(5)), equalTo(zero()));
+        assertThat(index.getEffortBetween(start.plusDays(5), start), equalTo(zero()));
+    }
+
+    @Test
+    public void retrievesTheAssignmentsOfAnInterval() {
+        assertThat(index.getAssignmentsBetween(start.plusDays(1), start.plusDays(5)),
+                equalTo(Arrays.asList(second, sameDayAsSecond)));
+    }
+
+    @Test
+    public void addingAssignmentsKeepsTheOrderAndTheOriginalIndex() {
+        DayAssignment added = assignment(start.plusDays(1), 6);
+        DayAssignmentIndex result = index.plus(Arrays.asList(added, assignment(start.plusDays(7), 1)));
+
+        assertThat(result.size(), equalTo(6));
+        assertThat(result.getAssignmentsOn(start.plusDays(1)), equalTo(Collections.singletonList(added)));
+        assertThat(result.getEffortBetween(start, start.plusDays(3)), equalTo(hours(15)));
+        assertThat(result.getTotalEffort(), equalTo(hours(24)));
+        assertThat(index.size(), equalTo(4));
+    }
+
+    @Test
+    public void removingAssignmentsUpdatesTheEfforts() {
+        DayAssignmentIndex result = index.minus(Arrays.asList(second, assignment(start, 4)));
+
+        assertThat(result.getAssignments(), equalTo(Arrays.asList(first, sameDayAsSecond, last)));
+        assertThat(result.getEffortOn(start.plusDays(2)), equalTo(hours(2)));
+        assertThat(result.getTotalEffort(), equalTo(hours(14)));
+    }
+
+    @Test
+    public void theIncrementalUpdatesGiveTheSameResultThanCreatingTheIndex() {
+        DayAssignment added = assignment(start.plusDays(2), 1);
+        DayAssignmentIndex updated = index.minus(Collections.singletonList(first))
+                .plus(Collections.singletonList(added));
+        DayAssignmentIndex created = DayAssignmentIndex.create(Arrays.asList(second, sameDayAsSecond, last, added));
+
+        assertThat(updated.getAssignments(), equalTo(created.getAssignments()));
+        for (int i = -1; i < 7; i++) {
+            assertThat(updated.getEffortBetween(start, start.plusDays(i)),
+                    equalTo(created.getEffortBetween(start, start.plusDays(i))));
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.planner.entities;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.AvailabilityTimeLine.Interval;
+import org.libreplan.business.planner.entities.EarnedValueSeries;
+
+public class EarnedValueSeriesTest {
+
+    private static final LocalDate start = new LocalDate(2010, 3, 1);
+
+    private static SortedMap<LocalDate, BigDecimal> values(Object... dayOffsetsAndValues) {
+        SortedMap<LocalDate, BigDecimal> result = new TreeMap<>();
+        for (int i = 0; i < dayOffsetsAndValues.length; i += 2) {
+            result.put(start.plusDays((Integer) dayOffsetsAndValues[i]),
+                    new BigDecimal((String) dayOffsetsAndValues[i + 1]));
+        }
+        return result;
+    }
+
+    @Test
+    public void theValuesAreConvertedBackWithTheSameScale() {
+        SortedMap<LocalDate, BigDecimal> values = values(0, "4", 3, "8");
+
+        assertThat(EarnedValueSeries.of(values).toSortedMap(), equalTo(values));
+    }
+
+    @Test
+    public void theSumAddsTheValuesOfTheSameDay() {
+        EarnedValueSeries first = EarnedValueSeries.of(values(0, "1.50", 2, "3.25"));
+        EarnedValueSeries second = EarnedValueSeries.of(values(1, "2", 2, "0.75", 5, "1"));
+        EarnedValueSeries third = EarnedValueSeries.of(values(5, "0.10"));
+
+        assertThat(EarnedValueSeries.sum(Arrays.asList(first, second, third)).toSortedMap(),
+                equalTo(values(0, "1.50", 1, "2.00", 2, "4.00", 5, "1.10")));
+    }
+
+    @Test
+    public void theSumOfNoSeriesIsEmpty() {
+        assertTrue(EarnedValueSeries.sum(Collections.<EarnedValueSeries> emptyList()).isEmpty());
+        assertTrue(EarnedValueSeries.sum(Arrays.asList(EarnedValueSeries.empty())).toSortedMap().isEmpty());
+    }
+
+    @Test
+    public void theAccumulatedValuesIncludeThePreviousDays() {
+        EarnedValueSeries series = EarnedValueSeries.of(values(0, "4", 2, "3", 3, "0.5"));
+
+        assertThat(series.accumulate().toSortedMap(), equalTo(values(0, "4.0", 2, "7.0", 3, "7.5")));
+    }
+
+    @Test
+    public void itCanBeRestrictedToAnInterval() {
+        EarnedValueSeries series = EarnedValueSeries.of(values(0, "4", 2, "3", 3, "5", 6, "1"));
+
+        assertThat(series.restrictedTo(Interval.create(start.plusDays(1), start.plusDays(4))).toSortedMap(),
+                equalTo(values(2, "3", 3, "5")));
+        assertThat(series.restrictedTo(Interval.create(null, null)).size(), equalTo(4));
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.planner.entities;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.minutes;
+import static org.libreplan.business.workingday.EffortDuration.seconds;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DayAssignment.FilterType;
+import org.libreplan.business.planner.entities.HoursCostCalculator;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.workingday.EffortDuration;
+
+public class HoursCostCalculatorTest {
+
+    private static final LocalDate start = new LocalDate(2010, 3, 1);
+
+    private final HoursCostCalculator calculator = new HoursCostCalculator();
+
+    private static DayAssignment assignment(LocalDate day, EffortDuration duration) {
+        DayAssignment result = createNiceMock(DayAssignment.class);
+        expect(result.getDay()).andReturn(day).anyTimes();
+        expect(result.getDuration()).andReturn(duration).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    private static Task task(DayAssignment... assignments) {
+        List<DayAssignment> dayAssignments = Arrays.asList(assignments);
+        Task result = createNiceMock(Task.class);
+        expect(result.isSubcontracted()).andReturn(false).anyTimes();
+        expect(result.getDayAssignments(FilterType.WITHOUT_DERIVED)).andReturn(dayAssignments).anyTimes();
+        replay(result);
+
+        return result;
+    }
+
+    private static SortedMap<LocalDate, BigDecimal> hoursFromStart(int... hoursPerDay) {
+        SortedMap<LocalDate, BigDecimal> result = new TreeMap<>();
+        for (int i = 0; i < hoursPerDay.length; i++) {
+            result.put(start.plusDays(i), new BigDecimal(hoursPerDay[i]));
+        }
+
+        return result;
+    }
+
+    @Test
+    public void theWholeHoursOfTheAssignmentsAreAddedByDay() {
+        Task task = task(
+                assignment(start.plusDays(1), hours(3)),
+                assignment(start, hours(4)),
+                assignment(start, hours(2)));
+
+        assertThat(calculator.getEstimatedCost(task), equalTo(hoursFromStart(6, 3)));
+    }
+
+    @Test
+    public void theMinutesAreAddedToTheDayOfTheLastAssignment() {
+        Task halfHour = task(
+                assignment(start, hours(2).plus(minutes(20))),
+                assignment(start.plusDays(1), hours(1).plus(minutes(15))));
+        Task severalHours = task(
+                assignment(start, minutes(45)),
+                assignment(start.plusDays(1), minutes(45)),
+                assignment(start.plusDays(2), minutes(45)));
+
+        assertThat(calculator.getEstimatedCost(halfHour), equalTo(hoursFromStart(2, 2)));
+        assertThat(calculator.getEstimatedCost(severalHours), equalTo(hoursFromStart(0, 0, 2)));
+    }
+
+    @Test
+    public void theDurationsAreRoundedToTheNearestMinute() {
+        Task task = task(
+                assignment(start, minutes(29).plus(seconds(30))),
+                assignment(start.plusDays(1), hours(1).plus(minutes(59)).plus(seconds(45))));
+
+        assertThat(calculator.getEstimatedCost(task), equalTo(hoursFromStart(0, 3)));
+    }
+
+    @Test
+    public void theAssignmentsOutsideTheFilterAreIgnored() {
+        Task task = task(
+                assignment(start, hours(4)),
+                assignment(start.plusDays(1), hours(5).plus(minutes(40))),
+                assignment(start.plusDays(2), hours(3).plus(minutes(30))));
+
+        SortedMap<LocalDate, BigDecimal> expected = new TreeMap<>();
+        expected.put(start.plusDays(1), new BigDecimal(5));
+
+        assertThat(calculator.getEstimatedCost(task, start.plusDays(1), start.plusDays(1)), equalTo(expected));
+        assertTrue(calculator.getEstimatedCost(task, start.plusDays(3), null).isEmpty());
+    }
+
+    @Test
+    public void assignmentsOfTwelveHoursOrMoreKeepAllTheirHours() {
+        Task task = task(assignment(start, hours(12)), assignment(start.plusDays(1), hours(25)));
+
+        assertThat(calculator.getEstimatedCost(task), equalTo(hoursFromStart(12, 25)));
+    }
+
+    @Test
+    public void calculatingSeveralTasksGivesTheSameResultThanEachOne() {
+        Task first = task(assignment(start, hours(4)), assignment(start.plusDays(2), minutes(50)));
+        Task second = task(assignment(start.plusDays(1), hours(7).plus(minutes(10))));
+        Task withoutAssignments = task();
+
+        Map<Task, SortedMap<LocalDate, BigDecimal>> result =
+                calculator.getEstimatedCost(Arrays.asList(first, second, withoutAssignments));
+
+        assertThat(result.size(), equalTo(3));
+        assertThat(result.get(first), equalTo(calculator.getEstimatedCost(first)));
+        assertThat(result.get(second), equalTo(calculator.getEstimatedCost(second)));
+        assertTrue(result.get(withoutAssignments).isEmpty());
+    }
+
+}
@@ -24,9 +24,11 @@ package org.libreplan.business.test.resources.daos;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
@@ -52,11 +54,13 @@ import org.libreplan.business.resources.daos.ICriterionDAO;
 import org.libreplan.business.resources.daos.ICriterionTypeDAO;
 import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.resources.daos.IResourcesSearcher;
+import org.libreplan.business.resources.daos.IWorkerDAO;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.CriterionSatisfaction;
 import org.libreplan.business.resources.entities.CriterionType;
 import org.libreplan.business.resources.entities.Interval;
 import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.VirtualWorker;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.users.daos.IUserDAO;
 import org.libreplan.business.users.entities.User;
@@ -77,6 +81,9 @@ public class ResourceDAOTest {
     @Autowired
     private IResourceDAO resourceDAO;
 
+    @Autowired
+    private IWorkerDAO workerDAO;
+
     @Autowired
     private ICriterionDAO criterionDAO;
 
@@ -266,4 +273,25 @@ public class ResourceDAOTest {
         });
     }
 
+    @Test
+    @Transactional
+    public void theListingOfWorkersDoesNotIncludeVirtualWorkers() {
+        Worker worker = givenValidWorker();
+        resourceDAO.save(worker);
+        VirtualWorker virtualWorker = VirtualWorker.create();
+        virtualWorker.setFirstName("Virtual " + UUID.randomUUID().toString());
+        resourceDAO.save(virtualWorker);
+        resourceDAO.flush();
+
+        final Set<Long> listed = new HashSet<>();
+        workerDAO.scrollAll(10, page -> {
+            for (Worker each : page) {
+                listed.add(each.getId());
+            }
+        });
+
+        assertTrue(listed.contains(worker.getId()));
+        assertFalse(listed.contains(virtualWorker.getId()));
+    }
+
 }
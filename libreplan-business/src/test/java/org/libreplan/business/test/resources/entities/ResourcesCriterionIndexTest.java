@@ -0,0 +1,161 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.resources.entities;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+import static org.libreplan.business.test.resources.daos.CriterionSatisfactionDAOTest.year;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.CriterionSatisfaction;
+import org.libreplan.business.resources.entities.CriterionWithItsType;
+import org.libreplan.business.resources.entities.Interval;
+import org.libreplan.business.resources.entities.ResourcesCriterionIndex;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.test.resources.daos.CriterionDAOTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tests for {@link ResourcesCriterionIndex}.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class ResourcesCriterionIndexTest {
+
+    @Autowired
+    private IScenariosBootstrap scenariosBootstrap;
+
+    private Criterion criterion;
+
+    private Criterion other;
+
+    private Worker always;
+
+    private Worker notAtTheSameTime;
+
+    private Worker onlyOne;
+
+    @Before
+    public void loadRequiredData() {
+        scenariosBootstrap.loadRequiredData();
+
+        criterion = CriterionDAOTest.createValidCriterion();
+        other = CriterionDAOTest.createValidCriterion();
+
+        always = Worker.create("always", "surName", "1111111");
+        always.addSatisfaction(withItsType(criterion), Interval.from(year(2000)));
+        always.addSatisfaction(withItsType(other), Interval.from(year(2000)));
+
+        notAtTheSameTime = Worker.create("notAtTheSameTime", "surName", "2222222");
+        notAtTheSameTime.addSatisfaction(withItsType(criterion), Interval.range(year(2000), year(2001)));
+        notAtTheSameTime.addSatisfaction(withItsType(other), Interval.from(year(2001)));
+
+        onlyOne = Worker.create("onlyOne", "surName", "3333333");
+        onlyOne.addSatisfaction(withItsType(criterion), Interval.from(year(2000)));
+    }
+
+    private static CriterionWithItsType withItsType(Criterion criterion) {
+        return new CriterionWithItsType(criterion.getType(), criterion);
+    }
+
+    private ResourcesCriterionIndex<Worker> createIndex() {
+        return ResourcesCriterionIndex.create(Arrays.asList(always, notAtTheSameTime, onlyOne));
+    }
+
+    @Test
+    @Transactional
+    public void theCriteriaMustBeSatisfiedAtTheSameTime() {
+        ResourcesCriterionIndex<Worker> index = createIndex();
+
+        assertThat(index.findSatisfyingAllAtSomePoint(Arrays.asList(criterion, other)),
+                equalTo(Collections.singletonList(always)));
+
+        assertThat(index.findSatisfyingAllAtSomePoint(Collections.singletonList(criterion)),
+                equalTo(Arrays.asList(always, notAtTheSameTime, onlyOne)));
+
+        assertThat(index.findSatisfyingAllAtSomePoint(Collections.<Criterion> emptyList()),
+                equalTo(Arrays.asList(always, notAtTheSameTime, onlyOne)));
+    }
+
+    @Test
+    @Transactional
+    public void itMatchesTheSameResourcesAsTheResourceItself() {
+        ResourcesCriterionIndex<Worker> index = createIndex();
+
+        for (Worker each : Arrays.asList(always, notAtTheSameTime, onlyOne)) {
+            assertThat(index.findSatisfyingAllAtSomePoint(Arrays.asList(criterion, other)).contains(each),
+                    equalTo(each.satisfiesCriterionsAtSomePoint(Arrays.asList(criterion, other))));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void theSatisfactionsCanBeRestrictedToAnInterval() {
+        ResourcesCriterionIndex<Worker> index = createIndex();
+
+        assertThat(index.findSatisfyingAllBetween(Collections.singletonList(other), year(1990), year(2001)),
+                equalTo(Collections.singletonList(always)));
+
+        assertTrue(index.findSatisfyingAllBetween(Collections.singletonList(criterion), year(1990), year(2000))
+                .isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void theIndexIsUpdatedWhenTheSatisfactionsChange() {
+        ResourcesCriterionIndex<Worker> index = createIndex();
+
+        onlyOne.addSatisfaction(withItsType(other), Interval.from(year(2005)));
+        index.update(onlyOne);
+        index.remove(always);
+
+        assertThat(index.findSatisfyingAllAtSomePoint(Arrays.asList(criterion, other)),
+                equalTo(Collections.singletonList(onlyOne)));
+    }
+
+    @Test
+    @Transactional
+    public void theDeletedSatisfactionsDoNotMatch() {
+        for (CriterionSatisfaction each : onlyOne.getAllSatisfactions()) {
+            each.setIsDeleted(true);
+        }
+        ResourcesCriterionIndex<Worker> index = createIndex();
+
+        assertThat(index.findSatisfyingAllAtSomePoint(Collections.singletonList(criterion)),
+                equalTo(Arrays.asList(always, notAtTheSameTime)));
+
+        assertTrue(index.findSatisfyingAllBetween(Collections.singletonList(criterion), year(2005), year(2006))
+                .stream().noneMatch(onlyOne::equals));
+    }
+
+}
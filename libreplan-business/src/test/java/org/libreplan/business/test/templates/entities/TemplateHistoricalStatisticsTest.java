@@ -0,0 +1,71 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.templates.entities;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+import org.libreplan.business.templates.entities.TemplateHistoricalStatistics;
+import org.libreplan.business.workingday.EffortDuration;
+
+public class TemplateHistoricalStatisticsTest {
+
+    @Test
+    public void withoutApplicationsEverythingIsZero() {
+        TemplateHistoricalStatistics statistics = new TemplateHistoricalStatistics();
+
+        assertEquals(0, statistics.getApplications());
+        assertEquals(0, statistics.getFinishedApplications());
+        assertEquals(BigDecimal.ZERO, statistics.getAverageEstimatedHours());
+        assertEquals(BigDecimal.ZERO, statistics.getMaxEstimatedHours());
+        assertEquals(BigDecimal.ZERO, statistics.getMinEstimatedHours());
+        assertEquals(EffortDuration.zero(), statistics.getAverageWorkedEffort());
+        assertEquals(EffortDuration.zero(), statistics.getMaxWorkedEffort());
+        assertEquals(EffortDuration.zero(), statistics.getMinWorkedEffort());
+    }
+
+    @Test
+    public void estimatedHoursConsiderAllTheApplications() {
+        TemplateHistoricalStatistics statistics = new TemplateHistoricalStatistics();
+        statistics.add(10, false, EffortDuration.hours(3));
+        statistics.add(20, true, EffortDuration.hours(8));
+        statistics.add(40, true, EffortDuration.hours(4));
+
+        assertEquals(3, statistics.getApplications());
+        assertEquals(new BigDecimal(23), statistics.getAverageEstimatedHours());
+        assertEquals(new BigDecimal(40), statistics.getMaxEstimatedHours());
+        assertEquals(new BigDecimal(10), statistics.getMinEstimatedHours());
+    }
+
+    @Test
+    public void workedEffortOnlyConsidersTheFinishedApplications() {
+        TemplateHistoricalStatistics statistics = new TemplateHistoricalStatistics();
+        statistics.add(10, false, EffortDuration.hours(30));
+        statistics.add(20, true, EffortDuration.hours(8));
+        statistics.add(40, true, EffortDuration.hours(4));
+
+        assertEquals(2, statistics.getFinishedApplications());
+        assertEquals(EffortDuration.hours(6), statistics.getAverageWorkedEffort());
+        assertEquals(EffortDuration.hours(8), statistics.getMaxWorkedEffort());
+        assertEquals(EffortDuration.hours(4), statistics.getMinWorkedEffort());
+    }
+
+}
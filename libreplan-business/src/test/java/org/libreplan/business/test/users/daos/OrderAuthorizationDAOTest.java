@@ -21,19 +21,27 @@
 
 package org.libreplan.business.test.users.daos;
 
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 import javax.annotation.Resource;
 
+import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -43,6 +51,7 @@ import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.users.daos.IOrderAuthorizationDAO;
 import org.libreplan.business.users.daos.IProfileDAO;
 import org.libreplan.business.users.daos.IUserDAO;
@@ -221,4 +230,86 @@ public class OrderAuthorizationDAOTest {
         orderAuthorizationDAO.save(userOrderAuthorization);
         assertEquals(order.getId(),userOrderAuthorization.getOrder().getId());
     }
+
+    @Test
+    @Transactional
+    public void testOrdersAreAuthorizedThroughTheUserAndItsProfiles() {
+        Order readable = createValidOrder();
+        Order writable = createValidOrder();
+        Order notAuthorized = createValidOrder();
+        orderDAO.save(readable);
+        orderDAO.save(writable);
+        orderDAO.save(notAuthorized);
+
+        Profile profile = createValidProfile();
+        profileDAO.save(profile);
+        User user = createValidUser();
+        user.addProfile(profile);
+        userDAO.save(user);
+
+        UserOrderAuthorization byUser = createValidUserOrderAuthorization();
+        byUser.setUser(user);
+        byUser.setOrder(readable);
+        orderAuthorizationDAO.save(byUser);
+
+        ProfileOrderAuthorization byProfile =
+                ProfileOrderAuthorization.create(OrderAuthorizationType.WRITE_AUTHORIZATION);
+        byProfile.setProfile(profile);
+        byProfile.setOrder(writable);
+        orderAuthorizationDAO.save(byProfile);
+
+        UserOrderAuthorization repeated = createValidUserOrderAuthorization();
+        repeated.setUser(user);
+        repeated.setOrder(writable);
+        orderAuthorizationDAO.save(repeated);
+        orderDAO.flush();
+
+        assertEquals(new HashSet<>(Arrays.asList(readable, writable)),
+                new HashSet<>(orderDAO.getOrdersByReadAuthorization(user)));
+        assertEquals(2, orderDAO.getOrdersByReadAuthorization(user).size());
+        assertEquals(Collections.singletonList(writable), orderDAO.getOrdersByWriteAuthorization(user));
+    }
+
+    @Test
+    @Transactional
+    public void testFilteredOrdersAreRestrictedToTheAuthorizedOnes() {
+        Order readable = createValidOrder();
+        Order notAuthorized = createValidOrder();
+        orderDAO.save(readable);
+        orderDAO.save(notAuthorized);
+
+        User user = createValidUser();
+        userDAO.save(user);
+        UserOrderAuthorization authorization = createValidUserOrderAuthorization();
+        authorization.setUser(user);
+        authorization.setOrder(readable);
+        orderAuthorizationDAO.save(authorization);
+
+        String superuserName = UUID.randomUUID().toString();
+        userDAO.save(User.create(superuserName, superuserName,
+                new HashSet<>(Collections.singletonList(UserRole.ROLE_SUPERUSER))));
+        orderDAO.flush();
+
+        Scenario scenario = createNiceMock(Scenario.class);
+        expect(scenario.contains(anyObject(Order.class))).andReturn(true).anyTimes();
+        replay(scenario);
+
+        assertEquals(Collections.singletonList(readable),
+                orderDAO.getOrdersByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+                        user.getLoginName(), scenario, null, null, null, null, null, null, true));
+
+        // Neither order has tasks, so they are not between the dates. Only they are checked, as other tests commit orders
+        Date yesterday = new LocalDate().minusDays(1).toDateTimeAtStartOfDay().toDate();
+        Date tomorrow = new LocalDate().plusDays(1).toDateTimeAtStartOfDay().toDate();
+        List<Order> betweenDates = orderDAO.getOrdersByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+                user.getLoginName(), scenario, yesterday, tomorrow, null, null, null, null, false);
+        assertFalse(betweenDates.contains(readable));
+        assertFalse(betweenDates.contains(notAuthorized));
+
+        betweenDates = orderDAO.getOrdersByReadAuthorizationBetweenDatesByLabelsCriteriaCustomerAndState(
+                superuserName, scenario, yesterday, tomorrow, null, null, null, null, false);
+        assertFalse(betweenDates.contains(readable));
+        assertFalse(betweenDates.contains(notAuthorized));
+    }
+
 }
@@ -28,13 +28,24 @@ import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import javax.annotation.Resource;
+
+import org.joda.time.LocalDate;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.workreports.daos.IWorkReportDAO;
+import org.libreplan.business.workreports.entities.IWorkReportTypeBootstrap;
+import org.libreplan.business.workreports.entities.PredefinedWorkReportTypes;
 import org.libreplan.business.workreports.entities.WorkReport;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.entities.WorkReportType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -51,6 +62,12 @@ public class WorkReportDAOTest extends AbstractWorkReportTest {
     @Autowired
     private IWorkReportDAO workReportDAO;
 
+    @Resource
+    private IDataBootstrap configurationBootstrap;
+
+    @Autowired
+    private IWorkReportTypeBootstrap workReportTypeBootstrap;
+
     @Test
     @Transactional
     public void testInSpringContainer() {
@@ -89,4 +106,43 @@ public class WorkReportDAOTest extends AbstractWorkReportTest {
                 .list(WorkReport.class);
         assertEquals(previous + 2, list.size());
     }
+
+    @Test
+    @Transactional
+    public void thePersonalTimesheetsOfSeveralResourcesInAPeriodAreFoundAtOnce() throws Exception {
+        configurationBootstrap.loadRequiredData();
+        workReportTypeBootstrap.loadRequiredData();
+        WorkReportType personalTimesheets =
+                workReportTypeDAO.findUniqueByName(PredefinedWorkReportTypes.PERSONAL_TIMESHEETS.getName());
+        PersonalTimesheetsPeriodicityEnum periodicity = PersonalTimesheetsPeriodicityEnum.MONTHLY;
+        LocalDate start = periodicity.getStart(new LocalDate());
+
+        WorkReport inPeriod = givenPersonalTimesheet(personalTimesheets, start);
+        WorkReport inPreviousPeriod = givenPersonalTimesheet(personalTimesheets, start.minusDays(1));
+
+        Map<Long, WorkReport> found = workReportDAO.getPersonalTimesheetWorkReports(
+                Arrays.asList(inPeriod.getResource(), inPreviousPeriod.getResource()), start, periodicity);
+
+        assertEquals(1, found.size());
+        assertEquals(inPeriod, found.get(inPeriod.getResource().getId()));
+    }
+
+    private WorkReport givenPersonalTimesheet(WorkReportType personalTimesheets, LocalDate date) {
+        WorkReportLine template = createValidWorkReportLine();
+
+        WorkReport workReport = WorkReport.create(personalTimesheets);
+        workReport.setResource(template.getResource());
+        WorkReportLine line = WorkReportLine.create(workReport);
+        workReport.addWorkReportLine(line);
+        line.setDate(date.toDateTimeAtStartOfDay().toDate());
+        line.setEffort(template.getEffort());
+        line.setResource(template.getResource());
+        line.setOrderElement(template.getOrderElement());
+        line.setTypeOfWorkHours(template.getTypeOfWorkHours());
+        // Personal timesheets require a resource bound to a user, which is not relevant for the query
+        workReportDAO.saveWithoutValidating(workReport);
+        workReportDAO.flush();
+
+        return workReport;
+    }
 }
@@ -91,7 +91,7 @@ public class CalendarImporterMPXJ implements ICalendarImporter {
 
             ProjectReader reader = ProjectReaderUtility.getProjectReader(filename);
 
-            // In case that orders are imported too
+            // In case that orders are imported too. It is released by getOrderDTO or releaseProjectFile
             projectFile = reader.read(file);
 
             return MPXJProjectFileConverter.convertCalendars(projectFile);
@@ -107,7 +107,8 @@ public class CalendarImporterMPXJ implements ICalendarImporter {
     /**
      * Makes a {@link OrderDTO} from a InputStream.
      *
-     * Uses the ProjectReader of the class. It must be created before.
+     * Uses the ProjectReader of the class. It must be created before, and it
+     * is released afterwards, so the whole file is not kept in memory.
      *
      * @param filename
      *            String with the name of the original file of the InputStream.
@@ -123,8 +124,39 @@ public class CalendarImporterMPXJ implements ICalendarImporter {
 
             throw new RuntimeException(e);
 
+        } finally {
+
+            releaseProjectFile();
+
+        }
+
+    }
+
+    @Override
+    public void releaseProjectFile() {
+        projectFile = null;
+    }
+
+    @Override
+    public List<String> validateCalendarDTOs(List<CalendarDTO> calendarDTOs) {
+        List<String> errors = new ArrayList<>();
+
+        Set<String> names = new HashSet<>();
+
+        for (CalendarDTO calendarDTO : calendarDTOs) {
+
+            if (!baseCalendarDAO.findByName(calendarDTO.name).isEmpty()) {
+                errors.add(_("Calendar name already in use: {0}", calendarDTO.name));
+            }
+
+            if (calendarDTO.parent != null && !names.contains(calendarDTO.parent)) {
+                errors.add(_("Parent calendar not found: {0}", calendarDTO.parent));
+            }
+
+            names.add(calendarDTO.name);
         }
 
+        return errors;
     }
 
     /**
@@ -43,6 +43,17 @@ public interface ICalendarImporter {
      */
     public List<CalendarDTO> getCalendarDTOs(InputStream file, String filename);
 
+    /**
+     * Checks that a list of {@link CalendarDTO} can be imported without
+     * building any entity from it.
+     *
+     * @param calendarDTOs
+     *            List of CalendarDTO to check.
+     * @return List<String> with the problems found, empty if the calendars can
+     *         be imported.
+     */
+    public List<String> validateCalendarDTOs(List<CalendarDTO> calendarDTOs);
+
     /**
      * Makes a list of {@link BaseCalendar} from a list of {@link CalendarDTO}.
      *
@@ -70,11 +81,18 @@ List<CalendarDTO> calendarDTOs)
     /**
      * Makes a {@link OrderDTO} from a InputStream.
      *
-     * Uses the ProjectReader of the class. It must be created before.
+     * Uses the ProjectReader of the class. It must be created before, and it
+     * is released afterwards.
      *
      * @param filename
      *            String with the name of the original file of the InputStream.
      * @return OrderDTO with the data that we want to import.
      */
     OrderDTO getOrderDTO(String filename);
+
+    /**
+     * Releases the project file read by {@link #getCalendarDTOs}, so it is
+     * not kept in memory when no {@link OrderDTO} is made from it.
+     */
+    void releaseProjectFile();
 }
@@ -0,0 +1,49 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.importers;
+
+/**
+ * Receives the progress of the storage of an imported project.
+ *
+ * @see IOrderImporter#storeOrder(org.libreplan.business.orders.entities.Order,
+ *      org.libreplan.business.planner.entities.TaskGroup, java.util.List,
+ *      IImportProgressListener)
+ */
+public interface IImportProgressListener {
+
+    /**
+     * Kinds of elements stored, in the order they are stored.
+     */
+    public enum Stage {
+        ORDER_ELEMENTS, TASKS, DEPENDENCIES
+    }
+
+    /**
+     * Called each time a chunk of elements has been sent to the database.
+     *
+     * @param stage
+     *            Kind of the elements stored.
+     * @param stored
+     *            Number of elements of this kind already stored.
+     * @param total
+     *            Number of elements of this kind to store.
+     */
+    void progress(Stage stage, int stored, int total);
+
+}
@@ -20,6 +20,7 @@
 package org.libreplan.importers;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 
 import org.libreplan.business.orders.entities.Order;
@@ -47,6 +48,24 @@ public interface IOrderImporter {
      */
     public OrderDTO getImportData(InputStream file, String filename);
 
+    /**
+     * Checks that a {@link OrderDTO} can be imported without building any
+     * entity from it, so big files can be validated before importing them.
+     *
+     * @param project
+     *            OrderDTO to check.
+     * @param importCalendar
+     *            If the calendars of the project and its tasks are going to be
+     *            imported.
+     * @param importedCalendarNames
+     *            Names of the calendars imported along with the project, that
+     *            are not in the database yet.
+     * @return List<String> with the problems found, empty if the project can
+     *         be imported.
+     */
+    public List<String> validateImportData(OrderDTO project,
+            boolean importCalendar, Collection<String> importedCalendarNames);
+
     /**
      * Makes a {@link Order} from a {@link OrderDTO}.
      *
@@ -74,9 +93,12 @@ public interface IOrderImporter {
      *
      * @param TaskGroup
      *            TaskGroup with the data.
+     *
+     * @param progress
+     *            Listener told about the elements stored so far.
      */
     public void storeOrder(Order order, TaskGroup taskGroup,
-            List<Dependency> dependencies);
+            List<Dependency> dependencies, IImportProgressListener progress);
 
     public List<Dependency> createDependencies(OrderDTO importData);
 
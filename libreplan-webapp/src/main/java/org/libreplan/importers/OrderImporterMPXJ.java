@@ -23,8 +23,14 @@ import static org.libreplan.web.I18nHelper._;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import net.sf.mpxj.reader.ProjectReader;
@@ -59,6 +65,7 @@ import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.workingday.IntraDayDate;
 import org.libreplan.importers.DependencyDTO.TypeOfDependencyDTO;
+import org.libreplan.importers.IImportProgressListener.Stage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -76,6 +83,14 @@ import org.springframework.transaction.annotation.Transactional;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class OrderImporterMPXJ implements IOrderImporter {
 
+    /**
+     * Number of elements saved before flushing them to the database, so each
+     * flush sends full JDBC batches and the progress can be reported. The
+     * session is not cleared between chunks: the whole order is already built
+     * in memory and the later chunks still reference the saved elements.
+     */
+    private static final int STORE_CHUNK_SIZE = 500;
+
     @Autowired
     private IBaseCalendarDAO baseCalendarDAO;
 
@@ -144,6 +159,108 @@ public class OrderImporterMPXJ implements IOrderImporter {
     }
 
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> validateImportData(OrderDTO project, boolean importCalendar,
+                                           Collection<String> importedCalendarNames) {
+
+        List<String> errors = new ArrayList<>();
+
+        Set<String> calendarNames = new HashSet<>();
+
+        if ( importCalendar && project.calendarName != null ) {
+            calendarNames.add(project.calendarName);
+        }
+
+        for (OrderElementDTO task : project.tasks) {
+            validateTask(task, importCalendar, calendarNames, errors);
+        }
+
+        for (MilestoneDTO milestone : project.milestones) {
+            validateMilestone(milestone, errors);
+        }
+
+        for (DependencyDTO dependency : project.dependencies) {
+            if ( dependency.type == null ) {
+                errors.add(_("Dependency without type"));
+            }
+        }
+
+        calendarNames.removeAll(importedCalendarNames);
+
+        for (String name : calendarNames) {
+            if ( !existsBaseCalendar(name) ) {
+                errors.add(_("Linked calendar not found: {0}", name));
+            }
+        }
+
+        return errors;
+    }
+
+    private void validateTask(OrderElementDTO task, boolean importCalendar, Set<String> calendarNames,
+                              List<String> errors) {
+
+        if ( task.name == null || task.name.trim().isEmpty() ) {
+            errors.add(_("Task without name"));
+        }
+
+        if ( task.totalHours < 0 ) {
+            errors.add(_("Task {0} has negative hours", task.name));
+        }
+
+        if ( task.children.size() == 0 ) {
+
+            if ( importCalendar && task.calendarName != null ) {
+                calendarNames.add(task.calendarName);
+            }
+
+            validateConstraint(task.name, task.constraint, task.constraintDate, errors);
+
+        } else {
+
+            for (OrderElementDTO child : task.children) {
+                validateTask(child, importCalendar, calendarNames, errors);
+            }
+
+            if ( task.milestones != null ) {
+                for (MilestoneDTO milestone : task.milestones) {
+                    validateMilestone(milestone, errors);
+                }
+            }
+        }
+    }
+
+    private void validateMilestone(MilestoneDTO milestone, List<String> errors) {
+
+        if ( milestone.startDate == null ) {
+            errors.add(_("Milestone {0} without date", milestone.name));
+        }
+
+        validateConstraint(milestone.name, milestone.constraint, milestone.constraintDate, errors);
+    }
+
+    private void validateConstraint(String name, ConstraintDTO constraint, Date constraintDate,
+                                    List<String> errors) {
+
+        if ( constraint == null ) {
+            errors.add(_("Task {0} without constraint", name));
+            return;
+        }
+
+        switch (constraint) {
+
+            case START_IN_FIXED_DATE:
+            case START_NOT_EARLIER_THAN:
+            case FINISH_NOT_LATER_THAN:
+                if ( constraintDate == null ) {
+                    errors.add(_("Task {0} has a constraint without date", name));
+                }
+                return;
+
+            default: return;
+        }
+    }
+
     /**
      * Makes a {@link Order} from a {@link OrderDTO}.
      *
@@ -287,9 +404,11 @@ public class OrderImporterMPXJ implements IOrderImporter {
 
         List<TaskElement> taskElements = new ArrayList<>();
 
+        Map<String, BaseCalendar> calendarsByName = new HashMap<>();
+
         for (OrderElementDTO importTask : project.tasks) {
 
-            taskElements.add(createTask(importTask, importCalendar));
+            taskElements.add(createTask(importTask, importCalendar, calendarsByName));
 
         }
 
@@ -336,10 +455,13 @@ public class OrderImporterMPXJ implements IOrderImporter {
      *
      * @param task
      *            ImportTask to extract data from.
+     * @param calendarsByName
+     *            Calendars already found during this import.
      *
      * @return TaskElement TaskElement that represent the data.
      */
-    private TaskElement createTask(OrderElementDTO task, boolean importCalendar) {
+    private TaskElement createTask(OrderElementDTO task, boolean importCalendar,
+                                   Map<String, BaseCalendar> calendarsByName) {
 
         OrderElement orderElement = task.orderElement;
 
@@ -355,7 +477,7 @@ public class OrderImporterMPXJ implements IOrderImporter {
             taskElement = taskSource.createTaskWithoutDatesInitializedAndLinkItToTaskSource();
 
             if (importCalendar && task.calendarName != null) {
-                taskElement.setCalendar(findBaseCalendar(task.calendarName));
+                taskElement.setCalendar(findBaseCalendar(task.calendarName, calendarsByName));
             }
 
             setPositionConstraint((Task) taskElement, task);
@@ -370,7 +492,7 @@ public class OrderImporterMPXJ implements IOrderImporter {
 
             for (OrderElementDTO importTask : task.children) {
 
-                taskElements.add(createTask(importTask, importCalendar));
+                taskElements.add(createTask(importTask, importCalendar, calendarsByName));
 
             }
 
@@ -484,10 +606,13 @@ public class OrderImporterMPXJ implements IOrderImporter {
      * @param taskGroup
      *            TaskGroup with the data. It also contains the link to the TaskSources.
      * @param dependencies
+     * @param progress
+     *            Listener told after each chunk of elements is flushed.
      */
     @Override
     @Transactional
-    public void storeOrder(final Order order, final TaskGroup taskGroup, final List<Dependency> dependencies) {
+    public void storeOrder(final Order order, final TaskGroup taskGroup, final List<Dependency> dependencies,
+                           IImportProgressListener progress) {
 
         final List<TaskSource> taskSources = new ArrayList<>();
 
@@ -503,25 +628,44 @@ public class OrderImporterMPXJ implements IOrderImporter {
 
         }
 
+        int orderElements = order.getAllChildren().size() + 1;
+
         orderDAO.save(order);
+        orderDAO.flush();
+        progress.progress(Stage.ORDER_ELEMENTS, orderElements, orderElements);
 
         taskDAO.save(taskGroup);
 
-        for (TaskSource taskSource : taskSources) {
+        for (int i = 0; i < taskSources.size(); i++) {
 
+            TaskSource taskSource = taskSources.get(i);
             taskSource.validate();
             taskSourceDAO.save(taskSource);
 
+            if ( isEndOfChunk(i, taskSources.size()) ) {
+                taskSourceDAO.flush();
+                progress.progress(Stage.TASKS, i + 1, taskSources.size());
+            }
+
         }
 
-        for(Dependency dependency: dependencies){
+        for (int i = 0; i < dependencies.size(); i++) {
 
-            dependencyDAO.save(dependency);
+            dependencyDAO.save(dependencies.get(i));
+
+            if ( isEndOfChunk(i, dependencies.size()) ) {
+                dependencyDAO.flush();
+                progress.progress(Stage.DEPENDENCIES, i + 1, dependencies.size());
+            }
 
         }
 
     }
 
+    private static boolean isEndOfChunk(int index, int size) {
+        return (index + 1) % STORE_CHUNK_SIZE == 0 || index + 1 == size;
+    }
+
     /**
      * Creates a list of {@link Dependency} from a {@link OrderDTO}.
      *
@@ -583,6 +727,39 @@ public class OrderImporterMPXJ implements IOrderImporter {
         }
     }
 
+    /**
+     * Return the {@link BaseCalendar} with the same name as the string given,
+     * looking it up in the database only the first time it is asked for.
+     *
+     * @param name
+     *            String with the name that we want to find.
+     * @param calendarsByName
+     *            Calendars already found, where the found one is added.
+     * @return BaseCalendar Calendar.
+     */
+    private BaseCalendar findBaseCalendar(String name, Map<String, BaseCalendar> calendarsByName) {
+
+        BaseCalendar calendar = calendarsByName.get(name);
+
+        if ( calendar == null ) {
+            calendar = findBaseCalendar(name);
+            calendarsByName.put(name, calendar);
+        }
+
+        return calendar;
+    }
+
+    private boolean existsBaseCalendar(String name) {
+
+        for (BaseCalendar baseCalendar : baseCalendarDAO.findByName(name)) {
+            if ( baseCalendar.getName().equals(name) ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Return the {@link BaseCalendar} with the same name as the string given.
      *
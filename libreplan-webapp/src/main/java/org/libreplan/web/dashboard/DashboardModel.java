@@ -26,7 +26,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,8 +34,6 @@ import java.util.Set;
 import org.joda.time.Days;
 import org.joda.time.LocalDate;
 import org.libreplan.business.orders.entities.Order;
-import org.libreplan.business.planner.chart.ContiguousDaysLine;
-import org.libreplan.business.planner.chart.ContiguousDaysLine.OnDay;
 import org.libreplan.business.planner.entities.IOrderResourceLoadCalculator;
 import org.libreplan.business.planner.entities.TaskDeadlineViolationStatusEnum;
 import org.libreplan.business.planner.entities.TaskElement;
@@ -526,31 +523,18 @@ public class DashboardModel implements IDashboardModel {
 
     @Override
     public BigDecimal getOvertimeRatio() {
-        EffortDuration totalLoad = sumAll(resourceLoadCalculator.getAllLoad());
-        EffortDuration overload = sumAll(resourceLoadCalculator.getAllOverload());
+        EffortDuration totalLoad = resourceLoadCalculator.getAllLoad().sumAll();
+        EffortDuration overload = resourceLoadCalculator.getAllOverload().sumAll();
 
         return overload.dividedByAndResultAsBigDecimal(totalLoad).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private EffortDuration sumAll(ContiguousDaysLine<EffortDuration> contiguousDays) {
-        EffortDuration result = EffortDuration.zero();
-        Iterator<OnDay<EffortDuration>> iterator = contiguousDays.iterator();
-
-        while (iterator.hasNext()) {
-            OnDay<EffortDuration> value = iterator.next();
-            EffortDuration effort = value.getValue();
-            result = EffortDuration.sum(result, effort);
-        }
-
-        return result;
-    }
-
     @Override
     public BigDecimal getAvailabilityRatio() {
-        EffortDuration totalLoad = sumAll(resourceLoadCalculator.getAllLoad());
-        EffortDuration overload = sumAll(resourceLoadCalculator.getAllOverload());
+        EffortDuration totalLoad = resourceLoadCalculator.getAllLoad().sumAll();
+        EffortDuration overload = resourceLoadCalculator.getAllOverload().sumAll();
         EffortDuration load = totalLoad.minus(overload);
-        EffortDuration capacity = sumAll(resourceLoadCalculator.getMaxCapacityOnResources());
+        EffortDuration capacity = resourceLoadCalculator.getMaxCapacityOnResources().sumAll();
 
         return BigDecimal.ONE.setScale(2, RoundingMode.HALF_UP).subtract(load.dividedByAndResultAsBigDecimal(capacity));
     }
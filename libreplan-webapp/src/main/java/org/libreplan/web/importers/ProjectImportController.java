@@ -3,8 +3,12 @@ package org.libreplan.web.importers;
 import static org.libreplan.web.I18nHelper._;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
@@ -13,6 +17,7 @@ import org.libreplan.business.planner.entities.Dependency;
 import org.libreplan.business.planner.entities.TaskGroup;
 import org.libreplan.importers.CalendarDTO;
 import org.libreplan.importers.ICalendarImporter;
+import org.libreplan.importers.IImportProgressListener;
 import org.libreplan.importers.IOrderImporter;
 import org.libreplan.importers.OrderDTO;
 import org.libreplan.web.common.IMessagesForUser;
@@ -23,6 +28,7 @@ import org.zkoss.util.media.Media;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.util.GenericForwardComposer;
 import org.zkoss.zkplus.spring.SpringUtil;
+import org.zkoss.zul.Checkbox;
 import org.zkoss.zul.Image;
 import org.zkoss.zul.Label;
 import org.zkoss.zul.Radio;
@@ -36,6 +42,15 @@ public class ProjectImportController extends GenericForwardComposer {
 
     public static final String BREADCRUMBS_SEPARATOR = "/common/img/migas_separacion.gif";
 
+    private static final Log LOG = LogFactory.getLog(ProjectImportController.class);
+
+    private static final IImportProgressListener LOG_PROGRESS = new IImportProgressListener() {
+        @Override
+        public void progress(Stage stage, int stored, int total) {
+            LOG.info("Imported " + stored + " of " + total + " " + stage);
+        }
+    };
+
     /**
      * OrderImporter service.
      */
@@ -56,6 +71,8 @@ public class ProjectImportController extends GenericForwardComposer {
 
     private Radio importAll;
 
+    private Checkbox validateOnly;
+
     public void doAfterCompose(Component comp) throws Exception {
         super.doAfterCompose(comp);
         comp.setAttribute("projectImportController", this);
@@ -98,7 +115,11 @@ public class ProjectImportController extends GenericForwardComposer {
 
         if (checkFileFormat(file)) {
 
-            if (importCalendars.isChecked()) {
+            if (validateOnly.isChecked()) {
+
+                validateProject(media.getStreamData(), file);
+
+            } else if (importCalendars.isChecked()) {
 
                 try {
                     importCalendar(media.getStreamData(), file);
@@ -135,6 +156,68 @@ public class ProjectImportController extends GenericForwardComposer {
 
     }
 
+    /**
+     * Checks the data of a InputStream that the selected option would import,
+     * without building nor storing any project or task.
+     *
+     * @param streamData
+     *            InputStream with the data that is going to be checked.
+     * @param file
+     *            Name of the file that we want to check.
+     */
+    private void validateProject(InputStream streamData, String file) {
+
+        List<String> errors = new ArrayList<>();
+
+        if (importCalendars.isChecked()) {
+
+            try {
+                errors.addAll(calendarImporterMPXJ.validateCalendarDTOs(calendarImporterMPXJ.getCalendarDTOs(
+                        streamData, file)));
+            } finally {
+                calendarImporterMPXJ.releaseProjectFile();
+            }
+
+        } else if (importTasks.isChecked()) {
+
+            OrderDTO importData = orderImporterMPXJ.getImportData(streamData, file);
+
+            errors.addAll(orderImporterMPXJ.validateImportData(importData, false, Collections.<String> emptyList()));
+
+        } else if (importAll.isChecked()) {
+
+            try {
+                List<CalendarDTO> calendarDTOs = calendarImporterMPXJ.getCalendarDTOs(streamData, file);
+
+                errors.addAll(calendarImporterMPXJ.validateCalendarDTOs(calendarDTOs));
+
+                List<String> calendarNames = new ArrayList<>();
+                for (CalendarDTO calendarDTO : calendarDTOs) {
+                    calendarNames.add(calendarDTO.name);
+                }
+
+                OrderDTO importData = calendarImporterMPXJ.getOrderDTO(file);
+
+                errors.addAll(orderImporterMPXJ.validateImportData(importData, true, calendarNames));
+            } finally {
+                calendarImporterMPXJ.releaseProjectFile();
+            }
+
+        } else {
+            messages.showMessage(Level.WARNING, _("Select one of the options."));
+            return;
+        }
+
+        if (errors.isEmpty()) {
+            messages.showMessage(Level.INFO, _("{0}: The file can be imported", file));
+        } else {
+            for (String error : errors) {
+                messages.showMessage(Level.ERROR, error);
+            }
+        }
+
+    }
+
     /**
      * Imports calendars, orders, task and dependencies from a InputStream.
      *
@@ -146,13 +229,19 @@ public class ProjectImportController extends GenericForwardComposer {
     @Transactional
     private void importAll(InputStream streamData, String file) throws InstanceNotFoundException {
 
-        List<CalendarDTO> calendarDTOs = calendarImporterMPXJ.getCalendarDTOs(streamData, file);
+        OrderDTO importData;
+
+        try {
+            List<CalendarDTO> calendarDTOs = calendarImporterMPXJ.getCalendarDTOs(streamData, file);
 
-        List<BaseCalendar> baseCalendars = calendarImporterMPXJ.getBaseCalendars(calendarDTOs);
+            List<BaseCalendar> baseCalendars = calendarImporterMPXJ.getBaseCalendars(calendarDTOs);
 
-        calendarImporterMPXJ.storeBaseCalendars(baseCalendars);
+            calendarImporterMPXJ.storeBaseCalendars(baseCalendars);
 
-        OrderDTO importData = calendarImporterMPXJ.getOrderDTO(file);
+            importData = calendarImporterMPXJ.getOrderDTO(file);
+        } finally {
+            calendarImporterMPXJ.releaseProjectFile();
+        }
 
         Order order = orderImporterMPXJ.convertImportDataToOrder(importData, true);
 
@@ -160,7 +249,7 @@ public class ProjectImportController extends GenericForwardComposer {
 
         List<Dependency> dependencies = orderImporterMPXJ.createDependencies(importData);
 
-        orderImporterMPXJ.storeOrder(order, taskGroup, dependencies);
+        orderImporterMPXJ.storeOrder(order, taskGroup, dependencies, LOG_PROGRESS);
 
     }
 
@@ -175,11 +264,15 @@ public class ProjectImportController extends GenericForwardComposer {
     @Transactional
     private void importCalendar(InputStream streamData, String file) throws InstanceNotFoundException {
 
-        List<CalendarDTO> calendarDTOs = calendarImporterMPXJ.getCalendarDTOs(streamData, file);
+        try {
+            List<CalendarDTO> calendarDTOs = calendarImporterMPXJ.getCalendarDTOs(streamData, file);
 
-        List<BaseCalendar> baseCalendars = calendarImporterMPXJ.getBaseCalendars(calendarDTOs);
+            List<BaseCalendar> baseCalendars = calendarImporterMPXJ.getBaseCalendars(calendarDTOs);
 
-        calendarImporterMPXJ.storeBaseCalendars(baseCalendars);
+            calendarImporterMPXJ.storeBaseCalendars(baseCalendars);
+        } finally {
+            calendarImporterMPXJ.releaseProjectFile();
+        }
 
     }
 
@@ -202,7 +295,7 @@ public class ProjectImportController extends GenericForwardComposer {
 
         List<Dependency> dependencies = orderImporterMPXJ.createDependencies(importData);
 
-        orderImporterMPXJ.storeOrder(order, taskGroup, dependencies);
+        orderImporterMPXJ.storeOrder(order, taskGroup, dependencies, LOG_PROGRESS);
 
     }
 
@@ -55,6 +55,7 @@ import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.LimitingResourceQueue;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.ResourceEnum;
+import org.libreplan.business.resources.entities.ResourcesCriterionIndex;
 
 /**
  * @author Óscar González Fernández <ogonzalez@igalia.com>
@@ -73,6 +74,11 @@ public class QueuesState {
 
     private final Map<Long, LimitingResourceQueue> queuesByResourceId;
 
+    /**
+     * Built on first use, the satisfactions of the resources do not change while planning the queues
+     */
+    private ResourcesCriterionIndex<Resource> criterionIndex;
+
     private static <T extends BaseEntity> Map<Long, T> byId(Collection<? extends T> entities) {
         Map<Long, T> result = new HashMap<>();
         for (T each : entities) {
@@ -329,16 +335,27 @@ public class QueuesState {
         ResourceEnum resourceType = generic.getResourceType();
         Set<Criterion> criteria = generic.getCriterions();
 
-        for (LimitingResourceQueue each : queues) {
-            Resource resource = each.getResource();
-            if ( resource.getType().equals(resourceType) && resource.satisfiesCriterionsAtSomePoint(criteria) ) {
-                result.add(each);
+        for (Resource each : getCriterionIndex().findSatisfyingAllAtSomePoint(criteria)) {
+            if ( each.getType().equals(resourceType) ) {
+                result.add(getQueueFor(each));
             }
         }
 
         return result;
     }
 
+    private ResourcesCriterionIndex<Resource> getCriterionIndex() {
+        if ( criterionIndex == null ) {
+            List<Resource> resources = new ArrayList<>();
+            for (LimitingResourceQueue each : queues) {
+                resources.add(each.getResource());
+            }
+            criterionIndex = ResourcesCriterionIndex.create(resources);
+        }
+
+        return criterionIndex;
+    }
+
     public static class Edge {
         public final LimitingResourceQueueElement source;
 
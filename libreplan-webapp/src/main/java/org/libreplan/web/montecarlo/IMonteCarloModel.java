@@ -38,12 +38,37 @@ public interface IMonteCarloModel {
     Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks,
             int times, IDesktopUpdatesEmitter<Integer> iterationProgress);
 
+    /**
+     * @param seed
+     *            if not <code>null</code> the same seed always produces the
+     *            same result for the same tasks and iterations
+     */
+    Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks,
+            int times, Long seed, IDesktopUpdatesEmitter<Integer> iterationProgress);
+
+    /**
+     * Simulates all the tasks of the project together with their dependencies,
+     * instead of the tasks of a critical path.
+     *
+     * @param estimations
+     *            the estimations of some of the tasks, the rest of the tasks
+     *            use the default ones
+     */
+    MonteCarloResult calculateMonteCarloForAllTasks(List<MonteCarloTask> estimations,
+            int times, Long seed, IDesktopUpdatesEmitter<Integer> iterationProgress);
+
     void setCriticalPath(List<TaskElement> criticalPath);
 
     String getOrderName();
 
     List<String> getCriticalPathNames();
 
+    /**
+     * @return if there are more possible critical paths than the ones in
+     *         {@link #getCriticalPathNames()}
+     */
+    boolean areCriticalPathsTruncated();
+
     List<MonteCarloTask> getCriticalPath(String name);
 
 }
@@ -53,6 +53,7 @@ import org.zkoss.zul.Intbox;
 import org.zkoss.zul.Label;
 import org.zkoss.zul.Listbox;
 import org.zkoss.zul.Listitem;
+import org.zkoss.zul.Longbox;
 import org.zkoss.zul.Progressmeter;
 import org.zkoss.zul.Row;
 import org.zkoss.zul.RowRenderer;
@@ -83,12 +84,18 @@ public class MonteCarloController extends GenericForwardComposer {
 
     private Intbox ibIterations;
 
+    private Longbox lbSeed;
+
     private Button btnRunMonteCarlo;
 
     private Checkbox cbGroupByWeeks;
 
+    private Checkbox cbAllTasks;
+
     private Listbox lbCriticalPaths;
 
+    private Label lblCriticalPathsTruncated;
+
     private Progressmeter progressMonteCarloCalculation;
 
     private Window monteCarloChartWindow;
@@ -118,17 +125,32 @@ public class MonteCarloController extends GenericForwardComposer {
                     updatesEmitter.doUpdate(disableButton(true));
                     int iterations = getIterations();
 
-                    final Map<LocalDate, BigDecimal> monteCarloData = monteCarloModel
-                            .calculateMonteCarlo(getSelectedCriticalPath(),
-                                    iterations,
-                                    percentageCompletedNotifier(updatesEmitter));
+                    final MonteCarloResult monteCarloResult = calculateMonteCarlo(iterations, updatesEmitter);
 
-                    updatesEmitter.doUpdate(showCalculatedData(monteCarloData));
+                    updatesEmitter.doUpdate(showCalculatedData(monteCarloResult));
                 } finally {
                     updatesEmitter.doUpdate(disableButton(false));
                 }
             }
 
+            private MonteCarloResult calculateMonteCarlo(int iterations,
+                                                         IDesktopUpdatesEmitter<IDesktopUpdate> updatesEmitter) {
+                if ( cbAllTasks.isChecked() ) {
+                    return monteCarloModel.calculateMonteCarloForAllTasks(getSelectedCriticalPath(),
+                            iterations,
+                            lbSeed.getValue(),
+                            percentageCompletedNotifier(updatesEmitter));
+                }
+
+                Map<LocalDate, BigDecimal> probabilities = monteCarloModel.calculateMonteCarlo(
+                        getSelectedCriticalPath(),
+                        iterations,
+                        lbSeed.getValue(),
+                        percentageCompletedNotifier(updatesEmitter));
+
+                return MonteCarloResult.withoutCriticalityIndex(probabilities);
+            }
+
             private IDesktopUpdate disableButton(final boolean disable) {
                 return () -> btnRunMonteCarlo.setDisabled(disable);
             }
@@ -194,16 +216,16 @@ public class MonteCarloController extends GenericForwardComposer {
                 };
             }
 
-            private IDesktopUpdate showCalculatedData(final Map<LocalDate, BigDecimal> monteCarloData) {
-                return () -> showMonteCarloGraph(monteCarloData);
+            private IDesktopUpdate showCalculatedData(final MonteCarloResult monteCarloResult) {
+                return () -> showMonteCarloGraph(monteCarloResult);
             }
 
-            private void showMonteCarloGraph(Map<LocalDate, BigDecimal> data) {
-                monteCarloChartWindow = createMonteCarloGraphWindow(data);
+            private void showMonteCarloGraph(MonteCarloResult result) {
+                monteCarloChartWindow = createMonteCarloGraphWindow(result);
                 monteCarloChartWindow.setMode("modal");
             }
 
-            private Window createMonteCarloGraphWindow(Map<LocalDate, BigDecimal> data) {
+            private Window createMonteCarloGraphWindow(MonteCarloResult data) {
                 HashMap<String, Object> args = new HashMap<>();
                 args.put("monteCarloGraphController", new MonteCarloGraphController());
                 Window result = (Window) Executions.createComponents("/planner/montecarlo_function.zul", self, args);
@@ -214,9 +236,10 @@ public class MonteCarloController extends GenericForwardComposer {
                 final boolean groupByWeeks = cbGroupByWeeks.isChecked();
 
                 controller.generateMonteCarloGraph(orderName,
-                        data,
+                        data.getProbabilities(),
                         groupByWeeks,
                         () -> progressMonteCarloCalculation.setValue(0));
+                controller.showCriticalityIndex(data.getCriticalityIndex());
 
                 return result;
             }
@@ -226,6 +249,8 @@ public class MonteCarloController extends GenericForwardComposer {
 
     private void feedCriticalPathsList() {
         lbCriticalPaths.setModel(new SimpleListModel<>(monteCarloModel.getCriticalPathNames()));
+        lblCriticalPathsTruncated.setValue(_("Not all the possible critical paths are shown, there are too many"));
+        lblCriticalPathsTruncated.setVisible(monteCarloModel.areCriticalPathsTruncated());
 
         if ( !lbCriticalPaths.getChildren().isEmpty() ) {
             lbCriticalPaths.setSelectedIndex(0);
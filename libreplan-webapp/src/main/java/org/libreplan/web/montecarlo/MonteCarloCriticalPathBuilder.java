@@ -50,14 +50,33 @@ import org.libreplan.business.planner.entities.TaskGroup;
  * It could be the case some of the tasks in that list  finish at the same time (in parallel for instance).
  * In those cases there are many critical paths and it's what this classes solves.
  *
+ * The number of paths can grow exponentially with the number of tasks, so only the first {@link #MAX_PATHS} paths
+ * are built and no more than {@link #MAX_EXPLORED_PATHS} partial paths are explored to find them. When some paths are
+ * left out {@link #isTruncated()} tells it.
+ * {@link MonteCarloGraphSimulation} simulates all the tasks at once instead.
+ *
  * @author Diego Pino García <dpino@igalia.com>
  */
 public class MonteCarloCriticalPathBuilder {
 
+    public static final int MAX_PATHS = 100;
+
+    /**
+     * Most of the partial paths can end up discarded, so the paths built don't bound the search by themselves.
+     */
+    public static final int MAX_EXPLORED_PATHS = 10000;
+
     private List<Task> tasksInCriticalPath;
 
+    private Set<Task> tasksInCriticalPathSet;
+
+    private int exploredPaths;
+
+    private boolean truncated;
+
     private MonteCarloCriticalPathBuilder(List<Task> tasksInCriticalPath) {
         this.tasksInCriticalPath = tasksInCriticalPath;
+        this.tasksInCriticalPathSet = new HashSet<>(tasksInCriticalPath);
     }
 
     public static MonteCarloCriticalPathBuilder create(List<Task> tasksInCriticalPath) {
@@ -68,49 +87,56 @@ public class MonteCarloCriticalPathBuilder {
      * Constructs all possible paths starting from those tasks in the critical
      * path have no incoming dependencies or have incoming dependencies to other tasks not in the critical path.
      *
-     * Once all possible path were constructed, filter only those paths which
-     * all their tasks are in the list of tasks in the critical path.
+     * Only the destinations in the critical path are followed, so all the tasks of the paths built are in the
+     * list of tasks in the critical path. It stops when {@link #MAX_PATHS} paths have been built or
+     * {@link #MAX_EXPLORED_PATHS} partial paths have been explored.
      *
      * @return {@link List<List<Task>>}
      */
     public List<List<Task>> buildAllPossibleCriticalPaths() {
         List<List<Task>> result = new ArrayList<>();
+        truncated = false;
 
         if (tasksInCriticalPath.size() == 1) {
             result.add(tasksInCriticalPath);
             return result;
         }
 
-        List<List<Task>> allPaths = new ArrayList<>();
-
+        exploredPaths = 0;
         for (Task each : getStartingTasks(tasksInCriticalPath)) {
-            allPaths.addAll(allPossiblePaths(each));
-        }
-
-        for (List<Task> path : allPaths) {
-            if (isCriticalPath(path)) {
-                result.add(path);
-            }
+            allPossiblePaths(Collections.singletonList(each), result);
         }
 
         return result;
     }
 
-    private Collection<List<Task>> allPossiblePaths(Task task) {
-        Collection<List<Task>> result = new ArrayList<>();
-        List<Task> path = Collections.singletonList(task);
-        allPossiblePaths(path, result);
-
-        return result;
+    /**
+     * @return if the last {@link #buildAllPossibleCriticalPaths()} stopped because of {@link #MAX_PATHS} or
+     *         {@link #MAX_EXPLORED_PATHS}, so some of the possible critical paths are missing
+     */
+    public boolean isTruncated() {
+        return truncated;
     }
 
+    /**
+     * A path whose last task has destinations but none of them in the critical path is discarded, as it would be
+     * if it were continued through them.
+     */
     private void allPossiblePaths(List<Task> path, Collection<List<Task>> allPaths) {
+        if (allPaths.size() >= MAX_PATHS || exploredPaths >= MAX_EXPLORED_PATHS) {
+            truncated = true;
+            return;
+        }
+        exploredPaths++;
+
         TaskElement lastTask = getLastTask(path);
         List<Task> destinations = getDestinations(lastTask);
 
         if (!destinations.isEmpty()) {
             for (Task each : destinations) {
-                allPossiblePaths(newPath(path, each), allPaths);
+                if (tasksInCriticalPathSet.contains(each)) {
+                    allPossiblePaths(newPath(path, each), allPaths);
+                }
             }
         } else {
             allPaths.add(path);
@@ -241,14 +267,4 @@ public class MonteCarloCriticalPathBuilder {
         return parent == null;
     }
 
-    private boolean isCriticalPath(List<Task> path) {
-        for (Task each : path) {
-            if (!tasksInCriticalPath.contains(each)) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
 }
\ No newline at end of file
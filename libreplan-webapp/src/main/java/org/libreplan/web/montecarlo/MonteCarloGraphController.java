@@ -19,6 +19,7 @@
 package org.libreplan.web.montecarlo;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -27,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.joda.time.LocalDate;
+import org.libreplan.business.planner.entities.Task;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -35,6 +37,10 @@ import org.zkoss.zul.CategoryModel;
 import org.zkoss.zul.Chart;
 import org.zkoss.zul.Datebox;
 import org.zkoss.zul.Decimalbox;
+import org.zkoss.zul.Grid;
+import org.zkoss.zul.Label;
+import org.zkoss.zul.Row;
+import org.zkoss.zul.Rows;
 import org.zkoss.zul.SimpleCategoryModel;
 
 /**
@@ -56,6 +62,8 @@ public class MonteCarloGraphController extends GenericForwardComposer {
 
     private Decimalbox dbIntervalProbability;
 
+    private Grid gridCriticalityIndex;
+
     private List<LocalDate> dates;
 
     private Map<LocalDate, BigDecimal> monteCarloValues;
@@ -103,6 +111,28 @@ public class MonteCarloGraphController extends GenericForwardComposer {
         dbIntervalProbability.setValue(calculateProbabilityDensity(first, last));
     }
 
+    /**
+     * Shows the tasks that have been critical in some iteration, from the most
+     * critical to the least one.
+     */
+    public void showCriticalityIndex(Map<Task, BigDecimal> criticalityIndex) {
+        Rows rows = new Rows();
+        for (Map.Entry<Task, BigDecimal> each : criticalityIndex.entrySet()) {
+            if ( each.getValue().signum() == 0 ) {
+                break;
+            }
+            Row row = new Row();
+            row.appendChild(new Label(each.getKey().getName()));
+            row.appendChild(new Label(each.getValue().movePointRight(2).setScale(2, RoundingMode.HALF_UP) + " %"));
+            rows.appendChild(row);
+        }
+        if ( gridCriticalityIndex.getRows() != null ) {
+            gridCriticalityIndex.removeChild(gridCriticalityIndex.getRows());
+        }
+        gridCriticalityIndex.appendChild(rows);
+        gridCriticalityIndex.setVisible(!rows.getChildren().isEmpty());
+    }
+
     private void initializeMonteCarloValues(Map<LocalDate, BigDecimal> data) {
         monteCarloValues = data;
         initializeDates(data);
@@ -0,0 +1,131 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.libreplan.business.planner.entities.Task;
+
+/**
+ * Simulates all the tasks of a {@link MonteCarloTaskGraph} at once. Each
+ * iteration samples the duration of every task and does a forward pass over
+ * the graph, so the number of possible critical paths doesn't matter. The
+ * tasks that determine the end of the project in an iteration are counted to
+ * calculate their criticality index.
+ */
+public class MonteCarloGraphSimulation extends MonteCarloSimulation {
+
+    /**
+     * @param estimations
+     *            the estimations, in workable days, of some of the tasks. The
+     *            rest of the tasks use the default estimations
+     */
+    public static MonteCarloGraphSimulation create(MonteCarloTaskGraph graph,
+            Collection<MonteCarloTask> estimations) {
+        Map<Task, MonteCarloTask> byTask = new IdentityHashMap<>();
+        for (MonteCarloTask each : estimations) {
+            byTask.put(each.getTask(), each);
+        }
+
+        List<Task> tasks = graph.getTasks();
+        Estimations[] estimationsOfNode = new Estimations[graph.getNodesCount()];
+        for (int node = 0; node < estimationsOfNode.length; node++) {
+            int task = graph.getTaskOf(node);
+            if ( task != -1 ) {
+                MonteCarloTask estimation = byTask.get(tasks.get(task));
+                if ( estimation == null ) {
+                    estimation = MonteCarloTask.create(tasks.get(task));
+                }
+                estimationsOfNode[node] = Estimations.of(MonteCarloTask.copyInCalendarDays(estimation));
+            }
+        }
+
+        return new MonteCarloGraphSimulation(graph, estimationsOfNode);
+    }
+
+    private static int maxDays(MonteCarloTaskGraph graph, Estimations[] estimationsOfNode) {
+        Pass pass = new Pass(graph.getNodesCount());
+        double[] durations = new double[graph.getNodesCount()];
+        for (int node = 0; node < durations.length; node++) {
+            durations[node] = estimationsOfNode[node] != null ? estimationsOfNode[node].getMax() : 0;
+        }
+        int last = pass.run(graph, durations);
+        return last == -1 ? 0 : (int) pass.earliestEnd[last];
+    }
+
+    private final MonteCarloTaskGraph graph;
+
+    private final Estimations[] estimationsOfNode;
+
+    private MonteCarloGraphSimulation(MonteCarloTaskGraph graph, Estimations[] estimationsOfNode) {
+        super(graph.getStart(), maxDays(graph, estimationsOfNode), graph.getTasks());
+        this.graph = graph;
+        this.estimationsOfNode = estimationsOfNode;
+    }
+
+    @Override
+    protected ISampler newSampler() {
+        final Pass pass = new Pass(graph.getNodesCount());
+        final double[] durations = new double[graph.getNodesCount()];
+
+        return (random, criticalCounts) -> {
+            for (int node = 0; node < durations.length; node++) {
+                if ( estimationsOfNode[node] != null ) {
+                    durations[node] = estimationsOfNode[node].sample(random);
+                }
+            }
+            int last = pass.run(graph, durations);
+            if ( last == -1 ) {
+                return 0;
+            }
+            graph.countCriticalTasks(last, pass.startDriver, pass.endDriver, criticalCounts);
+            return (int) pass.earliestEnd[last];
+        };
+    }
+
+    /**
+     * Scratch arrays for the forward pass, reused between iterations.
+     */
+    private static class Pass {
+
+        private final double[] earliestStart;
+
+        private final double[] earliestEnd;
+
+        private final int[] startDriver;
+
+        private final int[] endDriver;
+
+        Pass(int nodesCount) {
+            earliestStart = new double[nodesCount];
+            earliestEnd = new double[nodesCount];
+            startDriver = new int[nodesCount];
+            endDriver = new int[nodesCount];
+        }
+
+        int run(MonteCarloTaskGraph graph, double[] durations) {
+            return graph.forwardPass(durations, earliestStart, earliestEnd, startDriver, endDriver);
+        }
+    }
+
+}
@@ -24,18 +24,16 @@ package org.libreplan.web.montecarlo;
 import static org.libreplan.web.I18nHelper._;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.hibernate.Hibernate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.orders.entities.Order;
@@ -62,19 +60,28 @@ import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
 public class MonteCarloModel implements IMonteCarloModel {
 
+    private static final Log LOG = LogFactory.getLog(MonteCarloModel.class);
+
     @Autowired
     private ITaskElementDAO taskDAO;
 
+    @Autowired
+    private MonteCarloExecutor monteCarloExecutor;
+
     private static String criticalPath = _("Critical path");
 
     private static String defaultCriticalPath = criticalPath + " 1";
 
     private Map<String, List<MonteCarloTask>> criticalPaths = new HashMap<>();
 
+    private boolean criticalPathsTruncated = false;
+
     private String orderName = "";
 
     private List<Task> tasksInCriticalPath;
 
+    private MonteCarloTaskGraph taskGraph;
+
     @Override
     @Transactional(readOnly = true)
     public void setCriticalPath(List<TaskElement> tasksInCriticalPath) {
@@ -89,7 +96,10 @@ public class MonteCarloModel implements IMonteCarloModel {
         }
 
         Collections.sort(this.tasksInCriticalPath, Task.getByStartDateComparator());
-        initializeTasksInOrder(getOrderFor(this.tasksInCriticalPath));
+        Order order = getOrderFor(this.tasksInCriticalPath);
+        initializeTasksInOrder(order);
+        TaskElement root = order.getAssociatedTaskElement();
+        taskGraph = root != null ? MonteCarloTaskGraph.create(root) : null;
         initializeOrderNameFor(this.tasksInCriticalPath);
         feedCriticalPaths(this.tasksInCriticalPath);
     }
@@ -115,7 +125,14 @@ public class MonteCarloModel implements IMonteCarloModel {
     private List<List<Task>> buildAllPossibleCriticalPaths(List<Task> tasksInCriticalPath) {
         MonteCarloCriticalPathBuilder criticalPathBuilder = MonteCarloCriticalPathBuilder.create(tasksInCriticalPath);
 
-        return criticalPathBuilder.buildAllPossibleCriticalPaths();
+        List<List<Task>> result = criticalPathBuilder.buildAllPossibleCriticalPaths();
+        criticalPathsTruncated = criticalPathBuilder.isTruncated();
+        if (criticalPathsTruncated) {
+            LOG.warn("only " + result.size() + " critical paths of " + orderName
+                    + " have been built, the rest of them are not shown");
+        }
+
+        return result;
     }
 
     /**
@@ -164,6 +181,11 @@ public class MonteCarloModel implements IMonteCarloModel {
         return result;
     }
 
+    @Override
+    public boolean areCriticalPathsTruncated() {
+        return criticalPathsTruncated;
+    }
+
     @Override
     public List<MonteCarloTask> getCriticalPath(String name) {
         if (name == null || name.isEmpty()) {
@@ -199,28 +221,34 @@ public class MonteCarloModel implements IMonteCarloModel {
                                                           int iterations,
                                                           IDesktopUpdatesEmitter<Integer> iterationProgress) {
 
-        MonteCarloCalculation monteCarloCalculation = new MonteCarloCalculation(
-                copyOf(tasks), iterations, iterationProgress);
-        Map<LocalDate, BigDecimal> monteCarloValues = monteCarloCalculation.doCalculation();
+        return calculateMonteCarlo(tasks, iterations, null, iterationProgress);
+    }
 
-        // Convert number of times to probability
-        for (LocalDate key : monteCarloValues.keySet()) {
-            BigDecimal times = monteCarloValues.get(key);
-            BigDecimal probability = times.divide(BigDecimal.valueOf(iterations), 8, RoundingMode.HALF_UP);
-            monteCarloValues.put(key, probability);
+    @Override
+    public Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks,
+                                                          int iterations,
+                                                          Long seed,
+                                                          IDesktopUpdatesEmitter<Integer> iterationProgress) {
+
+        List<MonteCarloTask> copy = new ArrayList<>();
+        for (MonteCarloTask each : tasks) {
+            copy.add(MonteCarloTask.copyInCalendarDays(each));
         }
 
-        return monteCarloValues;
+        return MonteCarloSimulation.create(copy)
+                .run(monteCarloExecutor.getPool(), iterations, seed, iterationProgress).getProbabilities();
     }
 
-    private List<MonteCarloTask> copyOf(List<MonteCarloTask> tasks) {
-        List<MonteCarloTask> result = new ArrayList<>();
+    @Override
+    public MonteCarloResult calculateMonteCarloForAllTasks(List<MonteCarloTask> estimations,
+                                                           int iterations,
+                                                           Long seed,
+                                                           IDesktopUpdatesEmitter<Integer> iterationProgress) {
 
-        for (MonteCarloTask each: tasks) {
-            result.add(MonteCarloTask.copy(each));
-        }
+        Validate.notNull(taskGraph);
 
-        return result;
+        return MonteCarloGraphSimulation.create(taskGraph, estimations)
+                .run(monteCarloExecutor.getPool(), iterations, seed, iterationProgress);
     }
 
     @Override
@@ -228,128 +256,4 @@ public class MonteCarloModel implements IMonteCarloModel {
         return orderName;
     }
 
-    private static class MonteCarloCalculation {
-
-        private Map<MonteCarloTask, Set<EstimationRange>> estimationRangesForTasks = new HashMap<>();
-
-        private List<MonteCarloTask> tasks;
-
-        private int iterations;
-
-        private IDesktopUpdatesEmitter<Integer> iterationProgress;
-
-        public MonteCarloCalculation(List<MonteCarloTask> tasks,
-                                     int iterations,
-                                     IDesktopUpdatesEmitter<Integer> iterationProgress) {
-
-            adjustDurationDays(tasks);
-            initializeEstimationRanges(tasks);
-            this.tasks = tasks;
-            this.iterations = iterations;
-            this.iterationProgress = iterationProgress;
-        }
-
-        public Map<LocalDate, BigDecimal> doCalculation() {
-            Map<LocalDate, BigDecimal> result = new HashMap<>();
-
-            final int onePercent = iterations / 100;
-            Random randomGenerator = new Random((new Date()).getTime());
-
-            // Calculate number of times a date is repeated
-            for (int i = 0; i < iterations; i++) {
-                LocalDate endDate = calculateEndDateFor(tasks, randomGenerator);
-                BigDecimal times = result.get(endDate);
-
-                times = times != null ? times.add(BigDecimal.ONE) : BigDecimal.ONE;
-
-                result.put(endDate, times);
-
-                if (i % onePercent == 0) {
-                    increaseProgressMeter((i * 100) / iterations);
-                }
-            }
-
-            return result;
-        }
-
-        private void increaseProgressMeter(int completedPercent) {
-            iterationProgress.doUpdate(completedPercent);
-        }
-
-        private LocalDate calculateEndDateFor(List<MonteCarloTask> tasks, Random randomGenerator) {
-            Validate.notEmpty(tasks);
-            BigDecimal durationDays = BigDecimal.ZERO;
-            MonteCarloTask first = tasks.get(0);
-
-            for (MonteCarloTask each : tasks) {
-                BigDecimal randomNumber = generate(randomGenerator);
-                durationDays = durationDays.add(getDuration(each, randomNumber));
-            }
-
-            return first.getStartDate().plusDays(durationDays.intValue());
-        }
-
-        private BigDecimal generate(Random randomGenerator) {
-            return BigDecimal.valueOf(randomGenerator.nextDouble());
-        }
-
-        private BigDecimal getDuration(MonteCarloTask each, BigDecimal random) {
-            ESTIMATION_TYPE type = getEstimationType(each, random);
-            Validate.notNull(type);
-            switch (type) {
-
-                case PESSIMISTIC:
-                    return each.getPessimisticDuration();
-
-                case NORMAL:
-                    return each.getNormalDuration();
-
-                case OPTIMISTIC:
-                    return each.getOptimisticDuration();
-
-                default:
-                    break;
-            }
-
-            return BigDecimal.ZERO;
-        }
-
-        private void adjustDurationDays(List<MonteCarloTask> tasks) {
-            for (MonteCarloTask each : tasks) {
-                each.setPessimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getPessimisticDuration()));
-                each.setNormalDuration(MonteCarloTask.calculateRealDurationFor(each, each.getNormalDuration()));
-                each.setOptimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getOptimisticDuration()));
-            }
-        }
-
-        private void initializeEstimationRanges(List<MonteCarloTask> tasks) {
-            estimationRangesForTasks.clear();
-
-            for (MonteCarloTask each : tasks) {
-                createEstimationRangesFor(each);
-            }
-        }
-
-        private void createEstimationRangesFor(MonteCarloTask task) {
-            Set<EstimationRange> estimationRanges = new HashSet<>();
-            estimationRanges.add(EstimationRange.pessimisticRangeFor(task));
-            estimationRanges.add(EstimationRange.normalRangeFor(task));
-            estimationRanges.add(EstimationRange.optimisticRangeFor(task));
-            estimationRangesForTasks.put(task, estimationRanges);
-        }
-
-        public ESTIMATION_TYPE getEstimationType(MonteCarloTask task, BigDecimal random) {
-            Set<EstimationRange> estimationRanges = estimationRangesForTasks.get(task);
-
-            for (EstimationRange each : estimationRanges) {
-                if (each.contains(random)) {
-                    return each.getEstimationType();
-                }
-            }
-
-            return null;
-        }
-
-    }
-
 }
@@ -0,0 +1,104 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.planner.entities.Task;
+
+/**
+ * Result of a {@link MonteCarloSimulation}: the probability of ending on each
+ * date and, if the simulation tracks tasks, the criticality index of each task,
+ * i.e. the fraction of iterations in which the task was in the critical path.
+ */
+public class MonteCarloResult {
+
+    private static final int SCALE = 8;
+
+    private final Map<LocalDate, BigDecimal> probabilities;
+
+    private final Map<Task, BigDecimal> criticalityIndex;
+
+    /**
+     * @param probabilities
+     *            the probability of ending on each date
+     */
+    public static MonteCarloResult withoutCriticalityIndex(Map<LocalDate, BigDecimal> probabilities) {
+        return new MonteCarloResult(probabilities, Collections.<Task, BigDecimal> emptyMap());
+    }
+
+    private MonteCarloResult(Map<LocalDate, BigDecimal> probabilities, Map<Task, BigDecimal> criticalityIndex) {
+        this.probabilities = probabilities;
+        this.criticalityIndex = criticalityIndex;
+    }
+
+    MonteCarloResult(LocalDate start, long[] histogram, List<Task> tasks, long[] criticalCounts, int iterations) {
+        BigDecimal total = BigDecimal.valueOf(iterations);
+
+        this.probabilities = new HashMap<>();
+        for (int days = 0; days < histogram.length; days++) {
+            if ( histogram[days] > 0 ) {
+                probabilities.put(start.plusDays(days), divide(histogram[days], total));
+            }
+        }
+
+        List<Integer> byCriticality = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            byCriticality.add(i);
+        }
+        byCriticality.sort((a, b) -> Long.compare(criticalCounts[b], criticalCounts[a]));
+
+        Map<Task, BigDecimal> index = new LinkedHashMap<>();
+        for (Integer each : byCriticality) {
+            index.put(tasks.get(each), divide(criticalCounts[each], total));
+        }
+        this.criticalityIndex = Collections.unmodifiableMap(index);
+    }
+
+    private static BigDecimal divide(long times, BigDecimal total) {
+        return BigDecimal.valueOf(times).divide(total, SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return the probability of ending on each date. The dates on which no
+     *         iteration ends are not included
+     */
+    public Map<LocalDate, BigDecimal> getProbabilities() {
+        return probabilities;
+    }
+
+    /**
+     * @return the criticality index of the tracked tasks, from the most
+     *         critical to the least one. It's empty if the simulation doesn't
+     *         track tasks
+     */
+    public Map<Task, BigDecimal> getCriticalityIndex() {
+        return criticalityIndex;
+    }
+
+}
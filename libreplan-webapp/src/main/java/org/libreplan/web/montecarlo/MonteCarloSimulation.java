@@ -0,0 +1,323 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.libreplan.business.planner.entities.Task;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
+
+/**
+ * Parallel engine for MonteCarlo simulations.
+ * <p>
+ * The iterations are split in chunks of fixed size and each chunk is run in
+ * the given {@link ForkJoinPool} with its own {@link SplittableRandom},
+ * counting the end dates in a <code>long[]</code> histogram indexed by the
+ * number of days since the start. If the simulation tracks tasks it also counts how many times each
+ * one has been critical. The counters are merged when the chunks are joined.
+ * </p>
+ * <p>
+ * The random streams of the chunks are split from a root generator in chunk
+ * order, so the result for a given seed doesn't depend on the number of
+ * threads nor on the order in which the chunks are executed.
+ * </p>
+ */
+public abstract class MonteCarloSimulation {
+
+    private static final int ITERATIONS_PER_CHUNK = 2048;
+
+    /**
+     * Simulates the tasks of a path one after another.
+     *
+     * @param tasks
+     *            the tasks of the path, with their durations already expressed
+     *            in calendar days. Cannot be empty
+     */
+    public static MonteCarloSimulation create(List<MonteCarloTask> tasks) {
+        return new PathSimulation(tasks);
+    }
+
+    /**
+     * Samples one iteration. Each chunk uses its own sampler, so it can keep
+     * scratch state between iterations.
+     */
+    protected interface ISampler {
+
+        /**
+         * @param criticalCounts
+         *            the counter of each tracked task, it must be incremented
+         *            for the tasks that are critical in this iteration
+         * @return the number of days since the start in which the iteration
+         *         ends
+         */
+        int sample(SplittableRandom random, long[] criticalCounts);
+    }
+
+    private final LocalDate start;
+
+    private final int maxDays;
+
+    private final List<Task> trackedTasks;
+
+    /**
+     * @param maxDays
+     *            the maximum number of days that any iteration can return
+     * @param trackedTasks
+     *            the tasks whose criticality index is calculated
+     */
+    protected MonteCarloSimulation(LocalDate start, int maxDays, List<Task> trackedTasks) {
+        Validate.notNull(start);
+        Validate.isTrue(maxDays >= 0);
+        this.start = start;
+        this.maxDays = maxDays;
+        this.trackedTasks = trackedTasks;
+    }
+
+    protected abstract ISampler newSampler();
+
+    /**
+     * @param pool
+     *            where the chunks are run, see {@link MonteCarloExecutor}
+     * @param seed
+     *            if <code>null</code> a random one is used, otherwise the same
+     *            seed always produces the same result
+     * @param iterationProgress
+     *            it receives the completed percentage. It can be called from
+     *            several threads
+     */
+    public MonteCarloResult run(ForkJoinPool pool, int iterations, Long seed,
+            IDesktopUpdatesEmitter<Integer> iterationProgress) {
+        Validate.notNull(pool);
+        Validate.isTrue(iterations > 0);
+        SplittableRandom root = seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+        int chunks = (iterations + ITERATIONS_PER_CHUNK - 1) / ITERATIONS_PER_CHUNK;
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = root.split();
+        }
+
+        ProgressNotifier progress = new ProgressNotifier(iterations, iterationProgress);
+        Counters counters = pool.invoke(
+                new ChunksTask(randoms, 0, chunks, iterations, progress));
+
+        return new MonteCarloResult(start, counters.histogram, trackedTasks, counters.critical, iterations);
+    }
+
+    private static class Counters {
+
+        private final long[] histogram;
+
+        private final long[] critical;
+
+        Counters(int histogramSize, int trackedTasks) {
+            this.histogram = new long[histogramSize];
+            this.critical = new long[trackedTasks];
+        }
+
+        Counters add(Counters other) {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            for (int i = 0; i < critical.length; i++) {
+                critical[i] += other.critical[i];
+            }
+            return this;
+        }
+    }
+
+    private class ChunksTask extends RecursiveTask<Counters> {
+
+        private final SplittableRandom[] randoms;
+
+        private final int from;
+
+        private final int to;
+
+        private final int iterations;
+
+        private final ProgressNotifier progress;
+
+        ChunksTask(SplittableRandom[] randoms, int from, int to, int iterations, ProgressNotifier progress) {
+            this.randoms = randoms;
+            this.from = from;
+            this.to = to;
+            this.iterations = iterations;
+            this.progress = progress;
+        }
+
+        @Override
+        protected Counters compute() {
+            if ( to - from == 1 ) {
+                return computeChunk();
+            }
+            int middle = (from + to) >>> 1;
+            ChunksTask left = new ChunksTask(randoms, from, middle, iterations, progress);
+            ChunksTask right = new ChunksTask(randoms, middle, to, iterations, progress);
+            left.fork();
+            Counters result = right.compute();
+            return result.add(left.join());
+        }
+
+        private Counters computeChunk() {
+            Counters result = new Counters(maxDays + 1, trackedTasks.size());
+            int chunkIterations = Math.min(ITERATIONS_PER_CHUNK, iterations - from * ITERATIONS_PER_CHUNK);
+            SplittableRandom random = randoms[from];
+            ISampler sampler = newSampler();
+            for (int i = 0; i < chunkIterations; i++) {
+                result.histogram[sampler.sample(random, result.critical)]++;
+            }
+            progress.completed(chunkIterations);
+            return result;
+        }
+    }
+
+    private static class ProgressNotifier {
+
+        private final int iterations;
+
+        private final IDesktopUpdatesEmitter<Integer> emitter;
+
+        private final AtomicInteger completed = new AtomicInteger();
+
+        private final AtomicInteger lastNotified = new AtomicInteger(-1);
+
+        ProgressNotifier(int iterations, IDesktopUpdatesEmitter<Integer> emitter) {
+            this.iterations = iterations;
+            this.emitter = emitter;
+        }
+
+        void completed(int chunkIterations) {
+            int percentage = (int) (completed.addAndGet(chunkIterations) * 100L / iterations);
+            int previous = lastNotified.get();
+            while (percentage > previous) {
+                if ( lastNotified.compareAndSet(previous, percentage) ) {
+                    emitter.doUpdate(percentage);
+                    return;
+                }
+                previous = lastNotified.get();
+            }
+        }
+    }
+
+    /**
+     * Duration estimations of a task in calendar days, chosen according to the
+     * limits of the estimation ranges.
+     */
+    static class Estimations {
+
+        static Estimations of(MonteCarloTask task) {
+            return new Estimations(
+                    toDays(task.getPessimisticDuration()),
+                    toDays(task.getNormalDuration()),
+                    toDays(task.getOptimisticDuration()),
+                    task.getPessimisticDurationPercentageUpperLimit().doubleValue(),
+                    task.getNormalDurationPercentageUpperLimit().doubleValue());
+        }
+
+        private static double toDays(BigDecimal duration) {
+            return duration != null ? Math.max(0, duration.doubleValue()) : 0;
+        }
+
+        private final double pessimistic;
+
+        private final double normal;
+
+        private final double optimistic;
+
+        private final double pessimisticUpperLimit;
+
+        private final double normalUpperLimit;
+
+        private Estimations(double pessimistic, double normal, double optimistic,
+                double pessimisticUpperLimit, double normalUpperLimit) {
+            this.pessimistic = pessimistic;
+            this.normal = normal;
+            this.optimistic = optimistic;
+            this.pessimisticUpperLimit = pessimisticUpperLimit;
+            this.normalUpperLimit = normalUpperLimit;
+        }
+
+        double sample(SplittableRandom random) {
+            double value = random.nextDouble();
+            if ( value < pessimisticUpperLimit ) {
+                return pessimistic;
+            }
+            if ( value < normalUpperLimit ) {
+                return normal;
+            }
+            return optimistic;
+        }
+
+        double getMax() {
+            return Math.max(pessimistic, Math.max(normal, optimistic));
+        }
+    }
+
+    private static class PathSimulation extends MonteCarloSimulation {
+
+        private static int maxDays(Estimations[] estimations) {
+            double result = 0;
+            for (Estimations each : estimations) {
+                result += each.getMax();
+            }
+            return (int) result;
+        }
+
+        private static Estimations[] estimationsOf(List<MonteCarloTask> tasks) {
+            Validate.notEmpty(tasks);
+            Estimations[] result = new Estimations[tasks.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = Estimations.of(tasks.get(i));
+            }
+            return result;
+        }
+
+        private final Estimations[] estimations;
+
+        private PathSimulation(List<MonteCarloTask> tasks) {
+            this(tasks.get(0).getStartDate(), estimationsOf(tasks));
+        }
+
+        private PathSimulation(LocalDate start, Estimations[] estimations) {
+            super(start, maxDays(estimations), Collections.<Task> emptyList());
+            this.estimations = estimations;
+        }
+
+        @Override
+        protected ISampler newSampler() {
+            return (random, criticalCounts) -> {
+                double durationDays = 0;
+                for (Estimations each : estimations) {
+                    durationDays += each.sample(random);
+                }
+                return (int) durationDays;
+            };
+        }
+    }
+
+}
@@ -83,6 +83,19 @@ public class MonteCarloTask {
         return new MonteCarloTask(task);
     }
 
+    /**
+     * @return a copy of the task with its durations expressed in calendar days
+     *         instead of workable days
+     */
+    public static MonteCarloTask copyInCalendarDays(MonteCarloTask task) {
+        MonteCarloTask result = copy(task);
+        result.setPessimisticDuration(calculateRealDurationFor(result, result.getPessimisticDuration()));
+        result.setNormalDuration(calculateRealDurationFor(result, result.getNormalDuration()));
+        result.setOptimisticDuration(calculateRealDurationFor(result, result.getOptimisticDuration()));
+
+        return result;
+    }
+
     public static BigDecimal calculateRealDurationFor(MonteCarloTask task, BigDecimal daysDuration) {
         LocalDate start = task.getStartDate();
         Validate.notNull(start);
@@ -0,0 +1,384 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.planner.entities.Dependency;
+import org.libreplan.business.planner.entities.PositionConstraintType;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.planner.entities.TaskGroup;
+import org.libreplan.business.planner.entities.TaskPositionConstraint;
+
+/**
+ * Dependency graph of all the tasks of a project, topologically sorted, so the
+ * earliest dates of every node can be calculated with a forward pass.
+ * <p>
+ * Every leaf {@link TaskElement} is a node. A {@link TaskGroup} is split in a
+ * start node, that precedes the start of its children, and an end node, that
+ * follows the end of its children. The dependencies are linked to the start or
+ * the end node of the group depending on their type.
+ * </p>
+ * <p>
+ * The dates are expressed in days since the start of the project. The elements
+ * whose start isn't constrained by any dependency, neither their own nor of
+ * their parents, can't start before their current start date. The rest can't
+ * start before the date of their start constraint, if any.
+ * </p>
+ * <p>
+ * The graph is built from the entities, so it must be created while they're
+ * attached to a session. Afterwards it can be used concurrently.
+ * </p>
+ */
+public class MonteCarloTaskGraph {
+
+    private static final byte END_START = 0;
+
+    private static final byte START_START = 1;
+
+    private static final byte END_END = 2;
+
+    public static MonteCarloTaskGraph create(TaskElement root) {
+        Validate.notNull(root);
+        return new Builder(root).build();
+    }
+
+    private final LocalDate start;
+
+    private final List<Task> tasks;
+
+    private final int[] taskOfNode;
+
+    private final double[] floor;
+
+    private final int[] predecessorsStart;
+
+    private final int[] predecessors;
+
+    private final byte[] predecessorsType;
+
+    private MonteCarloTaskGraph(LocalDate start, List<Task> tasks, int[] taskOfNode, double[] floor,
+            int[] predecessorsStart, int[] predecessors, byte[] predecessorsType) {
+        this.start = start;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.taskOfNode = taskOfNode;
+        this.floor = floor;
+        this.predecessorsStart = predecessorsStart;
+        this.predecessors = predecessors;
+        this.predecessorsType = predecessorsType;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * @return the {@link Task tasks} of the graph. The position of a task in
+     *         this list is its index
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public int getNodesCount() {
+        return taskOfNode.length;
+    }
+
+    /**
+     * @return the index of the task of the node or <code>-1</code> if the node
+     *         isn't a {@link Task}
+     */
+    public int getTaskOf(int node) {
+        return taskOfNode[node];
+    }
+
+    /**
+     * Calculates the earliest start and end of each node. The arrays are indexed
+     * by node and filled by this method, so they can be reused between calls.
+     *
+     * @param durations
+     *            the duration in days of each node
+     * @param startDriver
+     *            receives the predecessor that determines the start of each
+     *            node or <code>-1</code> if it is determined by its floor
+     * @param endDriver
+     *            receives the predecessor that determines the end of each node
+     *            or <code>-1</code> if it is determined by its own duration
+     * @return the node that ends the last
+     */
+    public int forwardPass(double[] durations, double[] earliestStart, double[] earliestEnd,
+            int[] startDriver, int[] endDriver) {
+        int last = -1;
+        for (int node = 0; node < floor.length; node++) {
+            double nodeStart = floor[node];
+            int nodeStartDriver = -1;
+            for (int i = predecessorsStart[node]; i < predecessorsStart[node + 1]; i++) {
+                if ( predecessorsType[i] == END_END ) {
+                    continue;
+                }
+                int predecessor = predecessors[i];
+                double candidate = predecessorsType[i] == END_START
+                        ? earliestEnd[predecessor]
+                        : earliestStart[predecessor];
+                if ( candidate > nodeStart ) {
+                    nodeStart = candidate;
+                    nodeStartDriver = predecessor;
+                }
+            }
+
+            double nodeEnd = nodeStart + durations[node];
+            int nodeEndDriver = -1;
+            for (int i = predecessorsStart[node]; i < predecessorsStart[node + 1]; i++) {
+                int predecessor = predecessors[i];
+                if ( predecessorsType[i] == END_END && earliestEnd[predecessor] > nodeEnd ) {
+                    nodeEnd = earliestEnd[predecessor];
+                    nodeEndDriver = predecessor;
+                }
+            }
+
+            earliestStart[node] = nodeStart;
+            earliestEnd[node] = nodeEnd;
+            startDriver[node] = nodeStartDriver;
+            endDriver[node] = nodeEndDriver;
+            if ( last == -1 || nodeEnd > earliestEnd[last] ) {
+                last = node;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Follows the drivers calculated by
+     * {@link #forwardPass(double[], double[], double[], int[], int[])}
+     * backwards from the given node, incrementing the counter of the tasks
+     * found. A node whose end is determined by a predecessor isn't critical.
+     */
+    public void countCriticalTasks(int lastNode, int[] startDriver, int[] endDriver, long[] criticalCounts) {
+        int node = lastNode;
+        while (node != -1) {
+            if ( endDriver[node] != -1 ) {
+                node = endDriver[node];
+                continue;
+            }
+            if ( taskOfNode[node] != -1 ) {
+                criticalCounts[taskOfNode[node]]++;
+            }
+            node = startDriver[node];
+        }
+    }
+
+    private static class Builder {
+
+        private final TaskElement root;
+
+        private final LocalDate start;
+
+        private final Map<TaskElement, Integer> startNodes = new IdentityHashMap<>();
+
+        private final Map<TaskElement, Integer> endNodes = new IdentityHashMap<>();
+
+        private final List<TaskElement> elementOfNode = new ArrayList<>();
+
+        private final List<int[]> edges = new ArrayList<>();
+
+        Builder(TaskElement root) {
+            this.root = root;
+            this.start = root.getStartAsLocalDate();
+        }
+
+        MonteCarloTaskGraph build() {
+            addNodes(root);
+            addEdges(root);
+
+            int nodesCount = elementOfNode.size();
+            int[] order = topologicalOrder(nodesCount);
+            int[] position = new int[nodesCount];
+            for (int i = 0; i < nodesCount; i++) {
+                position[order[i]] = i;
+            }
+
+            List<Task> tasks = new ArrayList<>();
+            int[] taskOfNode = new int[nodesCount];
+            double[] floor = new double[nodesCount];
+            for (int i = 0; i < nodesCount; i++) {
+                int node = order[i];
+                TaskElement element = elementOfNode.get(node);
+                boolean isStartNode = startNodes.get(element) == node;
+                taskOfNode[i] = -1;
+                if ( element instanceof Task ) {
+                    taskOfNode[i] = tasks.size();
+                    tasks.add((Task) element);
+                }
+                floor[i] = isStartNode ? floorFor(element) : 0;
+            }
+
+            int[] predecessorsStart = new int[nodesCount + 1];
+            for (int[] each : edges) {
+                predecessorsStart[position[each[1]] + 1]++;
+            }
+            for (int i = 0; i < nodesCount; i++) {
+                predecessorsStart[i + 1] += predecessorsStart[i];
+            }
+            int[] next = predecessorsStart.clone();
+            int[] predecessors = new int[edges.size()];
+            byte[] predecessorsType = new byte[edges.size()];
+            for (int[] each : edges) {
+                int slot = next[position[each[1]]]++;
+                predecessors[slot] = position[each[0]];
+                predecessorsType[slot] = (byte) each[2];
+            }
+
+            return new MonteCarloTaskGraph(start, tasks, taskOfNode, floor,
+                    predecessorsStart, predecessors, predecessorsType);
+        }
+
+        private void addNodes(TaskElement element) {
+            int startNode = elementOfNode.size();
+            elementOfNode.add(element);
+            startNodes.put(element, startNode);
+            if ( element.isLeaf() ) {
+                endNodes.put(element, startNode);
+                return;
+            }
+            int endNode = elementOfNode.size();
+            elementOfNode.add(element);
+            endNodes.put(element, endNode);
+            for (TaskElement each : element.getChildren()) {
+                addNodes(each);
+            }
+        }
+
+        private void addEdges(TaskElement element) {
+            for (Dependency each : element.getDependenciesWithThisDestination()) {
+                addEdge(each.getOrigin(), element, each.getType());
+            }
+            if ( element.isLeaf() ) {
+                return;
+            }
+            edge(startNodes.get(element), endNodes.get(element), END_START);
+            for (TaskElement each : element.getChildren()) {
+                edge(startNodes.get(element), startNodes.get(each), START_START);
+                edge(endNodes.get(each), endNodes.get(element), END_END);
+                addEdges(each);
+            }
+        }
+
+        private void addEdge(TaskElement origin, TaskElement destination, Dependency.Type type) {
+            if ( !startNodes.containsKey(origin) ) {
+                return;
+            }
+            switch (type) {
+            case END_START:
+                edge(endNodes.get(origin), startNodes.get(destination), END_START);
+                break;
+            case START_START:
+                edge(startNodes.get(origin), startNodes.get(destination), START_START);
+                break;
+            case END_END:
+                edge(endNodes.get(origin), endNodes.get(destination), END_END);
+                break;
+            default:
+                break;
+            }
+        }
+
+        private void edge(int from, int to, byte type) {
+            edges.add(new int[] { from, to, type });
+        }
+
+        private int[] topologicalOrder(int nodesCount) {
+            int[] successorsStart = new int[nodesCount + 1];
+            int[] pending = new int[nodesCount];
+            for (int[] each : edges) {
+                successorsStart[each[0] + 1]++;
+                pending[each[1]]++;
+            }
+            for (int i = 0; i < nodesCount; i++) {
+                successorsStart[i + 1] += successorsStart[i];
+            }
+            int[] next = successorsStart.clone();
+            int[] successors = new int[edges.size()];
+            for (int[] each : edges) {
+                successors[next[each[0]]++] = each[1];
+            }
+
+            int[] result = new int[nodesCount];
+            int added = 0;
+            for (int i = 0; i < nodesCount; i++) {
+                if ( pending[i] == 0 ) {
+                    result[added++] = i;
+                }
+            }
+            for (int processed = 0; processed < added; processed++) {
+                int node = result[processed];
+                for (int i = successorsStart[node]; i < successorsStart[node + 1]; i++) {
+                    if ( --pending[successors[i]] == 0 ) {
+                        result[added++] = successors[i];
+                    }
+                }
+            }
+            if ( added != nodesCount ) {
+                throw new IllegalStateException("the dependencies of the project contain a cycle");
+            }
+            return result;
+        }
+
+        private double floorFor(TaskElement element) {
+            if ( !isStartConstrainedByDependencies(element) ) {
+                return daysSinceStart(element.getStartAsLocalDate());
+            }
+            if ( element instanceof Task ) {
+                TaskPositionConstraint constraint = ((Task) element).getPositionConstraint();
+                PositionConstraintType type = constraint.getConstraintType();
+                boolean fixesStart = type == PositionConstraintType.START_NOT_EARLIER_THAN
+                        || type == PositionConstraintType.START_IN_FIXED_DATE;
+                if ( fixesStart && constraint.getConstraintDate() != null ) {
+                    return daysSinceStart(constraint.getConstraintDate().getDate());
+                }
+            }
+            return 0;
+        }
+
+        private boolean isStartConstrainedByDependencies(TaskElement element) {
+            for (TaskElement each = element; each != null && each != root; each = each.getParent()) {
+                for (Dependency dependency : each.getDependenciesWithThisDestination()) {
+                    if ( dependency.getType() != Dependency.Type.END_END
+                            && startNodes.containsKey(dependency.getOrigin()) ) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private int daysSinceStart(LocalDate date) {
+            return date == null ? 0 : Math.max(0, Days.daysBetween(start, date).getDays());
+        }
+    }
+
+}
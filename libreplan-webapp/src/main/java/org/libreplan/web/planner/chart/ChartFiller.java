@@ -45,10 +45,10 @@ import javax.servlet.http.HttpServletResponse;
 import org.joda.time.DateTime;
 import org.joda.time.Days;
 import org.joda.time.LocalDate;
+import org.libreplan.business.planner.chart.EffortSeries;
 import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.workingday.EffortDuration;
-import org.libreplan.business.workingday.IntraDayDate.PartialDay;
 import org.zkforge.timeplot.Plotinfo;
 import org.zkforge.timeplot.Timeplot;
 import org.zkforge.timeplot.data.PlotDataSource;
@@ -96,22 +96,6 @@ public abstract class ChartFiller implements IChartFiller {
         }
     }
 
-    protected static EffortDuration sumCalendarCapacitiesForDay(
-            Collection<? extends Resource> resources, LocalDate day) {
-        PartialDay wholeDay = PartialDay.wholeDay(day);
-        EffortDuration sum = zero();
-        for (Resource resource : resources) {
-            sum = sum.plus(calendarCapacityFor(resource,
-                    wholeDay));
-        }
-        return sum;
-    }
-
-    protected static EffortDuration calendarCapacityFor(Resource resource,
-            PartialDay day) {
-        return resource.getCalendarOrDefault().getCapacityOn(day);
-    }
-
     protected abstract class GraphicSpecificationCreator implements
             IServletRequestHandler {
 
@@ -388,6 +372,25 @@ public abstract class ChartFiller implements IChartFiller {
         return groupByWeekDurations(map);
     }
 
+    /**
+     * Like {@link #groupAsNeededByZoom(SortedMap)} but the values of each
+     * week are accumulated directly from the series, without creating an
+     * entry per day when grouping by week.
+     */
+    protected SortedMap<LocalDate, EffortDuration> groupAsNeededByZoom(
+            EffortSeries series) {
+        if (isZoomByDayOrWeek()) {
+            return series.toSortedMap();
+        }
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<LocalDate, EffortDuration>();
+        for (Entry<LocalDate, EffortDuration> each : series.sumByWeek()
+                .entrySet()) {
+            result.put(getThursdayOfThisWeek(each.getKey()), each.getValue()
+                    .divideBy(7));
+        }
+        return result;
+    }
+
     protected SortedMap<LocalDate, EffortDuration> groupByWeekDurations(
             SortedMap<LocalDate, EffortDuration> map) {
         return average(accumulatePerWeek(map));
@@ -35,12 +35,14 @@ import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
 import org.libreplan.business.advance.entities.IndirectAdvanceAssignment;
 import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.HoursGroup;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderCodesSnapshot;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.orders.entities.OrderStatusEnum;
 import org.libreplan.business.orders.entities.TaskSource;
@@ -281,7 +283,7 @@ public class PlanningStateCreator {
         TaskGroup rootTask = orderReloaded.getAssociatedTaskElement();
 
         if (rootTask != null) {
-            forceLoadOf(rootTask);
+            forceLoadOfTaskTree(rootTask);
             forceLoadDayAssignments(orderReloaded.getResources(FilterType.KEEP_ALL));
             forceLoadOfDepedenciesCollections(rootTask);
             forceLoadOfLabels(Collections.singletonList(rootTask));
@@ -338,18 +340,36 @@ public class PlanningStateCreator {
         }
     }
 
-    private void forceLoadOf(TaskElement taskElement) {
-        forceLoadOfDataAssociatedTo(taskElement);
+    /**
+     * The tree is walked level by level, so the children of a whole level are found with one query and the lazy
+     * collections of the tasks in the same level are fetched in batches.
+     */
+    private void forceLoadOfTaskTree(TaskGroup rootTask) {
+        List<TaskElement> level = Collections.singletonList(rootTask);
+        while (!level.isEmpty()) {
+            List<TaskGroup> groups = new ArrayList<>();
 
-        if (taskElement instanceof TaskGroup) {
-            findChildrenWithQueryToAvoidProxies((TaskGroup) taskElement);
+            for (TaskElement each : level) {
+                forceLoadOfDataAssociatedTo(each);
 
-            for (TaskElement each : taskElement.getChildren()) {
-                forceLoadOf(each);
+                if (each instanceof TaskGroup) {
+                    groups.add((TaskGroup) each);
+                }
+            }
+            findChildrenWithQueryToAvoidProxies(groups);
+
+            List<TaskElement> nextLevel = new ArrayList<>();
+            for (TaskGroup each : groups) {
+                nextLevel.addAll(each.getChildren());
             }
+            level = nextLevel;
         }
     }
 
+    /**
+     * The tasks without an own calendar use the one of the order, which is loaded only once in
+     * {@link #createPlanning(Order)}.
+     */
     private void forceLoadOfDataAssociatedTo(TaskElement each) {
         forceLoadOfResourceAllocationsResourcesAndAssignmentFunction(each);
         forceLoadOfCriterions(each);
@@ -357,10 +377,6 @@ public class PlanningStateCreator {
 
         BaseCalendar calendar = each.getOwnCalendar();
 
-        if (calendar == null && each.getOrderElement() != null) {
-            calendar = orderDAO.loadOrderAvoidingProxyFor(each.getOrderElement()).getCalendar();
-        }
-
         if (calendar != null) {
             BaseCalendarModel.forceLoadBaseCalendar(calendar);
         }
@@ -423,8 +439,11 @@ public class PlanningStateCreator {
         }
     }
 
-    private void findChildrenWithQueryToAvoidProxies(TaskGroup group) {
-        for (TaskElement eachTask : taskDAO.findChildrenOf(group)) {
+    private void findChildrenWithQueryToAvoidProxies(List<TaskGroup> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        for (TaskElement eachTask : taskDAO.findChildrenOf(groups)) {
             Hibernate.initialize(eachTask);
             eachTask.getParent().getName();
         }
@@ -737,6 +756,12 @@ public class PlanningStateCreator {
 
         private PlannerConfiguration<TaskElement> cachedConfiguration;
 
+        /**
+         * Codes of the order elements and hours groups as they were when the planning was loaded or last saved.
+         * They let the save check against the database only the codes created or changed since then.
+         */
+        private OrderCodesSnapshot savedCodes;
+
         public PlanningState(Order order, Collection<? extends Resource> initialResources) {
             Validate.notNull(order);
             this.order = order;
@@ -746,6 +771,7 @@ public class PlanningStateCreator {
             associateWithScenario(this.resources);
             this.orderAuthorizations = loadOrderAuthorizations();
             this.savedOrderState = order.getState();
+            updateSavedCodes();
         }
 
         private List<OrderAuthorization> loadOrderAuthorizations() {
@@ -1131,6 +1157,21 @@ public class PlanningStateCreator {
             savedOrderState = order.getState();
         }
 
+        /**
+         * It must only be called once the save has been committed, so the codes of a failed save are checked again.
+         */
+        public void updateSavedCodes() {
+            savedCodes = OrderCodesSnapshot.take(order);
+        }
+
+        /**
+         * @return the order elements and hours groups of the order that are new or whose code has changed since the
+         *         planning was loaded or last saved
+         */
+        public List<IntegrationEntity> getEntitiesWithChangedCode() {
+            return savedCodes.getEntitiesWithChangedCode(order);
+        }
+
     }
 
     public interface IAllocationCriteria {
@@ -33,6 +33,7 @@ import org.libreplan.business.advance.exceptions.DuplicateValueTrueReportGlobalA
 import org.libreplan.business.common.BaseEntity;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.Registry;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.entities.EntityNameEnum;
@@ -104,6 +105,7 @@ import org.zkoss.zul.Messagebox;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
@@ -288,6 +290,7 @@ public class SaveCommandBuilder {
 
                     dontPoseAsTransientObjectAnymore(state.getOrder());
                     dontPoseAsTransientObjectAnymore(state.getOrder().getEndDateCommunicationToCustomer());
+                    state.updateSavedCodes();
                     state.getScenarioInfo().afterCommit();
 
                     if ( state.getOrder().isNeededToRecalculateSumChargedEfforts() )
@@ -363,8 +366,9 @@ public class SaveCommandBuilder {
             generateOrderElementCodes(order);
             createAdvancePercentagesIfRequired(order);
             order.calculateAndSetTotalHours();
-            checkConstraintOrderUniqueCode(order);
-            checkConstraintHoursGroupUniqueCode(order);
+            List<IntegrationEntity> withChangedCode = state.getEntitiesWithChangedCode();
+            checkConstraintOrderUniqueCode(order, !ofType(OrderElement.class, withChangedCode).isEmpty());
+            checkConstraintHoursGroupUniqueCode(order, ofType(HoursGroup.class, withChangedCode));
             state.synchronizeTrees();
 
             TaskGroup rootTask = state.getRootTask();
@@ -400,7 +404,7 @@ public class SaveCommandBuilder {
         }
 
         private void removeTaskElementsWithTaskSourceNull() {
-            List<TaskElement> toRemove = taskElementDAO.getTaskElementsNoMilestonesWithoutTaskSource();
+            Set<TaskElement> toRemove = new HashSet<>(taskElementDAO.getTaskElementsNoMilestonesWithoutTaskSource());
             List<TaskElement> parentsWithChangesToSave = new ArrayList<>();
 
             for (TaskElement taskElement : toRemove) {
@@ -483,7 +487,21 @@ public class SaveCommandBuilder {
             order.generateOrderElementCodes(entitySequenceDAO.getNumberOfDigitsCode(EntityNameEnum.ORDER));
         }
 
-        private void checkConstraintOrderUniqueCode(OrderElement order) {
+        private <T extends IntegrationEntity> List<T> ofType(Class<T> klass,
+                                                             Collection<? extends IntegrationEntity> entities) {
+            List<T> result = new ArrayList<>();
+            for (IntegrationEntity each : entities) {
+                if (klass.isInstance(each))
+                    result.add(klass.cast(each));
+            }
+            return result;
+        }
+
+        /**
+         * The codes already saved were checked against the database when they were saved, so the database is only
+         * queried again when some code of the order has been created or changed since then.
+         */
+        private void checkConstraintOrderUniqueCode(OrderElement order, boolean someCodeChanged) {
             OrderElement repeatedOrder;
 
             // Check no code is repeated in this order
@@ -496,6 +514,9 @@ public class SaveCommandBuilder {
 
             }
 
+            if (!someCodeChanged)
+                return;
+
             // Check no code is repeated within the DB
             repeatedOrder = Registry.getOrderElementDAO().findRepeatedOrderCodeInDB(order);
 
@@ -505,7 +526,7 @@ public class SaveCommandBuilder {
 
         }
 
-        private void checkConstraintHoursGroupUniqueCode(Order order) {
+        private void checkConstraintHoursGroupUniqueCode(Order order, List<HoursGroup> withChangedCode) {
             HoursGroup repeatedHoursGroup;
 
             if (order != null) {
@@ -519,7 +540,10 @@ public class SaveCommandBuilder {
 
             }
 
-            repeatedHoursGroup = Registry.getHoursGroupDAO().findRepeatedHoursGroupCodeInDB(order.getHoursGroups());
+            if (withChangedCode.isEmpty())
+                return;
+
+            repeatedHoursGroup = Registry.getHoursGroupDAO().findRepeatedHoursGroupCodeInDB(withChangedCode);
 
             if (repeatedHoursGroup != null)
                 throw new ValidationException(_(
@@ -143,18 +143,25 @@ public class ReassignCommand implements IReassignCommand {
             int i = 1;
             final int total = reassignations.size();
 
-            for (final WithAssociatedEntity each : reassignations) {
-                Task ganttTask = each.ganntTask;
-                GanttDate previousStart = ganttTask.getBeginDate();
-                GanttDate previousEnd = ganttTask.getEndDate();
-
-                transactionService.runOnReadOnlyTransaction(reassignmentTransaction(each));
-                diagramGraph.enforceRestrictions(each.ganntTask);
-                ganttTask.enforceDependenciesDueToPositionPotentiallyModified();
-                ganttTask.updateSizeDueToDateChanges(previousStart, previousEnd);
-
-                updater.doUpdate(showCompleted(i, total));
-                i++;
+            diagramGraph.beginBatch();
+            try {
+                for (final WithAssociatedEntity each : reassignations) {
+                    Task ganttTask = each.ganntTask;
+
+                    // the previous reassignments can have moved it, so it's placed before reassigning it
+                    diagramGraph.enforceRestrictions(ganttTask);
+                    GanttDate previousStart = ganttTask.getBeginDate();
+                    GanttDate previousEnd = ganttTask.getEndDate();
+
+                    transactionService.runOnReadOnlyTransaction(reassignmentTransaction(each));
+                    ganttTask.enforceDependenciesDueToPositionPotentiallyModified();
+                    ganttTask.updateSizeDueToDateChanges(previousStart, previousEnd);
+
+                    updater.doUpdate(showCompleted(i, total));
+                    i++;
+                }
+            } finally {
+                diagramGraph.commitBatch();
             }
         };
     }
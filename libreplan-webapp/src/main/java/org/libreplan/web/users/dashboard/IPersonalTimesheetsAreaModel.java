@@ -19,11 +19,15 @@
 
 package org.libreplan.web.users.dashboard;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.CalendarAvailability;
 import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
 import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.workreports.entities.WorkReport;
 
@@ -48,6 +52,17 @@ public interface IPersonalTimesheetsAreaModel {
      */
     List<PersonalTimesheetDTO> getPersonalTimesheets();
 
+    /**
+     * Returns the {@link PersonalTimesheetDTO} of each {@link Worker} for the
+     * period containing <code>date</code>, in the same order than
+     * <code>workers</code>.
+     * <br />
+     * Meant for reviewing the timesheets of a whole team, so the
+     * {@link WorkReport WorkReports} of all the workers are retrieved together
+     * instead of one worker after another.
+     */
+    Map<Worker, PersonalTimesheetDTO> getPersonalTimesheets(Collection<Worker> workers, LocalDate date);
+
     /**
      * Returns the number of different {@link OrderElement OrderElements} with
      * tracked time in the specified <code>workReport</code>.
@@ -20,8 +20,11 @@
 package org.libreplan.web.users.dashboard;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IConfigurationDAO;
@@ -108,6 +111,34 @@ public class PersonalTimesheetsAreaModel implements IPersonalTimesheetsAreaModel
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Worker, PersonalTimesheetDTO> getPersonalTimesheets(Collection<Worker> workers, LocalDate date) {
+        PersonalTimesheetsPeriodicityEnum periodicity = getPersonalTimesheetsPeriodicity();
+
+        // The timesheets, their lines and their tasks are loaded together for all the workers. The calendars were
+        // batch fetched with the workers
+        Map<Long, WorkReport> workReports = workReportDAO.getPersonalTimesheetWorkReports(workers, date, periodicity);
+
+        Map<Worker, PersonalTimesheetDTO> result = new LinkedHashMap<>();
+        for (Worker each : workers) {
+            WorkReport workReport = workReports.get(each.getId());
+            forceLoad(workReport);
+
+            EffortDuration hours = EffortDuration.zero();
+            int tasksNumber = 0;
+            if (workReport != null) {
+                hours = workReport.getTotalEffortDuration();
+                tasksNumber = getNumberOfOrderElementsWithTrackedTime(workReport);
+            }
+
+            result.put(each, new PersonalTimesheetDTO(periodicity.getStart(date), workReport,
+                    getResourceCapacity(each, date, periodicity), hours, tasksNumber));
+        }
+
+        return result;
+    }
+
     private WorkReport getWorkReport(Resource resource, LocalDate date, PersonalTimesheetsPeriodicityEnum periodicity) {
         WorkReport workReport = workReportDAO.getPersonalTimesheetWorkReport(resource, date, periodicity);
         forceLoad(workReport);
@@ -21,6 +21,8 @@
 
 package org.libreplan.ws.boundusers.api;
 
+import java.util.List;
+
 import javax.ws.rs.core.Response;
 
 /**
@@ -36,4 +38,11 @@ public interface IBoundUserService {
 
     Response importTimesheetEntries(PersonalTimesheetEntryListDTO dto);
 
+    /**
+     * Returns the personal timesheets of the period containing
+     * <code>date</code> for the workers with the given codes, or for every
+     * bound worker if no code is given.
+     */
+    Response getPersonalTimesheets(String date, List<String> workerCodes);
+
 }
@@ -0,0 +1,71 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.ws.boundusers.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * DTO for the personal timesheet of a worker in a period.
+ */
+@XmlRootElement(name = "personal-timesheet-summary")
+public class PersonalTimesheetSummaryDTO {
+
+    @XmlAttribute
+    public String resource;
+
+    @XmlAttribute(name = "start-date")
+    public XMLGregorianCalendar startDate;
+
+    @XmlAttribute(name = "end-date")
+    public XMLGregorianCalendar endDate;
+
+    @XmlAttribute
+    public String capacity;
+
+    @XmlAttribute
+    public String effort;
+
+    @XmlAttribute(name = "tasks-number")
+    public int tasksNumber;
+
+    @XmlElement(name = "personal-timesheet-entry")
+    public List<PersonalTimesheetEntryDTO> entries = new ArrayList<PersonalTimesheetEntryDTO>();
+
+    public PersonalTimesheetSummaryDTO() {}
+
+    public PersonalTimesheetSummaryDTO(String resource,
+            XMLGregorianCalendar startDate, XMLGregorianCalendar endDate,
+            String capacity, String effort, int tasksNumber,
+            List<PersonalTimesheetEntryDTO> entries) {
+        this.resource = resource;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.capacity = capacity;
+        this.effort = effort;
+        this.tasksNumber = tasksNumber;
+        this.entries = entries;
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.ws.boundusers.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * DTO for a list of personal timesheets of several workers.
+ */
+@XmlRootElement(name = "personal-timesheet-summary-list")
+public class PersonalTimesheetSummaryListDTO {
+
+    @XmlElement(name = "personal-timesheet-summary")
+    public List<PersonalTimesheetSummaryDTO> summaries = new ArrayList<PersonalTimesheetSummaryDTO>();
+
+    public PersonalTimesheetSummaryListDTO() {}
+
+    public PersonalTimesheetSummaryListDTO(List<PersonalTimesheetSummaryDTO> summaries) {
+        this.summaries = summaries;
+    }
+
+}
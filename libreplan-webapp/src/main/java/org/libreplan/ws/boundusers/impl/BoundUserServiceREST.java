@@ -19,14 +19,18 @@
 
 package org.libreplan.ws.boundusers.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
@@ -36,6 +40,8 @@ import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.resources.daos.IWorkerDAO;
+import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportDAO;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
@@ -43,10 +49,13 @@ import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.libreplan.web.users.dashboard.IMyTasksAreaModel;
 import org.libreplan.web.users.dashboard.IPersonalTimesheetModel;
+import org.libreplan.web.users.dashboard.IPersonalTimesheetsAreaModel;
+import org.libreplan.web.users.dashboard.PersonalTimesheetDTO;
 import org.libreplan.web.users.dashboard.UserDashboardUtil;
 import org.libreplan.ws.boundusers.api.IBoundUserService;
 import org.libreplan.ws.boundusers.api.PersonalTimesheetEntryDTO;
 import org.libreplan.ws.boundusers.api.PersonalTimesheetEntryListDTO;
+import org.libreplan.ws.boundusers.api.PersonalTimesheetSummaryListDTO;
 import org.libreplan.ws.boundusers.api.TaskListDTO;
 import org.libreplan.ws.common.impl.DateConverter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -78,6 +87,12 @@ public class BoundUserServiceREST implements IBoundUserService {
     @Autowired
     private IPersonalTimesheetModel personalTimesheetModel;
 
+    @Autowired
+    private IPersonalTimesheetsAreaModel personalTimesheetsAreaModel;
+
+    @Autowired
+    private IWorkerDAO workerDAO;
+
     @Autowired
     private IAdHocTransactionService transactionService;
 
@@ -145,4 +160,43 @@ public class BoundUserServiceREST implements IBoundUserService {
         return Response.ok().build();
     }
 
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    @Path("/personaltimesheets/")
+    public Response getPersonalTimesheets(@QueryParam("date") String date,
+            @QueryParam("worker") List<String> workerCodes) {
+        LocalDate localDate = new LocalDate();
+        if (date != null) {
+            try {
+                localDate = LocalDate.parse(date);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Status.BAD_REQUEST).build();
+            }
+        }
+
+        Collection<Worker> workers;
+        if (workerCodes == null || workerCodes.isEmpty()) {
+            workers = workerDAO.getBound();
+        } else {
+            Map<String, Worker> found = workerDAO.findByCodes(workerCodes);
+            workers = new ArrayList<Worker>();
+            for (String each : workerCodes) {
+                Worker worker = found.get(workerDAO.normalizeCode(each));
+                if (worker == null) {
+                    return Response.status(Status.NOT_FOUND).build();
+                }
+                workers.add(worker);
+            }
+        }
+
+        Map<Worker, PersonalTimesheetDTO> personalTimesheets = personalTimesheetsAreaModel
+                .getPersonalTimesheets(workers, localDate);
+        PersonalTimesheetSummaryListDTO dto = PersonalTimesheetSummaryConverter
+                .toDTO(personalTimesheets,
+                        personalTimesheetsAreaModel
+                                .getPersonalTimesheetsPeriodicity());
+        return Response.ok(dto).build();
+    }
+
 }
@@ -0,0 +1,77 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.ws.boundusers.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.web.users.dashboard.PersonalTimesheetDTO;
+import org.libreplan.ws.boundusers.api.PersonalTimesheetEntryDTO;
+import org.libreplan.ws.boundusers.api.PersonalTimesheetSummaryDTO;
+import org.libreplan.ws.boundusers.api.PersonalTimesheetSummaryListDTO;
+import org.libreplan.ws.common.impl.DateConverter;
+
+/**
+ * Converter from {@link PersonalTimesheetDTO PersonalTimesheetDTOs} of several
+ * workers to DTOs.
+ */
+public final class PersonalTimesheetSummaryConverter {
+
+    private PersonalTimesheetSummaryConverter() {
+    }
+
+    public final static PersonalTimesheetSummaryDTO toDTO(Worker worker,
+            PersonalTimesheetDTO personalTimesheet,
+            PersonalTimesheetsPeriodicityEnum periodicity) {
+        List<PersonalTimesheetEntryDTO> entries = new ArrayList<PersonalTimesheetEntryDTO>();
+        if (personalTimesheet.getWorkReport() != null) {
+            List<WorkReportLine> lines = new ArrayList<WorkReportLine>(
+                    personalTimesheet.getWorkReport().getWorkReportLines());
+            Collections.sort(lines);
+            entries = PersonalTimesheetEntryConverter.toDTO(lines).entries;
+        }
+
+        return new PersonalTimesheetSummaryDTO(worker.getCode(),
+                DateConverter.toXMLGregorianCalendar(periodicity
+                        .getStart(personalTimesheet.getDate())),
+                DateConverter.toXMLGregorianCalendar(periodicity
+                        .getEnd(personalTimesheet.getDate())),
+                personalTimesheet.getResourceCapacity().toFormattedString(),
+                personalTimesheet.getTotalHours().toFormattedString(),
+                personalTimesheet.getTasksNumber(), entries);
+    }
+
+    public final static PersonalTimesheetSummaryListDTO toDTO(
+            Map<Worker, PersonalTimesheetDTO> personalTimesheets,
+            PersonalTimesheetsPeriodicityEnum periodicity) {
+        List<PersonalTimesheetSummaryDTO> dtos = new ArrayList<PersonalTimesheetSummaryDTO>();
+        for (Entry<Worker, PersonalTimesheetDTO> each : personalTimesheets
+                .entrySet()) {
+            dtos.add(toDTO(each.getKey(), each.getValue(), periodicity));
+        }
+        return new PersonalTimesheetSummaryListDTO(dtos);
+    }
+
+}
@@ -193,7 +193,7 @@ public final class CalendarConverter {
                 try {
                     CalendarException exception = baseCalendar
                             .getCalendarExceptionByCode(exceptionDTO.code);
-                    update(exception, exceptionDTO);
+                    update(baseCalendar, exception, exceptionDTO);
                 } catch (InstanceNotFoundException e) {
                     // find by date
                     CalendarException exception = baseCalendar
@@ -254,7 +254,8 @@ public final class CalendarConverter {
 
     }
 
-    public final static void update(CalendarException exception,
+    public final static void update(BaseCalendar baseCalendar,
+            CalendarException exception,
             CalendarExceptionDTO calendarExceptionDTO) {
 
         LocalDate date = null;
@@ -264,7 +265,8 @@ public final class CalendarConverter {
 
         CalendarExceptionType type = findCalendarExceptionType(calendarExceptionDTO.calendarExceptionTypeCode);
 
-        exception.updateUnvalidated(date, calendarExceptionDTO.hours, type);
+        baseCalendar.updateExceptionDayUnvalidated(exception, date,
+                calendarExceptionDTO.hours, type);
     }
 
     public final static void update(CalendarData calendarData,
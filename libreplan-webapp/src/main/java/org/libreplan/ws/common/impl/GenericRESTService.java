@@ -21,11 +21,21 @@
 
 package org.libreplan.ws.common.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
 
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
@@ -50,6 +60,17 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
     @Autowired
     protected IAdHocTransactionService transactionService;
 
+    /**
+     * Number of entities per page used when none is requested, and when
+     * streaming all of them.
+     */
+    protected static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Maximum number of entities returned in a single page.
+     */
+    protected static final int MAX_PAGE_SIZE = 1000;
+
     /**
      * It retrieves all entities.
      */
@@ -58,46 +79,121 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
     }
 
     /**
-     * It saves (inserts or updates) a list of entities. Each entity is
-     * saved in a separate transaction.
+     * It retrieves the entities ordered by code, as
+     * {@link #findAll()} does, but only <code>limit</code> of them starting
+     * just after <code>afterCode</code>. The code of the last one can be used
+     * to request the next page.
+     */
+    protected List<DTO> findAfterCode(String afterCode, int limit) {
+        return toDTO(getIntegrationEntityDAO().findAfterCode(afterCode,
+            Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    /**
+     * It returns the entities as the list DTO created by
+     * <code>toListDTO</code>.
+     *
+     * If neither <code>afterCode</code> nor <code>limit</code> is specified,
+     * all of them are returned, but they are loaded, converted and written
+     * to the response a page at a time, so memory usage does not depend on
+     * how many there are. Otherwise, just the requested page is returned
+     * (see {@link #findAfterCode(String, int)}).
+     */
+    protected Response findAll(String afterCode, Integer limit,
+        Function<List<DTO>, ?> toListDTO) {
+
+        if (afterCode == null && limit == null) {
+            return Response.ok(streamAll(toListDTO)).build();
+        }
+
+        return Response.ok(toListDTO.apply(findAfterCode(afterCode,
+            limit != null ? limit : DEFAULT_PAGE_SIZE))).build();
+    }
+
+    /**
+     * It writes all the entities as the list DTO created by
+     * <code>toListDTO</code>. As the response is written once the service
+     * method has returned, the entities are read in a transaction of its own.
+     */
+    private StreamingOutput streamAll(final Function<List<DTO>, ?> toListDTO) {
+        return new StreamingOutput() {
+
+            @Override
+            public void write(OutputStream output) throws IOException {
+                try {
+                    final ListDTOStreamWriter writer =
+                        new ListDTOStreamWriter(output);
+                    writer.write(toListDTO.apply(Collections.<DTO> emptyList()));
+                    transactionService.runOnAnotherReadOnlyTransaction(
+                        () -> {
+                            scrollAll(DEFAULT_PAGE_SIZE, page -> writePage(
+                                writer, toListDTO.apply(toDTO(page))));
+                            return null;
+                        });
+                    writer.close();
+                } catch (JAXBException | XMLStreamException e) {
+                    throw new WebApplicationException(e);
+                }
+            }
+
+        };
+    }
+
+    /**
+     * It passes all the entities to <code>onPage</code>, a page at a time, in
+     * the order of the streamed listing. By default they are ordered by code.
+     */
+    protected void scrollAll(int pageSize, Consumer<List<E>> onPage) {
+        getIntegrationEntityDAO().scrollAll(pageSize, onPage);
+    }
+
+    private static void writePage(ListDTOStreamWriter writer, Object listDTO) {
+        try {
+            writer.write(listDTO);
+        } catch (JAXBException | XMLStreamException e) {
+            throw new WebApplicationException(e);
+        }
+    }
+
+    /**
+     * Default number of entities saved in the same transaction by
+     * {@link #save(List)}.
+     */
+    protected static final int DEFAULT_BULK_CHUNK_SIZE = 100;
+
+    /**
+     * It saves (inserts or updates) a list of entities. Entities are saved in
+     * chunks of {@link #getBulkChunkSize()} elements, each one in a separate
+     * transaction. If some entity of a chunk can not be saved, the chunk is
+     * rolled back and its entities are saved again one by one, so only the
+     * failing ones are reported.
      */
     protected InstanceConstraintViolationsListDTO save(
         List<? extends DTO> entityDTOs) {
 
         List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
             new ArrayList<InstanceConstraintViolationsDTO>();
-        long numItem = 1;
-
-        for (DTO entityDTO : entityDTOs) {
-
-            InstanceConstraintViolationsDTO instanceConstraintViolationsDTO =
-                null;
-
-            try {
-                insertOrUpdate(entityDTO);
-            } catch (ValidationException e) {
-                instanceConstraintViolationsDTO =
-                    ConstraintViolationConverter.toDTO(
-                        Util.generateInstanceConstraintViolationsDTOId(
-                            numItem, entityDTO), e);
-            } catch (RecoverableErrorException e) {
-                instanceConstraintViolationsDTO =
-                    ConstraintViolationConverter.toDTO(
-                        Util.generateInstanceConstraintViolationsDTOId(
-                            numItem, entityDTO), e);
-            } catch (RuntimeException e) {
-                instanceConstraintViolationsDTO =
-                    ConstraintViolationConverter.toDTO(
-                        Util.generateInstanceConstraintViolationsDTOId(
-                            numItem, entityDTO), e);
-            }
+        int chunkSize = Math.max(1, getBulkChunkSize());
+
+        for (int first = 0; first < entityDTOs.size(); first += chunkSize) {
+
+            List<? extends DTO> chunk = entityDTOs.subList(first,
+                Math.min(first + chunkSize, entityDTOs.size()));
 
-            if (instanceConstraintViolationsDTO != null) {
-                instanceConstraintViolationsList.add(
-                    instanceConstraintViolationsDTO);
+            if (chunk.size() > 1 && tryToInsertOrUpdate(chunk)) {
+                continue;
             }
 
-            numItem++;
+            long numItem = first + 1;
+            for (DTO entityDTO : chunk) {
+                InstanceConstraintViolationsDTO instanceConstraintViolationsDTO =
+                    saveOneByOne(numItem, entityDTO);
+                if (instanceConstraintViolationsDTO != null) {
+                    instanceConstraintViolationsList.add(
+                        instanceConstraintViolationsDTO);
+                }
+                numItem++;
+            }
 
         }
 
@@ -106,6 +202,103 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
 
     }
 
+    /**
+     * It returns the number of entities saved in the same transaction by
+     * {@link #save(List)}. Services whose {@link #beforeSaving(IntegrationEntity)}
+     * or {@link #afterSaving(IntegrationEntity)} do not support several
+     * entities per transaction must return 1.
+     */
+    protected int getBulkChunkSize() {
+        return DEFAULT_BULK_CHUNK_SIZE;
+    }
+
+    private boolean tryToInsertOrUpdate(List<? extends DTO> chunk) {
+        try {
+            insertOrUpdate(chunk);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private InstanceConstraintViolationsDTO saveOneByOne(long numItem,
+        DTO entityDTO) {
+
+        try {
+            insertOrUpdate(entityDTO);
+            return null;
+        } catch (ValidationException e) {
+            return ConstraintViolationConverter.toDTO(
+                Util.generateInstanceConstraintViolationsDTOId(
+                    numItem, entityDTO), e);
+        } catch (RecoverableErrorException e) {
+            return ConstraintViolationConverter.toDTO(
+                Util.generateInstanceConstraintViolationsDTOId(
+                    numItem, entityDTO), e);
+        } catch (RuntimeException e) {
+            return ConstraintViolationConverter.toDTO(
+                Util.generateInstanceConstraintViolationsDTOId(
+                    numItem, entityDTO), e);
+        }
+    }
+
+    /**
+     * It saves (inserts or updates) a chunk of entity DTOs by using a single
+     * new transaction. The existing entities are retrieved with one query
+     * for all the codes of the chunk.
+     *
+     * @throws ValidationException if validations are not passed by any of
+     *         them
+     * @throws RecoverableErrorException if a recoverable error occurs
+     */
+    private void insertOrUpdate(final List<? extends DTO> entityDTOs)
+        throws ValidationException, RecoverableErrorException {
+
+        IOnTransaction<Void> save = new IOnTransaction<Void>() {
+
+            @Override
+            public Void execute() {
+
+                IIntegrationEntityDAO<E> entityDAO =
+                    getIntegrationEntityDAO();
+                List<String> codes = new ArrayList<String>();
+                for (DTO entityDTO : entityDTOs) {
+                    codes.add(entityDTO.code);
+                }
+                Map<String, E> existing = entityDAO.findByCodes(codes);
+
+                for (DTO entityDTO : entityDTOs) {
+
+                    /* Insert or update? */
+                    String code = entityDAO.normalizeCode(entityDTO.code);
+                    E entity = code != null ? existing.get(code) : null;
+                    if (entity != null) {
+                        updateEntity(entity, entityDTO);
+                    } else {
+                        entity = toEntity(entityDTO);
+                        if (code != null) {
+                            /* Later DTOs with the same code update it. */
+                            existing.put(code, entity);
+                        }
+                    }
+
+                    entity.validate();
+                    beforeSaving(entity);
+                    entityDAO.saveWithoutValidating(entity);
+                    afterSaving(entity);
+
+                }
+
+                return null;
+
+            }
+
+        };
+
+        transactionService.runOnAnotherTransaction(save);
+
+    }
+
     /**
      * It saves (inserts or updates) an entity DTO by using a new transaction.
      *
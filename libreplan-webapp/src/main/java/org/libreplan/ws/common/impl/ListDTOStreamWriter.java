@@ -0,0 +1,131 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.ws.common.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * It writes a list DTO as XML a page at a time, so the whole list never has
+ * to be held in memory. The output is the same document that marshalling a
+ * list DTO with all the elements would produce.
+ *
+ * Each page is marshalled as a list DTO of its own and only its children are
+ * copied to the output, inside the root element of the first one.
+ */
+public class ListDTOStreamWriter {
+
+    private static final ConcurrentMap<Class<?>, JAXBContext> contexts = new ConcurrentHashMap<>();
+
+    private static final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+
+    private final XMLEventWriter writer;
+
+    private XMLEvent rootEnd;
+
+    public ListDTOStreamWriter(OutputStream output) throws XMLStreamException {
+        XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+        outputFactory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+        writer = outputFactory.createXMLEventWriter(output, "UTF-8");
+    }
+
+    /**
+     * It writes the elements of a list DTO. The document and its root
+     * element are opened with the first one.
+     */
+    public void write(Object listDTO) throws JAXBException, XMLStreamException {
+        boolean first = rootEnd == null;
+        XMLEventReader reader = inputFactory.createXMLEventReader(new ByteArrayInputStream(marshal(listDTO)));
+        try {
+            int depth = 0;
+            while ( reader.hasNext() ) {
+                XMLEvent event = reader.nextEvent();
+                if ( event.isStartDocument() || event.isEndDocument() ) {
+                    if ( first && event.isStartDocument() ) {
+                        writer.add(event);
+                    }
+                    continue;
+                }
+                if ( event.isStartElement() && ++depth == 1 ) {
+                    if ( first ) {
+                        writer.add(event);
+                    }
+                    continue;
+                }
+                if ( event.isEndElement() && --depth == 0 ) {
+                    rootEnd = event;
+                    continue;
+                }
+                writer.add(event);
+            }
+        } finally {
+            reader.close();
+        }
+        writer.flush();
+    }
+
+    /**
+     * It closes the root element and the document. At least one list DTO,
+     * even if empty, must have been written before.
+     */
+    public void close() throws XMLStreamException {
+        if ( rootEnd == null ) {
+            throw new IllegalStateException("no list has been written");
+        }
+        writer.add(rootEnd);
+        writer.add(XMLEventFactory.newInstance().createEndDocument());
+        writer.flush();
+        writer.close();
+    }
+
+    private static byte[] marshal(Object listDTO) throws JAXBException {
+        Marshaller marshaller = getContext(listDTO.getClass()).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        marshaller.marshal(listDTO, result);
+
+        return result.toByteArray();
+    }
+
+    private static JAXBContext getContext(Class<?> listDTOClass) throws JAXBException {
+        JAXBContext result = contexts.get(listDTOClass);
+        if ( result == null ) {
+            result = JAXBContext.newInstance(listDTOClass);
+            contexts.putIfAbsent(listDTOClass, result);
+        }
+
+        return result;
+    }
+
+}
@@ -33,6 +33,13 @@ public interface IExpenseSheetService {
 
     ExpenseSheetListDTO getExpenseSheets();
 
+    /**
+     * Without parameters, it streams all the expense sheets. Otherwise, it returns at
+     * most <code>limit</code> of them, ordered by code and starting after
+     * <code>afterCode</code>.
+     */
+    Response getExpenseSheets(String afterCode, Integer limit);
+
     InstanceConstraintViolationsListDTO addExpenseSheets(
             ExpenseSheetListDTO expenseSheetListDTO);
 
@@ -37,6 +37,13 @@ public interface IOrderElementService {
 
     OrderListDTO getOrders();
 
+    /**
+     * Without parameters, it streams all the orders. Otherwise, it returns at
+     * most <code>limit</code> of them, ordered by code and starting after
+     * <code>afterCode</code>.
+     */
+    Response getOrders(String afterCode, Integer limit);
+
     Response getOrderElement(String code);
 
     Response removeOrderElement(String code);
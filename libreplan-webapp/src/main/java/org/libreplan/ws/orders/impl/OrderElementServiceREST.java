@@ -30,6 +30,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
@@ -77,12 +78,18 @@ public class OrderElementServiceREST
     private IOrderModel orderModel;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public OrderListDTO getOrders() {
         return new OrderListDTO(findAll());
     }
 
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public Response getOrders(@QueryParam("after") String afterCode, @QueryParam("limit") Integer limit) {
+        return findAll(afterCode, limit, OrderListDTO::new);
+    }
+
     @Override
     @POST
     @Consumes("application/xml")
@@ -43,6 +43,14 @@ public interface IResourceService {
 
     public ResourceListDTO getResources();
 
+    /**
+     * Without parameters, it streams all the resources, workers first and then
+     * machines, as {@link #getResources()} does. Otherwise, it returns at most
+     * <code>limit</code> of them, ordered by code whatever their type and
+     * starting after <code>afterCode</code>.
+     */
+    public Response getResources(String afterCode, Integer limit);
+
     Response getResource(String code);
 
 }
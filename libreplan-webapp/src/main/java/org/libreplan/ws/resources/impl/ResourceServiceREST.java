@@ -24,6 +24,7 @@ package org.libreplan.ws.resources.impl;
 import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -31,6 +32,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.StringUtils;
@@ -125,12 +127,18 @@ public class ResourceServiceREST
     private IMachineDAO machineDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public ResourceListDTO getResources() {
         return new ResourceListDTO(findAll());
     }
 
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public Response getResources(@QueryParam("after") String afterCode, @QueryParam("limit") Integer limit) {
+        return findAll(afterCode, limit, ResourceListDTO::new);
+    }
+
     @Override
     protected List<ResourceDTO> findAll() {
         List<Resource> result = new ArrayList<Resource>();
@@ -139,6 +147,18 @@ public class ResourceServiceREST
         return toDTO(result);
     }
 
+    /**
+     * Workers first and then machines, as {@link #findAll()} does. Each group
+     * is ordered by code.
+     */
+    @Override
+    protected void scrollAll(int pageSize, Consumer<List<Resource>> onPage) {
+        workerDAO.scrollAll(pageSize,
+            workers -> onPage.accept(new ArrayList<Resource>(workers)));
+        machineDAO.scrollAll(pageSize,
+            machines -> onPage.accept(new ArrayList<Resource>(machines)));
+    }
+
     private void generateCodes(Resource resource) {
         // set autogenerated code to CriterionSatisfaction
         for (CriterionSatisfaction satisfaction : resource
@@ -34,6 +34,13 @@ public interface IWorkReportService {
 
     public WorkReportListDTO getWorkReports();
 
+    /**
+     * Without parameters, it streams all the work reports. Otherwise, it returns at
+     * most <code>limit</code> of them, ordered by code and starting after
+     * <code>afterCode</code>.
+     */
+    public Response getWorkReports(String afterCode, Integer limit);
+
     public InstanceConstraintViolationsListDTO addWorkReports(
             WorkReportListDTO workReportListDTO);
 
@@ -32,6 +32,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
@@ -75,12 +76,18 @@ public class WorkReportServiceREST extends GenericRESTService<WorkReport, WorkRe
     private ISumChargedEffortDAO sumChargedEffortDAO;
 
     @Override
-    @GET
     @Transactional(readOnly = true)
     public WorkReportListDTO getWorkReports() {
         return new WorkReportListDTO(findAll());
     }
 
+    @Override
+    @GET
+    @Transactional(readOnly = true)
+    public Response getWorkReports(@QueryParam("after") String afterCode, @QueryParam("limit") Integer limit) {
+        return findAll(afterCode, limit, WorkReportListDTO::new);
+    }
+
     @Override
     @POST
     @Consumes("application/xml")
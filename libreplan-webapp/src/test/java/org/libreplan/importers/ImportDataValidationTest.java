@@ -0,0 +1,178 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.importers;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests for the checks of {@link OrderImporterMPXJ#validateImportData} and
+ * {@link CalendarImporterMPXJ#validateCalendarDTOs}, which only look at the
+ * imported DTOs and the names of the existing calendars.
+ */
+public class ImportDataValidationTest {
+
+    private static final String EXISTING_CALENDAR = "Existing";
+
+    private OrderImporterMPXJ orderImporter;
+
+    private CalendarImporterMPXJ calendarImporter;
+
+    @Before
+    public void setUp() {
+        IBaseCalendarDAO baseCalendarDAO = createNiceMock(IBaseCalendarDAO.class);
+        BaseCalendar existing = BaseCalendar.create();
+        existing.setName(EXISTING_CALENDAR);
+        expect(baseCalendarDAO.findByName(eq(EXISTING_CALENDAR))).andReturn(Arrays.asList(existing)).anyTimes();
+        expect(baseCalendarDAO.findByName(anyObject(String.class))).andReturn(new ArrayList<BaseCalendar>())
+                .anyTimes();
+        replay(baseCalendarDAO);
+
+        orderImporter = new OrderImporterMPXJ();
+        ReflectionTestUtils.setField(orderImporter, "baseCalendarDAO", baseCalendarDAO);
+        calendarImporter = new CalendarImporterMPXJ();
+        ReflectionTestUtils.setField(calendarImporter, "baseCalendarDAO", baseCalendarDAO);
+    }
+
+    private static OrderDTO givenProject(OrderElementDTO... tasks) {
+        OrderDTO project = new OrderDTO();
+        project.name = "project";
+        project.tasks = Arrays.asList(tasks);
+        project.milestones = new ArrayList<>();
+        project.dependencies = new ArrayList<>();
+        return project;
+    }
+
+    private static OrderElementDTO givenTask(String name) {
+        OrderElementDTO task = new OrderElementDTO();
+        task.name = name;
+        task.children = new ArrayList<>();
+        task.milestones = new ArrayList<>();
+        task.constraint = ConstraintDTO.AS_SOON_AS_POSSIBLE;
+        return task;
+    }
+
+    private static CalendarDTO givenCalendar(String name, String parent) {
+        CalendarDTO calendar = new CalendarDTO();
+        calendar.name = name;
+        calendar.parent = parent;
+        return calendar;
+    }
+
+    private List<String> validate(OrderDTO project, String... importedCalendars) {
+        return orderImporter.validateImportData(project, true, Arrays.asList(importedCalendars));
+    }
+
+    @Test
+    public void aValidProjectHasNoErrors() {
+        OrderElementDTO task = givenTask("task");
+        task.calendarName = EXISTING_CALENDAR;
+
+        assertTrue(validate(givenProject(task)).isEmpty());
+    }
+
+    @Test
+    public void aMissingCalendarIsReported() {
+        OrderElementDTO task = givenTask("task");
+        task.calendarName = "Missing";
+
+        assertEquals(1, validate(givenProject(task)).size());
+    }
+
+    @Test
+    public void aCalendarImportedWithTheProjectIsNotMissing() {
+        OrderElementDTO task = givenTask("task");
+        task.calendarName = "Imported";
+        OrderDTO project = givenProject(task);
+        project.calendarName = "Imported";
+
+        assertTrue(validate(project, "Imported").isEmpty());
+    }
+
+    @Test
+    public void theCalendarsAreNotCheckedIfTheyAreNotImported() {
+        OrderElementDTO task = givenTask("task");
+        task.calendarName = "Missing";
+
+        assertTrue(orderImporter.validateImportData(givenProject(task), false, Collections.<String> emptyList())
+                .isEmpty());
+    }
+
+    @Test
+    public void aConstraintWithoutDateIsReported() {
+        OrderElementDTO withoutDate = givenTask("without date");
+        withoutDate.constraint = ConstraintDTO.START_IN_FIXED_DATE;
+        OrderElementDTO withDate = givenTask("with date");
+        withDate.constraint = ConstraintDTO.FINISH_NOT_LATER_THAN;
+        withDate.constraintDate = new Date();
+
+        assertEquals(1, validate(givenProject(withoutDate, withDate)).size());
+    }
+
+    @Test
+    public void aTaskWithoutNameIsReported() {
+        OrderElementDTO parent = givenTask("parent");
+        parent.children = Arrays.asList(givenTask(" "), givenTask("child"));
+
+        assertEquals(1, validate(givenProject(parent)).size());
+    }
+
+    @Test
+    public void calendarsWithTheirParentsBeforeThemHaveNoErrors() {
+        List<String> errors = calendarImporter.validateCalendarDTOs(Arrays.asList(
+                givenCalendar("parent", null), givenCalendar("child", "parent")));
+
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void aParentCalendarNotImportedBeforeItsChildIsReported() {
+        List<String> errors = calendarImporter.validateCalendarDTOs(Arrays.asList(
+                givenCalendar("child", "parent"), givenCalendar("parent", null), givenCalendar("other", "unknown")));
+
+        assertEquals(2, errors.size());
+    }
+
+    @Test
+    public void aCalendarNameInUseIsReported() {
+        List<String> errors = calendarImporter.validateCalendarDTOs(Arrays.asList(
+                givenCalendar(EXISTING_CALENDAR, null)));
+
+        assertEquals(1, errors.size());
+    }
+
+}
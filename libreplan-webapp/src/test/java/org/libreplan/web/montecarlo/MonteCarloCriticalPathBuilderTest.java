@@ -0,0 +1,163 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.web.montecarlo;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.libreplan.business.planner.entities.Dependency;
+import org.libreplan.business.planner.entities.Task;
+
+public class MonteCarloCriticalPathBuilderTest {
+
+    private final Map<Task, Set<Dependency>> outgoing = new HashMap<>();
+
+    private final Map<Task, Set<Dependency>> incoming = new HashMap<>();
+
+    private Task task() {
+        Task result = createNiceMock(Task.class);
+        outgoing.put(result, new HashSet<>());
+        incoming.put(result, new HashSet<>());
+        expect(result.getDependenciesWithThisOrigin()).andReturn(outgoing.get(result)).anyTimes();
+        expect(result.getDependenciesWithThisDestination()).andReturn(incoming.get(result)).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    private void link(Task origin, Task destination) {
+        Dependency dependency = createNiceMock(Dependency.class);
+        expect(dependency.getOrigin()).andReturn(origin).anyTimes();
+        expect(dependency.getDestination()).andReturn(destination).anyTimes();
+        expect(dependency.getType()).andReturn(Dependency.Type.END_START).anyTimes();
+        replay(dependency);
+        outgoing.get(origin).add(dependency);
+        incoming.get(destination).add(dependency);
+    }
+
+    /**
+     * Adds a diamond after the given task
+     *
+     * @return the last task of the diamond
+     */
+    private Task diamondAfter(Task first, List<Task> tasks) {
+        Task left = task();
+        Task right = task();
+        Task last = task();
+        link(first, left);
+        link(first, right);
+        link(left, last);
+        link(right, last);
+        tasks.addAll(Arrays.asList(left, right, last));
+        return last;
+    }
+
+    /**
+     * @return a sequence of diamonds, that has 2^<code>diamonds</code> paths
+     */
+    private List<Task> diamonds(int diamonds) {
+        List<Task> result = new ArrayList<>();
+        Task last = task();
+        result.add(last);
+        for (int i = 0; i < diamonds; i++) {
+            last = diamondAfter(last, result);
+        }
+        return result;
+    }
+
+    private static List<List<Task>> build(List<Task> tasksInCriticalPath) {
+        return MonteCarloCriticalPathBuilder.create(tasksInCriticalPath).buildAllPossibleCriticalPaths();
+    }
+
+    @Test
+    public void aSingleTaskIsTheOnlyPath() {
+        List<Task> tasks = Arrays.asList(task());
+
+        assertEquals(Arrays.asList(tasks), build(tasks));
+    }
+
+    @Test
+    public void bothBranchesOfADiamondArePaths() {
+        List<Task> tasks = diamonds(1);
+        Task first = tasks.get(0);
+        Task left = tasks.get(1);
+        Task right = tasks.get(2);
+        Task last = tasks.get(3);
+
+        MonteCarloCriticalPathBuilder builder = MonteCarloCriticalPathBuilder.create(tasks);
+
+        assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(first, left, last), Arrays.asList(first, right, last))),
+                new HashSet<>(builder.buildAllPossibleCriticalPaths()));
+        assertFalse(builder.isTruncated());
+    }
+
+    @Test
+    public void theDestinationsNotInTheCriticalPathAreNotFollowed() {
+        List<Task> tasks = diamonds(1);
+        Task outside = task();
+        link(tasks.get(1), outside);
+
+        List<List<Task>> paths = build(tasks);
+
+        assertEquals(2, paths.size());
+        for (List<Task> each : paths) {
+            assertTrue(tasks.containsAll(each));
+        }
+    }
+
+    @Test
+    public void onlyTheFirstPathsAreBuilt() {
+        List<Task> tasks = diamonds(10);
+        MonteCarloCriticalPathBuilder builder = MonteCarloCriticalPathBuilder.create(tasks);
+
+        List<List<Task>> paths = builder.buildAllPossibleCriticalPaths();
+
+        assertTrue(builder.isTruncated());
+        assertEquals(MonteCarloCriticalPathBuilder.MAX_PATHS, paths.size());
+        assertEquals(MonteCarloCriticalPathBuilder.MAX_PATHS, new HashSet<>(paths).size());
+        for (List<Task> each : paths) {
+            assertEquals(21, each.size());
+            assertTrue(tasks.containsAll(each));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void theExplorationStopsAlthoughNoPathIsCompleted() {
+        List<Task> tasks = diamonds(40);
+        // the last task continues outside the critical path, so all the paths are discarded
+        link(tasks.get(tasks.size() - 1), task());
+        MonteCarloCriticalPathBuilder builder = MonteCarloCriticalPathBuilder.create(tasks);
+
+        assertTrue(builder.buildAllPossibleCriticalPaths().isEmpty());
+        assertTrue(builder.isTruncated());
+    }
+
+}
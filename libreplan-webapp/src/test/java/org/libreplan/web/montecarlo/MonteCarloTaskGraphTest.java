@@ -0,0 +1,211 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.web.montecarlo;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.Dependency;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.planner.entities.TaskGroup;
+import org.libreplan.business.planner.entities.TaskPositionConstraint;
+
+/**
+ * Tests {@link MonteCarloTaskGraph} with a diamond of tasks: A precedes B and
+ * C, which precede D.
+ */
+public class MonteCarloTaskGraphTest {
+
+    private static final LocalDate START = new LocalDate(2026, 1, 5);
+
+    private TaskGroup root;
+
+    private Task a;
+
+    private Task b;
+
+    private Task c;
+
+    private Task d;
+
+    private final List<Object> mocks = new ArrayList<>();
+
+    private MonteCarloTaskGraph graph;
+
+    @Before
+    public void createDiamond() {
+        root = createNiceMock(TaskGroup.class);
+        a = createNiceMock(Task.class);
+        b = createNiceMock(Task.class);
+        c = createNiceMock(Task.class);
+        d = createNiceMock(Task.class);
+        mocks.addAll(Arrays.asList(root, a, b, c, d));
+
+        expect(root.isLeaf()).andReturn(false).anyTimes();
+        expect(root.getChildren()).andReturn(Arrays.<TaskElement> asList(a, b, c, d)).anyTimes();
+        expect(root.getStartAsLocalDate()).andReturn(START).anyTimes();
+        expect(root.getDependenciesWithThisDestination()).andReturn(new HashSet<>()).anyTimes();
+
+        task(a);
+        task(b, dependency(a, b));
+        task(c, dependency(a, c));
+        task(d, dependency(b, d), dependency(c, d));
+
+        replay(mocks.toArray());
+        graph = MonteCarloTaskGraph.create(root);
+    }
+
+    private void task(Task task, Dependency... incoming) {
+        expect(task.isLeaf()).andReturn(true).anyTimes();
+        expect(task.getParent()).andReturn(root).anyTimes();
+        expect(task.getStartAsLocalDate()).andReturn(START).anyTimes();
+        expect(task.getPositionConstraint()).andReturn(new TaskPositionConstraint()).anyTimes();
+        Set<Dependency> dependencies = new HashSet<>(Arrays.asList(incoming));
+        expect(task.getDependenciesWithThisDestination()).andReturn(dependencies).anyTimes();
+    }
+
+    private Dependency dependency(Task origin, Task destination) {
+        Dependency result = createNiceMock(Dependency.class);
+        expect(result.getOrigin()).andReturn(origin).anyTimes();
+        expect(result.getDestination()).andReturn(destination).anyTimes();
+        expect(result.getType()).andReturn(Dependency.Type.END_START).anyTimes();
+        mocks.add(result);
+        return result;
+    }
+
+    private double[] durations(double durationA, double durationB, double durationC, double durationD) {
+        double[] durationOfTask = new double[graph.getTasks().size()];
+        durationOfTask[graph.getTasks().indexOf(a)] = durationA;
+        durationOfTask[graph.getTasks().indexOf(b)] = durationB;
+        durationOfTask[graph.getTasks().indexOf(c)] = durationC;
+        durationOfTask[graph.getTasks().indexOf(d)] = durationD;
+
+        double[] result = new double[graph.getNodesCount()];
+        for (int node = 0; node < result.length; node++) {
+            int task = graph.getTaskOf(node);
+            if ( task != -1 ) {
+                result[node] = durationOfTask[task];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The calculation done in each iteration before simulating the whole
+     * graph: the durations of the tasks of a path are added one after another.
+     */
+    private static double endOfPath(double... durations) {
+        double result = 0;
+        for (double each : durations) {
+            result += each;
+        }
+        return result;
+    }
+
+    @Test
+    public void allTheTasksAreNodes() {
+        assertEquals(new HashSet<>(Arrays.asList(a, b, c, d)), new HashSet<>(graph.getTasks()));
+        // the group has a start and an end node
+        assertEquals(6, graph.getNodesCount());
+    }
+
+    @Test
+    public void theEndIsTheEndOfTheLongestPath() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            double durationA = random.nextInt(20);
+            double durationB = random.nextInt(20) + random.nextDouble();
+            double durationC = random.nextInt(20) + random.nextDouble();
+            double durationD = random.nextInt(20);
+            int nodes = graph.getNodesCount();
+            double[] earliestEnd = new double[nodes];
+
+            int last = graph.forwardPass(durations(durationA, durationB, durationC, durationD),
+                    new double[nodes], earliestEnd, new int[nodes], new int[nodes]);
+
+            double expected = Math.max(endOfPath(durationA, durationB, durationD),
+                    endOfPath(durationA, durationC, durationD));
+            assertEquals(expected, earliestEnd[last], 0);
+        }
+    }
+
+    @Test
+    public void theTasksOfTheLongestPathAreCritical() {
+        int nodes = graph.getNodesCount();
+        int[] startDriver = new int[nodes];
+        int[] endDriver = new int[nodes];
+        long[] criticalCounts = new long[graph.getTasks().size()];
+
+        int last = graph.forwardPass(durations(2, 5, 3, 1), new double[nodes], new double[nodes],
+                startDriver, endDriver);
+        graph.countCriticalTasks(last, startDriver, endDriver, criticalCounts);
+        last = graph.forwardPass(durations(2, 3, 5, 1), new double[nodes], new double[nodes],
+                startDriver, endDriver);
+        graph.countCriticalTasks(last, startDriver, endDriver, criticalCounts);
+
+        assertEquals(2, criticalCounts[graph.getTasks().indexOf(a)]);
+        assertEquals(1, criticalCounts[graph.getTasks().indexOf(b)]);
+        assertEquals(1, criticalCounts[graph.getTasks().indexOf(c)]);
+        assertEquals(2, criticalCounts[graph.getTasks().indexOf(d)]);
+    }
+
+    @Test
+    public void theStartOfAnUnconstrainedTaskIsItsCurrentStart() {
+        root = createNiceMock(TaskGroup.class);
+        Task single = createNiceMock(Task.class);
+        expect(root.isLeaf()).andReturn(false).anyTimes();
+        expect(root.getChildren()).andReturn(Arrays.<TaskElement> asList(single)).anyTimes();
+        expect(root.getStartAsLocalDate()).andReturn(START).anyTimes();
+        expect(root.getDependenciesWithThisDestination()).andReturn(new HashSet<>()).anyTimes();
+        expect(single.isLeaf()).andReturn(true).anyTimes();
+        expect(single.getParent()).andReturn(root).anyTimes();
+        expect(single.getStartAsLocalDate()).andReturn(START.plusDays(3)).anyTimes();
+        expect(single.getDependenciesWithThisDestination()).andReturn(new HashSet<>()).anyTimes();
+        replay(root, single);
+
+        MonteCarloTaskGraph singleTaskGraph = MonteCarloTaskGraph.create(root);
+        int nodes = singleTaskGraph.getNodesCount();
+        double[] durations = new double[nodes];
+        for (int node = 0; node < nodes; node++) {
+            if ( singleTaskGraph.getTaskOf(node) != -1 ) {
+                durations[node] = 4;
+            }
+        }
+        double[] earliestEnd = new double[nodes];
+
+        int last = singleTaskGraph.forwardPass(durations, new double[nodes], earliestEnd, new int[nodes],
+                new int[nodes]);
+
+        assertEquals(7, earliestEnd[last], 0);
+    }
+
+}
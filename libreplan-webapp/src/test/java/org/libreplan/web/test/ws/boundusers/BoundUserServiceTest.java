@@ -0,0 +1,180 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.test.ws.boundusers;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.easymock.IAnswer;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
+import org.libreplan.business.resources.daos.IWorkerDAO;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.web.users.dashboard.IPersonalTimesheetsAreaModel;
+import org.libreplan.web.users.dashboard.PersonalTimesheetDTO;
+import org.libreplan.ws.boundusers.api.PersonalTimesheetSummaryDTO;
+import org.libreplan.ws.boundusers.api.PersonalTimesheetSummaryListDTO;
+import org.libreplan.ws.boundusers.impl.BoundUserServiceREST;
+import org.libreplan.ws.common.impl.DateConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests for the personal timesheets of several workers in
+ * {@link BoundUserServiceREST}.
+ */
+public class BoundUserServiceTest {
+
+    private static final LocalDate DATE = new LocalDate(2026, 2, 10);
+
+    private BoundUserServiceREST boundUserService;
+
+    private IWorkerDAO workerDAO;
+
+    private IPersonalTimesheetsAreaModel personalTimesheetsAreaModel;
+
+    private Worker first;
+
+    private Worker second;
+
+    @Before
+    public void setUp() {
+        boundUserService = new BoundUserServiceREST();
+        workerDAO = createNiceMock(IWorkerDAO.class);
+        personalTimesheetsAreaModel = createNiceMock(IPersonalTimesheetsAreaModel.class);
+        ReflectionTestUtils.setField(boundUserService, "workerDAO", workerDAO);
+        ReflectionTestUtils.setField(boundUserService, "personalTimesheetsAreaModel", personalTimesheetsAreaModel);
+
+        first = givenWorker("FIRST");
+        second = givenWorker("SECOND");
+
+        expect(workerDAO.normalizeCode(anyObject(String.class))).andAnswer(new IAnswer<String>() {
+            @Override
+            public String answer() {
+                return ((String) getCurrentArguments()[0]).toUpperCase();
+            }
+        }).anyTimes();
+        expect(personalTimesheetsAreaModel.getPersonalTimesheetsPeriodicity())
+                .andReturn(PersonalTimesheetsPeriodicityEnum.MONTHLY).anyTimes();
+    }
+
+    private static Worker givenWorker(String code) {
+        Worker worker = Worker.create(code, code, code);
+        worker.setCode(code);
+        return worker;
+    }
+
+    private void givenWorkersWithCodes(Worker... workers) {
+        Map<String, Worker> result = new HashMap<>();
+        for (Worker each : workers) {
+            result.put(each.getCode(), each);
+        }
+        expect(workerDAO.findByCodes(anyObject(Collection.class))).andReturn(result).anyTimes();
+    }
+
+    private void givenPersonalTimesheetsOf(List<Worker> workers) {
+        Map<Worker, PersonalTimesheetDTO> result = new LinkedHashMap<>();
+        int tasksNumber = 1;
+        for (Worker each : workers) {
+            result.put(each, new PersonalTimesheetDTO(new LocalDate(2026, 2, 1), null,
+                    EffortDuration.hours(160), EffortDuration.hours(tasksNumber * 10), tasksNumber));
+            tasksNumber++;
+        }
+        expect(personalTimesheetsAreaModel.getPersonalTimesheets(eq(workers), eq(DATE))).andReturn(result);
+    }
+
+    @Test
+    public void aWrongDateIsABadRequest() {
+        replay(workerDAO, personalTimesheetsAreaModel);
+
+        Response response = boundUserService.getPersonalTimesheets("2026-13-45", Collections.<String> emptyList());
+
+        assertEquals(Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+    }
+
+    @Test
+    public void anUnknownWorkerIsNotFound() {
+        givenWorkersWithCodes(first);
+        replay(workerDAO, personalTimesheetsAreaModel);
+
+        Response response = boundUserService.getPersonalTimesheets(DATE.toString(), Arrays.asList("first", "unknown"));
+
+        assertEquals(Status.NOT_FOUND.getStatusCode(), response.getStatus());
+    }
+
+    @Test
+    public void withoutWorkersTheBoundOnesAreUsed() {
+        List<Worker> bound = Arrays.asList(first, second);
+        expect(workerDAO.getBound()).andReturn(bound).once();
+        givenPersonalTimesheetsOf(bound);
+        replay(workerDAO, personalTimesheetsAreaModel);
+
+        Response response = boundUserService.getPersonalTimesheets(DATE.toString(), Collections.<String> emptyList());
+
+        assertEquals(Status.OK.getStatusCode(), response.getStatus());
+        verify(workerDAO, personalTimesheetsAreaModel);
+    }
+
+    @Test
+    public void theWorkersAreSummarizedInTheRequestedOrder() {
+        givenWorkersWithCodes(first, second);
+        givenPersonalTimesheetsOf(Arrays.asList(second, first));
+        replay(workerDAO, personalTimesheetsAreaModel);
+
+        Response response = boundUserService.getPersonalTimesheets(DATE.toString(), Arrays.asList("second", "first"));
+
+        assertEquals(Status.OK.getStatusCode(), response.getStatus());
+        List<PersonalTimesheetSummaryDTO> summaries = ((PersonalTimesheetSummaryListDTO) response.getEntity())
+                .summaries;
+        assertEquals(2, summaries.size());
+
+        PersonalTimesheetSummaryDTO summary = summaries.get(0);
+        assertEquals("SECOND", summary.resource);
+        assertEquals(DateConverter.toXMLGregorianCalendar(new LocalDate(2026, 2, 1)), summary.startDate);
+        assertEquals(DateConverter.toXMLGregorianCalendar(new LocalDate(2026, 2, 28)), summary.endDate);
+        assertEquals(EffortDuration.hours(160).toFormattedString(), summary.capacity);
+        assertEquals(EffortDuration.hours(10).toFormattedString(), summary.effort);
+        assertEquals(1, summary.tasksNumber);
+        assertEquals(0, summary.entries.size());
+
+        assertEquals("FIRST", summaries.get(1).resource);
+        assertEquals(2, summaries.get(1).tasksNumber);
+    }
+
+}
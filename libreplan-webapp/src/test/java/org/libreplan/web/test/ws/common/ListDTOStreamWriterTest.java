@@ -0,0 +1,131 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.web.test.ws.common;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.libreplan.ws.common.impl.ListDTOStreamWriter;
+import org.libreplan.ws.resources.api.MachineDTO;
+import org.libreplan.ws.resources.api.ResourceDTO;
+import org.libreplan.ws.resources.api.ResourceListDTO;
+import org.libreplan.ws.resources.api.WorkerDTO;
+import org.w3c.dom.Document;
+
+/**
+ * Tests for {@link ListDTOStreamWriter}.
+ */
+public class ListDTOStreamWriterTest {
+
+    private static byte[] marshal(ResourceListDTO listDTO) throws Exception {
+        Marshaller marshaller = JAXBContext.newInstance(ResourceListDTO.class).createMarshaller();
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        marshaller.marshal(listDTO, result);
+
+        return result.toByteArray();
+    }
+
+    private static byte[] stream(List<List<? extends ResourceDTO>> pages) throws Exception {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        ListDTOStreamWriter writer = new ListDTOStreamWriter(result);
+        for (List<? extends ResourceDTO> each : pages) {
+            writer.write(new ResourceListDTO(each));
+        }
+        writer.close();
+
+        return result.toByteArray();
+    }
+
+    private static Document parse(byte[] xml) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document result = factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+        result.normalizeDocument();
+
+        return result;
+    }
+
+    private static void assertSameDocument(byte[] expected, byte[] actual) throws Exception {
+        assertTrue(new String(actual, "UTF-8"), parse(expected).isEqualNode(parse(actual)));
+    }
+
+    private static List<ResourceDTO> all(List<List<? extends ResourceDTO>> pages) {
+        List<ResourceDTO> result = new ArrayList<>();
+        for (List<? extends ResourceDTO> each : pages) {
+            result.addAll(each);
+        }
+
+        return result;
+    }
+
+    private static WorkerDTO worker(String code) {
+        return new WorkerDTO(code, "First name " + code, "Surname", "NIF-" + code);
+    }
+
+    private static MachineDTO machine(String code) {
+        return new MachineDTO(code, "Machine " + code, "Machine <" + code + "> & co.");
+    }
+
+    @Test
+    public void thePagesAreWrittenAsASingleList() throws Exception {
+        List<List<? extends ResourceDTO>> pages = Arrays.<List<? extends ResourceDTO>> asList(
+                Arrays.asList(worker("w1"), worker("w2")),
+                Arrays.asList(worker("w3"), machine("m1")),
+                Arrays.asList(machine("m2")));
+
+        assertSameDocument(marshal(new ResourceListDTO(all(pages))), stream(pages));
+    }
+
+    @Test
+    public void theEmptyPagesAreSkipped() throws Exception {
+        List<List<? extends ResourceDTO>> pages = Arrays.<List<? extends ResourceDTO>> asList(
+                Collections.<ResourceDTO> emptyList(),
+                Arrays.asList(worker("w1")),
+                Collections.<ResourceDTO> emptyList(),
+                Arrays.asList(machine("m1")),
+                Collections.<ResourceDTO> emptyList());
+
+        assertSameDocument(marshal(new ResourceListDTO(all(pages))), stream(pages));
+    }
+
+    @Test
+    public void anEmptyListIsAnEmptyRootElement() throws Exception {
+        List<List<? extends ResourceDTO>> pages = Collections.<List<? extends ResourceDTO>> singletonList(
+                Collections.<ResourceDTO> emptyList());
+
+        assertSameDocument(marshal(new ResourceListDTO(Collections.<ResourceDTO> emptyList())), stream(pages));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void someListMustBeWrittenBeforeClosing() throws Exception {
+        new ListDTOStreamWriter(new ByteArrayOutputStream()).close();
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.users.dashboard;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.same;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.CalendarData.Days;
+import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.common.daos.IConfigurationDAO;
+import org.libreplan.business.common.entities.Configuration;
+import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.daos.IWorkReportDAO;
+import org.libreplan.business.workreports.entities.WorkReport;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.entities.WorkReportType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests for the personal timesheets of several workers in
+ * {@link PersonalTimesheetsAreaModel}.
+ */
+public class PersonalTimesheetsAreaModelTest {
+
+    private static final LocalDate DATE = new LocalDate(2026, 2, 10);
+
+    private PersonalTimesheetsAreaModel model;
+
+    private IWorkReportDAO workReportDAO;
+
+    private Worker first;
+
+    private Worker second;
+
+    @Before
+    public void setUp() {
+        model = new PersonalTimesheetsAreaModel();
+        workReportDAO = createNiceMock(IWorkReportDAO.class);
+        ReflectionTestUtils.setField(model, "workReportDAO", workReportDAO);
+        ReflectionTestUtils.setField(model, "configurationDAO", givenConfigurationDAO());
+
+        first = givenWorker(1L, "first");
+        second = givenWorker(2L, "second");
+    }
+
+    private IConfigurationDAO givenConfigurationDAO() {
+        Configuration configuration = Configuration.create();
+        configuration.setPersonalTimesheetsPeriodicity(PersonalTimesheetsPeriodicityEnum.MONTHLY);
+
+        IConfigurationDAO configurationDAO = createNiceMock(IConfigurationDAO.class);
+        expect(configurationDAO.getConfiguration()).andReturn(configuration).anyTimes();
+        replay(configurationDAO);
+        return configurationDAO;
+    }
+
+    private Worker givenWorker(Long id, String name) {
+        ResourceCalendar calendar = ResourceCalendar.create();
+        calendar.setStartDate(calendar.getFistCalendarAvailability(), new LocalDate(2026, 1, 1));
+        Capacity eightHours = Capacity.create(EffortDuration.hours(8)).overAssignableWithoutLimit();
+        for (Days each : Days.values()) {
+            calendar.setCapacityAt(each, eightHours);
+        }
+
+        Worker worker = Worker.create(name, name, name);
+        ReflectionTestUtils.setField(worker, "id", id);
+        worker.setCalendar(calendar);
+        return worker;
+    }
+
+    private void givenPersonalTimesheets(Map<Long, WorkReport> workReports) {
+        expect(workReportDAO.getPersonalTimesheetWorkReports(anyObject(Collection.class), anyObject(LocalDate.class),
+                anyObject(PersonalTimesheetsPeriodicityEnum.class))).andReturn(workReports).anyTimes();
+        replay(workReportDAO);
+    }
+
+    private WorkReport givenPersonalTimesheet(Worker worker) {
+        WorkReport workReport = WorkReport.create(WorkReportType.create("personal", "personal"));
+        workReport.setResource(worker);
+
+        OrderElement task = givenTask(1L);
+        addLine(workReport, task, EffortDuration.hours(3));
+        addLine(workReport, task, EffortDuration.hours(2));
+        addLine(workReport, givenTask(2L), EffortDuration.hours(1));
+        addLine(workReport, givenTask(3L), EffortDuration.zero());
+        return workReport;
+    }
+
+    private OrderElement givenTask(Long id) {
+        OrderLine task = OrderLine.create();
+        ReflectionTestUtils.setField(task, "id", id);
+        return task;
+    }
+
+    private void addLine(WorkReport workReport, OrderElement task, EffortDuration effort) {
+        WorkReportLine line = WorkReportLine.create(workReport);
+        line.setOrderElement(task);
+        line.setEffort(effort);
+        workReport.addWorkReportLine(line);
+    }
+
+    @Test
+    public void theTimesheetsOfAllTheWorkersAreRetrievedAtOnce() {
+        List<Worker> workers = Arrays.asList(first, second);
+        expect(workReportDAO.getPersonalTimesheetWorkReports(same(workers), same(DATE),
+                same(PersonalTimesheetsPeriodicityEnum.MONTHLY))).andReturn(new HashMap<Long, WorkReport>()).once();
+        replay(workReportDAO);
+
+        model.getPersonalTimesheets(workers, DATE);
+
+        verify(workReportDAO);
+    }
+
+    @Test
+    public void theWorkersKeepTheirOrder() {
+        givenPersonalTimesheets(new HashMap<Long, WorkReport>());
+
+        Map<Worker, PersonalTimesheetDTO> result = model.getPersonalTimesheets(Arrays.asList(second, first), DATE);
+
+        assertEquals(Arrays.asList(second, first), new ArrayList<>(result.keySet()));
+    }
+
+    @Test
+    public void theTimesheetOfAWorkerIsSummarized() {
+        WorkReport workReport = givenPersonalTimesheet(first);
+        Map<Long, WorkReport> workReports = new HashMap<>();
+        workReports.put(first.getId(), workReport);
+        List<Worker> workers = Arrays.asList(first, second);
+        expect(workReportDAO.getPersonalTimesheetWorkReports(same(workers), same(DATE),
+                same(PersonalTimesheetsPeriodicityEnum.MONTHLY))).andReturn(workReports);
+        replay(workReportDAO);
+
+        PersonalTimesheetDTO personalTimesheet = model.getPersonalTimesheets(workers, DATE).get(first);
+
+        assertSame(workReport, personalTimesheet.getWorkReport());
+        assertEquals(new LocalDate(2026, 2, 1), personalTimesheet.getDate());
+        assertEquals(EffortDuration.hours(6), personalTimesheet.getTotalHours());
+        assertEquals(2, personalTimesheet.getTasksNumber());
+    }
+
+    @Test
+    public void aWorkerWithoutTimesheetHasNoEffort() {
+        givenPersonalTimesheets(new HashMap<Long, WorkReport>());
+
+        PersonalTimesheetDTO personalTimesheet = model.getPersonalTimesheets(Arrays.asList(first, second), DATE)
+                .get(second);
+
+        assertNull(personalTimesheet.getWorkReport());
+        assertEquals(EffortDuration.zero(), personalTimesheet.getTotalHours());
+        assertEquals(0, personalTimesheet.getTasksNumber());
+    }
+
+    @Test
+    public void theCapacityComesFromTheCalendarOfEachWorker() {
+        second.getCalendar().setCapacityAt(Days.SATURDAY, Capacity.zero());
+        second.getCalendar().setCapacityAt(Days.SUNDAY, Capacity.zero());
+        givenPersonalTimesheets(new HashMap<Long, WorkReport>());
+
+        Map<Worker, PersonalTimesheetDTO> result = model.getPersonalTimesheets(Arrays.asList(first, second), DATE);
+
+        // February 2026 has 28 days, 20 of them from Monday to Friday
+        assertEquals(EffortDuration.hours(28 * 8), result.get(first).getResourceCapacity());
+        assertEquals(EffortDuration.hours(20 * 8), result.get(second).getResourceCapacity());
+    }
+
+}